@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.List;
+
+/**
+ * ColumnBindable is implemented by a {@link Directive} that looks up columns by name in every row.
+ *
+ * <p>When the columns of the input to a recipe are known, the framework works out the columns each directive
+ * will see, based on the {@link io.cdap.wrangler.api.lineage.Lineage} of the directives before it, and binds
+ * the slots of the directive to the positions of the columns. The directive uses {@link ColumnSlot#find(Row)}
+ * to look up the column, which avoids the search by name when the position is right.</p>
+ *
+ * <code>
+ *   public void initialize(Arguments args) {
+ *     column = new ColumnSlot(((ColumnName) args.value("column")).value());
+ *   }
+ *
+ *   public List<ColumnSlot> slots() {
+ *     return Collections.singletonList(column);
+ *   }
+ * </code>
+ */
+@PublicEvolving
+public interface ColumnBindable {
+  /**
+   * @return slots of the columns the directive looks up, that are bound after the directive is initialized.
+   */
+  List<ColumnSlot> slots();
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.io.Serializable;
+
+/**
+ * ColumnSlot is a reference to a column by name, along with the position the column is expected at in the rows.
+ *
+ * <p>The position is bound once per recipe when the columns of the input are known, see {@link ColumnBindable}.
+ * Looking up the column checks that the column at the bound position has the expected name, and falls back to
+ * finding the column by name when it does not or when the slot is not bound. So a slot always finds the same
+ * column as {@link Row#find(String)} does, as long as the row doesn't have multiple columns with the name.</p>
+ */
+@PublicEvolving
+public final class ColumnSlot implements Serializable {
+  private static final long serialVersionUID = -2425376318209378232L;
+  private final String name;
+  private volatile int position = -1;
+
+  public ColumnSlot(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return name of the column.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return position the column is bound to, -1 if the slot is not bound.
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Binds the slot to a position in the row.
+   *
+   * @param position of the column in the row, -1 to look up the column by name.
+   */
+  public void bind(int position) {
+    this.position = position;
+  }
+
+  /**
+   * Finds the index of the column in the row.
+   *
+   * @param row to be searched for the column.
+   * @return -1 if not present, else the index at which the column is found.
+   */
+  public int find(Row row) {
+    int idx = position;
+    if (idx >= 0 && idx < row.length() && name.equalsIgnoreCase(row.getColumn(idx))) {
+      return idx;
+    }
+    return row.find(name);
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+/**
+ * ColumnarDirective is implemented by a {@link Directive} that can also be applied to a {@link RowBatch}.
+ *
+ * <p>When a block of rows with the same columns is executed, the framework converts it into a {@link RowBatch}
+ * and invokes this method instead of {@link Executor#execute(Object, ExecutorContext)}. Applying the directive
+ * to the batch must have the same effect as applying it to each of the rows. As a batch has a fixed number of
+ * rows, only directives that neither filter nor generate rows can implement this interface.</p>
+ *
+ * <code>
+ *   public final class Drop implements Directive, ColumnarDirective {
+ *     ...
+ *     public void execute(RowBatch batch, ExecutorContext context) {
+ *       int idx = batch.find(column);
+ *       if (idx != -1) {
+ *         batch.remove(idx);
+ *       }
+ *     }
+ *   }
+ * </code>
+ */
+@PublicEvolving
+public interface ColumnarDirective {
+  /**
+   * Checks if this instance of the directive can be applied to batches. A directive that has a columnar
+   * implementation only for some of its arguments returns false for the rest, in which case it is applied to
+   * the rows instead.
+   *
+   * @return true if {@link #execute(RowBatch, ExecutorContext)} can be used.
+   */
+  default boolean isColumnar() {
+    return true;
+  }
+
+  /**
+   * Executes the directive on all the rows of the batch.
+   *
+   * @param batch of rows to be wrangled by this step, modified in place.
+   * @param context {@link ExecutorContext} passed to each step.
+   */
+  void execute(RowBatch batch, ExecutorContext context) throws DirectiveExecutionException;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+/**
+ * DeterministicDirective is implemented by a {@link Directive} whose output might not only depend on the rows it's
+ * executed on and its arguments, such as one reading the current time, generating random values or calling an
+ * external service.
+ *
+ * <p>Directives that don't implement it are only assumed to be deterministic when they are annotated with
+ * {@link io.cdap.wrangler.api.annotations.RowIndependent}. The output of the directives of a recipe up to one that
+ * isn't deterministic may be kept and reused when the same directives are executed again on the same rows, while
+ * the output of that directive and the ones after it is always computed again.</p>
+ */
+@PublicEvolving
+public interface DeterministicDirective {
+  /**
+   * Checks if this instance of the directive always gives the same output for the same rows.
+   *
+   * @return true if the output only depends on the rows executed and the arguments of the directive.
+   */
+  boolean isDeterministic();
+}
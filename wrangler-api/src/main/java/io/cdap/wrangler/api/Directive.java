@@ -50,6 +50,11 @@ import java.util.List;
  *     }
  *   }
  * </code>
+ *
+ * <p>Unless the directive is annotated with {@link io.cdap.wrangler.api.annotations.ThreadSafe}, an instance
+ * is only ever invoked by one thread at a time, and executing a recipe on multiple threads creates an
+ * instance per thread. Annotated directives are shared by all the threads, unless the instance is a stateful
+ * {@link StatefulDirective}.</p>
  */
 public interface Directive extends Executor<List<Row>, List<Row>> {
   /**
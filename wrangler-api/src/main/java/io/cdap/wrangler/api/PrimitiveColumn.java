@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.BitSet;
+
+/**
+ * PrimitiveColumn holds the values of a column of a {@link RowBatch} that are all of the same primitive type.
+ *
+ * <p>The values are held unboxed, in a {@code long[]} for {@link Type#SHORT}, {@link Type#INT} and
+ * {@link Type#LONG}, in a {@code double[]} for {@link Type#FLOAT} and {@link Type#DOUBLE}, and in a
+ * {@code boolean[]} for {@link Type#BOOLEAN}, along with a bitmap of the null values. The type is the type of
+ * the boxed values the column stands for, which is what {@link #get(int)} returns, so a batch can hold its
+ * values either boxed or unboxed without any difference for the rows it is converted into.</p>
+ */
+@PublicEvolving
+public final class PrimitiveColumn {
+  /**
+   * Type of the values held by a column.
+   */
+  public enum Type {
+    SHORT,
+    INT,
+    LONG,
+    FLOAT,
+    DOUBLE,
+    BOOLEAN;
+
+    /**
+     * @return true if the values are held as longs.
+     */
+    public boolean isIntegral() {
+      return this == SHORT || this == INT || this == LONG;
+    }
+
+    /**
+     * @return true if the values are held as doubles.
+     */
+    public boolean isFloatingPoint() {
+      return this == FLOAT || this == DOUBLE;
+    }
+  }
+
+  private final Type type;
+  private final int size;
+  private final long[] longs;
+  private final double[] doubles;
+  private final boolean[] booleans;
+  private final BitSet nulls;
+
+  /**
+   * Creates a column of the given type with all the values set to null.
+   *
+   * @param type of the values of the column.
+   * @param size number of values in the column.
+   */
+  public PrimitiveColumn(Type type, int size) {
+    this.type = type;
+    this.size = size;
+    this.longs = type.isIntegral() ? new long[size] : null;
+    this.doubles = type.isFloatingPoint() ? new double[size] : null;
+    this.booleans = type == Type.BOOLEAN ? new boolean[size] : null;
+    this.nulls = new BitSet(size);
+    nulls.set(0, size);
+  }
+
+  /**
+   * Returns the type of the boxed value, or null if it is not one of the types a column can hold.
+   */
+  public static Type typeOf(Object value) {
+    if (value instanceof Integer) {
+      return Type.INT;
+    } else if (value instanceof Long) {
+      return Type.LONG;
+    } else if (value instanceof Double) {
+      return Type.DOUBLE;
+    } else if (value instanceof Float) {
+      return Type.FLOAT;
+    } else if (value instanceof Short) {
+      return Type.SHORT;
+    } else if (value instanceof Boolean) {
+      return Type.BOOLEAN;
+    }
+    return null;
+  }
+
+  /**
+   * Creates a column from boxed values, if all of them are either null or of the same type.
+   *
+   * @param values to be unboxed.
+   * @return column holding the values, or null if the values are of different or unsupported types, or all null.
+   */
+  public static PrimitiveColumn of(Object[] values) {
+    Type type = null;
+    for (Object value : values) {
+      if (value == null) {
+        continue;
+      }
+      Type valueType = typeOf(value);
+      if (valueType == null || (type != null && type != valueType)) {
+        return null;
+      }
+      type = valueType;
+    }
+    if (type == null) {
+      return null;
+    }
+
+    PrimitiveColumn column = new PrimitiveColumn(type, values.length);
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      if (value == null) {
+        continue;
+      }
+      if (type.isIntegral()) {
+        column.setLong(i, ((Number) value).longValue());
+      } else if (type.isFloatingPoint()) {
+        column.setDouble(i, ((Number) value).doubleValue());
+      } else {
+        column.setBoolean(i, (Boolean) value);
+      }
+    }
+    return column;
+  }
+
+  /**
+   * @return type of the values of the column.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * @return number of values in the column.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if any of the values of the column is null.
+   */
+  public boolean hasNulls() {
+    return !nulls.isEmpty();
+  }
+
+  /**
+   * @return true if the value at the index is null.
+   */
+  public boolean isNull(int idx) {
+    return nulls.get(idx);
+  }
+
+  /**
+   * Sets the value at the index to null.
+   */
+  public void setNull(int idx) {
+    nulls.set(idx);
+  }
+
+  /**
+   * @return value at the index of an integral column, 0 if the value is null.
+   */
+  public long getLong(int idx) {
+    return longs[idx];
+  }
+
+  /**
+   * Sets the value at the index of an integral column, which has to be in the range of the type of the column.
+   */
+  public void setLong(int idx, long value) {
+    longs[idx] = value;
+    nulls.clear(idx);
+  }
+
+  /**
+   * @return value at the index of a floating point column, 0 if the value is null.
+   */
+  public double getDouble(int idx) {
+    return doubles[idx];
+  }
+
+  /**
+   * Sets the value at the index of a floating point column. Values of {@link Type#FLOAT} columns have to be
+   * floats widened to double.
+   */
+  public void setDouble(int idx, double value) {
+    doubles[idx] = value;
+    nulls.clear(idx);
+  }
+
+  /**
+   * @return value at the index of a boolean column, false if the value is null.
+   */
+  public boolean getBoolean(int idx) {
+    return booleans[idx];
+  }
+
+  /**
+   * Sets the value at the index of a boolean column.
+   */
+  public void setBoolean(int idx, boolean value) {
+    booleans[idx] = value;
+    nulls.clear(idx);
+  }
+
+  /**
+   * Gets the value at the index, boxed into the type the column stands for.
+   *
+   * @param idx of the value.
+   * @return boxed value, or null.
+   */
+  public Object get(int idx) {
+    if (nulls.get(idx)) {
+      return null;
+    }
+    switch (type) {
+      case SHORT:
+        return (short) longs[idx];
+      case INT:
+        return (int) longs[idx];
+      case LONG:
+        return longs[idx];
+      case FLOAT:
+        return (float) doubles[idx];
+      case DOUBLE:
+        return doubles[idx];
+      default:
+        return booleans[idx];
+    }
+  }
+
+  /**
+   * @return the values of the column, boxed.
+   */
+  public Object[] toArray() {
+    Object[] values = new Object[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = get(i);
+    }
+    return values;
+  }
+}
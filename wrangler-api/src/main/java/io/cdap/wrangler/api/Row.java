@@ -22,21 +22,39 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Row defines the schema and data on which the wrangler will operate upon.
  */
 @PublicEvolving
 public final class Row implements Serializable {
+  // Rows are persisted using java serialization in workspaces, so the version is pinned to the one
+  // computed for the class before it was declared.
+  private static final long serialVersionUID = 9099281122577060429L;
   private static final Logger LOG = LoggerFactory.getLogger(Row.class);
 
+  // Rows with fewer columns than this are searched linearly, as that is cheaper than building an index.
+  private static final int INDEX_THRESHOLD = 16;
+
   // Name of the columns held by the row.
   private List<String> columns = new ArrayList<>();
 
   // Values held by the row.
   private List<Object> values = new ArrayList<>();
 
+  // Lazily built index of lower case column name to the position of the first column with that name.
+  private transient Map<String, Integer> index;
+
+  // Set when the column names are shared with other rows of a RowBatch, they are copied before being modified.
+  private boolean sharedColumns;
+
+  // Set when the values are shared with a copy of the row, they are copied before being modified.
+  private boolean sharedValues;
+
   public Row() {
   }
 
@@ -50,6 +68,18 @@ public final class Row implements Serializable {
     this.columns = new ArrayList<>(row.columns);
   }
 
+  /**
+   * Initializes a row with the column names shared with other rows.
+   *
+   * @param sharedColumns columns of the row, which are not modified by the row.
+   * @param values of the row.
+   */
+  Row(List<String> sharedColumns, List<Object> values) {
+    this.columns = sharedColumns;
+    this.values = values;
+    this.sharedColumns = true;
+  }
+
   /**
    * Initializes a row with list of columns.
    *
@@ -72,6 +102,20 @@ public final class Row implements Serializable {
     this.values.add(value);
   }
 
+  /**
+   * Makes a copy of the row that shares the column names and values with this row, until either of them is
+   * modified. This is cheaper than {@link #Row(Row)} for rows that are mostly read.
+   *
+   * @return copy of the row.
+   */
+  public Row copyOnWrite() {
+    Row copy = new Row(columns, values);
+    copy.sharedValues = true;
+    sharedColumns = true;
+    sharedValues = true;
+    return copy;
+  }
+
   /**
    * Gets a column name by index.
    *
@@ -89,7 +133,9 @@ public final class Row implements Serializable {
    * @param name of the column to be set at idx.
    */
   public void setColumn(int idx, String name) {
+    ownColumns();
     columns.set(idx, name);
+    index = null;
   }
 
   /**
@@ -125,6 +171,7 @@ public final class Row implements Serializable {
    * @param value value to be updated at index (idx).
    */
   public Row setValue(int idx, Object value) {
+    ownValues();
     values.set(idx, value);
     return this;
   }
@@ -136,8 +183,13 @@ public final class Row implements Serializable {
    * @param value to be added to row.
    */
   public Row add(String name, Object value) {
+    ownColumns();
+    ownValues();
     columns.add(name);
     values.add(value);
+    if (index != null) {
+      index.putIfAbsent(key(name), columns.size() - 1);
+    }
     return this;
   }
 
@@ -147,8 +199,11 @@ public final class Row implements Serializable {
    * @param idx for which the value and column are removed.
    */
   public Row remove(int idx) {
+    ownColumns();
+    ownValues();
     columns.remove(idx);
     values.remove(idx);
+    index = null;
     return this;
   }
 
@@ -159,14 +214,63 @@ public final class Row implements Serializable {
    * @return null if not present, else the index at which the column is found.
    */
   public int find(String col) {
-    int idx = 0;
-    for (String name : columns) {
-      if (col.equalsIgnoreCase(name)) {
-        return idx;
+    if (columns.size() < INDEX_THRESHOLD) {
+      int idx = 0;
+      for (String name : columns) {
+        if (col.equalsIgnoreCase(name)) {
+          return idx;
+        }
+        idx++;
       }
-      idx++;
+      return -1;
     }
-    return -1;
+
+    if (index == null) {
+      index = new HashMap<>(columns.size() * 2);
+      for (int i = 0; i < columns.size(); i++) {
+        index.putIfAbsent(key(columns.get(i)), i);
+      }
+    }
+    Integer idx = index.get(key(col));
+    return idx == null ? -1 : idx;
+  }
+
+  /**
+   * Checks if the row has the same columns, in the same order, as another row.
+   *
+   * @param other row to be compared with.
+   * @return true if the names of the columns are the same.
+   */
+  boolean hasSameColumns(Row other) {
+    return columns == other.columns || columns.equals(other.columns);
+  }
+
+  /**
+   * Makes a private copy of the column names, if they are shared with other rows.
+   */
+  private void ownColumns() {
+    if (sharedColumns) {
+      columns = new ArrayList<>(columns);
+      sharedColumns = false;
+    }
+  }
+
+  /**
+   * Makes a private copy of the values, if they are shared with a copy of the row.
+   */
+  private void ownValues() {
+    if (sharedValues) {
+      values = new ArrayList<>(values);
+      sharedValues = false;
+    }
+  }
+
+  /**
+   * @return the key used in the column index for the name of the column.
+   */
+  private static String key(String name) {
+    // toLowerCase returns the same instance when there is nothing to convert, which is usually the case.
+    return name == null ? null : name.toLowerCase(Locale.ROOT);
   }
 
   /**
@@ -217,8 +321,11 @@ public final class Row implements Serializable {
       setValue(idx, value);
     } else {
       if (index < columns.size() && index < values.size()) {
+        ownColumns();
+        ownValues();
         columns.add(index, name);
         values.add(index, value);
+        this.index = null;
       }
     }
   }
@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RowBatch is a columnar representation of a block of {@link Row}s that have the same columns.
+ *
+ * <p>The names of the columns are held once for the whole batch and the values are held in an array
+ * per column, which allows directives implementing {@link ColumnarDirective} to operate on whole columns.
+ * Batches are converted from and to rows using {@link #of(List)} and {@link #toRows()}. The rows created from
+ * a batch share a single list of column names, that is copied by a row only when its columns are modified.</p>
+ *
+ * <p>A column whose values are all of the same primitive type can also be held unboxed, as a
+ * {@link PrimitiveColumn}, so that a sequence of numeric directives doesn't box every value it produces.
+ * The values are boxed only when they are read one by one, or when the batch is converted into rows.</p>
+ */
+@PublicEvolving
+public final class RowBatch {
+  // Name of the columns held by the batch.
+  private final List<String> columns;
+
+  // Values of the batch, an array per column each holding a value per row, or null if the column is primitive.
+  private final List<Object[]> values;
+
+  // Primitive columns of the batch, null for the columns whose values are boxed.
+  private final List<PrimitiveColumn> primitives;
+
+  // Number of rows in the batch.
+  private final int size;
+
+  private RowBatch(List<String> columns, List<Object[]> values, int size) {
+    this.columns = columns;
+    this.values = values;
+    this.primitives = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      primitives.add(null);
+    }
+    this.size = size;
+  }
+
+  /**
+   * Creates a batch from rows, if all of them have the same columns in the same order.
+   *
+   * @param rows to be converted into a batch.
+   * @return a batch holding values of all the rows, or null if the rows are empty or have different columns.
+   */
+  public static RowBatch of(List<Row> rows) {
+    if (rows.isEmpty()) {
+      return null;
+    }
+    Row first = rows.get(0);
+    for (Row row : rows) {
+      if (!row.hasSameColumns(first)) {
+        return null;
+      }
+    }
+
+    int width = first.length();
+    List<String> columns = new ArrayList<>(width);
+    List<Object[]> values = new ArrayList<>(width);
+    for (int i = 0; i < width; i++) {
+      columns.add(first.getColumn(i));
+      values.add(new Object[rows.size()]);
+    }
+    for (int r = 0; r < rows.size(); r++) {
+      Row row = rows.get(r);
+      for (int c = 0; c < width; c++) {
+        values.get(c)[r] = row.getValue(c);
+      }
+    }
+    return new RowBatch(columns, values, rows.size());
+  }
+
+  /**
+   * @return number of rows in the batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return number of columns in the batch.
+   */
+  public int width() {
+    return columns.size();
+  }
+
+  /**
+   * Gets a column name by index.
+   *
+   * @param idx to retrieve the name of the column.
+   * @return name of the column.
+   */
+  public String getColumn(int idx) {
+    return columns.get(idx);
+  }
+
+  /**
+   * Sets the name of the column at a given index.
+   *
+   * @param idx at which the new name to be set.
+   * @param name of the column to be set at idx.
+   */
+  public void setColumn(int idx, String name) {
+    columns.set(idx, name);
+  }
+
+  /**
+   * Finds a column index based on the name of the column, ignoring case as {@link Row#find(String)} does.
+   *
+   * @param col to be searched within the batch.
+   * @return -1 if not present, else the index at which the column is found.
+   */
+  public int find(String col) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (col.equalsIgnoreCase(columns.get(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the value of a column of a row.
+   *
+   * @param row index of the row within the batch.
+   * @param column index of the column.
+   * @return value of the column in the row.
+   */
+  public Object getValue(int row, int column) {
+    PrimitiveColumn primitive = primitives.get(column);
+    if (primitive != null) {
+      return primitive.get(row);
+    }
+    return values.get(column)[row];
+  }
+
+  /**
+   * Sets the value of a column of a row.
+   *
+   * @param row index of the row within the batch.
+   * @param column index of the column.
+   * @param value to be set.
+   */
+  public void setValue(int row, int column, Object value) {
+    boxed(column)[row] = value;
+  }
+
+  /**
+   * Replaces the values of a column.
+   *
+   * @param column index of the column.
+   * @param values of the column, one per row of the batch.
+   */
+  public void setValues(int column, Object[] values) {
+    checkSize(values.length);
+    this.values.set(column, values);
+    primitives.set(column, null);
+  }
+
+  /**
+   * Gets the values of a column unboxed, unboxing them if they are all of the same primitive type.
+   *
+   * <p>The column returned is held by the batch, until the values of the column are modified using
+   * {@link #setValue(int, int, Object)} or replaced.</p>
+   *
+   * @param column index of the column.
+   * @return values of the column, or null if they are of different or unsupported types, or all null.
+   */
+  public PrimitiveColumn getPrimitive(int column) {
+    PrimitiveColumn primitive = primitives.get(column);
+    if (primitive == null) {
+      primitive = PrimitiveColumn.of(values.get(column));
+      if (primitive != null) {
+        setPrimitive(column, primitive);
+      }
+    }
+    return primitive;
+  }
+
+  /**
+   * Replaces the values of a column with primitive values.
+   *
+   * @param column index of the column.
+   * @param primitive values of the column, one per row of the batch.
+   */
+  public void setPrimitive(int column, PrimitiveColumn primitive) {
+    checkSize(primitive.size());
+    primitives.set(column, primitive);
+    values.set(column, null);
+  }
+
+  /**
+   * Adds a column at the end of the batch, as {@link Row#add(String, Object)} adds a column to a row.
+   *
+   * @param name of the column.
+   * @param column values of the column, one per row of the batch.
+   * @return index of the column added.
+   */
+  public int add(String name, Object[] column) {
+    checkSize(column.length);
+    columns.add(name);
+    values.add(column);
+    primitives.add(null);
+    return columns.size() - 1;
+  }
+
+  /**
+   * Adds a column of primitive values at the end of the batch.
+   *
+   * @param name of the column.
+   * @param primitive values of the column, one per row of the batch.
+   * @return index of the column added.
+   */
+  public int add(String name, PrimitiveColumn primitive) {
+    int idx = add(name, new Object[size]);
+    setPrimitive(idx, primitive);
+    return idx;
+  }
+
+  private Object[] boxed(int column) {
+    Object[] boxed = values.get(column);
+    if (boxed == null) {
+      boxed = primitives.get(column).toArray();
+      values.set(column, boxed);
+      primitives.set(column, null);
+    }
+    return boxed;
+  }
+
+  private void checkSize(int length) {
+    if (length != size) {
+      throw new IllegalArgumentException(
+        String.format("Column has %d values, but the batch has %d rows.", length, size));
+    }
+  }
+
+  /**
+   * Removes the column and its values from the batch.
+   *
+   * @param idx of the column to be removed.
+   */
+  public void remove(int idx) {
+    columns.remove(idx);
+    values.remove(idx);
+    primitives.remove(idx);
+  }
+
+  /**
+   * Converts the batch into rows, all of which share the column names.
+   *
+   * @return a row for each of the rows in the batch.
+   */
+  public List<Row> toRows() {
+    List<String> shared = new ArrayList<>(columns);
+    List<Object[]> boxed = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      boxed.add(boxed(i));
+    }
+    List<Row> rows = new ArrayList<>(size);
+    for (int r = 0; r < size; r++) {
+      List<Object> row = new ArrayList<>(boxed.size());
+      for (Object[] column : boxed) {
+        row.add(column[r]);
+      }
+      rows.add(new Row(shared, row));
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+/**
+ * StatefulDirective is implemented by a {@link Directive} whose instances keep state derived from the rows they
+ * are executed on, depending on their arguments.
+ *
+ * <p>An instance that is stateful is never shared between threads, even if the directive is annotated with
+ * {@link io.cdap.wrangler.api.annotations.ThreadSafe}, and the rows it's executed on are never partitioned, even
+ * if the directive is annotated with {@link io.cdap.wrangler.api.annotations.RowIndependent}. For example,
+ * parsing CSV with a header takes the header from the first row it's executed on.</p>
+ */
+@PublicEvolving
+public interface StatefulDirective {
+  /**
+   * Checks if this instance of the directive keeps state derived from the rows it's executed on.
+   *
+   * @return true if the output for a row depends on the rows executed before it.
+   */
+  boolean isStateful();
+}
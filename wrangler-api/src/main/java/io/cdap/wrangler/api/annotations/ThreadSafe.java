@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation marks a directive whose instances can be shared between threads.
+ *
+ * <p>Once {@link io.cdap.wrangler.api.Directive#initialize} returns, the {@code execute} method of an annotated
+ * directive may be invoked by multiple threads at the same time, each with its own rows. State set up by
+ * {@code initialize} must not be modified afterwards. Directives without this annotation are only ever invoked
+ * by one thread at a time, and so are instances of annotated directives that derive state from the rows, such
+ * as the header of a CSV file, which implement {@link io.cdap.wrangler.api.StatefulDirective}.</p>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ThreadSafe {
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link RowBatch}.
+ */
+public class RowBatchTest {
+
+  @Test
+  public void testRoundTrip() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new Row("a", i).add("b", "v" + i));
+    }
+    RowBatch batch = RowBatch.of(rows);
+    Assert.assertNotNull(batch);
+    Assert.assertEquals(10, batch.size());
+    Assert.assertEquals(2, batch.width());
+    Assert.assertEquals(1, batch.find("B"));
+    Assert.assertEquals("v3", batch.getValue(3, 1));
+
+    batch.setColumn(0, "c");
+    batch.setValue(3, 0, 30);
+    batch.remove(1);
+
+    List<Row> result = batch.toRows();
+    Assert.assertEquals(10, result.size());
+    Assert.assertEquals(30, result.get(3).getValue("c"));
+    Assert.assertEquals(1, result.get(1).length());
+    Assert.assertEquals(-1, result.get(1).find("a"));
+  }
+
+  @Test
+  public void testDifferentColumns() {
+    List<Row> rows = Arrays.asList(new Row("a", 1), new Row("b", 2));
+    Assert.assertNull(RowBatch.of(rows));
+    Assert.assertNull(RowBatch.of(Collections.emptyList()));
+  }
+
+  @Test
+  public void testPrimitiveColumns() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      rows.add(new Row("a", i == 2 ? null : (long) i).add("b", i % 2 == 0).add("c", i == 1 ? "x" : 1.5d));
+    }
+    RowBatch batch = RowBatch.of(rows);
+
+    PrimitiveColumn longs = batch.getPrimitive(0);
+    Assert.assertEquals(PrimitiveColumn.Type.LONG, longs.getType());
+    Assert.assertTrue(longs.hasNulls());
+    Assert.assertTrue(longs.isNull(2));
+    Assert.assertEquals(3L, longs.getLong(3));
+    Assert.assertEquals(PrimitiveColumn.Type.BOOLEAN, batch.getPrimitive(1).getType());
+    Assert.assertNull(batch.getPrimitive(2));
+
+    PrimitiveColumn floats = new PrimitiveColumn(PrimitiveColumn.Type.FLOAT, 4);
+    for (int i = 0; i < 3; i++) {
+      floats.setDouble(i, i + 0.25f);
+    }
+    batch.add("d", floats);
+    batch.setValue(0, 0, "changed");
+
+    List<Row> result = batch.toRows();
+    Assert.assertEquals("changed", result.get(0).getValue("a"));
+    Assert.assertNull(result.get(2).getValue("a"));
+    Assert.assertEquals(3L, result.get(3).getValue("a"));
+    Assert.assertEquals(true, result.get(2).getValue("b"));
+    Assert.assertEquals("x", result.get(1).getValue("c"));
+    Assert.assertEquals(1.25f, result.get(1).getValue("d"));
+    Assert.assertNull(result.get(3).getValue("d"));
+  }
+
+  @Test
+  public void testSharedColumnsAreCopiedOnWrite() {
+    List<Row> rows = Arrays.asList(new Row("a", 1), new Row("a", 2));
+    List<Row> result = RowBatch.of(rows).toRows();
+
+    result.get(0).add("b", 3);
+    result.get(1).setColumn(0, "c");
+    Assert.assertEquals(2, result.get(0).length());
+    Assert.assertEquals("a", result.get(0).getColumn(0));
+    Assert.assertEquals(1, result.get(1).length());
+    Assert.assertEquals("c", result.get(1).getColumn(0));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks column lookup by name in {@link Row} for narrow and wide rows.
+ *
+ * <p>Each invocation looks up every column of the row once, which is what a recipe with a directive
+ * per column does. {@code linearFind} is the scan {@link Row#find(String)} used before the index, kept
+ * here as the baseline. Run with {@code java -cp <test classpath> io.cdap.wrangler.api.RowBenchmark}.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBenchmark {
+
+  @Param({"5", "50", "300"})
+  private int width;
+
+  private Row row;
+  private String[] lookups;
+
+  @Setup
+  public void setup() {
+    row = new Row();
+    lookups = new String[width];
+    for (int i = 0; i < width; i++) {
+      row.add("body_column_" + i, i);
+      // Lookups use a different case than the column, as directives arguments often do.
+      lookups[i] = "BODY_column_" + i;
+    }
+  }
+
+  @Benchmark
+  public void indexedFind(Blackhole blackhole) {
+    for (String lookup : lookups) {
+      blackhole.consume(row.find(lookup));
+    }
+  }
+
+  @Benchmark
+  public void linearFind(Blackhole blackhole) {
+    for (String lookup : lookups) {
+      blackhole.consume(linearFind(row, lookup));
+    }
+  }
+
+  private static int linearFind(Row row, String col) {
+    for (int i = 0; i < row.length(); i++) {
+      if (col.equalsIgnoreCase(row.getColumn(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+      .include(RowBenchmark.class.getSimpleName())
+      .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link Row}.
+ */
+public class RowTest {
+
+  @Test
+  public void testFindInWideRow() {
+    Row row = createRow(40);
+    Assert.assertEquals(5, row.find("col5"));
+    Assert.assertEquals(39, row.find("COL39"));
+    Assert.assertEquals(-1, row.find("unknown"));
+
+    row.add("New", 1);
+    Assert.assertEquals(40, row.find("new"));
+
+    // Duplicate names resolve to the first column.
+    row.add("NEW", 2);
+    Assert.assertEquals(40, row.find("new"));
+  }
+
+  @Test
+  public void testIndexFollowsMutations() {
+    Row row = createRow(40);
+    Assert.assertEquals(5, row.find("col5"));
+
+    row.remove(0);
+    Assert.assertEquals(4, row.find("col5"));
+    Assert.assertEquals(-1, row.find("col0"));
+
+    row.setColumn(4, "renamed");
+    Assert.assertEquals(-1, row.find("col5"));
+    Assert.assertEquals(4, row.find("RENAMED"));
+
+    row.addOrSetAtIndex(1, "inserted", 2);
+    Assert.assertEquals(1, row.find("inserted"));
+    Assert.assertEquals(5, row.find("renamed"));
+    Assert.assertEquals(2, row.getValue("inserted"));
+  }
+
+  @Test
+  public void testCopyOnWrite() {
+    Row row = new Row("a", 1).add("b", 2);
+    Row first = row.copyOnWrite();
+    Row second = row.copyOnWrite();
+
+    first.setValue(0, 10);
+    second.add("c", 3);
+    second.setColumn(1, "renamed");
+    row.remove(0);
+
+    Assert.assertEquals(10, first.getValue("a"));
+    Assert.assertEquals(2, first.length());
+    Assert.assertEquals(1, second.getValue("a"));
+    Assert.assertEquals(3, second.getValue("c"));
+    Assert.assertEquals("renamed", second.getColumn(1));
+    Assert.assertEquals(1, row.length());
+    Assert.assertEquals("b", row.getColumn(0));
+  }
+
+  @Test
+  public void testFindInNarrowRow() {
+    Row row = createRow(3);
+    Assert.assertEquals(2, row.find("COL2"));
+    row.remove(0);
+    Assert.assertEquals(1, row.find("col2"));
+    Assert.assertEquals(-1, row.find("col0"));
+  }
+
+  private static Row createRow(int width) {
+    Row row = new Row();
+    for (int i = 0; i < width; i++) {
+      row.add("Col" + i, i);
+    }
+    return row;
+  }
+}
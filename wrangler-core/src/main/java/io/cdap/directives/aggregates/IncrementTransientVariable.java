@@ -27,6 +27,7 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.parser.Expression;
 import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Numeric;
@@ -47,6 +48,7 @@ import java.util.List;
 @Name(IncrementTransientVariable.NAME)
 @Categories(categories = { "transient"})
 @Description("Wrangler - A interactive tool for data cleansing and transformation.")
+@ThreadSafe
 public class IncrementTransientVariable implements Directive {
   public static final String NAME = "increment-variable";
   private String variable;
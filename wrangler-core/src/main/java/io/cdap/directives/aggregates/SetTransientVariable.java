@@ -27,6 +27,7 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.parser.Expression;
 import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.TokenType;
@@ -48,6 +49,7 @@ import java.util.List;
 @Name(SetTransientVariable.NAME)
 @Categories(categories = { "transient"})
 @Description("Sets the value for a transient variable for the record being processed.")
+@ThreadSafe
 public class SetTransientVariable implements Directive {
   public static final String NAME = "set-variable";
   private final EL el = new EL(new EL.DefaultFunctions());
@@ -27,6 +27,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -44,6 +46,8 @@ import java.util.List;
 @Name(ChangeColCaseNames.NAME)
 @Categories(categories = { "column"})
 @Description("Changes the case of column names to either lowercase or uppercase.")
+@ThreadSafe
+@RowIndependent
 public class ChangeColCaseNames implements Directive, Lineage {
   public static final String NAME = "change-column-case";
   private boolean toLower;
@@ -26,6 +26,8 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -46,6 +48,8 @@ import java.util.List;
 @Name(ColumnsReplace.NAME)
 @Categories(categories = { "column"})
 @Description("Modifies column names in bulk using a sed-format expression.")
+@ThreadSafe
+@RowIndependent
 public class ColumnsReplace implements Directive, Lineage {
   public static final String NAME = "columns-replace";
   private String sed;
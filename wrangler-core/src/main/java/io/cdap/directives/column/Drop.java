@@ -20,12 +20,16 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -43,7 +47,9 @@ import java.util.List;
 @Name(Drop.NAME)
 @Categories(categories = { "column"})
 @Description("Drop one or more columns.")
-public class Drop implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class Drop implements Directive, ColumnarDirective, Lineage {
   public static final String NAME = "drop";
 
   // Columns to be dropped.
@@ -81,6 +87,16 @@ public class Drop implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) {
+    for (String column : columns) {
+      int idx = batch.find(column.trim());
+      if (idx != -1) {
+        batch.remove(idx);
+      }
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
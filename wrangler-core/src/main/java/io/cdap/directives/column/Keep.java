@@ -20,13 +20,17 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnNameList;
@@ -47,7 +51,9 @@ import java.util.Set;
 @Name("keep")
 @Categories(categories = { "column"})
 @Description("Keeps the specified columns and drops all others.")
-public class Keep implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class Keep implements Directive, ColumnarDirective, Lineage {
   public static final String NAME = "keep";
   private final Set<String> keep = new HashSet<>();
 
@@ -86,6 +92,18 @@ public class Keep implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) {
+    int idx = 0;
+    while (idx < batch.width()) {
+      if (!keep.contains(batch.getColumn(idx))) {
+        batch.remove(idx);
+      } else {
+        ++idx;
+      }
+    }
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
@@ -20,11 +20,15 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -40,7 +44,9 @@ import java.util.List;
 @Name(Rename.NAME)
 @Categories(categories = { "column"})
 @Description("Renames a column 'source' to 'target'")
-public final class Rename implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public final class Rename implements Directive, ColumnarDirective, Lineage {
   public static final String NAME = "rename";
   private ColumnName source;
   private ColumnName target;
@@ -75,16 +81,31 @@ public final class Rename implements Directive, Lineage {
         if (idxnew == -1) {
           row.setColumn(idx, target.value());
         } else {
-          throw new DirectiveExecutionException(
-            NAME, String.format("Column '%s' already exists. Apply the 'drop %s' directive before " +
-                                  "renaming '%s' to '%s'.",
-                                target.value(), target.value(), source.value(), target.value()));
+          throw targetExists();
         }
       }
     }
     return rows;
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = batch.find(source.value());
+    if (idx != -1) {
+      if (batch.find(target.value()) != -1) {
+        throw targetExists();
+      }
+      batch.setColumn(idx, target.value());
+    }
+  }
+
+  private DirectiveExecutionException targetExists() {
+    return new DirectiveExecutionException(
+      NAME, String.format("Column '%s' already exists. Apply the 'drop %s' directive before " +
+                            "renaming '%s' to '%s'.",
+                          target.value(), target.value(), source.value(), target.value()));
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -21,11 +21,18 @@ import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.ColumnSlot;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.PrimitiveColumn;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -33,20 +40,32 @@ import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
+import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * A Wrangler step for converting data type of a column
  * Accepted types are: int, short, long, double, float, string, boolean and bytes
+ *
+ * <p>When applied to a batch, a column that only holds strings or values of a single primitive type is
+ * converted into a {@link PrimitiveColumn} without boxing the values.</p>
  */
 @Plugin(type = "directives")
 @Name(SetType.NAME)
 @Categories(categories = {"column"})
 @Description("Converting data type of a column.")
-public final class SetType implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public final class SetType implements Directive, ColumnarDirective, ColumnBindable, Lineage {
   public static final String NAME = "set-type";
   private String col;
+  private ColumnSlot slot;
   private String type;
+  // Upper-cased type, to which the values are converted.
+  private String toType;
+  // Primitive type the values are converted to, or null if the type is not primitive.
+  private PrimitiveColumn.Type primitive;
 
   @Override
   public UsageDefinition define() {
@@ -59,7 +78,34 @@ public final class SetType implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) {
     col = ((ColumnName) args.value("column")).value();
+    slot = new ColumnSlot(col);
     type = ((Identifier) args.value("type")).value();
+    toType = type.toUpperCase();
+    primitive = getPrimitiveType(toType);
+  }
+
+  @Nullable
+  private static PrimitiveColumn.Type getPrimitiveType(String toType) {
+    switch (toType) {
+      case "INTEGER":
+      case "I64":
+      case "INT":
+        return PrimitiveColumn.Type.INT;
+      case "I32":
+      case "SHORT":
+        return PrimitiveColumn.Type.SHORT;
+      case "LONG":
+        return PrimitiveColumn.Type.LONG;
+      case "BOOL":
+      case "BOOLEAN":
+        return PrimitiveColumn.Type.BOOLEAN;
+      case "FLOAT":
+        return PrimitiveColumn.Type.FLOAT;
+      case "DOUBLE":
+        return PrimitiveColumn.Type.DOUBLE;
+      default:
+        return null;
+    }
   }
 
   @Override
@@ -67,30 +113,153 @@ public final class SetType implements Directive, Lineage {
     // no-op
   }
 
+  @Override
+  public List<ColumnSlot> slots() {
+    return Collections.singletonList(slot);
+  }
+
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(col);
+      int idx = slot.find(row);
       if (idx != -1) {
         Object object = row.getValue(idx);
         if (object == null || (object instanceof String && ((String) object).trim().isEmpty())) {
           continue;
         }
-        try {
-          row.setValue(idx, convertType(type, object));
-        } catch (DirectiveExecutionException e) {
-          throw e;
-        } catch (Exception e) {
-          throw new DirectiveExecutionException(
-            NAME, String.format("Column '%s' cannot be converted to a '%s'.", col, type), e);
-        }
+        row.setValue(idx, convert(object));
       }
     }
     return rows;
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = batch.find(col);
+    if (idx == -1) {
+      return;
+    }
+    if (primitive != null) {
+      PrimitiveColumn converted = convertColumn(batch, idx);
+      if (converted != null) {
+        batch.setPrimitive(idx, converted);
+        return;
+      }
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      Object object = batch.getValue(i, idx);
+      if (object == null || (object instanceof String && ((String) object).trim().isEmpty())) {
+        continue;
+      }
+      batch.setValue(i, idx, convert(object));
+    }
+  }
+
+  /**
+   * Converts the values of a column to the primitive type, the same way {@link #convertType} converts each of
+   * them, but without boxing them.
+   *
+   * @return converted values, or null if the column holds values that have to be converted one by one, such as
+   * empty strings, bytes or values of different types.
+   */
+  @Nullable
+  private PrimitiveColumn convertColumn(RowBatch batch, int idx) throws DirectiveExecutionException {
+    PrimitiveColumn source = batch.getPrimitive(idx);
+    if (source != null) {
+      return convertColumn(source);
+    }
+
+    PrimitiveColumn result = new PrimitiveColumn(primitive, batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Object object = batch.getValue(i, idx);
+      if (object == null) {
+        continue;
+      }
+      if (!(object instanceof String) || ((String) object).trim().isEmpty()) {
+        return null;
+      }
+      try {
+        parse(result, i, (String) object);
+      } catch (NumberFormatException e) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' cannot be converted to a '%s'.", col, type), e);
+      }
+    }
+    return result;
+  }
+
+  private void parse(PrimitiveColumn result, int i, String value) {
+    switch (primitive) {
+      case INT:
+        result.setLong(i, Integer.parseInt(value));
+        break;
+      case SHORT:
+        result.setLong(i, Short.parseShort(value));
+        break;
+      case LONG:
+        result.setLong(i, Long.parseLong(value));
+        break;
+      case FLOAT:
+        result.setDouble(i, Float.parseFloat(value));
+        break;
+      case DOUBLE:
+        result.setDouble(i, Double.parseDouble(value));
+        break;
+      default:
+        result.setBoolean(i, Boolean.parseBoolean(value));
+        break;
+    }
+  }
+
+  private PrimitiveColumn convertColumn(PrimitiveColumn source) {
+    // Booleans are left as they are, whatever the type.
+    if (source.getType() == primitive || source.getType() == PrimitiveColumn.Type.BOOLEAN) {
+      return source;
+    }
+    PrimitiveColumn result = new PrimitiveColumn(primitive, source.size());
+    boolean integral = source.getType().isIntegral();
+    for (int i = 0; i < source.size(); i++) {
+      if (source.isNull(i)) {
+        continue;
+      }
+      long l = integral ? source.getLong(i) : 0;
+      double d = integral ? 0 : source.getDouble(i);
+      switch (primitive) {
+        case INT:
+          result.setLong(i, integral ? (int) l : (int) d);
+          break;
+        case SHORT:
+          result.setLong(i, integral ? (short) l : (short) d);
+          break;
+        case LONG:
+          result.setLong(i, integral ? l : (long) d);
+          break;
+        case FLOAT:
+          result.setDouble(i, integral ? (float) l : (float) d);
+          break;
+        case DOUBLE:
+          result.setDouble(i, integral ? (double) l : d);
+          break;
+        default:
+          result.setBoolean(i, integral ? l > 0 : d > 0);
+          break;
+      }
+    }
+    return result;
+  }
+
+  private Object convert(Object object) throws DirectiveExecutionException {
+    try {
+      return convertType(toType, object);
+    } catch (DirectiveExecutionException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new DirectiveExecutionException(
+        NAME, String.format("Column '%s' cannot be converted to a '%s'.", col, type), e);
+    }
+  }
+
   private Object convertType(String toType, Object object) throws Exception {
-    toType = toType.toUpperCase();
     switch (toType) {
       case "INTEGER":
       case "I64":
@@ -28,6 +28,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -47,12 +49,15 @@ import java.util.Locale;
 @Name(FormatAsCurrency.NAME)
 @Categories(categories = {"currency"})
 @Description("Formats a number as currency using the locale specified. Default locale is en_US.")
+@ThreadSafe
+@RowIndependent
 public class FormatAsCurrency implements Directive, Lineage {
   public static final String NAME = "format-as-currency";
   private String source;
   private String destination;
   private String locale;
-  private NumberFormat format;
+  // NumberFormat is not thread-safe, so every thread formats with its own copy.
+  private ThreadLocal<NumberFormat> format;
   private Locale lcl;
 
   @Override
@@ -76,7 +81,7 @@ public class FormatAsCurrency implements Directive, Lineage {
     }
 
     this.lcl = LocaleUtils.toLocale(locale);
-    this.format = NumberFormat.getCurrencyInstance(lcl);
+    this.format = ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(lcl));
   }
 
   @Override
@@ -95,7 +100,7 @@ public class FormatAsCurrency implements Directive, Lineage {
           continue;
         }
         Double value = (Double) object;
-        String format = this.format.format(value);
+        String format = this.format.get().format(value);
         row.addOrSet(destination, format);
       }
     }
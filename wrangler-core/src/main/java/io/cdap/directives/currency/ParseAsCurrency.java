@@ -28,6 +28,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -50,12 +52,15 @@ import java.util.Locale;
 @Name(ParseAsCurrency.NAME)
 @Categories(categories = {"currency"})
 @Description("Parses the string as a currency using specified locale. Default locale is en_US.")
+@ThreadSafe
+@RowIndependent
 public class ParseAsCurrency implements Directive, Lineage {
   public static final String NAME = "parse-as-currency";
   private String source;
   private String destination;
   private String locale;
-  private NumberFormat fmt;
+  // NumberFormat is not thread-safe, so every thread parses with its own copy.
+  private ThreadLocal<NumberFormat> fmt;
   private Locale lcl;
 
   @Override
@@ -79,8 +84,11 @@ public class ParseAsCurrency implements Directive, Lineage {
     }
 
     this.lcl = LocaleUtils.toLocale(locale);
-    this.fmt = NumberFormat.getCurrencyInstance(lcl);
-    ((DecimalFormat) this.fmt).setParseBigDecimal(true);
+    this.fmt = ThreadLocal.withInitial(() -> {
+      NumberFormat format = NumberFormat.getCurrencyInstance(lcl);
+      ((DecimalFormat) format).setParseBigDecimal(true);
+      return format;
+    });
   }
 
   @Override
@@ -103,7 +111,7 @@ public class ParseAsCurrency implements Directive, Lineage {
           continue;
         }
         try {
-          BigDecimal number = (BigDecimal) fmt.parse(value);
+          BigDecimal number = (BigDecimal) fmt.get().parse(value);
           row.addOrSet(destination, number.doubleValue());
         } catch (ParseException e) {
           throw new ErrorRowException(NAME, e.getMessage(), 1);
@@ -20,12 +20,15 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -46,7 +49,9 @@ import java.util.List;
 @Categories(categories = {"date"})
 @Description("Calculates the difference in milliseconds between two Date objects." +
   "Positive if <column2> earlier. Must use 'parse-as-date' or 'parse-as-simple-date' first.")
-public class DiffDate implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class DiffDate implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "diff-date";
   private String column1;
   private String column2;
@@ -108,6 +113,12 @@ public class DiffDate implements Directive, Lineage {
     return (ZonedDateTime) o;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    // The current time is taken when the directive is initialized.
+    return !column1.equalsIgnoreCase("now") && !column2.equalsIgnoreCase("now");
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -23,6 +23,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -31,6 +32,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -67,7 +70,9 @@ import java.util.Map;
 @Name(InvokeHttp.NAME)
 @Categories(categories = { "http"})
 @Description("Invokes an HTTP endpoint, passing columns as a JSON map (potentially slow).")
-public class InvokeHttp implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class InvokeHttp implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "invoke-http";
   private String url;
   private List<String> columns;
@@ -146,6 +151,12 @@ public class InvokeHttp implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    // The service might respond differently every time it's called.
+    return false;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -23,12 +23,14 @@ import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.api.data.DatasetInstantiationException;
 import io.cdap.cdap.etl.api.Lookup;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -48,7 +50,8 @@ import java.util.Map;
 @Name(TableLookup.NAME)
 @Categories(categories = { "lookup"})
 @Description("Uses the given column as a key to perform a lookup into the specified table.")
-public class TableLookup implements Directive, Lineage {
+@RowIndependent
+public class TableLookup implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "table-lookup";
   private String column;
   private String table;
@@ -125,6 +128,12 @@ public class TableLookup implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    // The table might be updated between executions.
+    return false;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -27,6 +27,8 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -46,10 +48,13 @@ import java.util.List;
 @Name("stemming")
 @Categories(categories = { "nlp"})
 @Description("Apply Porter Stemming on the column value.")
+@ThreadSafe
+@RowIndependent
 public class Stemming implements Directive, Lineage {
   public static final String NAME = "stemming";
   private String column;
-  private PorterStemmer stemmer;
+  // The stemmer keeps the word being stemmed, so every thread uses its own.
+  private final ThreadLocal<PorterStemmer> stemmer = ThreadLocal.withInitial(PorterStemmer::new);
   private String porterCol;
 
   @Override
@@ -62,7 +67,6 @@ public class Stemming implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
-    this.stemmer = new PorterStemmer();
     this.porterCol = String.format("%s_porter", column);
   }
 
@@ -97,7 +101,7 @@ public class Stemming implements Directive, Lineage {
             words = Arrays.asList(w);
           }
           try {
-            stemmed = stemmer.process(words);
+            stemmed = stemmer.get().process(words);
             row.add(porterCol, stemmed);
           } catch (IOException e) {
             throw new DirectiveExecutionException(
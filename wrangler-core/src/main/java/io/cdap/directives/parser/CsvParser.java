@@ -27,7 +27,10 @@ import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.StatefulDirective;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -45,6 +48,7 @@ import org.apache.commons.lang3.StringEscapeUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -56,7 +60,9 @@ import java.util.Set;
 @Name(CsvParser.NAME)
 @Categories(categories = { "parser", "csv"})
 @Description("Parses a column as CSV (comma-separated values).")
-public class CsvParser implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class CsvParser implements Directive, Lineage, StatefulDirective {
   public static final String NAME = "parse-as-csv";
   private ColumnName columnArg;
   private Text delimiterArg;
@@ -68,11 +74,11 @@ public class CsvParser implements Directive, Lineage {
   //
   private boolean hasHeader;
 
-  // Set to true once header is checked.
+  // Set to true once header is checked. Only instances without a header are shared between threads.
   private boolean checkedHeader = false;
 
   // Header names.
-  private List<String> headers = new ArrayList<>();
+  private List<String> headers = Collections.emptyList();
 
   @Override
   public UsageDefinition define() {
@@ -120,6 +126,15 @@ public class CsvParser implements Directive, Lineage {
     // no-op
   }
 
+  /**
+   * The header is taken from the first row parsed, so the rows are parsed differently depending on their order,
+   * and an instance with a header can't be shared between threads.
+   */
+  @Override
+  public boolean isStateful() {
+    return hasHeader;
+  }
+
   /**
    * Parses a give column in a {@link Row} as a CSV Row.
    *
@@ -131,27 +146,28 @@ public class CsvParser implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException, ErrorRowException {
 
+    List<Row> results = new ArrayList<>(rows.size());
     for (Row row : rows) {
       int idx = row.find(columnArg.value());
       if (idx == -1) {
+        results.add(row);
         continue;
       }
       String line = (String) row.getValue(idx);
       if (line == null || line.isEmpty()) {
+        results.add(row);
         continue;
       }
       CSVParser parser = null;
+      boolean header = false;
       try {
         parser = CSVParser.parse(line, format);
         List<CSVRecord> csvRecords = parser.getRecords();
         for (CSVRecord csvRecord : csvRecords) {
-          if (!checkedHeader && hasHeader && isHeader(csvRecord)) {
-            for (int i = 0; i < csvRecord.size(); i++) {
-              headers.add(csvRecord.get(i).trim().replaceAll("\\s+", "_"));
-            }
-            if (rows.size() > 0) {
-              return new ArrayList<>();
-            }
+          if (hasHeader && !checkedHeader && checkHeader(csvRecord)) {
+            // Only the row holding the header is dropped, the rest of the rows are still parsed.
+            header = true;
+            break;
           } else {
             toRow(csvRecord, row);
           }
@@ -160,8 +176,11 @@ public class CsvParser implements Directive, Lineage {
         // When there is error parsing data, the data is written to error.
         throw new ErrorRowException(NAME, e.getMessage(), 1);
       }
+      if (!header) {
+        results.add(row);
+      }
     }
-    return rows;
+    return results;
   }
 
   /**
@@ -181,8 +200,25 @@ public class CsvParser implements Directive, Lineage {
     }
   }
 
-  private boolean isHeader(CSVRecord record) {
+  /**
+   * Checks if the first record parsed is the header, setting the header names if it is.
+   *
+   * @return true if the record is the header.
+   */
+  private boolean checkHeader(CSVRecord record) {
+    boolean header = isHeader(record);
+    if (header) {
+      List<String> names = new ArrayList<>(record.size());
+      for (int i = 0; i < record.size(); i++) {
+        names.add(record.get(i).trim().replaceAll("\\s+", "_"));
+      }
+      headers = Collections.unmodifiableList(names);
+    }
     checkedHeader = true;
+    return header;
+  }
+
+  private static boolean isHeader(CSVRecord record) {
     Set<String> columns = new HashSet<>();
     for (int i = 0; i < record.size(); i++) {
       String value = record.get(i);
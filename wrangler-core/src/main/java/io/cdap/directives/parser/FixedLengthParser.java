@@ -29,6 +29,8 @@ import io.cdap.wrangler.api.LazyNumber;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -48,6 +50,8 @@ import java.util.List;
 @Name("parse-as-fixed-length")
 @Categories(categories = { "parser"})
 @Description("Parses fixed-length records using the specified widths and padding-character.")
+@ThreadSafe
+@RowIndependent
 public final class FixedLengthParser implements Directive, Lineage {
   public static final String NAME = "parse-as-fixed-length";
   private int[] widths;
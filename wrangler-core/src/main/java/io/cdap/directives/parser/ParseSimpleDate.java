@@ -27,6 +27,8 @@ import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -50,10 +52,14 @@ import java.util.TimeZone;
 @Name("parse-as-simple-date")
 @Categories(categories = { "parser", "date"})
 @Description("Parses a column as date using format.")
+@ThreadSafe
+@RowIndependent
 public class ParseSimpleDate implements Directive, Lineage {
   public static final String NAME = "parse-as-simple-date";
   private String column;
-  private SimpleDateFormat formatter;
+  private String pattern;
+  // SimpleDateFormat is not thread-safe, so every thread parses with its own copy.
+  private ThreadLocal<SimpleDateFormat> formatter;
 
   @Override
   public UsageDefinition define() {
@@ -66,9 +72,10 @@ public class ParseSimpleDate implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
-    String format = ((Text) args.value("format")).value();
-    this.formatter = new SimpleDateFormat(format);
-    formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+    this.pattern = ((Text) args.value("format")).value();
+    SimpleDateFormat format = new SimpleDateFormat(pattern);
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    this.formatter = ThreadLocal.withInitial(() -> (SimpleDateFormat) format.clone());
   }
 
   @Override
@@ -94,13 +101,13 @@ public class ParseSimpleDate implements Directive, Lineage {
             // ZonedDateTime requires presence of Zone and Time components in the pattern and object to be parsed.
             // For example if the pattern is yyyy-mm-dd, ZonedDateTime object can not be created and the call to
             // ZonedDateTime.parse("2018-12-21", formatter) will throw DateTimeParseException
-            Date date = formatter.parse(object.toString());
+            Date date = formatter.get().parse(object.toString());
             ZonedDateTime zonedDateTime = ZonedDateTime.from(date.toInstant()
                                                                .atZone(ZoneId.ofOffset("UTC", ZoneOffset.UTC)));
             row.setValue(idx, zonedDateTime);
           } catch (ParseException e) {
             throw new ErrorRowException(
-              NAME, String.format("Failed to parse '%s' with pattern '%s'", object, formatter.toPattern()), 1);
+              NAME, String.format("Failed to parse '%s' with pattern '%s'", object, pattern), 1);
           }
         } else {
           throw new ErrorRowException(
@@ -115,7 +122,7 @@ public class ParseSimpleDate implements Directive, Lineage {
   @Override
   public Mutation lineage() {
     return Mutation.builder()
-      .readable("Parsed column '%s' as date using user specified format '%s'", column, formatter.toPattern())
+      .readable("Parsed column '%s' as date using user specified format '%s'", column, pattern)
       .relation(column, column)
       .build();
   }
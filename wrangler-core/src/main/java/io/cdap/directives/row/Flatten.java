@@ -29,6 +29,8 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -47,12 +49,12 @@ import java.util.List;
 @Name(Flatten.NAME)
 @Categories(categories = { "row"})
 @Description("Separates array elements of one or more columns into indvidual records, copying the other columns.")
+@ThreadSafe
+@RowIndependent
 public class Flatten implements Directive, Lineage {
   public static final String NAME = "flatten";
   // Column within the input row that needs to be parsed as Json
   private String[] columns;
-  private int[] locations;
-  private int count = 0;
 
   @Override
   public UsageDefinition define() {
@@ -66,7 +68,6 @@ public class Flatten implements Directive, Lineage {
     List<String> cols = ((ColumnNameList) args.value("column")).value();
     columns = new String[cols.size()];
     columns = cols.toArray(columns);
-    locations = new int[columns.length];
   }
 
   @Override
@@ -80,13 +81,11 @@ public class Flatten implements Directive, Lineage {
 
     // Iterate through the rows.
     for (Row row : rows) {
-      count = 0;
-      // Only once find the location of the columns to be flatten within
-      // the row. It's assumed that all rows to passed to this
-      // instance are same.
-      for (String column : columns) {
-        locations[count] = row.find(column);
-        ++count;
+      // Find the location of the columns to be flatten within the row.
+      int count = columns.length;
+      int[] locations = new int[count];
+      for (int i = 0; i < count; ++i) {
+        locations[i] = row.find(columns[i]);
       }
       // For each row we find the maximum number of
       // values in each of the columns specified to be
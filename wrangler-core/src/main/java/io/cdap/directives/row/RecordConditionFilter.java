@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -27,6 +28,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Bool;
@@ -34,8 +37,8 @@ import io.cdap.wrangler.api.parser.Expression;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.expression.EL;
-import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
+import io.cdap.wrangler.expression.ELRowContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -53,10 +56,24 @@ import java.util.List;
 @Name(RecordConditionFilter.NAME)
 @Categories(categories = { "row", "data-quality"})
 @Description("Filters rows based on condition type specified.")
-public class RecordConditionFilter implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class RecordConditionFilter implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "filter-row";
   private String condition;
   private final EL el = new EL(new EL.DefaultFunctions());
+  // Context the condition is evaluated in, reset for every row and owned by the thread executing it.
+  private final ThreadLocal<ELRowContext> ctx = ThreadLocal.withInitial(() -> new ELRowContext(el.variables()) {
+    @Override
+    protected Object getValue(Row row, String name) {
+      Object value = row.getValue(name);
+      // support numeric values by converting them to string
+      if (value instanceof Number) {
+        return value.toString();
+      }
+      return value;
+    }
+  });
   private boolean isTrue;
 
   @Override
@@ -89,26 +106,10 @@ public class RecordConditionFilter implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
+    ELRowContext ctx = this.ctx.get();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context);
-      for (String var : el.variables()) {
-        Object value = row.getValue(var);
-        String strValue;
-        // support numeric values by converting them to string
-        if (value instanceof Number) {
-          Number number = (Number) value;
-          strValue = number.toString();
-          ctx.set(var, strValue);
-        } else {
-          ctx.set(var, row.getValue(var));
-        }
-      }
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
-      }
+      // The context resolves the fields of the row and the transient variables as they are referenced.
+      ctx.reset(row, context);
       try {
         Boolean result = el.execute(ctx).getBoolean();
         if (!isTrue) {
@@ -125,6 +126,11 @@ public class RecordConditionFilter implements Directive, Lineage {
     return results;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return el.isDeterministic();
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
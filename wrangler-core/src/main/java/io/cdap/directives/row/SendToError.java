@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -28,6 +29,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Expression;
@@ -56,7 +59,9 @@ import java.util.List;
 @Name(SendToError.NAME)
 @Categories(categories = { "row", "data-quality"})
 @Description("Send records that match condition to the error collector.")
-public class SendToError implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class SendToError implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "send-to-error";
   private final EL el = new EL(new EL.DefaultFunctions());
   private String condition;
@@ -87,6 +92,8 @@ public class SendToError implements Directive, Lineage {
     }
     if (args.contains("message")) {
       message = ((Text) args.value("message")).value();
+    } else {
+      message = condition;
     }
   }
 
@@ -122,9 +129,6 @@ public class SendToError implements Directive, Lineage {
           if (metric != null && context != null) {
             context.getMetrics().count(metric, 1);
           }
-          if (message == null) {
-            message = condition;
-          }
           throw new ErrorRowException(NAME, message, 1);
         }
       } catch (ELException e) {
@@ -135,6 +139,11 @@ public class SendToError implements Directive, Lineage {
     return results;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return el.isDeterministic();
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
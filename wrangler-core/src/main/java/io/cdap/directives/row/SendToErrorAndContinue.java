@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -29,6 +30,8 @@ import io.cdap.wrangler.api.ReportErrorAndProceed;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Expression;
@@ -57,7 +60,9 @@ import java.util.List;
 @Name(SendToErrorAndContinue.NAME)
 @Categories(categories = { "row", "data-quality"})
 @Description("Send records that match condition to the error collector and continues processing.")
-public class SendToErrorAndContinue implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class SendToErrorAndContinue implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "send-to-error-and-continue";
   private final EL el = new EL(new EL.DefaultFunctions());
   private String condition;
@@ -87,6 +92,8 @@ public class SendToErrorAndContinue implements Directive, Lineage {
     }
     if (args.contains("message")) {
       message = ((Text) args.value("message")).value();
+    } else {
+      message = condition;
     }
   }
 
@@ -125,9 +132,6 @@ public class SendToErrorAndContinue implements Directive, Lineage {
           if (metric != null && context != null) {
             context.getMetrics().count(metric, 1);
           }
-          if (message == null) {
-            message = condition;
-          }
           if (context != null) {
             context.getTransientStore().increment(TransientVariableScope.LOCAL, "dq_failure", 1);
           }
@@ -141,6 +145,11 @@ public class SendToErrorAndContinue implements Directive, Lineage {
     return results;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return el.isDeterministic();
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
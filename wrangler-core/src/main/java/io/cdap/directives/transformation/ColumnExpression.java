@@ -20,12 +20,20 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.ColumnSlot;
+import io.cdap.wrangler.api.ColumnarDirective;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.PrimitiveColumn;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -34,10 +42,12 @@ import io.cdap.wrangler.api.parser.Expression;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.expression.EL;
-import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
+import io.cdap.wrangler.expression.ELRowContext;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.NumericKernel;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,15 +68,22 @@ import java.util.Map;
 @Name(ColumnExpression.NAME)
 @Categories(categories = { "transform"})
 @Description("Sets a column by evaluating a JEXL expression.")
-public class ColumnExpression implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class ColumnExpression implements Directive, DeterministicDirective, ColumnarDirective, ColumnBindable, Lineage {
   public static final String NAME = "set-column";
   // Column to which the result of experience is applied to.
   private String column;
+  private ColumnSlot slot;
   // The actual expression
   private String expression;
   // Properties associated with pipeline
   private final Map<String, Object> properties = new HashMap<>();
   private final EL el = new EL(new EL.DefaultFunctions());
+  // Context the expression is evaluated in, reset for every row and owned by the thread executing it.
+  private final ThreadLocal<ELRowContext> ctx = ThreadLocal.withInitial(() -> new ELRowContext(el.variables(), "this"));
+  // Evaluates arithmetic on whole columns of a batch, null if the expression is not arithmetic on columns.
+  private NumericKernel kernel;
 
   @Override
   public UsageDefinition define() {
@@ -79,12 +96,14 @@ public class ColumnExpression implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.slot = new ColumnSlot(column);
     this.expression = ((Expression) args.value("expression")).value();
     try {
       el.compile(expression);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
+    this.kernel = NumericKernel.of(el, expression);
   }
 
   @Override
@@ -92,28 +111,23 @@ public class ColumnExpression implements Directive, Lineage {
     // no-op
   }
 
+  @Override
+  public List<ColumnSlot> slots() {
+    return Collections.singletonList(slot);
+  }
+
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    ELRowContext ctx = this.ctx.get();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context);
-      ctx.set("this", row);
-      for (String var : el.variables()) {
-        ctx.set(var, row.getValue(var));
-      }
-
-      // Transient variables are added.
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
-      }
+      // The context resolves the fields of the row and the transient variables as they are referenced.
+      ctx.reset(row, context);
 
       // Execution of the script / expression based on the row data
       // mapped into context.
       try {
         ELResult result = el.execute(ctx);
-        int idx = row.find(this.column);
+        int idx = slot.find(row);
         if (idx == -1) {
           row.add(this.column, result.getObject());
         } else {
@@ -126,6 +140,51 @@ public class ColumnExpression implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public boolean isColumnar() {
+    return kernel != null;
+  }
+
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) throws DirectiveExecutionException {
+    // Transient variables take precedence over the columns, which the kernel doesn't know of.
+    PrimitiveColumn result = null;
+    if (context == null || Collections.disjoint(context.getTransientStore().getVariables(), kernel.getColumns())) {
+      result = kernel.evaluate(batch);
+    }
+    if (result != null) {
+      int idx = batch.find(column);
+      if (idx == -1) {
+        batch.add(column, result);
+      } else {
+        batch.setPrimitive(idx, result);
+      }
+      return;
+    }
+
+    ELRowContext ctx = this.ctx.get();
+    List<Row> rows = batch.toRows();
+    Object[] results = new Object[rows.size()];
+    for (int i = 0; i < results.length; i++) {
+      try {
+        results[i] = el.execute(ctx.reset(rows.get(i), context)).getObject();
+      } catch (ELException e) {
+        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+      }
+    }
+    int idx = batch.find(column);
+    if (idx == -1) {
+      batch.add(column, results);
+    } else {
+      batch.setValues(idx, results);
+    }
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return el.isDeterministic();
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
@@ -20,12 +20,15 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -43,7 +46,9 @@ import java.util.UUID;
 @Name(GenerateUUID.NAME)
 @Categories(categories = { "transform", "uuid"})
 @Description("Populates a column with a universally unique identifier (UUID) of the record.")
-public class GenerateUUID implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class GenerateUUID implements Directive, DeterministicDirective, Lineage {
   public static final String NAME = "generate-uuid";
   private String column;
   private Random random;
@@ -80,6 +85,12 @@ public class GenerateUUID implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    // A random identifier is generated for each row.
+    return false;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -20,18 +20,23 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.ColumnSlot;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -41,10 +46,13 @@ import java.util.List;
 @Name(Lower.NAME)
 @Categories(categories = { "transform"})
 @Description("Changes the column values to lowercase.")
-public class Lower implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class Lower implements Directive, ColumnBindable, Lineage {
   public static final String NAME = "lowercase";
   // Columns of the column to be lower cased.
   private String column;
+  private ColumnSlot slot;
 
   @Override
   public UsageDefinition define() {
@@ -56,6 +64,7 @@ public class Lower implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.slot = new ColumnSlot(column);
   }
 
   @Override
@@ -63,10 +72,15 @@ public class Lower implements Directive, Lineage {
     // no-op
   }
 
+  @Override
+  public List<ColumnSlot> slots() {
+    return Collections.singletonList(slot);
+  }
+
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
+      int idx = slot.find(row);
       if (idx != -1) {
         Object object = row.getValue(idx);
         if (object instanceof String) {
@@ -20,12 +20,17 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.PrimitiveColumn;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -34,6 +39,7 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.utils.TypeConvertor;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -62,7 +68,9 @@ import java.util.List;
 @Name(MaskNumber.NAME)
 @Categories(categories = { "transform"})
 @Description("Masks a column value using the specified masking pattern.")
-public class MaskNumber implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class MaskNumber implements Directive, ColumnarDirective, Lineage {
   public static final String NAME = "mask-number";
   // Specifies types of mask
   public static final int MASK_NUMBER = 1;
@@ -118,6 +126,40 @@ public class MaskNumber implements Directive, Lineage {
       .build();
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) {
+    int idx = batch.find(column);
+    if (idx == -1) {
+      Object[] empty = new Object[batch.size()];
+      Arrays.fill(empty, "");
+      batch.add(column, empty);
+      return;
+    }
+
+    // Numbers are formatted as TypeConvertor does, without boxing them.
+    PrimitiveColumn numbers = batch.getPrimitive(idx);
+    if (numbers != null && numbers.getType() == PrimitiveColumn.Type.BOOLEAN) {
+      numbers = null;
+    }
+    Object[] masked = new Object[batch.size()];
+    for (int i = 0; i < masked.length; i++) {
+      String value;
+      if (numbers == null) {
+        value = TypeConvertor.toString(batch.getValue(i, idx));
+      } else if (numbers.isNull(i)) {
+        value = null;
+      } else if (numbers.getType().isIntegral()) {
+        value = Long.toString(numbers.getLong(i));
+      } else if (numbers.getType() == PrimitiveColumn.Type.FLOAT) {
+        value = Float.toString((float) numbers.getDouble(i));
+      } else {
+        value = Double.toString(numbers.getDouble(i));
+      }
+      masked[i] = value == null ? null : maskNumber(value, mask);
+    }
+    batch.setValues(idx, masked);
+  }
+
   private String maskNumber(String number, String mask) {
     int index = 0;
     StringBuilder masked = new StringBuilder();
@@ -21,6 +21,8 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.ColumnSlot;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -28,6 +30,8 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Bool;
@@ -39,6 +43,7 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -49,7 +54,9 @@ import java.util.Set;
 @Name(MessageHash.NAME)
 @Categories(categories = { "transform", "hash"})
 @Description("Creates a message digest for the column using algorithm, replacing the column value.")
-public class MessageHash implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class MessageHash implements Directive, ColumnBindable, Lineage {
   public static final String NAME = "hash";
   private static final Set<String> algorithms = ImmutableSet.of(
     "BLAKE2B-160",
@@ -103,8 +110,10 @@ public class MessageHash implements Directive, Lineage {
     "WHIRLPOOL"
   );
   private String column;
+  private ColumnSlot slot;
   private boolean encode;
-  private MessageDigest digest;
+  // MessageDigest is not thread-safe, so every thread hashes with its own copy.
+  private ThreadLocal<MessageDigest> digest;
 
   @Override
   public UsageDefinition define() {
@@ -118,13 +127,22 @@ public class MessageHash implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.slot = new ColumnSlot(column);
     Text algorithm = args.value("algorithm");
     if (!MessageHash.isValid(algorithm.value())) {
       throw new DirectiveParseException(
         NAME, String.format("Algorithm '%s' specified at line %d is not supported.", algorithm, args.line()));
     }
     try {
-      this.digest = MessageDigest.getInstance(algorithm.value());
+      MessageDigest prototype = MessageDigest.getInstance(algorithm.value());
+      this.digest = ThreadLocal.withInitial(() -> {
+        try {
+          return MessageDigest.getInstance(prototype.getAlgorithm(), prototype.getProvider());
+        } catch (NoSuchAlgorithmException e) {
+          // The algorithm was found with the same provider when the directive was initialized.
+          throw new IllegalStateException(e);
+        }
+      });
     } catch (NoSuchAlgorithmException e) {
       throw new DirectiveParseException(
         NAME, String.format("Unable to find algorithm '%s' specified at line %d.", algorithm, args.line()));
@@ -141,6 +159,11 @@ public class MessageHash implements Directive, Lineage {
     // no-op
   }
 
+  @Override
+  public List<ColumnSlot> slots() {
+    return Collections.singletonList(slot);
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -156,7 +179,7 @@ public class MessageHash implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
+      int idx = slot.find(row);
       if (idx != -1) {
         Object object = row.getValue(idx);
 
@@ -177,15 +200,14 @@ public class MessageHash implements Directive, Lineage {
                                 column, object.getClass().getSimpleName()));
         }
 
-        digest.update(message);
-        byte[] hashed = digest.digest();
+        byte[] hashed = digest.get().digest(message);
 
         if (encode) {
           // hex with left zero padding:
           String hasedHex = String.format("%064x", new java.math.BigInteger(1, hashed));
-          row.addOrSet(column, hasedHex);
+          row.setValue(idx, hasedHex);
         } else {
-          row.addOrSet(column, hashed);
+          row.setValue(idx, hashed);
         }
       } else {
         throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", column));
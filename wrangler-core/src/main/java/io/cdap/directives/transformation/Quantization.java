@@ -16,6 +16,7 @@
 
 package io.cdap.directives.transformation;
 
+import com.google.common.collect.BoundType;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeMap;
 import com.google.common.collect.TreeRangeMap;
@@ -23,13 +24,18 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnarDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.PrimitiveColumn;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
 import io.cdap.wrangler.api.Triplet;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
@@ -40,6 +46,7 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A Wrangler step for quantizing a column.
@@ -48,9 +55,17 @@ import java.util.List;
 @Name(Quantization.NAME)
 @Categories(categories = { "transform"})
 @Description("Quanitize the range of numbers into label values.")
-public class Quantization implements Directive, Lineage {
+@ThreadSafe
+@RowIndependent
+public class Quantization implements Directive, ColumnarDirective, Lineage {
   public static final String NAME = "quantize";
   private final RangeMap<Double, String> rangeMap = TreeRangeMap.create();
+  // The ranges of the map in ascending order, so that values are looked up without boxing them.
+  private double[] lowers;
+  private boolean[] lowersClosed;
+  private double[] uppers;
+  private boolean[] uppersClosed;
+  private String[] labels;
   private String col1;
   private String col2;
 
@@ -73,6 +88,44 @@ public class Quantization implements Directive, Lineage {
       double upper = range.getSecond().value().doubleValue();
       rangeMap.put(Range.closed(lower, upper), range.getThird());
     }
+
+    Map<Range<Double>, String> map = rangeMap.asMapOfRanges();
+    lowers = new double[map.size()];
+    lowersClosed = new boolean[map.size()];
+    uppers = new double[map.size()];
+    uppersClosed = new boolean[map.size()];
+    labels = new String[map.size()];
+    int i = 0;
+    for (Map.Entry<Range<Double>, String> entry : map.entrySet()) {
+      Range<Double> range = entry.getKey();
+      lowers[i] = range.lowerEndpoint();
+      lowersClosed[i] = range.lowerBoundType() == BoundType.CLOSED;
+      uppers[i] = range.upperEndpoint();
+      uppersClosed[i] = range.upperBoundType() == BoundType.CLOSED;
+      labels[i] = entry.getValue();
+      i++;
+    }
+  }
+
+  /**
+   * Looks up the label of the range containing the value, as {@link RangeMap#get} does.
+   */
+  private String lookup(double value) {
+    int low = 0;
+    int high = labels.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int lower = Double.compare(value, lowers[mid]);
+      int upper = Double.compare(value, uppers[mid]);
+      if (lower < 0 || (lower == 0 && !lowersClosed[mid])) {
+        high = mid - 1;
+      } else if (upper > 0 || (upper == 0 && !uppersClosed[mid])) {
+        low = mid + 1;
+      } else {
+        return labels[mid];
+      }
+    }
+    return null;
   }
 
   @Override
@@ -87,38 +140,12 @@ public class Quantization implements Directive, Lineage {
       int idx = row.find(col1);
 
       if (idx != -1) {
-        try {
-          Object object = row.getValue(idx);
-
-          if (object == null) {
-            throw new DirectiveExecutionException(
-              NAME, String.format("Column '%s' has null value. It should be a non-null 'String', " +
-                                    "'Float' or 'Double'.", col1));
-          }
-
-          Double d;
-          if (object instanceof String) {
-            d = Double.parseDouble((String) object);
-          } else if (object instanceof Double) {
-            d = (Double) object;
-          } else if (object instanceof Float) {
-            d = ((Float) object).doubleValue();
-          } else {
-            throw new DirectiveExecutionException(
-              NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String', " +
-                                    "'Float' or 'Double'.", col1, object.getClass().getSimpleName()));
-          }
-          String value = rangeMap.get(d);
-          int destIdx = row.find(col2);
-          if (destIdx == -1) {
-            row.add(col2, value);
-          } else {
-            row.setValue(destIdx, value);
-          }
-        } catch (NumberFormatException e) {
-          throw new DirectiveExecutionException(
-            NAME, String.format("Column '%s' has invalid type. It should be of type 'String', " +
-                                  "'Float' or 'Double'.", col1), e);
+        String value = lookup(toDouble(row.getValue(idx)));
+        int destIdx = row.find(col2);
+        if (destIdx == -1) {
+          row.add(col2, value);
+        } else {
+          row.setValue(destIdx, value);
         }
       } else {
         throw new DirectiveExecutionException(NAME, "Column '" + col1 + "' does not exist.");
@@ -128,6 +155,70 @@ public class Quantization implements Directive, Lineage {
     return results;
   }
 
+  @Override
+  public void execute(RowBatch batch, ExecutorContext context) throws DirectiveExecutionException {
+    if (batch.size() == 0) {
+      return;
+    }
+    int idx = batch.find(col1);
+    if (idx == -1) {
+      throw new DirectiveExecutionException(NAME, "Column '" + col1 + "' does not exist.");
+    }
+
+    Object[] values = new Object[batch.size()];
+    PrimitiveColumn column = batch.getPrimitive(idx);
+    if (column != null && column.getType().isFloatingPoint()) {
+      for (int i = 0; i < values.length; i++) {
+        if (column.isNull(i)) {
+          throw nullValue();
+        }
+        values[i] = lookup(column.getDouble(i));
+      }
+    } else {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = lookup(toDouble(batch.getValue(i, idx)));
+      }
+    }
+
+    int destIdx = batch.find(col2);
+    if (destIdx == -1) {
+      batch.add(col2, values);
+    } else {
+      for (int i = 0; i < values.length; i++) {
+        batch.setValue(i, destIdx, values[i]);
+      }
+    }
+  }
+
+  private DirectiveExecutionException nullValue() {
+    return new DirectiveExecutionException(
+      NAME, String.format("Column '%s' has null value. It should be a non-null 'String', " +
+                            "'Float' or 'Double'.", col1));
+  }
+
+  private double toDouble(Object object) throws DirectiveExecutionException {
+    if (object == null) {
+      throw nullValue();
+    }
+
+    if (object instanceof String) {
+      try {
+        return Double.parseDouble((String) object);
+      } catch (NumberFormatException e) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' has invalid type. It should be of type 'String', " +
+                                "'Float' or 'Double'.", col1), e);
+      }
+    } else if (object instanceof Double) {
+      return (Double) object;
+    } else if (object instanceof Float) {
+      return ((Float) object).doubleValue();
+    }
+    throw new DirectiveExecutionException(
+      NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String', " +
+                            "'Float' or 'Double'.", col1, object.getClass().getSimpleName()));
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
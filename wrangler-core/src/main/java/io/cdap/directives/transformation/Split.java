@@ -27,6 +27,8 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
@@ -42,6 +44,8 @@ import java.util.List;
 @Name(Split.NAME)
 @Categories(categories = { "readable"})
 @Description("Use 'split-to-columns' or 'split-to-rows'.")
+@ThreadSafe
+@RowIndependent
 @Deprecated
 public class Split implements Directive {
   public static final String NAME = "split";
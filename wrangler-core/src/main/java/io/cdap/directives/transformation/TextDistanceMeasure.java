@@ -26,6 +26,7 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.annotations.RowIndependent;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -45,6 +46,7 @@ import java.util.List;
 @Name(TextDistanceMeasure.NAME)
 @Categories(categories = { "transform"})
 @Description("Calculates a text distance measure between two columns containing string.")
+@RowIndependent
 public class TextDistanceMeasure implements Directive, Lineage {
   public static final String NAME = "text-distance";
   private String column1;
@@ -17,30 +17,13 @@
 package io.cdap.wrangler.dq;
 
 import java.math.BigInteger;
-import java.util.regex.Pattern;
 
 /**
  * Type Interface provides utility functions that allow you to detect the types of data.
  */
 public class TypeInference {
-  private static final Pattern patternInteger = Pattern.compile("^(\\+|-)?\\d+$");
-
-  private static final Pattern patternDouble = Pattern.compile(
-    "^[-+]?"// Positive/Negative sign
-      + "("// BEGIN Decimal part
-      + "[0-9]+([,\\.][0-9]+)?|"// Alternative I (w/o grouped integer part)
-      + "(" // BEGIN Alternative II (with grouped integer part)
-      + "[0-9]{1,3}" // starting digits
-      + "(" // BEGIN grouped part
-      + "((,[0-9]{3})*"// US integer part
-      + "(\\.[0-9]+)?"// US float part
-      + "|" // OR
-      + "((\\.[0-9]{3})*|([ \u00A0\u2007\u202F][0-9]{3})*)"// EU integer part
-      + "(,[0-9]+)?)"// EU float part
-      + ")"// END grouped part
-      + ")" // END Alternative II
-      + ")" // END Decimal part
-      + "([ ]?[eE][-+]?[0-9]+)?$"); // scientific part
+  // Separators of groups of digits, in the European format.
+  private static final String GROUP_SPACES = " \u00A0\u2007\u202F";
 
   /**
    * Detect if the given value is a double type.
@@ -68,10 +51,23 @@ public class TypeInference {
    * @return true if the value is a double type, false otherwise.
    */
   public static boolean isDouble(String value) {
-    if (!isEmpty(value) && patternDouble.matcher(value).matches()) {
-      return true;
+    if (isEmpty(value)) {
+      return false;
     }
-    return false;
+    int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+    // The decimal part ends where the exponent starts.
+    int end = value.length();
+    for (int i = start; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == 'e' || c == 'E') {
+        if (!isExponent(value, i + 1)) {
+          return false;
+        }
+        end = i > start && value.charAt(i - 1) == ' ' ? i - 1 : i;
+        break;
+      }
+    }
+    return isDecimal(value, start, end);
   }
 
   /**
@@ -81,10 +77,11 @@ public class TypeInference {
    * @return true if the value is a integer type, false otherwise.
    */
   public static boolean isInteger(String value) {
-    if (!isEmpty(value) && patternInteger.matcher(value).matches()) {
-      return true;
+    if (isEmpty(value)) {
+      return false;
     }
-    return false;
+    int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+    return start < value.length() && digits(value, start, value.length()) == value.length() - start;
   }
 
   public static boolean isNumber(String value) {
@@ -204,4 +201,66 @@ public class TypeInference {
     return DataType.STRING;
   }
 
+  /**
+   * Checks the decimal part of a double, which is one of
+   * <ul>
+   *   <li>digits, with an optional fraction after a dot or a comma, like "1234.5" or "1234,5"</li>
+   *   <li>one to three digits followed by groups of three digits and an optional fraction, which are separated by
+   *   commas and a dot, like "1,234.5", by dots and a comma, like "1.234,5", or by spaces and a comma, like
+   *   "1 234,5"</li>
+   * </ul>
+   */
+  private static boolean isDecimal(String value, int start, int end) {
+    int leading = digits(value, start, end);
+    if (leading == 0) {
+      return false;
+    }
+    int i = start + leading;
+    if (i == end) {
+      return true;
+    }
+    char c = value.charAt(i);
+    if ((c == '.' || c == ',') && i + 1 < end && digits(value, i + 1, end) == end - i - 1) {
+      return true;
+    }
+    if (leading > 3) {
+      return false;
+    }
+    return isGrouped(value, i, end, ",", '.') || isGrouped(value, i, end, ".", ',')
+      || isGrouped(value, i, end, GROUP_SPACES, ',');
+  }
+
+  /**
+   * Checks groups of a separator and three digits, followed by an optional fraction.
+   */
+  private static boolean isGrouped(String value, int start, int end, String separators, char fraction) {
+    int i = start;
+    while (i + 3 < end && separators.indexOf(value.charAt(i)) >= 0 && digits(value, i + 1, i + 4) == 3) {
+      i += 4;
+    }
+    if (i == end) {
+      return true;
+    }
+    return value.charAt(i) == fraction && i + 1 < end && digits(value, i + 1, end) == end - i - 1;
+  }
+
+  /**
+   * Checks the exponent of a double after the 'e', which is an optional sign followed by digits.
+   */
+  private static boolean isExponent(String value, int start) {
+    int end = value.length();
+    int i = start < end && (value.charAt(start) == '-' || value.charAt(start) == '+') ? start + 1 : start;
+    return i < end && digits(value, i, end) == end - i;
+  }
+
+  /**
+   * @return number of ASCII digits at the start of the range.
+   */
+  private static int digits(String value, int start, int end) {
+    int i = start;
+    while (i < end && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+      i++;
+    }
+    return i - start;
+  }
 }
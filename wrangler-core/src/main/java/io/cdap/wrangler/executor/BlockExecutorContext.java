@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.cdap.etl.api.Lookup;
+import io.cdap.cdap.etl.api.StageMetrics;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.TransientStore;
+import io.cdap.wrangler.api.TransientVariableScope;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link ExecutorContext} that is handed to directives while a block of rows is being executed.
+ *
+ * <p>Transient variables are scoped to a single row, so a recipe that writes to the {@link TransientStore}
+ * cannot be executed a block at a time. This context delegates everything to the actual context, except
+ * that writes to the transient store are not applied but only recorded. The executor checks
+ * {@link #isStoreModified()} after every directive and replays the block one row at a time when it is set.</p>
+ *
+ * <p>Metrics are held until the executor either keeps the rows of the block, and calls {@link #publishMetrics()},
+ * or replays it, and calls {@link #discardMetrics()}, so that the metrics of replayed rows are not counted
+ * twice.</p>
+ */
+final class BlockExecutorContext implements ExecutorContext {
+  private final ExecutorContext context;
+  private final TransientStore store;
+  private final BlockStageMetrics metrics = new BlockStageMetrics();
+  private boolean modified;
+
+  BlockExecutorContext(ExecutorContext context) {
+    this.context = context;
+    this.store = new BlockTransientStore();
+  }
+
+  /**
+   * Emits the metrics held since they were last published or discarded to the actual context.
+   */
+  void publishMetrics() {
+    StageMetrics actual = context.getMetrics();
+    if (actual != null) {
+      metrics.counts.forEach(actual::count);
+      metrics.gauges.forEach(actual::gauge);
+      metrics.pipelineCounts.forEach(actual::pipelineCount);
+      metrics.pipelineGauges.forEach(actual::pipelineGauge);
+    }
+    discardMetrics();
+  }
+
+  /**
+   * Drops the metrics held since they were last published or discarded.
+   */
+  void discardMetrics() {
+    metrics.counts.clear();
+    metrics.gauges.clear();
+    metrics.pipelineCounts.clear();
+    metrics.pipelineGauges.clear();
+  }
+
+  /**
+   * @return true if any of the directives attempted to write to the transient store.
+   */
+  boolean isStoreModified() {
+    return modified;
+  }
+
+  @Override
+  public Environment getEnvironment() {
+    return context.getEnvironment();
+  }
+
+  @Override
+  public String getNamespace() {
+    return context.getNamespace();
+  }
+
+  @Override
+  public StageMetrics getMetrics() {
+    return context.getMetrics() == null ? null : metrics;
+  }
+
+  @Override
+  public String getContextName() {
+    return context.getContextName();
+  }
+
+  @Override
+  public Map<String, String> getProperties() {
+    return context.getProperties();
+  }
+
+  @Override
+  public URL getService(String applicationId, String serviceId) {
+    return context.getService(applicationId, serviceId);
+  }
+
+  @Override
+  public TransientStore getTransientStore() {
+    return store;
+  }
+
+  @Override
+  public <T> Lookup<T> provide(String table, Map<String, String> arguments) {
+    return context.provide(table, arguments);
+  }
+
+  /**
+   * {@link StageMetrics} that sums the counts and keeps the last value of the gauges, until they are published.
+   */
+  private static final class BlockStageMetrics implements StageMetrics {
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private final Map<String, Long> gauges = new LinkedHashMap<>();
+    private final Map<String, Integer> pipelineCounts = new LinkedHashMap<>();
+    private final Map<String, Long> pipelineGauges = new LinkedHashMap<>();
+
+    @Override
+    public void count(String metricName, int delta) {
+      counts.merge(metricName, delta, Integer::sum);
+    }
+
+    @Override
+    public void gauge(String metricName, long value) {
+      gauges.put(metricName, value);
+    }
+
+    @Override
+    public void pipelineCount(String metricName, int delta) {
+      pipelineCounts.merge(metricName, delta, Integer::sum);
+    }
+
+    @Override
+    public void pipelineGauge(String metricName, long value) {
+      pipelineGauges.put(metricName, value);
+    }
+  }
+
+  /**
+   * A {@link TransientStore} that reads through to the actual store, but drops and records writes.
+   */
+  private final class BlockTransientStore implements TransientStore {
+
+    @Override
+    public void reset(TransientVariableScope scope) {
+      context.getTransientStore().reset(scope);
+    }
+
+    @Override
+    public <T> T get(String name) {
+      return context.getTransientStore().get(name);
+    }
+
+    @Override
+    public void set(TransientVariableScope scope, String name, Object value) {
+      modified = true;
+    }
+
+    @Override
+    public void increment(TransientVariableScope scope, String name, long value) {
+      modified = true;
+    }
+
+    @Override
+    public Set<String> getVariables() {
+      return context.getTransientStore().getVariables();
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.ColumnSlot;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.lineage.Relation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>ColumnBinder</code> binds the {@link ColumnSlot}s of the directives in a recipe to positions
+ * of the columns, given the columns of the rows the recipe is executed on.
+ *
+ * <p>The columns are tracked through the recipe using the {@link Mutation} of each directive:</p>
+ * <ul>
+ *   <li>Sources of a {@link Relation.Type#DROP} relation are removed.</li>
+ *   <li>A source that is not a target of any relation of the mutation is removed, unless it's replaced by a
+ *   single new target, in which case the column is considered renamed in place.</li>
+ *   <li>New targets are added at the end, as directives add columns to the end of the row.</li>
+ *   <li>Two columns that are sources and targets of a relation in reverse order are swapped.</li>
+ * </ul>
+ *
+ * <p>Once a directive that doesn't implement {@link Lineage} is seen, or a directive whose columns depend on the
+ * data ({@link Relation.Type#ALL} and {@link Relation.Type#CREATE} relations, as used by parsers), the columns
+ * can't be determined and the rest of the slots are left unbound. As {@link ColumnSlot#find} verifies the
+ * position it's bound to, a wrong position results in a look up by name and not in a wrong column.</p>
+ */
+public final class ColumnBinder {
+  private final List<String> columns;
+
+  /**
+   * @param columns of the rows the recipe is executed on, in order.
+   */
+  public ColumnBinder(List<String> columns) {
+    this.columns = new ArrayList<>(columns);
+  }
+
+  /**
+   * Binds the slots of all the directives implementing {@link ColumnBindable}.
+   *
+   * @param directives of the recipe, in the order of execution.
+   * @return number of slots that were bound to a position.
+   */
+  public int bind(List<Directive> directives) {
+    List<String> current = new ArrayList<>(columns);
+    int bound = 0;
+    for (Directive directive : directives) {
+      if (directive instanceof ColumnBindable) {
+        for (ColumnSlot slot : ((ColumnBindable) directive).slots()) {
+          int position = current == null ? -1 : indexOf(current, slot.getName());
+          slot.bind(position);
+          if (position != -1) {
+            bound++;
+          }
+        }
+      }
+      if (current != null) {
+        current = apply(current, directive);
+      }
+    }
+    return bound;
+  }
+
+  /**
+   * Applies the mutation of the directive on the columns.
+   *
+   * @return columns after the directive is applied, or null if they can't be determined.
+   */
+  @Nullable
+  private static List<String> apply(List<String> columns, Directive directive) {
+    if (!(directive instanceof Lineage)) {
+      return null;
+    }
+    Mutation mutation;
+    try {
+      mutation = ((Lineage) directive).lineage();
+    } catch (RuntimeException e) {
+      // Lineage is only used for describing the recipe, so not all of the directives are careful about it.
+      return null;
+    }
+    Set<String> sources = new LinkedHashSet<>();
+    Set<String> targets = new LinkedHashSet<>();
+    for (Relation relation : mutation.relations()) {
+      switch (relation.getType()) {
+        case ALL:
+        case CREATE:
+          return null;
+
+        case DROP:
+          for (String source : relation.getSources()) {
+            int idx = indexOf(columns, source);
+            if (idx != -1) {
+              columns.remove(idx);
+            }
+          }
+          break;
+
+        case STANDARD:
+          if (isSwap(relation)) {
+            swap(columns, relation.getSources().get(0), relation.getSources().get(1));
+          } else {
+            sources.addAll(relation.getSources());
+            targets.addAll(relation.getTargets());
+          }
+          break;
+      }
+    }
+
+    List<String> removed = new ArrayList<>();
+    for (String source : sources) {
+      if (!contains(targets, source) && indexOf(columns, source) != -1) {
+        removed.add(source);
+      }
+    }
+    List<String> added = new ArrayList<>();
+    for (String target : targets) {
+      if (indexOf(columns, target) == -1) {
+        added.add(target);
+      }
+    }
+
+    if (removed.size() == 1 && added.size() == 1) {
+      columns.set(indexOf(columns, removed.get(0)), added.get(0));
+      return columns;
+    }
+    for (String column : removed) {
+      columns.remove(indexOf(columns, column));
+    }
+    columns.addAll(added);
+    return columns;
+  }
+
+  private static boolean isSwap(Relation relation) {
+    List<String> sources = relation.getSources();
+    List<String> targets = relation.getTargets();
+    return sources.size() == 2 && targets.size() == 2
+      && sources.get(0).equals(targets.get(1)) && sources.get(1).equals(targets.get(0))
+      && !sources.get(0).equals(sources.get(1));
+  }
+
+  private static void swap(List<String> columns, String left, String right) {
+    int lidx = indexOf(columns, left);
+    int ridx = indexOf(columns, right);
+    if (lidx != -1 && ridx != -1) {
+      columns.set(lidx, right);
+      columns.set(ridx, left);
+    }
+  }
+
+  private static boolean contains(Set<String> columns, String name) {
+    for (String column : columns) {
+      if (column.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int indexOf(List<String> columns, String name) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
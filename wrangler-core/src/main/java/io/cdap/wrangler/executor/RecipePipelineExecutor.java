@@ -17,8 +17,11 @@
 package io.cdap.wrangler.executor;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.ColumnarDirective;
+import io.cdap.wrangler.api.DeterministicDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveLoadException;
@@ -33,7 +36,11 @@ import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.ReportErrorAndProceed;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
+import io.cdap.wrangler.api.StatefulDirective;
 import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.annotations.ThreadSafe;
 import io.cdap.wrangler.utils.RecordConvertor;
 import io.cdap.wrangler.utils.RecordConvertorException;
 import org.slf4j.Logger;
@@ -41,18 +48,94 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
 
 /**
  * The class <code>RecipePipelineExecutor</code> compiles the recipe and executes the directives.
+ *
+ * <p>By default the recipe is executed one row at a time. When created with a block size larger than one,
+ * rows are executed in blocks, where each directive is applied to the whole block before the next directive
+ * is invoked. A block that has a row which errors, or a recipe that modifies the {@link
+ * io.cdap.wrangler.api.TransientStore}, is replayed one row at a time, so the results and errors are
+ * the same as when executing row by row, and the rest of the rows are executed one row at a time too. As
+ * blocks may be replayed, they are only used when all the directives are deterministic, as reported by {@link
+ * #isDeterministic(Directive)}, so that executing them twice has no effects other than the metrics, which are
+ * held until the rows of the block are kept. The input rows and their mutable values are copied for the
+ * block, and a block with values that can't be copied is executed one row at a time.</p>
+ *
+ * <p>When created with more than one worker, the rows that a directive generates from a single row, such as
+ * the lines of a file, are split into partitions, and the rest of the recipe is executed on the partitions by
+ * worker threads. This is only done when all the directives of the rest of the recipe are {@link RowIndependent}
+ * and deterministic, and none of them is a stateful {@link StatefulDirective}, so that the partitions can't be
+ * told apart from the rows executed in order, and executing them again has no effects other than the metrics.
+ * When all the directives of the recipe are {@link ThreadSafe} and none of them is stateful, the workers share
+ * them, otherwise each worker has its own copy of the directives, parsed from the same recipe. Each worker has
+ * its own view of the {@link io.cdap.wrangler.api.TransientStore}. The rows are returned in order. When a worker
+ * fails, hits an error row, or writes to the transient store, the partitions and the metrics emitted by the
+ * workers are discarded and the rest of the recipe is executed on the calling thread instead, so errors are
+ * reported the same way. The workers execute copies of the rows and their mutable values, so the rows executed
+ * again are the original ones.</p>
  */
 public final class RecipePipelineExecutor implements RecipePipeline<Row, StructuredRecord, ErrorRecord> {
 
   private static final Logger LOG = LoggerFactory.getLogger(RecipePipelineExecutor.class);
+  // Number of rows in a partition executed by a worker.
+  private static final int PARTITION_SIZE = 512;
+  private final int blockSize;
+  private final int workers;
+  private final List<Worker> partitionWorkers = new ArrayList<>();
+  private ExecutorService pool;
   private ExecutorContext context;
+  private BlockExecutorContext blockContext;
   private List<Directive> directives;
+  // Index of the first directive from which all the directives are row independent.
+  private int independentFrom;
   private final ErrorRecordCollector collector = new ErrorRecordCollector();
   private RecordConvertor convertor = new RecordConvertor();
 
+  // Set to false once the recipe is found to be unsuitable for block execution.
+  private boolean blockable = true;
+
+  // Set to false once the recipe is found to be unsuitable for partitioned execution.
+  private volatile boolean partitionable = true;
+
+  public RecipePipelineExecutor() {
+    this(1);
+  }
+
+  /**
+   * Creates a executor that executes the recipe on blocks of rows.
+   *
+   * @param blockSize maximum number of rows that each directive is invoked with, 1 to execute row by row.
+   */
+  public RecipePipelineExecutor(int blockSize) {
+    this(blockSize, 1);
+  }
+
+  /**
+   * Creates a executor that executes the recipe on blocks of rows, and on partitions of rows in parallel.
+   *
+   * @param blockSize maximum number of rows that each directive is invoked with, 1 to execute row by row.
+   * @param workers number of threads executing partitions of rows, 1 to execute on the calling thread only.
+   */
+  public RecipePipelineExecutor(int blockSize, int workers) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("Block size must be at least 1, but is " + blockSize);
+    }
+    if (workers < 1) {
+      throw new IllegalArgumentException("Number of workers must be at least 1, but is " + workers);
+    }
+    this.blockSize = blockSize;
+    this.workers = workers;
+  }
+
   /**
    * Configures the pipeline based on the directives. It parses the recipe, converting it into executable directives.
    *
@@ -61,8 +144,26 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
   @Override
   public void initialize(RecipeParser parser, ExecutorContext context) throws RecipeException {
     this.context = context;
+    this.blockContext = context == null ? null : new BlockExecutorContext(context);
     try {
       this.directives = parser.parse();
+      for (Directive directive : directives) {
+        blockable &= isDeterministic(directive);
+      }
+      this.independentFrom = directives.size();
+      while (independentFrom > 0 && isRowIndependent(directives.get(independentFrom - 1))
+        && isDeterministic(directives.get(independentFrom - 1))) {
+        independentFrom--;
+      }
+      if (workers > 1) {
+        boolean shared = isThreadSafe(directives);
+        for (int i = 0; i < workers; i++) {
+          partitionWorkers.add(new Worker(shared ? directives : parser.parse(),
+                                          context == null ? null : new BlockExecutorContext(context)));
+        }
+        pool = Executors.newFixedThreadPool(
+          workers, new ThreadFactoryBuilder().setNameFormat("recipe-worker-%d").setDaemon(true).build());
+      }
     } catch (DirectiveParseException e) {
       throw new RecipeException(e.getMessage());
     } catch (DirectiveNotFoundException | DirectiveLoadException e) {
@@ -70,11 +171,72 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
     }
   }
 
+  /**
+   * Binds the {@link io.cdap.wrangler.api.ColumnSlot}s of the directives to the positions of the columns,
+   * when the columns of the input rows are known upfront. Binding is optional, unbound slots and rows that
+   * don't match the columns bound to are looked up by name.
+   *
+   * @param columns of the rows the pipeline will be executed on.
+   * @return number of slots that were bound.
+   */
+  public int bind(List<String> columns) {
+    for (Worker worker : partitionWorkers) {
+      if (worker.directives != directives) {
+        new ColumnBinder(columns).bind(worker.directives);
+      }
+    }
+    return new ColumnBinder(columns).bind(directives);
+  }
+
   /**
    * Invokes each directives destroy method to perform any cleanup required by each individual directive.
    */
   @Override
   public void destroy() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+    destroy(directives);
+    for (Worker worker : partitionWorkers) {
+      if (worker.directives != directives) {
+        destroy(worker.directives);
+      }
+    }
+  }
+
+  private static boolean isThreadSafe(List<Directive> directives) {
+    for (Directive directive : directives) {
+      if (!directive.getClass().isAnnotationPresent(ThreadSafe.class) || isStateful(directive)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isRowIndependent(Directive directive) {
+    return directive.getClass().isAnnotationPresent(RowIndependent.class) && !isStateful(directive);
+  }
+
+  /**
+   * Checks if a directive gives the same output when executed again on the same rows, without effects outside of
+   * the rows and the {@link ExecutorContext}. Directives implementing {@link DeterministicDirective} report it
+   * themselves, and the others are only assumed to be deterministic when they are {@link RowIndependent}.
+   *
+   * @param directive to be checked.
+   * @return true if the directive can be executed again on the same rows.
+   */
+  public static boolean isDeterministic(Directive directive) {
+    if (directive instanceof DeterministicDirective) {
+      return ((DeterministicDirective) directive).isDeterministic();
+    }
+    return directive.getClass().isAnnotationPresent(RowIndependent.class);
+  }
+
+  private static boolean isStateful(Directive directive) {
+    return directive instanceof StatefulDirective && ((StatefulDirective) directive).isStateful();
+  }
+
+  private static void destroy(List<Directive> directives) {
     for (Executor directive : directives) {
       try {
         directive.destroy();
@@ -111,46 +273,277 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
    */
   @Override
   public List<Row> execute(List<Row> rows) throws RecipeException {
-    List<String> messages = new ArrayList<>();
     List<Row> results = Lists.newArrayList();
     try {
       int i = 0;
       collector.reset();
       while (i < rows.size()) {
-        messages.clear();
-        // Resets the scope of local variable.
-        if (context != null) {
-          context.getTransientStore().reset(TransientVariableScope.LOCAL);
+        // The first row is always executed by itself, so that the directives that derive state from the
+        // leading row (e.g. header detection in parse-as-csv) have settled before any block is replayed.
+        int end = Math.min(i + blockSize, rows.size());
+        if (i > 0 && end - i > 1 && blockable) {
+          List<Row> newRows = executeBlock(rows.subList(i, end));
+          if (newRows != null) {
+            results.addAll(newRows);
+            i = end;
+            continue;
+          }
+        }
+        while (i < end) {
+          executeRow(rows.get(i), results);
+          i++;
         }
-        List<Row> newRows = rows.subList(i, i + 1);
+      }
+    } catch (DirectiveExecutionException e) {
+      throw new RecipeException(e.getMessage(), e);
+    }
+    return results;
+  }
+
+  /**
+   * Executes all the directives on a single row, adding the rows generated to results.
+   *
+   * @param row to be executed.
+   * @param results to which the rows generated are added.
+   */
+  private void executeRow(Row row, List<Row> results) throws DirectiveExecutionException {
+    List<String> messages = new ArrayList<>();
+    // Resets the scope of local variable.
+    if (context != null) {
+      context.getTransientStore().reset(TransientVariableScope.LOCAL);
+    }
+    List<Row> newRows = new ArrayList<>(1);
+    newRows.add(row);
+    try {
+      for (int i = 0; i < directives.size(); i++) {
         try {
-          for (Executor<List<Row>, List<Row>> directive : directives) {
-            try {
-              newRows = directive.execute(newRows, context);
-              if (newRows.size() < 1) {
-                break;
-              }
-            } catch (ReportErrorAndProceed e) {
-              messages.add(String.format("%d:%s", e.getCode(), e.getMessage()));
+          newRows = directives.get(i).execute(newRows, context);
+          if (newRows.size() < 1) {
+            break;
+          }
+          if (isPartitionable(i + 1, newRows)) {
+            List<Row> partitioned = executePartitioned(i + 1, newRows);
+            if (partitioned != null) {
+              newRows = partitioned;
+              break;
             }
           }
-          if (newRows.size() > 0) {
-            results.addAll(newRows);
+        } catch (ReportErrorAndProceed e) {
+          messages.add(String.format("%d:%s", e.getCode(), e.getMessage()));
+        }
+      }
+      if (newRows.size() > 0) {
+        results.addAll(newRows);
+      }
+    } catch (ErrorRowException e) {
+      messages.add(String.format("%s", e.getMessage()));
+      collector
+        .add(new ErrorRecord(newRows.get(0), String.join(",", messages), e.getCode(),
+          e.isShownInWrangler()));
+    }
+  }
+
+  /**
+   * Executes all the directives on a block of rows, each directive being applied to the whole block.
+   *
+   * <p>The directives are executed on copies of the rows, leaving the input untouched, so that the block can be
+   * replayed one row at a time when a row in it errors or when the recipe modifies the transient store.
+   * Consecutive directives that implement {@link ColumnarDirective} are applied on a {@link RowBatch} of the
+   * block, as long as all the rows of the block have the same columns. The metrics emitted are only published
+   * when the block is not replayed.</p>
+   *
+   * @param block of rows to be executed.
+   * @return rows generated, or null if the block has to be replayed row by row.
+   */
+  @Nullable
+  private List<Row> executeBlock(List<Row> block) throws DirectiveExecutionException {
+    List<Row> input = RowCopier.copy(block);
+    if (input == null) {
+      return null;
+    }
+    List<Row> results = null;
+    try {
+      results = executeDirectives(input);
+      return results;
+    } finally {
+      if (blockContext != null) {
+        if (results == null) {
+          blockContext.discardMetrics();
+        } else {
+          blockContext.publishMetrics();
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private List<Row> executeDirectives(List<Row> input) throws DirectiveExecutionException {
+    // Either the rows or the batch hold the current state of the block.
+    List<Row> newRows = input;
+    RowBatch batch = null;
+    if (context != null) {
+      context.getTransientStore().reset(TransientVariableScope.LOCAL);
+    }
+    try {
+      for (Directive directive : directives) {
+        boolean columnar = isColumnar(directive);
+        if (columnar && batch == null) {
+          batch = RowBatch.of(newRows);
+          if (batch != null) {
+            newRows = null;
+          }
+        }
+        if (batch != null && columnar) {
+          ((ColumnarDirective) directive).execute(batch, blockContext);
+        } else {
+          if (batch != null) {
+            newRows = batch.toRows();
+            batch = null;
           }
-        } catch (ErrorRowException e) {
-          messages.add(String.format("%s", e.getMessage()));
-          collector
-            .add(new ErrorRecord(newRows.get(0), String.join(",", messages), e.getCode(),
-              e.isShownInWrangler()));
+          newRows = directive.execute(newRows, blockContext);
+        }
+        if (isStoreModified()) {
+          return null;
+        }
+        if (newRows != null && newRows.size() < 1) {
+          break;
         }
-        i++;
       }
+    } catch (ErrorRowException | ReportErrorAndProceed e) {
+      LOG.debug("Recipe reports errors, executing it one row at a time.");
+      blockable = false;
+      return null;
     } catch (DirectiveExecutionException e) {
-      throw new RecipeException(e.getMessage(), e);
+      // Failure could be caused by the transient store not being updated.
+      if (isStoreModified()) {
+        return null;
+      }
+      throw e;
+    }
+    return batch != null ? batch.toRows() : newRows;
+  }
+
+  private boolean isPartitionable(int start, List<Row> rows) {
+    return pool != null && partitionable && start >= independentFrom && start < directives.size()
+      && rows.size() >= 2 * PARTITION_SIZE;
+  }
+
+  /**
+   * Executes the directives from start on partitions of the rows, using the workers.
+   *
+   * @param start index of the first directive to execute.
+   * @param rows to be partitioned, which are only read.
+   * @return rows generated in order, or null if the directives have to be executed on the calling thread.
+   */
+  @Nullable
+  private List<Row> executePartitioned(int start, List<Row> rows) {
+    int count = (rows.size() + PARTITION_SIZE - 1) / PARTITION_SIZE;
+    AtomicReferenceArray<List<Row>> partitions = new AtomicReferenceArray<>(count);
+    AtomicInteger next = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+    List<Future<?>> futures = new ArrayList<>(partitionWorkers.size());
+    for (Worker worker : partitionWorkers) {
+      futures.add(pool.submit(() -> {
+        int partition;
+        while (!failed.get() && (partition = next.getAndIncrement()) < count) {
+          int from = partition * PARTITION_SIZE;
+          List<Row> copies = RowCopier.copy(rows.subList(from, Math.min(from + PARTITION_SIZE, rows.size())));
+          List<Row> result = copies == null ? null : worker.execute(start, copies);
+          if (result == null) {
+            failed.set(true);
+          } else {
+            partitions.set(partition, result);
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failed.set(true);
+      } catch (ExecutionException e) {
+        failed.set(true);
+      }
+    }
+    for (Worker worker : partitionWorkers) {
+      if (worker.context != null) {
+        if (failed.get()) {
+          worker.context.discardMetrics();
+        } else {
+          worker.context.publishMetrics();
+        }
+        if (worker.context.isStoreModified()) {
+          LOG.debug("Recipe modifies transient variables, executing it on a single thread.");
+          partitionable = false;
+        }
+      }
+    }
+    if (failed.get()) {
+      return null;
+    }
+
+    List<Row> results = new ArrayList<>(rows.size());
+    for (int i = 0; i < count; i++) {
+      results.addAll(partitions.get(i));
     }
     return results;
   }
 
+  private static boolean isColumnar(Directive directive) {
+    return directive instanceof ColumnarDirective && ((ColumnarDirective) directive).isColumnar();
+  }
+
+  /**
+   * Checks if the last block modified the transient store, in which case block execution is disabled.
+   */
+  private boolean isStoreModified() {
+    if (blockContext != null && blockContext.isStoreModified()) {
+      LOG.debug("Recipe modifies transient variables, executing it one row at a time.");
+      blockable = false;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * The directives used by a worker thread, either shared with the other workers or a copy of its own.
+   */
+  private static final class Worker {
+    private final List<Directive> directives;
+    private final BlockExecutorContext context;
+
+    Worker(List<Directive> directives, @Nullable BlockExecutorContext context) {
+      this.directives = directives;
+      this.context = context;
+    }
+
+    /**
+     * Executes the directives from start on the rows.
+     *
+     * @return rows generated, or null if the directives failed or have to be executed on the calling thread.
+     */
+    @Nullable
+    List<Row> execute(int start, List<Row> rows) {
+      try {
+        for (int i = start; i < directives.size(); i++) {
+          rows = directives.get(i).execute(rows, context);
+          if (context != null && context.isStoreModified()) {
+            return null;
+          }
+          if (rows.size() < 1) {
+            break;
+          }
+        }
+        return rows;
+      } catch (Exception e) {
+        // Includes error rows, which are reported by executing the directives on the calling thread.
+        return null;
+      }
+    }
+  }
+
   /**
    * Returns records that are errored out.
    *
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.cdap.wrangler.api.Row;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Copies rows along with the values that directives could modify in place, such as byte arrays, JSON objects,
+ * lists and maps, so that rows executed by the directives can be executed again from the originals.
+ */
+final class RowCopier {
+  // Values of these classes are shared by the copies.
+  private static final Set<Class<?>> IMMUTABLE = ImmutableSet.of(
+    String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+    Double.class, BigDecimal.class, BigInteger.class, JsonPrimitive.class, JsonNull.class, LocalDate.class,
+    LocalTime.class, LocalDateTime.class, ZonedDateTime.class, OffsetDateTime.class, Instant.class
+  );
+
+  // Returned for values that can't be copied.
+  private static final Object UNCOPYABLE = new Object();
+
+  private RowCopier() {
+  }
+
+  /**
+   * Copies the rows and their mutable values.
+   *
+   * @param rows to be copied, which are left untouched.
+   * @return copies of the rows, or null if a row has a mutable value that can't be copied.
+   */
+  @Nullable
+  static List<Row> copy(List<Row> rows) {
+    List<Row> copies = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      Row copy = new Row(row);
+      for (int i = 0; i < copy.length(); i++) {
+        Object value = copy.getValue(i);
+        if (value != null && !IMMUTABLE.contains(value.getClass())) {
+          Object copied = copyValue(value);
+          if (copied == UNCOPYABLE) {
+            return null;
+          }
+          copy.setValue(i, copied);
+        }
+      }
+      copies.add(copy);
+    }
+    return copies;
+  }
+
+  private static Object copyValue(@Nullable Object value) {
+    if (value == null || IMMUTABLE.contains(value.getClass())) {
+      return value;
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).clone();
+    }
+    if (value instanceof Date) {
+      return ((Date) value).clone();
+    }
+    if (value instanceof JsonObject) {
+      JsonObject copy = new JsonObject();
+      for (Map.Entry<String, JsonElement> entry : ((JsonObject) value).entrySet()) {
+        Object copied = copyValue(entry.getValue());
+        if (copied == UNCOPYABLE) {
+          return UNCOPYABLE;
+        }
+        copy.add(entry.getKey(), (JsonElement) copied);
+      }
+      return copy;
+    }
+    if (value instanceof JsonArray) {
+      JsonArray copy = new JsonArray();
+      for (JsonElement element : (JsonArray) value) {
+        Object copied = copyValue(element);
+        if (copied == UNCOPYABLE) {
+          return UNCOPYABLE;
+        }
+        copy.add((JsonElement) copied);
+      }
+      return copy;
+    }
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>(((List<?>) value).size());
+      for (Object element : (List<?>) value) {
+        Object copied = copyValue(element);
+        if (copied == UNCOPYABLE) {
+          return UNCOPYABLE;
+        }
+        copy.add(copied);
+      }
+      return copy;
+    }
+    if (value instanceof Map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        Object copied = copyValue(entry.getValue());
+        if (copied == UNCOPYABLE) {
+          return UNCOPYABLE;
+        }
+        copy.put(entry.getKey(), copied);
+      }
+      return copy;
+    }
+    return UNCOPYABLE;
+  }
+}
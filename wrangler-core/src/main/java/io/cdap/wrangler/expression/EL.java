@@ -40,18 +40,49 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * This class <code>EL</code> is a Expression Language Handler.
+ *
+ * <p>Expressions are validated and interpreted by JEXL. Unless disabled, the expressions supported by
+ * {@link ELCompiler} are also compiled and evaluated without the interpreter, falling back to JEXL only when
+ * the compiled expression can't evaluate them the same way.</p>
+ *
+ * <p>The engines and compiled expressions are shared through the {@link ELCache}.</p>
  */
 public final class EL {
+  // Functions reading the clock or generating random values, such as date:DAYS_BETWEEN_NOW() or math:random(),
+  // and instantiation of classes. Matching other names too only makes the expression be treated as
+  // non-deterministic.
+  private static final Pattern NON_DETERMINISTIC = Pattern.compile(
+    "(?i)(?<![a-z])(now|random|nanotime|currenttimemillis)|\\bnew\\s*\\(");
   private Set<String> variables = new HashSet<>();
   private final JexlEngine engine;
+  private final Map<String, Object> functions;
+  private final boolean compile;
   private JexlScript script = null;
+  private JexlInfo info = null;
+  private ELCompiler.Node compiled = null;
+  private boolean deterministic = true;
 
   public EL(ELRegistration registration) {
-    engine = new JexlBuilder()
-      .namespaces(registration.functions())
+    this(registration, true);
+  }
+
+  /**
+   * @param registration of the functions available to the expressions.
+   * @param compile true to compile the expressions where possible, false to always interpret them with JEXL.
+   */
+  public EL(ELRegistration registration, boolean compile) {
+    this.functions = ELCache.key(registration.functions());
+    this.compile = compile;
+    this.engine = ELCache.getInstance().getEngine(functions, () -> createEngine(functions));
+  }
+
+  private static JexlEngine createEngine(Map<String, Object> functions) {
+    return new JexlBuilder()
+      .namespaces(functions)
       .silent(false)
       .cache(1024)
       .strict(true)
@@ -61,12 +92,27 @@ public final class EL {
 
   public void compile(String expression) throws ELException {
     variables.clear();
+    compiled = null;
+    deterministic = !NON_DETERMINISTIC.matcher(expression).find();
+    ELCache.Script cached = ELCache.getInstance().getScript(functions, expression, () -> createScript(expression));
+    script = cached.getScript();
+    info = cached.getInfo();
+    variables.addAll(cached.getVariables());
+    if (compile) {
+      compiled = cached.getCompiled();
+    }
+  }
+
+  private ELCache.Script createScript(String expression) throws ELException {
     try {
-      script = engine.createScript(expression);
+      JexlInfo info = engine.createInfo();
+      JexlScript script = engine.createScript(info, expression, null);
+      Set<String> variables = new HashSet<>();
       Set<List<String>> varSet = script.getVariables();
       for (List<String> vars : varSet) {
         variables.add(Joiner.on(".").join(vars));
       }
+      return new ELCache.Script(script, info, variables, ELCompiler.compile(engine, functions, expression));
     } catch (JexlException e) {
       // JexlException.getMessage() uses 'io.cdap.wrangler.expression.EL' class name in the error message.
       // So instead use info object to get information about error message and create custom error message.
@@ -80,10 +126,32 @@ public final class EL {
     }
   }
 
+  /**
+   * @return engine the expressions are compiled and evaluated with.
+   */
+  JexlEngine getEngine() {
+    return engine;
+  }
+
   public Set<String> variables() {
     return variables;
   }
 
+  /**
+   * @return false if the expression might evaluate differently for the same variables, such as when it reads the
+   *         current time.
+   */
+  public boolean isDeterministic() {
+    return deterministic;
+  }
+
+  /**
+   * @return true if the expression is evaluated without the JEXL interpreter.
+   */
+  boolean isCompiled() {
+    return compiled != null;
+  }
+
   public ELResult execute(ELContext context, boolean nullMissingFields) throws ELException {
     try {
       if (nullMissingFields) {
@@ -93,17 +161,19 @@ public final class EL {
           }
         }
       }
-      Object value = script.execute(context);
+      Object value = compiled == null ? script.execute(context) : evaluate(context);
       ELResult variable = new ELResult(value);
       return variable;
     } catch (JexlException e) {
       // JexlException.getMessage() uses 'io.cdap.wrangler.expression.EL' class name in the error message.
       // So instead use info object to get information about error message and create custom error message.
       JexlInfo info = e.getInfo();
-      throw new ELException(
-        String.format("Error encountered while executing '%s', at line '%d' and column '%d'. " +
-                        "Make sure a valid jexl transformation is provided.",
-                      info.getDetail().toString(), info.getLine(), info.getColumn()));
+      if (info == null || info.getDetail() == null) {
+        throw new ELException(e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+      }
+      throw executionError(info.getDetail().toString(), info);
+    } catch (ELException e) {
+      throw e;
     } catch (NumberFormatException e) {
       throw new ELException("Type mismatch. Change type of constant " +
                               "or convert to right data type using conversion functions available. Reason : "
@@ -121,6 +191,31 @@ public final class EL {
     return execute(context, true);
   }
 
+  /**
+   * Evaluates the compiled expression, and if it runs into a case it doesn't handle the same way as JEXL,
+   * interprets the expression with JEXL instead. Errors of calls and operators are reported the way JEXL
+   * reports them, with the location of the whole expression, and other errors are thrown as they are.
+   */
+  private Object evaluate(ELContext context) throws Exception {
+    try {
+      return compiled.evaluate(context);
+    } catch (ELCompiler.Fallback e) {
+      return script.execute(context);
+    } catch (ELCompiler.Failure | ArithmeticException e) {
+      if (info == null) {
+        throw new ELException(e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+      }
+      throw executionError(script.getParsedText(), info);
+    }
+  }
+
+  private static ELException executionError(String detail, JexlInfo info) {
+    return new ELException(
+      String.format("Error encountered while executing '%s', at line '%d' and column '%d'. " +
+                      "Make sure a valid jexl transformation is provided.",
+                    detail, info.getLine(), info.getColumn()));
+  }
+
   /**
    * @return List of registered functions.
    */
@@ -145,7 +240,7 @@ public final class EL {
 
   }
 
-  private final class NullLogger implements Log {
+  private static final class NullLogger implements Log {
     @Override
     public void debug(Object o) {
 
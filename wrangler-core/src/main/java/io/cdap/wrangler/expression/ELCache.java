@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlInfo;
+import org.apache.commons.jexl3.JexlScript;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>ELCache</code> is a process wide cache of the {@link JexlEngine}s and compiled expressions
+ * used by {@link EL}, so that directives with the same expression, or recipes that are parsed repeatedly,
+ * don't build the engine and compile the expression again.
+ *
+ * <p>Engines are keyed by the functions registered with them, and expressions by their text and the
+ * functions. Both caches are bounded and evict the least recently used entries. Everything cached is
+ * immutable or thread-safe, so it's shared by all threads.</p>
+ */
+public final class ELCache {
+  private static final int MAX_ENGINES = 32;
+  private static final int MAX_SCRIPTS = 8192;
+  private static final ELCache INSTANCE = new ELCache(MAX_ENGINES, MAX_SCRIPTS);
+
+  private final Cache<Map<String, Object>, JexlEngine> engines;
+  private final Cache<Key, Script> scripts;
+
+  ELCache(int maxEngines, int maxScripts) {
+    this.engines = CacheBuilder.newBuilder().maximumSize(maxEngines).recordStats().build();
+    this.scripts = CacheBuilder.newBuilder().maximumSize(maxScripts).recordStats().build();
+  }
+
+  /**
+   * @return the cache shared by all the {@link EL} instances.
+   */
+  public static ELCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the engines.
+   */
+  public CacheStats getEngineStats() {
+    return engines.stats();
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the compiled expressions.
+   */
+  public CacheStats getScriptStats() {
+    return scripts.stats();
+  }
+
+  /**
+   * Returns the engine for the functions, creating it if it's not cached.
+   */
+  JexlEngine getEngine(Map<String, Object> functions, Callable<JexlEngine> loader) {
+    try {
+      return engines.get(functions, loader);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /**
+   * Returns the compiled expression, compiling it if it's not cached. Expressions that fail to compile are
+   * not cached.
+   */
+  Script getScript(Map<String, Object> functions, String expression, Callable<Script> loader) throws ELException {
+    try {
+      return scripts.get(new Key(functions, expression), loader);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof ELException) {
+        throw (ELException) e.getCause();
+      }
+      throw new ELException(e.getCause().getMessage());
+    }
+  }
+
+  /**
+   * Returns a copy of the functions that is safe to use as a key.
+   */
+  static Map<String, Object> key(Map<String, Object> functions) {
+    return Collections.unmodifiableMap(new HashMap<>(functions));
+  }
+
+  /**
+   * An expression compiled by JEXL, along with what {@link EL} derives from it.
+   */
+  static final class Script {
+    private final JexlScript script;
+    private final JexlInfo info;
+    private final Set<String> variables;
+    private final ELCompiler.Node compiled;
+
+    Script(JexlScript script, @Nullable JexlInfo info, Set<String> variables, @Nullable ELCompiler.Node compiled) {
+      this.script = script;
+      this.info = info;
+      this.variables = Collections.unmodifiableSet(variables);
+      this.compiled = compiled;
+    }
+
+    JexlScript getScript() {
+      return script;
+    }
+
+    /**
+     * @return location the script was created with, which JEXL reports in the errors of the script.
+     */
+    @Nullable
+    JexlInfo getInfo() {
+      return info;
+    }
+
+    Set<String> getVariables() {
+      return variables;
+    }
+
+    @Nullable
+    ELCompiler.Node getCompiled() {
+      return compiled;
+    }
+  }
+
+  private static final class Key {
+    private final Map<String, Object> functions;
+    private final String expression;
+
+    Key(Map<String, Object> functions, String expression) {
+      this.functions = functions;
+      this.expression = expression;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return expression.equals(key.expression) && functions.equals(key.functions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(functions, expression);
+    }
+  }
+}
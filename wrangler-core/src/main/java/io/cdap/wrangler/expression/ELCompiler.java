@@ -0,0 +1,649 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>ELCompiler</code> compiles the common shapes of JEXL expressions into a tree of
+ * {@link Node}s, that is evaluated without going through the JEXL interpreter.
+ *
+ * <p>The supported shapes are literals, variables, arithmetic, comparisons, logical operators, ternaries,
+ * calls to the functions of the registered namespaces and method calls. Anything else, such as assignments,
+ * property access, regular expression operators or scripts, is not compiled and is left to JEXL.</p>
+ *
+ * <p>The nodes use the {@link JexlArithmetic} and {@link JexlUberspect} of the engine, so the operators and
+ * the method resolution behave the same as in JEXL. Whenever the evaluation runs into a case that JEXL might
+ * treat differently, it throws a {@link Fallback} and the caller is expected to evaluate the expression with
+ * JEXL instead. Undefined variables and variables shadowing the functions called are checked before anything
+ * is evaluated, but the cases that depend on the values, such as a null operand of a logical operator or a
+ * method that can't be resolved for the arguments, are only found during the evaluation. Functions called
+ * before such a case are invoked again by JEXL.</p>
+ *
+ * <p>Errors of the functions called are wrapped in a {@link Failure}, and errors of the operators, such as a
+ * division by zero, are thrown as they are.</p>
+ */
+final class ELCompiler {
+  // Words that JEXL reserves for operators and statements.
+  static final Set<String> RESERVED = ImmutableSet.of(
+    "or", "and", "eq", "ne", "lt", "gt", "le", "ge", "div", "mod", "not", "empty", "size", "new", "var",
+    "do", "while", "for", "if", "else", "function", "return", "break", "continue", "NaN"
+  );
+
+  // Thrown when an expression is not supported by the compiler.
+  private static final Unsupported UNSUPPORTED = new Unsupported();
+
+  // Thrown when the evaluation has to be left to JEXL.
+  private static final Fallback FALLBACK = new Fallback();
+
+  private final JexlEngine engine;
+  private final JexlArithmetic arithmetic;
+  private final JexlUberspect uberspect;
+  private final Map<String, Object> functions;
+  private final List<Token> tokens;
+  // Variables and unqualified functions referenced by the expression.
+  private final Set<String> variables = new LinkedHashSet<>();
+  private final Set<String> unqualified = new LinkedHashSet<>();
+  private int pos;
+
+  /**
+   * A compiled expression, or part of it.
+   */
+  interface Node {
+    /**
+     * Evaluates the expression.
+     *
+     * @param context to resolve the variables from.
+     * @return result of the evaluation.
+     * @throws Fallback if the evaluation has to be done by JEXL.
+     * @throws Exception if the evaluation fails.
+     */
+    Object evaluate(JexlContext context) throws Exception;
+  }
+
+  private ELCompiler(JexlEngine engine, Map<String, Object> functions, List<Token> tokens) {
+    this.engine = engine;
+    this.arithmetic = engine.getArithmetic();
+    this.uberspect = engine.getUberspect();
+    this.functions = functions;
+    this.tokens = tokens;
+  }
+
+  /**
+   * Compiles an expression.
+   *
+   * @param engine the expression has been validated with.
+   * @param functions namespaces registered with the engine.
+   * @param expression to be compiled.
+   * @return compiled expression, or null if the expression is not supported.
+   */
+  @Nullable
+  static Node compile(JexlEngine engine, Map<String, Object> functions, String expression) {
+    try {
+      ELCompiler compiler = new ELCompiler(engine, functions, tokenize(expression));
+      Node node = compiler.ternary();
+      if (compiler.peek().type != TokenType.END) {
+        return null;
+      }
+      return compiler.checked(node);
+    } catch (Unsupported e) {
+      return null;
+    }
+  }
+
+  /**
+   * Checks that the variables referenced are defined and that none of them has the name of an unqualified
+   * function called, before evaluating the expression.
+   */
+  private Node checked(Node node) {
+    String[] variables = this.variables.toArray(new String[0]);
+    String[] unqualified = this.unqualified.toArray(new String[0]);
+    return context -> {
+      for (String variable : variables) {
+        if (!context.has(variable)) {
+          throw FALLBACK;
+        }
+      }
+      // A variable with the same name as an unqualified function might be called by JEXL instead.
+      for (String function : unqualified) {
+        if (context.has(function)) {
+          throw FALLBACK;
+        }
+      }
+      return node.evaluate(context);
+    };
+  }
+
+  private Node ternary() throws Unsupported {
+    Node condition = or();
+    if (!accept("?")) {
+      return condition;
+    }
+    Node whenTrue = ternary();
+    expect(":");
+    Node whenFalse = ternary();
+    return context -> {
+      Object value = condition.evaluate(context);
+      if (value == null) {
+        throw FALLBACK;
+      }
+      return arithmetic.toBoolean(value) ? whenTrue.evaluate(context) : whenFalse.evaluate(context);
+    };
+  }
+
+  private Node or() throws Unsupported {
+    Node node = and();
+    while (accept("||")) {
+      Node left = node;
+      Node right = and();
+      node = context -> toBoolean(left.evaluate(context)) || toBoolean(right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    return node;
+  }
+
+  private Node and() throws Unsupported {
+    Node node = equality();
+    while (accept("&&")) {
+      Node left = node;
+      Node right = equality();
+      node = context -> toBoolean(left.evaluate(context)) && toBoolean(right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    return node;
+  }
+
+  private Node equality() throws Unsupported {
+    Node node = relational();
+    while (true) {
+      Node left = node;
+      if (accept("==")) {
+        Node right = relational();
+        node = context -> arithmetic.equals(left.evaluate(context), right.evaluate(context))
+          ? Boolean.TRUE : Boolean.FALSE;
+      } else if (accept("!=")) {
+        Node right = relational();
+        node = context -> arithmetic.equals(left.evaluate(context), right.evaluate(context))
+          ? Boolean.FALSE : Boolean.TRUE;
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node relational() throws Unsupported {
+    Node node = additive();
+    while (true) {
+      Node left = node;
+      if (accept("<")) {
+        Node right = additive();
+        node = context -> arithmetic.lessThan(left.evaluate(context), right.evaluate(context))
+          ? Boolean.TRUE : Boolean.FALSE;
+      } else if (accept("<=")) {
+        Node right = additive();
+        node = context -> arithmetic.lessThanOrEqual(left.evaluate(context), right.evaluate(context))
+          ? Boolean.TRUE : Boolean.FALSE;
+      } else if (accept(">")) {
+        Node right = additive();
+        node = context -> arithmetic.greaterThan(left.evaluate(context), right.evaluate(context))
+          ? Boolean.TRUE : Boolean.FALSE;
+      } else if (accept(">=")) {
+        Node right = additive();
+        node = context -> arithmetic.greaterThanOrEqual(left.evaluate(context), right.evaluate(context))
+          ? Boolean.TRUE : Boolean.FALSE;
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node additive() throws Unsupported {
+    Node node = multiplicative();
+    while (true) {
+      Node left = node;
+      if (accept("+")) {
+        Node right = multiplicative();
+        node = context -> arithmetic.add(left.evaluate(context), right.evaluate(context));
+      } else if (accept("-")) {
+        Node right = multiplicative();
+        node = context -> arithmetic.subtract(left.evaluate(context), right.evaluate(context));
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node multiplicative() throws Unsupported {
+    Node node = unary();
+    while (true) {
+      Node left = node;
+      if (accept("*")) {
+        Node right = unary();
+        node = context -> arithmetic.multiply(left.evaluate(context), right.evaluate(context));
+      } else if (accept("/")) {
+        Node right = unary();
+        node = context -> arithmetic.divide(left.evaluate(context), right.evaluate(context));
+      } else if (accept("%")) {
+        Node right = unary();
+        node = context -> arithmetic.mod(left.evaluate(context), right.evaluate(context));
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node unary() throws Unsupported {
+    if (accept("-")) {
+      if (peek().type == TokenType.NUMBER) {
+        // Negative literals are evaluated by JEXL as a whole, as it might fold them into a literal of a different
+        // type than negating the positive literal would, such as -2147483648.
+        Object value = literal("-" + next().text);
+        return context -> value;
+      }
+      Node operand = unary();
+      return context -> arithmetic.negate(operand.evaluate(context));
+    }
+    if (accept("!")) {
+      Node operand = unary();
+      return context -> toBoolean(operand.evaluate(context)) ? Boolean.FALSE : Boolean.TRUE;
+    }
+    return postfix();
+  }
+
+  private Node postfix() throws Unsupported {
+    Node node = primary();
+    while (accept(".")) {
+      Token method = next();
+      if (method.type != TokenType.IDENTIFIER || RESERVED.contains(method.text) || !accept("(")) {
+        // Property access, which JEXL also resolves as 'antish' variables.
+        throw UNSUPPORTED;
+      }
+      node = new Call(node, null, method.text, arguments());
+    }
+    return node;
+  }
+
+  private Node primary() throws Unsupported {
+    Token token = next();
+    switch (token.type) {
+      case NUMBER:
+      case STRING: {
+        Object value = literal(token.text);
+        return context -> value;
+      }
+
+      case IDENTIFIER:
+        switch (token.text) {
+          case "true":
+            return context -> Boolean.TRUE;
+          case "false":
+            return context -> Boolean.FALSE;
+          case "null":
+            return context -> null;
+        }
+        if (RESERVED.contains(token.text)) {
+          throw UNSUPPORTED;
+        }
+        if (peek().is(":") && peek(1).type == TokenType.IDENTIFIER && peek(2).is("(")) {
+          next();
+          Token function = next();
+          next();
+          return new Call(null, namespace(token.text), function.text, arguments());
+        }
+        if (accept("(")) {
+          unqualified.add(token.text);
+          return new Call(null, namespace(null), token.text, arguments());
+        }
+        String name = token.text;
+        variables.add(name);
+        return context -> context.get(name);
+
+      case OPERATOR:
+        if (token.is("(")) {
+          Node node = ternary();
+          expect(")");
+          return node;
+        }
+        throw UNSUPPORTED;
+
+      default:
+        throw UNSUPPORTED;
+    }
+  }
+
+  private Node[] arguments() throws Unsupported {
+    List<Node> arguments = new ArrayList<>();
+    if (!accept(")")) {
+      do {
+        arguments.add(ternary());
+      } while (accept(","));
+      expect(")");
+    }
+    return arguments.toArray(new Node[arguments.size()]);
+  }
+
+  /**
+   * Resolves a function namespace. Only classes that JEXL would not instantiate as a functor are supported.
+   */
+  private Object namespace(@Nullable String prefix) throws Unsupported {
+    Object namespace = functions.get(prefix);
+    if (!(namespace instanceof Class)) {
+      throw UNSUPPORTED;
+    }
+    for (Constructor<?> constructor : ((Class<?>) namespace).getConstructors()) {
+      if (constructor.getParameterTypes().length == 1) {
+        throw UNSUPPORTED;
+      }
+    }
+    return namespace;
+  }
+
+  /**
+   * Evaluates a literal with JEXL, so that it has the same type and value as when it's interpreted.
+   */
+  private Object literal(String text) throws Unsupported {
+    try {
+      return engine.createScript(text).execute(new ELContext());
+    } catch (RuntimeException e) {
+      throw UNSUPPORTED;
+    }
+  }
+
+  private boolean toBoolean(Object value) throws Fallback {
+    if (value == null) {
+      throw FALLBACK;
+    }
+    return arithmetic.toBoolean(value);
+  }
+
+  private Token peek() {
+    return tokens.get(pos);
+  }
+
+  private Token peek(int ahead) {
+    return tokens.get(Math.min(pos + ahead, tokens.size() - 1));
+  }
+
+  private Token next() {
+    Token token = tokens.get(pos);
+    if (token.type != TokenType.END) {
+      pos++;
+    }
+    return token;
+  }
+
+  private boolean accept(String operator) {
+    if (peek().is(operator)) {
+      pos++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(String operator) throws Unsupported {
+    if (!accept(operator)) {
+      throw UNSUPPORTED;
+    }
+  }
+
+  /**
+   * Splits the expression into tokens, failing on anything outside of the supported subset of JEXL.
+   */
+  private static List<Token> tokenize(String expression) throws Unsupported {
+    List<Token> tokens = new ArrayList<>();
+    int length = expression.length();
+    int i = 0;
+    while (i < length) {
+      char c = expression.charAt(i);
+      int start = i;
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      if (isIdentifierStart(c)) {
+        while (i < length && isIdentifierPart(expression.charAt(i))) {
+          i++;
+        }
+        tokens.add(new Token(TokenType.IDENTIFIER, expression.substring(start, i)));
+      } else if (c >= '0' && c <= '9') {
+        while (i < length && isDigit(expression.charAt(i))) {
+          i++;
+        }
+        if (i + 1 < length && expression.charAt(i) == '.' && isDigit(expression.charAt(i + 1))) {
+          i++;
+          while (i < length && isDigit(expression.charAt(i))) {
+            i++;
+          }
+        }
+        // Suffixes, exponents, hexadecimals and ranges.
+        if (i < length && (isIdentifierPart(expression.charAt(i)) || expression.charAt(i) == '.')) {
+          throw UNSUPPORTED;
+        }
+        tokens.add(new Token(TokenType.NUMBER, expression.substring(start, i)));
+      } else if (c == '\'' || c == '"') {
+        i++;
+        while (i < length && expression.charAt(i) != c) {
+          i += expression.charAt(i) == '\\' ? 2 : 1;
+        }
+        if (i >= length) {
+          throw UNSUPPORTED;
+        }
+        i++;
+        tokens.add(new Token(TokenType.STRING, expression.substring(start, i)));
+      } else {
+        String operator = operator(expression, i);
+        i += operator.length();
+        tokens.add(new Token(TokenType.OPERATOR, operator));
+      }
+    }
+    tokens.add(new Token(TokenType.END, ""));
+    return tokens;
+  }
+
+  private static String operator(String expression, int i) throws Unsupported {
+    char c = expression.charAt(i);
+    char n = i + 1 < expression.length() ? expression.charAt(i + 1) : 0;
+    switch (c) {
+      case '(':
+      case ')':
+      case ',':
+        return String.valueOf(c);
+      case '+':
+      case '-':
+      case '*':
+      case '%':
+        if (n == '=' || n == c) {
+          throw UNSUPPORTED;
+        }
+        return String.valueOf(c);
+      case '/':
+        // Comments and assignments.
+        if (n == '/' || n == '*' || n == '=') {
+          throw UNSUPPORTED;
+        }
+        return "/";
+      case '.':
+        if (n == '.') {
+          throw UNSUPPORTED;
+        }
+        return ".";
+      case '?':
+        // Elvis, safe navigation and null coalescing operators.
+        if (n == ':' || n == '.' || n == '?') {
+          throw UNSUPPORTED;
+        }
+        return "?";
+      case ':':
+        return ":";
+      case '<':
+      case '>':
+        return n == '=' ? c + "=" : String.valueOf(c);
+      case '=':
+        if (n == '=') {
+          return "==";
+        }
+        throw UNSUPPORTED;
+      case '!':
+        if (n == '=') {
+          return "!=";
+        }
+        if (n == '~' || n == '^' || n == '$') {
+          throw UNSUPPORTED;
+        }
+        return "!";
+      case '&':
+        if (n == '&') {
+          return "&&";
+        }
+        throw UNSUPPORTED;
+      case '|':
+        if (n == '|') {
+          return "||";
+        }
+        throw UNSUPPORTED;
+      default:
+        throw UNSUPPORTED;
+    }
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return isIdentifierStart(c) || isDigit(c);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Call of a method on an object, or of a function in a namespace.
+   *
+   * <p>The method resolved is cached, and reused as long as the arguments are compatible with it. Errors of
+   * the method are thrown as a {@link Failure}.</p>
+   */
+  private final class Call implements Node {
+    private final Node target;
+    private final Object namespace;
+    private final String name;
+    private final Node[] arguments;
+    private volatile JexlMethod method;
+
+    Call(@Nullable Node target, @Nullable Object namespace, String name, Node[] arguments) {
+      this.target = target;
+      this.namespace = namespace;
+      this.name = name;
+      this.arguments = arguments;
+    }
+
+    @Override
+    public Object evaluate(JexlContext context) throws Exception {
+      Object object = target == null ? namespace : target.evaluate(context);
+      if (object == null) {
+        throw FALLBACK;
+      }
+
+      Object[] values = new Object[arguments.length];
+      for (int i = 0; i < arguments.length; i++) {
+        values[i] = arguments[i].evaluate(context);
+      }
+
+      try {
+        JexlMethod cached = method;
+        if (cached != null) {
+          Object result = cached.tryInvoke(name, object, values);
+          if (!cached.tryFailed(result)) {
+            return result;
+          }
+        }
+        JexlMethod resolved = uberspect.getMethod(object, name, values);
+        if (resolved == null) {
+          throw FALLBACK;
+        }
+        if (resolved.isCacheable()) {
+          method = resolved;
+        }
+        return resolved.invoke(object, values);
+      } catch (Fallback e) {
+        throw e;
+      } catch (Exception e) {
+        throw new Failure(e);
+      }
+    }
+  }
+
+  private enum TokenType {
+    IDENTIFIER,
+    NUMBER,
+    STRING,
+    OPERATOR,
+    END
+  }
+
+  private static final class Token {
+    private final TokenType type;
+    private final String text;
+
+    Token(TokenType type, String text) {
+      this.type = type;
+      this.text = text;
+    }
+
+    boolean is(String operator) {
+      return type == TokenType.OPERATOR && text.equals(operator);
+    }
+  }
+
+  private static final class Unsupported extends Exception {
+    Unsupported() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Thrown when a function or method called by a compiled expression fails.
+   */
+  static final class Failure extends Exception {
+    Failure(Exception cause) {
+      super(cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Thrown when the evaluation of a compiled expression has to be done by JEXL instead.
+   */
+  static final class Fallback extends Exception {
+    Fallback() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ELContext} that resolves the variables of an expression directly from a {@link Row}.
+ *
+ * <p>Unlike {@link ELContext}, nothing is copied into this context. It's created once for an expression and
+ * {@link #reset(Row, ExecutorContext)} before every evaluation. Variables are resolved when the expression
+ * references them, in the following order:</p>
+ * <ol>
+ *   <li>Variables set while evaluating the expression.</li>
+ *   <li>Variables in the {@link io.cdap.wrangler.api.TransientStore}.</li>
+ *   <li>Columns of the row, for the variables of the expression. A column that is missing resolves to null.</li>
+ *   <li>The row itself, if a row variable is specified.</li>
+ *   <li>The runtime arguments, environment and context name, as with {@link ELContext#ELContext(ExecutorContext)}.
+ *   </li>
+ * </ol>
+ */
+public class ELRowContext extends ELContext {
+  private final Set<String> variables;
+  private final String rowVariable;
+  private final Map<String, Object> assigned = new HashMap<>();
+  private Row row;
+  private ExecutorContext context;
+  private Set<String> transients;
+
+  /**
+   * @param variables of the expression, as returned by {@link EL#variables()}.
+   */
+  public ELRowContext(Set<String> variables) {
+    this(variables, null);
+  }
+
+  /**
+   * @param variables of the expression, as returned by {@link EL#variables()}.
+   * @param rowVariable name of the variable the row is accessible as, null if the row is not accessible.
+   */
+  public ELRowContext(Set<String> variables, @Nullable String rowVariable) {
+    this.variables = variables;
+    this.rowVariable = rowVariable;
+  }
+
+  /**
+   * Prepares the context for evaluating the expression on a row, dropping the variables of the previous row.
+   *
+   * @param row the variables are resolved from.
+   * @param context the directive is executed in, can be null.
+   * @return 'this' context.
+   */
+  public ELRowContext reset(Row row, @Nullable ExecutorContext context) {
+    this.row = row;
+    this.context = context;
+    this.transients = null;
+    assigned.clear();
+    return this;
+  }
+
+  /**
+   * Returns the value of a column of the row, can be overridden to convert the value for the expression.
+   *
+   * @param row to get the value from.
+   * @param name of the column.
+   * @return value of the column, null if the column doesn't exist.
+   */
+  protected Object getValue(Row row, String name) {
+    return row.getValue(name);
+  }
+
+  @Override
+  public Object get(String name) {
+    if (assigned.containsKey(name)) {
+      return assigned.get(name);
+    }
+    if (isTransient(name)) {
+      return context.getTransientStore().get(name);
+    }
+    if (variables.contains(name)) {
+      return getValue(row, name);
+    }
+    if (name.equals(rowVariable)) {
+      return row;
+    }
+    if (context != null) {
+      switch (name) {
+        case "runtime":
+          return context.getProperties();
+        case "environment":
+          return context.getEnvironment().name();
+        case "context":
+          return context.getContextName();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void set(String name, Object value) {
+    assigned.put(name, value);
+  }
+
+  @Override
+  public ELContext add(String name, Object value) {
+    assigned.put(name, value);
+    return this;
+  }
+
+  @Override
+  public boolean has(String name) {
+    if (assigned.containsKey(name) || isTransient(name) || variables.contains(name) || name.equals(rowVariable)) {
+      return true;
+    }
+    return context != null && ("runtime".equals(name) || "environment".equals(name) || "context".equals(name));
+  }
+
+  private boolean isTransient(String name) {
+    if (context == null) {
+      return false;
+    }
+    if (transients == null) {
+      transients = context.getTransientStore().getVariables();
+    }
+    return transients.contains(name);
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.PrimitiveColumn;
+import io.cdap.wrangler.api.RowBatch;
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlEngine;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>NumericKernel</code> evaluates an arithmetic expression on whole columns of a
+ * {@link RowBatch}, on the unboxed values of the columns.
+ *
+ * <p>The supported shapes are {@code column op literal}, {@code literal op column} and {@code column op column},
+ * where {@code op} is one of {@code +}, {@code -} or {@code *}. The result is the same as JEXL's for every row:
+ * the operation is done on doubles if either operand is a floating point number, and on integers otherwise,
+ * resulting in a {@link Long} if either operand is a {@link Long} and in an {@link Integer} if not. Whenever
+ * the batch doesn't fit these rules, because a column is missing, holds nulls or values that are not numbers,
+ * or an operation overflows into a different type, {@link #evaluate(RowBatch)} returns null and the caller is
+ * expected to evaluate the expression row by row.</p>
+ */
+public final class NumericKernel {
+  private static final String OPERAND = "([A-Za-z_$][A-Za-z0-9_$]*|[0-9]+(?:\\.[0-9]+)?)";
+  private static final Pattern SHAPE = Pattern.compile("\\s*" + OPERAND + "\\s*([-+*])\\s*" + OPERAND + "\\s*");
+
+  private final JexlArithmetic arithmetic;
+  private final char operator;
+  private final String leftColumn;
+  private final Number leftLiteral;
+  private final String rightColumn;
+  private final Number rightLiteral;
+
+  private NumericKernel(JexlArithmetic arithmetic, char operator,
+                        @Nullable String leftColumn, @Nullable Number leftLiteral,
+                        @Nullable String rightColumn, @Nullable Number rightLiteral) {
+    this.arithmetic = arithmetic;
+    this.operator = operator;
+    this.leftColumn = leftColumn;
+    this.leftLiteral = leftLiteral;
+    this.rightColumn = rightColumn;
+    this.rightLiteral = rightLiteral;
+  }
+
+  /**
+   * Creates the kernel for an expression.
+   *
+   * @param el the expression has been compiled with.
+   * @param expression to evaluate.
+   * @return kernel evaluating the expression, or null if the expression is not of a supported shape.
+   */
+  @Nullable
+  public static NumericKernel of(EL el, String expression) {
+    Matcher matcher = SHAPE.matcher(expression);
+    if (!matcher.matches()) {
+      return null;
+    }
+    JexlEngine engine = el.getEngine();
+    String left = matcher.group(1);
+    String right = matcher.group(3);
+    Number leftLiteral = literal(engine, left);
+    Number rightLiteral = literal(engine, right);
+    if ((leftLiteral == null && !isColumn(left)) || (rightLiteral == null && !isColumn(right))
+      || (leftLiteral != null && rightLiteral != null)) {
+      // Expressions on literals only are folded by JEXL, and are not worth a kernel.
+      return null;
+    }
+    return new NumericKernel(engine.getArithmetic(), matcher.group(2).charAt(0),
+                             leftLiteral == null ? left : null, leftLiteral,
+                             rightLiteral == null ? right : null, rightLiteral);
+  }
+
+  /**
+   * @return names of the columns the expression reads.
+   */
+  public Set<String> getColumns() {
+    Set<String> columns = new LinkedHashSet<>();
+    if (leftColumn != null) {
+      columns.add(leftColumn);
+    }
+    if (rightColumn != null) {
+      columns.add(rightColumn);
+    }
+    return columns;
+  }
+
+  /**
+   * Evaluates the expression for every row of the batch.
+   *
+   * @param batch to evaluate the expression on.
+   * @return result for every row, or null if the expression has to be evaluated row by row.
+   */
+  @Nullable
+  public PrimitiveColumn evaluate(RowBatch batch) {
+    int size = batch.size();
+    PrimitiveColumn left = column(batch, leftColumn);
+    PrimitiveColumn right = column(batch, rightColumn);
+    if (size == 0 || (leftColumn != null && left == null) || (rightColumn != null && right == null)) {
+      return null;
+    }
+    PrimitiveColumn.Type leftType = left == null ? PrimitiveColumn.typeOf(leftLiteral) : left.getType();
+    PrimitiveColumn.Type rightType = right == null ? PrimitiveColumn.typeOf(rightLiteral) : right.getType();
+
+    // The type of the result is checked against JEXL with the first row.
+    Object first;
+    try {
+      first = apply(left == null ? leftLiteral : left.get(0), right == null ? rightLiteral : right.get(0));
+    } catch (RuntimeException e) {
+      return null;
+    }
+    if (leftType.isFloatingPoint() || rightType.isFloatingPoint()) {
+      if (!(first instanceof Double)) {
+        return null;
+      }
+      PrimitiveColumn result = new PrimitiveColumn(PrimitiveColumn.Type.DOUBLE, size);
+      double leftValue = left == null ? leftLiteral.doubleValue() : 0;
+      double rightValue = right == null ? rightLiteral.doubleValue() : 0;
+      for (int i = 0; i < size; i++) {
+        if (left != null) {
+          leftValue = left.getDouble(i);
+        }
+        if (right != null) {
+          rightValue = right.getDouble(i);
+        }
+        result.setDouble(i, apply(leftValue, rightValue));
+      }
+      return result;
+    }
+
+    boolean isLong = leftType == PrimitiveColumn.Type.LONG || rightType == PrimitiveColumn.Type.LONG;
+    if (!(isLong ? first instanceof Long : first instanceof Integer)) {
+      return null;
+    }
+    PrimitiveColumn result = new PrimitiveColumn(isLong ? PrimitiveColumn.Type.LONG : PrimitiveColumn.Type.INT, size);
+    long leftValue = left == null ? leftLiteral.longValue() : 0;
+    long rightValue = right == null ? rightLiteral.longValue() : 0;
+    try {
+      for (int i = 0; i < size; i++) {
+        if (left != null) {
+          leftValue = left.getLong(i);
+        }
+        if (right != null) {
+          rightValue = right.getLong(i);
+        }
+        long value = apply(leftValue, rightValue);
+        if (!isLong && value != (int) value) {
+          // JEXL widens the result of that row to a Long.
+          return null;
+        }
+        result.setLong(i, value);
+      }
+    } catch (ArithmeticException e) {
+      // JEXL widens the result of that row to a BigInteger.
+      return null;
+    }
+    return result;
+  }
+
+  private Object apply(Object left, Object right) {
+    switch (operator) {
+      case '+':
+        return arithmetic.add(left, right);
+      case '-':
+        return arithmetic.subtract(left, right);
+      default:
+        return arithmetic.multiply(left, right);
+    }
+  }
+
+  private double apply(double left, double right) {
+    switch (operator) {
+      case '+':
+        return left + right;
+      case '-':
+        return left - right;
+      default:
+        return left * right;
+    }
+  }
+
+  private long apply(long left, long right) {
+    switch (operator) {
+      case '+':
+        return Math.addExact(left, right);
+      case '-':
+        return Math.subtractExact(left, right);
+      default:
+        return Math.multiplyExact(left, right);
+    }
+  }
+
+  @Nullable
+  private static PrimitiveColumn column(RowBatch batch, @Nullable String name) {
+    if (name == null) {
+      return null;
+    }
+    int idx = batch.find(name);
+    if (idx == -1) {
+      return null;
+    }
+    PrimitiveColumn column = batch.getPrimitive(idx);
+    if (column == null || column.hasNulls() || column.getType() == PrimitiveColumn.Type.BOOLEAN) {
+      return null;
+    }
+    return column;
+  }
+
+  private static boolean isColumn(String operand) {
+    return !Character.isDigit(operand.charAt(0)) && !ELCompiler.RESERVED.contains(operand)
+      && !"true".equals(operand) && !"false".equals(operand) && !"null".equals(operand);
+  }
+
+  @Nullable
+  private static Number literal(JexlEngine engine, String operand) {
+    if (!Character.isDigit(operand.charAt(0))) {
+      return null;
+    }
+    Object value;
+    try {
+      value = engine.createScript(operand).execute(new ELContext());
+    } catch (RuntimeException e) {
+      return null;
+    }
+    PrimitiveColumn.Type type = PrimitiveColumn.typeOf(value);
+    return type != null && type != PrimitiveColumn.Type.BOOLEAN ? (Number) value : null;
+  }
+}
@@ -50,7 +50,6 @@ public class GrammarBasedParser implements RecipeParser {
   private final Compiler compiler = new RecipeCompiler();
   private final DirectiveRegistry registry;
   private final String recipe;
-  private final List<Directive> directives;
   private DirectiveContext context;
 
   public GrammarBasedParser(String namespace, String[] directives, DirectiveRegistry registry) {
@@ -61,7 +60,6 @@ public class GrammarBasedParser implements RecipeParser {
     this.namespace = namespace;
     this.recipe = recipe;
     this.registry = registry;
-    this.directives = new ArrayList<>();
     this.context = new NoOpDirectiveContext();
   }
 
@@ -73,6 +71,8 @@ public class GrammarBasedParser implements RecipeParser {
   @Override
   public List<Directive> parse()
     throws DirectiveLoadException, DirectiveNotFoundException, DirectiveParseException {
+    // Every call creates new instances of the directives, so that the recipe can be parsed more than once.
+    List<Directive> directives = new ArrayList<>();
     try {
       CompileStatus status = compiler.compile(recipe);
       if (!status.isSuccess()) {
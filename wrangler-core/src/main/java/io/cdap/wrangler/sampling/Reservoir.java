@@ -73,8 +73,39 @@ public class Reservoir<T> extends Sampler<T> {
       return emptyIterable;
     }
 
+    final Iterator<IntermediateSample<T>> itr = sampleWithWeights(input);
+    return new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return itr.hasNext();
+      }
+
+      @Override
+      public T next() {
+        return itr.next().getElement();
+      }
+
+      @Override
+      public void remove() {
+        itr.remove();
+      }
+    };
+  }
+
+  /**
+   * Samples the elements from input along with their weights. The samples of partitions of an input can be merged
+   * into a sample of the whole input by selecting the top K elements with max weight among them.
+   *
+   * @param input Scope data
+   * @return The sample result, with the weight of each element.
+   */
+  public Iterator<IntermediateSample<T>> sampleWithWeights(Iterator<T> input) {
     // This queue holds fixed number elements with the top K weight for current partition.
-    PriorityQueue<IntermediateSample<T>> queue = new PriorityQueue<>(numSamples);
+    PriorityQueue<IntermediateSample<T>> queue = new PriorityQueue<>(Math.max(numSamples, 1));
+    if (numSamples == 0) {
+      return queue.iterator();
+    }
+
     int index = 0;
     IntermediateSample<T> smallest = null;
     while (input.hasNext()) {
@@ -94,24 +125,7 @@ public class Reservoir<T> extends Sampler<T> {
       }
       index++;
     }
-
-    final Iterator<IntermediateSample<T>> itr = queue.iterator();
-    return new Iterator<T>() {
-      @Override
-      public boolean hasNext() {
-        return itr.hasNext();
-      }
-
-      @Override
-      public T next() {
-        return itr.next().getElement();
-      }
-
-      @Override
-      public void remove() {
-        itr.remove();
-      }
-    };
+    return queue.iterator();
   }
 
   /**
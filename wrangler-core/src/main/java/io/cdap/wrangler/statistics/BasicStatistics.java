@@ -17,19 +17,17 @@
 package io.cdap.wrangler.statistics;
 
 import io.cdap.wrangler.api.Row;
-import io.dataapps.chlorine.finder.FinderEngine;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Created by nitin on 2/4/17.
  */
 public class BasicStatistics implements Statistics {
-  private final FinderEngine engine;
+  private final TypeClassifier classifier;
 
   public BasicStatistics() throws Exception {
-    engine = new FinderEngine("wrangler-finder.xml", true, false);
+    classifier = TypeClassifier.getInstance();
   }
 
   @Override
@@ -55,8 +53,7 @@ public class BasicStatistics implements Statistics {
           if (value.isEmpty()) {
             stats.increment(column, "empty");
           } else {
-            Map<String, List<String>> finds = engine.findWithType(value);
-            for (String find : finds.keySet()) {
+            for (String find : classifier.classify(value)) {
               types.increment(column, find);
             }
           }
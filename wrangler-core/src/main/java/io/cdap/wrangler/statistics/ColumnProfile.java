@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * Profile of the values of a column, built in a single pass over them in a bounded amount of memory.
+ *
+ * <p>It counts the null, empty and non-null values and the types detected in the values, and sketches the number of
+ * distinct values, the most frequent values and, for numeric values, the minimum, maximum and quantiles.
+ * Profiles of parts of the values can be merged, giving the profile of all the values, so that the values can be
+ * profiled in parallel, or as they are read.</p>
+ *
+ * <p>A profile is not thread-safe.</p>
+ */
+public final class ColumnProfile {
+  private final Map<String, long[]> types;
+  private final HyperLogLog distinct;
+  private final FrequentItems frequent;
+  private final QuantileSketch quantiles;
+  private long count;
+  private long nulls;
+  private long empties;
+  private double min;
+  private double max;
+
+  public ColumnProfile() {
+    this.types = new TreeMap<>();
+    this.distinct = new HyperLogLog();
+    this.frequent = new FrequentItems();
+    this.quantiles = new QuantileSketch();
+    this.min = Double.POSITIVE_INFINITY;
+    this.max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Adds a value to the profile.
+   *
+   * @param value the value, which may be null
+   * @param types types detected in the value
+   */
+  public void add(@Nullable Object value, Collection<String> types) {
+    count++;
+    for (String type : types) {
+      long[] counter = this.types.get(type);
+      if (counter == null) {
+        this.types.put(type, new long[] { 1 });
+      } else {
+        counter[0]++;
+      }
+    }
+
+    if (value == null) {
+      nulls++;
+      return;
+    }
+
+    String string = null;
+    double number = Double.NaN;
+    if (value instanceof String) {
+      string = (String) value;
+      if (string.isEmpty()) {
+        empties++;
+      }
+      number = parseNumber(string);
+    } else if (value instanceof Number) {
+      string = value.toString();
+      number = ((Number) value).doubleValue();
+    } else if (value instanceof CharSequence || value instanceof Boolean || value instanceof Character
+      || value instanceof TemporalAccessor) {
+      // Other values, like byte arrays or records, don't have a meaningful string to count.
+      string = value.toString();
+    }
+
+    if (string != null) {
+      distinct.add(string);
+      frequent.add(string);
+    }
+    if (!Double.isNaN(number)) {
+      min = Math.min(min, number);
+      max = Math.max(max, number);
+      quantiles.add(number);
+    }
+  }
+
+  /**
+   * Merges the profile of other values of the column into this one.
+   */
+  public void merge(ColumnProfile other) {
+    count += other.count;
+    nulls += other.nulls;
+    empties += other.empties;
+    for (Map.Entry<String, long[]> entry : other.types.entrySet()) {
+      long[] counter = types.get(entry.getKey());
+      if (counter == null) {
+        types.put(entry.getKey(), new long[] { entry.getValue()[0] });
+      } else {
+        counter[0] += entry.getValue()[0];
+      }
+    }
+    distinct.merge(other.distinct);
+    frequent.merge(other.frequent);
+    quantiles.merge(other.quantiles);
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * @return number of values, including nulls.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return number of null values.
+   */
+  public long getNulls() {
+    return nulls;
+  }
+
+  /**
+   * @return number of empty strings.
+   */
+  public long getEmpties() {
+    return empties;
+  }
+
+  /**
+   * @return number of values each type was detected in, ordered by type.
+   */
+  public Map<String, Long> getTypes() {
+    Map<String, Long> counts = new TreeMap<>();
+    for (Map.Entry<String, long[]> entry : types.entrySet()) {
+      counts.put(entry.getKey(), entry.getValue()[0]);
+    }
+    return counts;
+  }
+
+  /**
+   * @return estimate of the number of distinct non-null values.
+   */
+  public long getDistinct() {
+    return distinct.estimate();
+  }
+
+  /**
+   * @param limit maximum number of values to return
+   * @return the most frequent non-null values with their estimated counts, most frequent first.
+   */
+  public List<Pair<String, Long>> getTop(int limit) {
+    return count == nulls ? Collections.emptyList() : frequent.getTop(limit);
+  }
+
+  /**
+   * @return number of numeric values, which the minimum, maximum and quantiles are computed over.
+   */
+  public long getNumericCount() {
+    return quantiles.getCount();
+  }
+
+  /**
+   * @return the smallest numeric value, or null if there is none.
+   */
+  @Nullable
+  public Double getMin() {
+    return quantiles.getCount() == 0 ? null : min;
+  }
+
+  /**
+   * @return the largest numeric value, or null if there is none.
+   */
+  @Nullable
+  public Double getMax() {
+    return quantiles.getCount() == 0 ? null : max;
+  }
+
+  /**
+   * @param quantile between 0 and 1
+   * @return estimate of the numeric value at the quantile, or null if there is none.
+   */
+  @Nullable
+  public Double getQuantile(double quantile) {
+    return quantiles.getCount() == 0 ? null : quantiles.getQuantile(quantile);
+  }
+
+  /**
+   * Parses a decimal number, checking its format first so that most strings that aren't numbers are rejected
+   * without the cost of an exception.
+   *
+   * @return the number, or NaN if the string is not a decimal number.
+   */
+  static double parseNumber(String value) {
+    int length = value.length();
+    int i = 0;
+    if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+      i++;
+    }
+    int digits = 0;
+    while (i < length && Character.isDigit(value.charAt(i))) {
+      i++;
+      digits++;
+    }
+    if (i < length && value.charAt(i) == '.') {
+      i++;
+      while (i < length && Character.isDigit(value.charAt(i))) {
+        i++;
+        digits++;
+      }
+    }
+    if (digits == 0) {
+      return Double.NaN;
+    }
+    if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+      i++;
+      if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+        i++;
+      }
+      int exponent = 0;
+      while (i < length && Character.isDigit(value.charAt(i))) {
+        i++;
+        exponent++;
+      }
+      if (exponent == 0) {
+        return Double.NaN;
+      }
+    }
+    if (i != length) {
+      return Double.NaN;
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      // Digits that Double doesn't parse, like the ones of other scripts.
+      return Double.NaN;
+    }
+  }
+}
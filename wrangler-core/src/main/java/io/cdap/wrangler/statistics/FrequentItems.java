@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Misra-Gries summary, tracking the most frequent values added to it with a bounded number of counters.
+ * Summaries can be merged, giving the most frequent values of the union of the values added to them.
+ *
+ * <p>The count of a value is underestimated by at most {@code n / (capacity + 1)}, where {@code n} is the number of
+ * values added, so any value more frequent than that is tracked.</p>
+ */
+final class FrequentItems {
+  static final int DEFAULT_CAPACITY = 64;
+
+  private final int capacity;
+  private final Map<String, long[]> counters;
+
+  FrequentItems() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  FrequentItems(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive, but is " + capacity);
+    }
+    this.capacity = capacity;
+    this.counters = new HashMap<>();
+  }
+
+  /**
+   * Adds a value to the summary.
+   */
+  void add(String value) {
+    long[] counter = counters.get(value);
+    if (counter != null) {
+      counter[0]++;
+      return;
+    }
+    if (counters.size() < capacity) {
+      counters.put(value, new long[] { 1 });
+      return;
+    }
+    // All the counters are taken, so the value and every tracked value lose one occurrence.
+    decrement(1);
+  }
+
+  /**
+   * Merges another summary into this one.
+   */
+  void merge(FrequentItems other) {
+    for (Map.Entry<String, long[]> entry : other.counters.entrySet()) {
+      long[] counter = counters.get(entry.getKey());
+      if (counter == null) {
+        counters.put(entry.getKey(), new long[] { entry.getValue()[0] });
+      } else {
+        counter[0] += entry.getValue()[0];
+      }
+    }
+    if (counters.size() > capacity) {
+      // Keep the largest counters, less the count of the first one that doesn't fit.
+      List<Long> counts = new ArrayList<>(counters.size());
+      for (long[] counter : counters.values()) {
+        counts.add(counter[0]);
+      }
+      counts.sort((a, b) -> Long.compare(b, a));
+      decrement(counts.get(capacity));
+    }
+  }
+
+  /**
+   * @param limit maximum number of values to return
+   * @return the most frequent values with their estimated counts, most frequent first.
+   */
+  List<Pair<String, Long>> getTop(int limit) {
+    List<Map.Entry<String, long[]>> entries = new ArrayList<>(counters.entrySet());
+    entries.sort((a, b) -> {
+      int compare = Long.compare(b.getValue()[0], a.getValue()[0]);
+      return compare != 0 ? compare : a.getKey().compareTo(b.getKey());
+    });
+    List<Pair<String, Long>> top = new ArrayList<>(Math.min(limit, entries.size()));
+    for (Map.Entry<String, long[]> entry : entries) {
+      if (top.size() >= limit) {
+        break;
+      }
+      top.add(new Pair<>(entry.getKey(), entry.getValue()[0]));
+    }
+    return top;
+  }
+
+  private void decrement(long amount) {
+    Iterator<long[]> iterator = counters.values().iterator();
+    while (iterator.hasNext()) {
+      long[] counter = iterator.next();
+      counter[0] -= amount;
+      if (counter[0] <= 0) {
+        iterator.remove();
+      }
+    }
+  }
+}
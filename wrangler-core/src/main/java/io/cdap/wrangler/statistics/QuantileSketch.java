@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A KLL sketch, estimating the quantiles of the values added to it in a bounded amount of memory. Sketches can be
+ * merged, giving the quantiles of the union of the values added to them.
+ *
+ * <p>Values are kept in levels, where a value at level {@code h} stands for {@code 2^h} values. When the levels
+ * are over capacity, the lowest full level is sorted and every other value is promoted to the next level. The
+ * capacities shrink geometrically from the top level down, so the sketch holds about {@code 3k} values. Until
+ * then, the quantiles are exact.</p>
+ */
+final class QuantileSketch {
+  static final int DEFAULT_K = 200;
+  private static final double SHRINK = 2.0d / 3;
+
+  private final int k;
+  private final List<double[]> levels;
+  private int[] sizes;
+  // Capacities of the levels, and their sum, which change when a level is added.
+  private int[] capacities;
+  private int capacity;
+  private int size;
+  private long count;
+  // Alternates which half of a compacted level is promoted, to not bias the estimates.
+  private boolean odd;
+
+  QuantileSketch() {
+    this(DEFAULT_K);
+  }
+
+  QuantileSketch(int k) {
+    if (k < 8) {
+      throw new IllegalArgumentException("K must be at least 8, but is " + k);
+    }
+    this.k = k;
+    this.levels = new ArrayList<>();
+    this.sizes = new int[0];
+    addLevel();
+  }
+
+  /**
+   * @return number of values added to the sketch.
+   */
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * Adds a value to the sketch. NaN values are ignored.
+   */
+  void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    append(0, value);
+    count++;
+    compress();
+  }
+
+  /**
+   * Merges another sketch into this one.
+   */
+  void merge(QuantileSketch other) {
+    while (levels.size() < other.levels.size()) {
+      addLevel();
+    }
+    for (int level = 0; level < other.levels.size(); level++) {
+      double[] values = other.levels.get(level);
+      for (int i = 0; i < other.sizes[level]; i++) {
+        append(level, values[i]);
+      }
+    }
+    count += other.count;
+    compress();
+  }
+
+  /**
+   * Returns the estimate of the value at the rank {@code quantile * count} among the values added.
+   *
+   * @param quantile between 0 and 1
+   * @return the value at the quantile, or NaN if no value was added
+   */
+  double getQuantile(double quantile) {
+    if (quantile < 0 || quantile > 1) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1, but is " + quantile);
+    }
+    if (size == 0) {
+      return Double.NaN;
+    }
+
+    // Sort all the values along with their weights.
+    double[] values = new double[size];
+    long[] weights = new long[size];
+    Integer[] order = new Integer[size];
+    int n = 0;
+    long totalWeight = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      double[] levelValues = levels.get(level);
+      for (int i = 0; i < sizes[level]; i++) {
+        values[n] = levelValues[i];
+        weights[n] = 1L << level;
+        order[n] = n;
+        totalWeight += weights[n];
+        n++;
+      }
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    double rank = quantile * totalWeight;
+    long cumulative = 0;
+    for (int index : order) {
+      cumulative += weights[index];
+      if (cumulative >= rank) {
+        return values[index];
+      }
+    }
+    return values[order[size - 1]];
+  }
+
+  private void addLevel() {
+    levels.add(new double[8]);
+    sizes = Arrays.copyOf(sizes, levels.size());
+    capacities = new int[levels.size()];
+    capacity = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      int depth = levels.size() - 1 - level;
+      capacities[level] = Math.max(2, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+      capacity += capacities[level];
+    }
+  }
+
+  private void append(int level, double value) {
+    double[] values = levels.get(level);
+    if (sizes[level] == values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+      levels.set(level, values);
+    }
+    values[sizes[level]++] = value;
+    size++;
+  }
+
+  private void compress() {
+    while (size >= capacity) {
+      // Compact the lowest level that is over its own capacity, there's always one.
+      for (int level = 0; level < levels.size(); level++) {
+        if (sizes[level] >= capacities[level]) {
+          compact(level);
+          break;
+        }
+      }
+    }
+  }
+
+  private void compact(int level) {
+    if (level == levels.size() - 1) {
+      addLevel();
+    }
+    double[] values = levels.get(level);
+    int levelSize = sizes[level];
+    Arrays.sort(values, 0, levelSize);
+
+    // An odd value out stays at the level.
+    int compacted = levelSize - (levelSize % 2);
+    for (int i = odd ? 1 : 0; i < compacted; i += 2) {
+      append(level + 1, values[i]);
+    }
+    odd = !odd;
+    if (compacted < levelSize) {
+      values[0] = values[levelSize - 1];
+    }
+    sizes[level] = levelSize - compacted;
+    size -= compacted;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.Row;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the statistics of {@link BasicStatistics}, and a {@link ColumnProfile} of each column, in one pass over
+ * the rows. Rows are profiled in blocks, in parallel, and the profiles of the blocks are merged.
+ *
+ * <p>Types are detected in non-empty strings only, as {@link BasicStatistics} does. Detection is skipped for a
+ * value that is the same as the previous value of the column in the block, reusing its types, as sorted or
+ * repeated values are common.</p>
+ */
+public class StreamingStatistics implements Statistics {
+  static final int BLOCK_SIZE = 1024;
+
+  private final Function<String, Collection<String>> detector;
+  private final int blockSize;
+
+  public StreamingStatistics() {
+    this(TypeClassifier.getInstance()::classify, BLOCK_SIZE);
+  }
+
+  /**
+   * @param detector returns the types detected in a non-empty string. It's called concurrently.
+   * @param blockSize number of rows profiled together
+   */
+  StreamingStatistics(Function<String, Collection<String>> detector, int blockSize) {
+    this.detector = detector;
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Profiles the columns of the rows.
+   *
+   * @return profiles of the columns, in the order the columns first appear in.
+   */
+  public Map<String, ColumnProfile> profile(List<Row> rows) {
+    int blocks = (rows.size() + blockSize - 1) / blockSize;
+    if (blocks <= 1) {
+      return profile(rows, 0, rows.size());
+    }
+    return IntStream.range(0, blocks)
+      .parallel()
+      .mapToObj(block -> profile(rows, block * blockSize, Math.min(rows.size(), (block + 1) * blockSize)))
+      .reduce(StreamingStatistics::merge)
+      .orElse(Collections.emptyMap());
+  }
+
+  /**
+   * Aggregates the statistics of the rows, in the same form as {@link BasicStatistics}, with the profiles of the
+   * columns as a row under "profiles".
+   */
+  @Override
+  public Row aggregate(List<Row> rows) {
+    Map<String, ColumnProfile> profiles = profile(rows);
+    double count = rows.size();
+
+    ColumnMetric types = new ColumnMetric();
+    ColumnMetric stats = new ColumnMetric();
+    Row rowProfiles = new Row();
+    for (Map.Entry<String, ColumnProfile> entry : profiles.entrySet()) {
+      String column = entry.getKey();
+      ColumnProfile profile = entry.getValue();
+      for (Map.Entry<String, Long> type : profile.getTypes().entrySet()) {
+        types.set(column, type.getKey(), type.getValue());
+      }
+      if (profile.getNulls() > 0) {
+        stats.set(column, "null", profile.getNulls());
+      }
+      if (profile.getCount() > profile.getNulls()) {
+        stats.set(column, "non-null", profile.getCount() - profile.getNulls());
+      }
+      if (profile.getEmpties() > 0) {
+        stats.set(column, "empty", profile.getEmpties());
+      }
+      rowProfiles.add(column, profile);
+    }
+
+    Row rowTypes = new Row();
+    for (String column : types.getColumns()) {
+      rowTypes.add(column, types.percentage(column, count));
+    }
+
+    Row rowStats = new Row();
+    for (String column : stats.getColumns()) {
+      rowStats.add(column, stats.percentage(column, count));
+    }
+
+    Row row = new Row();
+    row.add("types", rowTypes);
+    row.add("stats", rowStats);
+    row.add("total", count);
+    row.add("profiles", rowProfiles);
+    return row;
+  }
+
+  private Map<String, ColumnProfile> profile(List<Row> rows, int from, int to) {
+    Map<String, ColumnProfile> profiles = new LinkedHashMap<>();
+    // Previous string of each column and the types detected in it.
+    Map<String, Pair<String, Collection<String>>> previous = new LinkedHashMap<>();
+    for (Row row : rows.subList(from, to)) {
+      for (int i = 0; i < row.length(); i++) {
+        String column = row.getColumn(i);
+        Object value = row.getValue(i);
+        ColumnProfile profile = profiles.computeIfAbsent(column, c -> new ColumnProfile());
+
+        Collection<String> types = Collections.emptyList();
+        if (value instanceof String && !((String) value).isEmpty()) {
+          Pair<String, Collection<String>> last = previous.get(column);
+          if (last != null && last.getFirst().equals(value)) {
+            types = last.getSecond();
+          } else {
+            types = detector.apply((String) value);
+            previous.put(column, new Pair<>((String) value, types));
+          }
+        }
+        profile.add(value, types);
+      }
+    }
+    return profiles;
+  }
+
+  private static Map<String, ColumnProfile> merge(Map<String, ColumnProfile> first, Map<String, ColumnProfile> second) {
+    for (Map.Entry<String, ColumnProfile> entry : second.entrySet()) {
+      ColumnProfile profile = first.get(entry.getKey());
+      if (profile == null) {
+        first.put(entry.getKey(), entry.getValue());
+      } else {
+        profile.merge(entry.getValue());
+      }
+    }
+    return first;
+  }
+}
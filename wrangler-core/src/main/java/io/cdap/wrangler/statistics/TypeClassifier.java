@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.dataapps.chlorine.finder.FinderEngine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>TypeClassifier</code> detects the types of values, as the finders of "wrangler-finder.xml" do,
+ * in a way that is cheap enough to run on every value of a sample. It's thread-safe and shared by the process.
+ *
+ * <p>Values that are made of digits, of digits around a single dot, or that are boolean words, are classified by a
+ * single pass over their characters. The types of those are the ones the finders would detect, as they need other
+ * characters, or more digits, to match. Other values are run through the finders, and their types are cached, so
+ * that each distinct value is only run through them once.</p>
+ */
+public final class TypeClassifier {
+  private static final int MAX_CACHED = 65536;
+  // Longer values are rarely repeated, and are not worth keeping.
+  private static final int MAX_CACHED_LENGTH = 256;
+  // Values with more digits may be credit card, ISBN or phone numbers.
+  private static final int MAX_SCANNED_DIGITS = 9;
+
+  private static final Set<String> INTEGER = Collections.singleton("Integer");
+  private static final Set<String> BOOLEAN = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("Text",
+                                                                                                     "Boolean")));
+  private static final Set<String> CURRENCY = Collections.singleton("Currency");
+  private static final Set<String> ZIP_CODE = Collections.singleton("ZipCode");
+  private static final Set<String> CURRENCY_ZIP_CODE =
+    Collections.unmodifiableSet(new HashSet<>(Arrays.asList("Currency", "ZipCode")));
+
+  private static TypeClassifier instance;
+
+  private final Function<String, Set<String>> finders;
+  private final Cache<String, Set<String>> types;
+
+  TypeClassifier(Function<String, Set<String>> finders, int maxCached) {
+    this.finders = finders;
+    this.types = CacheBuilder.newBuilder().maximumSize(maxCached).recordStats().build();
+  }
+
+  /**
+   * @return the classifier shared by the process, loading the finders the first time it's called.
+   */
+  public static synchronized TypeClassifier getInstance() {
+    if (instance == null) {
+      FinderEngine engine;
+      try {
+        engine = new FinderEngine("wrangler-finder.xml", true, false);
+      } catch (Exception e) {
+        throw new IllegalStateException("Failed to load the type finders: " + e.getMessage(), e);
+      }
+      instance = new TypeClassifier(value -> Collections.unmodifiableSet(engine.findWithType(value).keySet()),
+                                    MAX_CACHED);
+    }
+    return instance;
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the types of the values run through the finders.
+   */
+  public CacheStats getStats() {
+    return types.stats();
+  }
+
+  /**
+   * Returns the names of the types detected in a value.
+   *
+   * @param value a non-empty string
+   * @return names of the types, which may be empty. The set can't be modified.
+   */
+  public Set<String> classify(String value) {
+    Set<String> scanned = scan(value);
+    if (scanned != null) {
+      return scanned;
+    }
+    if (value.length() > MAX_CACHED_LENGTH) {
+      return finders.apply(value);
+    }
+    try {
+      return types.get(value, () -> finders.apply(value));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /**
+   * Classifies a value by its characters, if it has one of the shapes that can be.
+   *
+   * @return the types of the value, or null if it has to be run through the finders.
+   */
+  @Nullable
+  static Set<String> scan(String value) {
+    int length = value.length();
+    if (length == 0 || length > MAX_SCANNED_DIGITS + 1) {
+      return null;
+    }
+
+    char first = value.charAt(0);
+    if (first >= '0' && first <= '9' || first == '.') {
+      int dot = -1;
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c == '.' && dot < 0) {
+          dot = i;
+        } else if (c < '0' || c > '9') {
+          return null;
+        }
+      }
+
+      if (dot < 0) {
+        // Five digits are zip codes as well.
+        return length <= MAX_SCANNED_DIGITS && length != 5 ? INTEGER : null;
+      }
+      int integral = dot;
+      int fraction = length - dot - 1;
+      if (integral == 0 || fraction == 0) {
+        return null;
+      }
+      boolean currency = fraction == 2;
+      boolean zipCode = integral == 5 || fraction == 5;
+      if (currency) {
+        return zipCode ? CURRENCY_ZIP_CODE : CURRENCY;
+      }
+      return zipCode ? ZIP_CODE : Collections.emptySet();
+    }
+
+    if (isBoolean(value)) {
+      return BOOLEAN;
+    }
+    return null;
+  }
+
+  private static boolean isBoolean(String value) {
+    switch (value.length()) {
+      case 2:
+        return equalsIgnoreCase(value, "no");
+      case 3:
+        return equalsIgnoreCase(value, "yes");
+      case 4:
+        return equalsIgnoreCase(value, "true");
+      case 5:
+        return equalsIgnoreCase(value, "false");
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Compares to a lower case word ignoring the case of ASCII letters only, as the finders do.
+   */
+  private static boolean equalsIgnoreCase(String value, String word) {
+    for (int i = 0; i < word.length(); i++) {
+      char c = value.charAt(i);
+      if (c != word.charAt(i) && !(c >= 'A' && c <= 'Z' && c + ('a' - 'A') == word.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,680 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.utils;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This class serializes a list of {@link Row}s into a compact, versioned, columnar binary format, and back.
+ *
+ * <p>The rows are written in blocks of up to {@link #BLOCK_SIZE} rows, each of which is compressed on its own,
+ * so that reading the first rows only decodes the blocks holding them. Within a block, rows with the same
+ * columns are stored column by column. Columns with values of a single type are stored typed, strings with
+ * few distinct values are dictionary encoded, and columns of any other type are stored using Java
+ * serialization.</p>
+ *
+ * <p>Data written with {@link ObjectSerDe} is still read, so that existing workspaces remain readable.</p>
+ *
+ * <pre>
+ *   data    := MAGIC VERSION block* 0
+ *   block   := rows(varint) compressed-length(varint) length(varint) deflate(payload)
+ *   payload := shapes(varint) shape* row-shape(varint)* (if more than one shape) column*
+ *   shape   := width(varint) name*
+ *   column  := type(byte) nulls? values
+ * </pre>
+ */
+@PublicEvolving
+public final class RowSerDe {
+  // Number of rows in a block.
+  public static final int BLOCK_SIZE = 1024;
+
+  // Java serialization streams start with 0xACED, which the magic bytes never match.
+  private static final byte[] MAGIC = new byte[] { 'W', 'R', 'C' };
+  private static final byte VERSION = 1;
+
+  // Types of columns.
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte DICTIONARY = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte SHORT = 5;
+  private static final byte FLOAT = 6;
+  private static final byte DOUBLE = 7;
+  private static final byte BOOLEAN = 8;
+  private static final byte BYTES = 9;
+  private static final byte OBJECT = 10;
+
+  /**
+   * Converts rows into bytes.
+   *
+   * @param rows to be serialized.
+   * @return bytes of the serialized rows.
+   */
+  public byte[] toByteArray(List<Row> rows) throws IOException {
+    try (Writer writer = new Writer()) {
+      for (Row row : rows) {
+        writer.add(row);
+      }
+      return writer.toByteArray();
+    }
+  }
+
+  /**
+   * Returns a writer of rows, to serialize rows that are not all available at once. The rows added to the writer
+   * are serialized every {@link #BLOCK_SIZE} rows, so that only the serialized rows and the rows of one block are
+   * held in memory.
+   *
+   * @return writer of the rows, that must be closed.
+   */
+  public Writer writer() {
+    return new Writer();
+  }
+
+  /**
+   * Serializes rows as they are added, in the same format as {@link #toByteArray(List)}.
+   */
+  public static final class Writer implements Closeable {
+    private final Output out = new Output();
+    private final Output block = new Output();
+    private final List<Row> rows = new ArrayList<>(BLOCK_SIZE);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressed = new byte[0];
+    private int count;
+    private boolean finished;
+
+    private Writer() {
+      out.write(MAGIC, 0, MAGIC.length);
+      out.write(VERSION);
+    }
+
+    /**
+     * Adds a row, which must not be modified until the rows are serialized.
+     *
+     * @param row to be serialized.
+     */
+    public void add(Row row) throws IOException {
+      if (finished) {
+        throw new IllegalStateException("Rows can't be added once they are serialized.");
+      }
+      rows.add(row);
+      count++;
+      if (rows.size() == BLOCK_SIZE) {
+        flush();
+      }
+    }
+
+    /**
+     * @return number of rows added.
+     */
+    public int size() {
+      return count;
+    }
+
+    /**
+     * Ends the serialized rows, after which no more rows can be added.
+     *
+     * @return bytes of the rows added.
+     */
+    public byte[] toByteArray() throws IOException {
+      if (!finished) {
+        flush();
+        out.writeVarInt(0);
+        finished = true;
+      }
+      return out.toByteArray();
+    }
+
+    @Override
+    public void close() {
+      deflater.end();
+      rows.clear();
+      compressed = new byte[0];
+    }
+
+    private void flush() throws IOException {
+      if (rows.isEmpty()) {
+        return;
+      }
+      block.reset();
+      writeBlock(block, rows);
+
+      deflater.reset();
+      deflater.setInput(block.buffer(), 0, block.size());
+      deflater.finish();
+      int length = 0;
+      while (!deflater.finished()) {
+        if (length == compressed.length) {
+          compressed = Arrays.copyOf(compressed, Math.max(1024, compressed.length * 2));
+        }
+        length += deflater.deflate(compressed, length, compressed.length - length);
+      }
+      out.writeVarInt(rows.size());
+      out.writeVarInt(length);
+      out.writeVarInt(block.size());
+      out.write(compressed, 0, length);
+      rows.clear();
+    }
+  }
+
+  /**
+   * Converts bytes back into rows.
+   *
+   * @param bytes serialized by {@link #toByteArray(List)}, or by {@link ObjectSerDe}.
+   * @return the rows.
+   * @see #toRows(byte[], int)
+   */
+  public List<Row> toRows(byte[] bytes) throws IOException, ClassNotFoundException {
+    return toRows(bytes, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Converts the first rows of the bytes back into rows, without decoding the blocks that follow them.
+   *
+   * @param bytes serialized by {@link #toByteArray(List)}, or by {@link ObjectSerDe}.
+   * @param limit maximum number of rows to return.
+   * @return up to limit rows.
+   */
+  public List<Row> toRows(byte[] bytes, int limit) throws IOException, ClassNotFoundException {
+    if (!isRowFormat(bytes)) {
+      List<Row> rows = new ObjectSerDe<List<Row>>().toObject(bytes);
+      return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+    if (bytes[MAGIC.length] != VERSION) {
+      throw new IOException(String.format("Unsupported version '%d' of the serialized rows.", bytes[MAGIC.length]));
+    }
+
+    Input in = new Input(bytes, MAGIC.length + 1);
+    List<Row> rows = new ArrayList<>();
+    Inflater inflater = new Inflater();
+    try {
+      int count;
+      while (rows.size() < limit && (count = in.readVarInt()) > 0) {
+        int compressedLength = in.readVarInt();
+        byte[] block = new byte[in.readVarInt()];
+        inflater.reset();
+        inflater.setInput(bytes, in.skip(compressedLength), compressedLength);
+        int length = 0;
+        while (length < block.length) {
+          int inflated = inflater.inflate(block, length, block.length - length);
+          if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+            throw new IOException("Serialized rows are truncated.");
+          }
+          length += inflated;
+        }
+        readBlock(new Input(block, 0), count, Math.min(count, limit - rows.size()), rows);
+      }
+    } catch (DataFormatException | IndexOutOfBoundsException e) {
+      throw new IOException("Serialized rows are corrupted.", e);
+    } finally {
+      inflater.end();
+    }
+    return rows;
+  }
+
+  /**
+   * @return true if the bytes are in the format written by {@link #toByteArray(List)}.
+   */
+  public static boolean isRowFormat(byte[] bytes) {
+    if (bytes.length <= MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeBlock(Output out, List<Row> rows) throws IOException {
+    // Groups the rows by their columns, in the order they first appear.
+    Map<List<String>, Integer> shapes = new LinkedHashMap<>();
+    List<List<Row>> groups = new ArrayList<>();
+    int[] rowShapes = new int[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      Row row = rows.get(i);
+      List<String> columns = new ArrayList<>(row.length());
+      for (int c = 0; c < row.length(); c++) {
+        columns.add(row.getColumn(c));
+      }
+      Integer shape = shapes.get(columns);
+      if (shape == null) {
+        shape = groups.size();
+        shapes.put(columns, shape);
+        groups.add(new ArrayList<>());
+      }
+      rowShapes[i] = shape;
+      groups.get(shape).add(row);
+    }
+
+    out.writeVarInt(shapes.size());
+    for (List<String> columns : shapes.keySet()) {
+      out.writeVarInt(columns.size());
+      for (String column : columns) {
+        out.writeString(column);
+      }
+    }
+    if (shapes.size() > 1) {
+      for (int shape : rowShapes) {
+        out.writeVarInt(shape);
+      }
+    }
+    for (List<Row> group : groups) {
+      Object[] values = new Object[group.size()];
+      for (int c = 0; c < group.get(0).length(); c++) {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = group.get(i).getValue(c);
+        }
+        writeColumn(out, values);
+      }
+    }
+  }
+
+  private static void readBlock(Input in, int count, int limit, List<Row> rows) throws IOException,
+    ClassNotFoundException {
+    int shapeCount = in.readVarInt();
+    String[][] shapes = new String[shapeCount][];
+    for (int s = 0; s < shapeCount; s++) {
+      shapes[s] = new String[in.readVarInt()];
+      for (int c = 0; c < shapes[s].length; c++) {
+        shapes[s][c] = in.readString();
+      }
+    }
+    int[] rowShapes = new int[count];
+    int[] groupSizes = new int[shapeCount];
+    for (int i = 0; i < count; i++) {
+      rowShapes[i] = shapeCount > 1 ? in.readVarInt() : 0;
+      groupSizes[rowShapes[i]]++;
+    }
+    Object[][][] columns = new Object[shapeCount][][];
+    for (int s = 0; s < shapeCount; s++) {
+      columns[s] = new Object[shapes[s].length][];
+      for (int c = 0; c < shapes[s].length; c++) {
+        columns[s][c] = readColumn(in, groupSizes[s]);
+      }
+    }
+
+    int[] positions = new int[shapeCount];
+    for (int i = 0; i < limit; i++) {
+      int shape = rowShapes[i];
+      int position = positions[shape]++;
+      Row row = new Row();
+      for (int c = 0; c < shapes[shape].length; c++) {
+        row.add(shapes[shape][c], columns[shape][c][position]);
+      }
+      rows.add(row);
+    }
+  }
+
+  private static void writeColumn(Output out, Object[] values) throws IOException {
+    byte type = NULL;
+    for (Object value : values) {
+      if (value != null) {
+        byte valueType = typeOf(value);
+        if (type != NULL && type != valueType) {
+          type = OBJECT;
+          break;
+        }
+        type = valueType;
+      }
+    }
+    if (type == OBJECT) {
+      out.write(OBJECT);
+      byte[] bytes = new ObjectSerDe<Object[]>().toByteArray(values);
+      out.writeVarInt(bytes.length);
+      out.write(bytes, 0, bytes.length);
+      return;
+    }
+
+    Map<String, Integer> dictionary = null;
+    if (type == STRING) {
+      dictionary = dictionary(values);
+      if (dictionary != null) {
+        type = DICTIONARY;
+      }
+    }
+    out.write(type);
+    if (type == NULL) {
+      return;
+    }
+    writeNulls(out, values);
+    if (dictionary != null) {
+      out.writeVarInt(dictionary.size());
+      for (String value : dictionary.keySet()) {
+        out.writeString(value);
+      }
+    }
+    int bits = 0;
+    int bitCount = 0;
+    for (Object value : values) {
+      if (value == null) {
+        continue;
+      }
+      switch (type) {
+        case STRING:
+          out.writeString((String) value);
+          break;
+        case DICTIONARY:
+          out.writeVarInt(dictionary.get(value));
+          break;
+        case INT:
+          out.writeVarLong((Integer) value);
+          break;
+        case LONG:
+          out.writeVarLong((Long) value);
+          break;
+        case SHORT:
+          out.writeVarLong((Short) value);
+          break;
+        case FLOAT:
+          out.writeFixed(Float.floatToIntBits((Float) value), 4);
+          break;
+        case DOUBLE:
+          out.writeFixed(Double.doubleToLongBits((Double) value), 8);
+          break;
+        case BOOLEAN:
+          bits |= ((Boolean) value ? 1 : 0) << bitCount;
+          if (++bitCount == 8) {
+            out.write(bits);
+            bits = 0;
+            bitCount = 0;
+          }
+          break;
+        case BYTES:
+          byte[] bytes = (byte[]) value;
+          out.writeVarInt(bytes.length);
+          out.write(bytes, 0, bytes.length);
+          break;
+      }
+    }
+    if (bitCount > 0) {
+      out.write(bits);
+    }
+  }
+
+  private static Object[] readColumn(Input in, int size) throws IOException, ClassNotFoundException {
+    byte type = in.readByte();
+    if (type == OBJECT) {
+      int length = in.readVarInt();
+      Object[] values = new ObjectSerDe<Object[]>().toObject(Arrays.copyOfRange(in.buffer, in.skip(length),
+                                                                                   in.pos));
+      if (values.length != size) {
+        throw new IOException("Serialized rows are corrupted.");
+      }
+      return values;
+    }
+    Object[] values = new Object[size];
+    if (type == NULL) {
+      return values;
+    }
+    boolean[] nulls = readNulls(in, size);
+    String[] dictionary = null;
+    if (type == DICTIONARY) {
+      dictionary = new String[in.readVarInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = in.readString();
+      }
+    }
+    int bits = 0;
+    int bitCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (nulls != null && nulls[i]) {
+        continue;
+      }
+      switch (type) {
+        case STRING:
+          values[i] = in.readString();
+          break;
+        case DICTIONARY:
+          values[i] = dictionary[in.readVarInt()];
+          break;
+        case INT:
+          values[i] = (int) in.readVarLong();
+          break;
+        case LONG:
+          values[i] = in.readVarLong();
+          break;
+        case SHORT:
+          values[i] = (short) in.readVarLong();
+          break;
+        case FLOAT:
+          values[i] = Float.intBitsToFloat((int) in.readFixed(4));
+          break;
+        case DOUBLE:
+          values[i] = Double.longBitsToDouble(in.readFixed(8));
+          break;
+        case BOOLEAN:
+          if (bitCount == 0) {
+            bits = in.readByte() & 0xFF;
+            bitCount = 8;
+          }
+          values[i] = (bits & 1) == 1;
+          bits >>= 1;
+          bitCount--;
+          break;
+        case BYTES:
+          int length = in.readVarInt();
+          values[i] = Arrays.copyOfRange(in.buffer, in.skip(length), in.pos);
+          break;
+        default:
+          throw new IOException(String.format("Unknown type '%d' of a serialized column.", type));
+      }
+    }
+    return values;
+  }
+
+  private static byte typeOf(Object value) {
+    if (value instanceof String) {
+      return STRING;
+    } else if (value instanceof Integer) {
+      return INT;
+    } else if (value instanceof Long) {
+      return LONG;
+    } else if (value instanceof Double) {
+      return DOUBLE;
+    } else if (value instanceof Float) {
+      return FLOAT;
+    } else if (value instanceof Short) {
+      return SHORT;
+    } else if (value instanceof Boolean) {
+      return BOOLEAN;
+    } else if (value instanceof byte[]) {
+      return BYTES;
+    }
+    return OBJECT;
+  }
+
+  /**
+   * Returns the dictionary of the strings, or null if there are too many distinct strings for it to be smaller.
+   */
+  private static Map<String, Integer> dictionary(Object[] values) {
+    int max = values.length / 2;
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    for (Object value : values) {
+      if (value != null && !dictionary.containsKey(value)) {
+        if (dictionary.size() == max) {
+          return null;
+        }
+        dictionary.put((String) value, dictionary.size());
+      }
+    }
+    return dictionary;
+  }
+
+  private static void writeNulls(Output out, Object[] values) {
+    boolean hasNulls = false;
+    for (Object value : values) {
+      if (value == null) {
+        hasNulls = true;
+        break;
+      }
+    }
+    out.write(hasNulls ? 1 : 0);
+    if (!hasNulls) {
+      return;
+    }
+    for (int i = 0; i < values.length; i += 8) {
+      int bits = 0;
+      for (int b = 0; b < 8 && i + b < values.length; b++) {
+        bits |= (values[i + b] == null ? 1 : 0) << b;
+      }
+      out.write(bits);
+    }
+  }
+
+  private static boolean[] readNulls(Input in, int size) {
+    if (in.readByte() == 0) {
+      return null;
+    }
+    boolean[] nulls = new boolean[size];
+    for (int i = 0; i < size; i += 8) {
+      int bits = in.readByte() & 0xFF;
+      for (int b = 0; b < 8 && i + b < size; b++) {
+        nulls[i + b] = (bits & (1 << b)) != 0;
+      }
+    }
+    return nulls;
+  }
+
+  /**
+   * Buffer the serialized rows are written to.
+   */
+  private static final class Output extends ByteArrayOutputStream {
+    Output() {
+      super(4096);
+    }
+
+    byte[] buffer() {
+      return buf;
+    }
+
+    void writeVarInt(int value) {
+      while ((value & ~0x7F) != 0) {
+        write((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      write(value);
+    }
+
+    void writeVarLong(long value) {
+      // Zig-zag encoding, so that small negative numbers are small too.
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+        write((int) ((zigzag & 0x7F) | 0x80));
+        zigzag >>>= 7;
+      }
+      write((int) zigzag);
+    }
+
+    void writeFixed(long value, int bytes) {
+      for (int i = 0; i < bytes; i++) {
+        write((int) (value >>> (8 * i)));
+      }
+    }
+
+    void writeString(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length);
+      write(bytes, 0, bytes.length);
+    }
+  }
+
+  /**
+   * Cursor over the serialized rows.
+   */
+  private static final class Input {
+    private final byte[] buffer;
+    private int pos;
+
+    Input(byte[] buffer, int pos) {
+      this.buffer = buffer;
+      this.pos = pos;
+    }
+
+    byte readByte() {
+      if (pos >= buffer.length) {
+        throw new IndexOutOfBoundsException("End of serialized rows.");
+      }
+      return buffer[pos++];
+    }
+
+    /**
+     * Skips bytes, returning the position of the first byte skipped.
+     */
+    int skip(int length) {
+      if (length < 0 || pos + length > buffer.length) {
+        throw new IndexOutOfBoundsException("End of serialized rows.");
+      }
+      int start = pos;
+      pos += length;
+      return start;
+    }
+
+    int readVarInt() {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        byte b = readByte();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IndexOutOfBoundsException("Malformed variable length integer.");
+    }
+
+    long readVarLong() {
+      long zigzag = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = readByte();
+        zigzag |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+      }
+      throw new IndexOutOfBoundsException("Malformed variable length integer.");
+    }
+
+    long readFixed(int bytes) {
+      long value = 0;
+      for (int i = 0; i < bytes; i++) {
+        value |= (long) (readByte() & 0xFF) << (8 * i);
+      }
+      return value;
+    }
+
+    String readString() {
+      int length = readVarInt();
+      return new String(buffer, skip(length), length, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -17,12 +17,19 @@
 package io.cdap.directives.parser;
 
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Tests {@link CsvParser}
@@ -67,4 +74,37 @@ public class CsvParserTest {
     Assert.assertEquals("alice", rows.get(0).getValue("first_name"));
     Assert.assertEquals("zed", rows.get(0).getValue("last_name"));
   }
+
+  @Test
+  public void testHeadersWithConcurrentExecution() throws Exception {
+    // An instance with a header depends on the order of the rows, so it is never shared between threads.
+    Directive header = TestingRig.parse(new String[] { "parse-as-csv body , true" }).parse().get(0);
+    Assert.assertTrue(((CsvParser) header).isStateful());
+    Directive directive = TestingRig.parse(new String[] { "parse-as-csv body ," }).parse().get(0);
+    Assert.assertFalse(((CsvParser) directive).isStateful());
+
+    // The row that looks like a header races with the other rows, and is parsed like them.
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<List<Row>>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String line = i == 50 ? "name,age" : String.format("name%d,%d", i, i);
+        List<Row> rows = new ArrayList<>(Collections.singletonList(new Row("body", line)));
+        futures.add(executor.submit(() -> {
+          start.await();
+          return directive.execute(rows, null);
+        }));
+      }
+      start.countDown();
+      for (int i = 0; i < futures.size(); i++) {
+        List<Row> rows = futures.get(i).get();
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(i == 50 ? "name" : "name" + i, rows.get(0).getValue("body_1"));
+        Assert.assertEquals(i == 50 ? "age" : String.valueOf(i), rows.get(0).getValue("body_2"));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
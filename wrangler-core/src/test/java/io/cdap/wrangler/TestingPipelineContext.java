@@ -27,22 +27,51 @@ import org.apache.commons.collections.map.HashedMap;
 
 import java.net.URL;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class {@link TestingPipelineContext} is a runtime context that is provided for each
  * {@link Executor} execution.
  */
-class TestingPipelineContext implements ExecutorContext {
-  private StageMetrics metrics;
+public class TestingPipelineContext implements ExecutorContext {
+  private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+  private final StageMetrics metrics = new StageMetrics() {
+    @Override
+    public void count(String s, int i) {
+      counts.merge(s, i, Integer::sum);
+    }
+
+    @Override
+    public void gauge(String s, long l) {
+
+    }
+
+    @Override
+    public void pipelineCount(String s, int i) {
+
+    }
+
+    @Override
+    public void pipelineGauge(String s, long l) {
+
+    }
+  };
   private String name;
   private TransientStore store;
   private Map<String, String> properties;
 
-  TestingPipelineContext() {
+  public TestingPipelineContext() {
     properties = new HashedMap();
     store = new DefaultTransientStore();
   }
 
+  /**
+   * @return sum of the counts emitted for the metric.
+   */
+  public int getCount(String metric) {
+    return counts.getOrDefault(metric, 0);
+  }
+
   /**
    * @return Environment this context is prepared for.
    */
@@ -61,27 +90,7 @@ class TestingPipelineContext implements ExecutorContext {
    */
   @Override
   public StageMetrics getMetrics() {
-    return new StageMetrics() {
-      @Override
-      public void count(String s, int i) {
-
-      }
-
-      @Override
-      public void gauge(String s, long l) {
-
-      }
-
-      @Override
-      public void pipelineCount(String s, int i) {
-
-      }
-
-      @Override
-      public void pipelineGauge(String s, long l) {
-
-      }
-    };
+    return metrics;
   }
 
   /**
@@ -107,6 +107,45 @@ public final class TestingRig {
   }
 
   public static RecipePipeline execute(String[] recipe)
+    throws RecipeException, DirectiveParseException, DirectiveLoadException, DirectiveNotFoundException {
+    return execute(recipe, 1);
+  }
+
+  /**
+   * Creates a pipeline for the recipe that executes the rows in blocks.
+   *
+   * @param recipe to be executed.
+   * @param blockSize number of rows each directive is applied to at a time.
+   * @return pipeline initialized with a testing context.
+   */
+  public static RecipePipeline execute(String[] recipe, int blockSize)
+    throws RecipeException, DirectiveParseException, DirectiveLoadException, DirectiveNotFoundException {
+    return execute(recipe, blockSize, 1);
+  }
+
+  /**
+   * Creates a pipeline for the recipe that executes the rows in blocks, and partitions of rows in parallel.
+   *
+   * @param recipe to be executed.
+   * @param blockSize number of rows each directive is applied to at a time.
+   * @param workers number of threads executing partitions of rows.
+   * @return pipeline initialized with a testing context.
+   */
+  public static RecipePipeline execute(String[] recipe, int blockSize, int workers)
+    throws RecipeException, DirectiveParseException, DirectiveLoadException, DirectiveNotFoundException {
+    return execute(recipe, blockSize, workers, new TestingPipelineContext());
+  }
+
+  /**
+   * Creates a pipeline for the recipe that executes the rows in blocks, and partitions of rows in parallel.
+   *
+   * @param recipe to be executed.
+   * @param blockSize number of rows each directive is applied to at a time.
+   * @param workers number of threads executing partitions of rows.
+   * @param context the pipeline is initialized with.
+   * @return pipeline initialized with the context.
+   */
+  public static RecipePipeline execute(String[] recipe, int blockSize, int workers, ExecutorContext context)
     throws RecipeException, DirectiveParseException, DirectiveLoadException, DirectiveNotFoundException {
     CompositeDirectiveRegistry registry = new CompositeDirectiveRegistry(
       new SystemDirectiveRegistry()
@@ -115,8 +154,8 @@ public final class TestingRig {
     String migrate = new MigrateToV2(recipe).migrate();
     RecipeParser parser = new GrammarBasedParser(Contexts.SYSTEM, migrate, registry);
     parser.initialize(new NoOpDirectiveContext());
-    RecipePipeline pipeline = new RecipePipelineExecutor();
-    pipeline.initialize(parser, new TestingPipelineContext());
+    RecipePipeline pipeline = new RecipePipelineExecutor(blockSize, workers);
+    pipeline.initialize(parser, context);
     return pipeline;
   }
 
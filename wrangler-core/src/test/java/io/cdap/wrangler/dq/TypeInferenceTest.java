@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.dq;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TypeInference}.
+ */
+public class TypeInferenceTest {
+
+  @Test
+  public void testInteger() {
+    for (String value : new String[] { "0", "123", "+123", "-123", "00123" }) {
+      Assert.assertTrue(value, TypeInference.isInteger(value));
+    }
+    for (String value : new String[] { "", " ", "-", "+", "1.0", " 1", "1 ", "1-", "1e3", "12\n", "\u0661" }) {
+      Assert.assertFalse(value, TypeInference.isInteger(value));
+    }
+  }
+
+  @Test
+  public void testDouble() {
+    String[] doubles = new String[] {
+      "3.4", "3,4", "100", "-1.5", "+1.5", "1.0E+4", "1.0e-4", "1.0e-04", "1 e5", "1,234.5", "1,234,567",
+      "1.234,5", "1.234.567", "1 234,5", "1\u00A0234\u202F567,89", "12,34", "123,456.7e8"
+    };
+    for (String value : doubles) {
+      Assert.assertTrue(value, TypeInference.isDouble(value));
+    }
+    String[] others = new String[] {
+      "", " ", ".", "3.", ".4", "3.4d", "123L", " 3.4", "3.4 ", "1,2345.6", "1234,567.8", "1.234.5", "1 234.5",
+      "1e", "1e+", "1  e5", "e5", "1.2.3", "1,234,5678", "-", "1,,234"
+    };
+    for (String value : others) {
+      Assert.assertFalse(value, TypeInference.isDouble(value));
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.ColumnBindable;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link ColumnBinder}.
+ */
+public class ColumnBinderTest {
+
+  @Test
+  public void testBindThroughMutations() throws Exception {
+    String[] recipe = new String[] {
+      "drop a",
+      "lowercase c",
+      "rename b x",
+      "set-column d x",
+      "hash d 'SHA-256' true",
+      "set-type x integer"
+    };
+    List<Directive> directives = TestingRig.parse(recipe).parse();
+    int bound = new ColumnBinder(Arrays.asList("a", "b", "c")).bind(directives);
+
+    Assert.assertEquals(4, bound);
+    Assert.assertEquals(1, position(directives.get(1)));
+    Assert.assertEquals(2, position(directives.get(3)));
+    Assert.assertEquals(2, position(directives.get(4)));
+    Assert.assertEquals(0, position(directives.get(5)));
+  }
+
+  @Test
+  public void testSlotsAreUnboundAfterUnknownShape() throws Exception {
+    String[] recipe = new String[] {
+      "lowercase body",
+      "parse-as-csv body ,",
+      "lowercase body_1"
+    };
+    List<Directive> directives = TestingRig.parse(recipe).parse();
+    int bound = new ColumnBinder(Arrays.asList("body")).bind(directives);
+
+    Assert.assertEquals(1, bound);
+    Assert.assertEquals(0, position(directives.get(0)));
+    Assert.assertEquals(-1, position(directives.get(2)));
+  }
+
+  @Test
+  public void testBoundSlotsFallBackToName() throws Exception {
+    String[] recipe = new String[] {
+      "lowercase b",
+      "set-column c b + '!'"
+    };
+    RecipePipelineExecutor pipeline = (RecipePipelineExecutor) TestingRig.execute(recipe);
+    // Column c is created by set-column, so only the slot of lowercase is bound.
+    Assert.assertEquals(1, pipeline.bind(Arrays.asList("a", "b")));
+
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("a", "X").add("b", "Y"));
+    // Rows that don't have the columns bound to are looked up by name.
+    rows.add(new Row("b", "Z").add("a", "W"));
+    rows.add(new Row("b", "V"));
+
+    List<Row> results = pipeline.execute(rows);
+    Assert.assertEquals(3, results.size());
+    Assert.assertEquals("y", results.get(0).getValue("b"));
+    Assert.assertEquals("y!", results.get(0).getValue("c"));
+    Assert.assertEquals("z", results.get(1).getValue("b"));
+    Assert.assertEquals("z!", results.get(1).getValue("c"));
+    Assert.assertEquals("X", results.get(0).getValue("a"));
+    Assert.assertEquals("v", results.get(2).getValue("b"));
+    Assert.assertEquals("v!", results.get(2).getValue("c"));
+  }
+
+  private static int position(Directive directive) {
+    return ((ColumnBindable) directive).slots().get(0).getPosition();
+  }
+}
@@ -18,13 +18,17 @@ package io.cdap.wrangler.executor;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.ErrorRecord;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Tests {@link RecipePipelineExecutor}.
@@ -96,4 +100,266 @@ public class RecipePipelineExecutorTest {
     Assert.assertEquals(1481666448L, record.<Long>get("timestamp").longValue());
     Assert.assertEquals(186.66f, record.get("weight"), 0.0001f);
   }
+
+  @Test
+  public void testBlockExecutionMatchesRowExecution() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv body , true",
+      "drop body",
+      "set-type age integer",
+      "send-to-error age > 40",
+      "set-column name string:upperCase(name)",
+      "filter-row-if-true age == 30"
+    };
+
+    RecipePipeline rowPipeline = TestingRig.execute(commands);
+    List<Row> expected = rowPipeline.execute(createRows(250));
+    List<ErrorRecord> expectedErrors = new ArrayList<>(rowPipeline.errors());
+
+    RecipePipeline blockPipeline = TestingRig.execute(commands, 16);
+    List<Row> actual = blockPipeline.execute(createRows(250));
+    List<ErrorRecord> actualErrors = blockPipeline.errors();
+
+    assertRowsEqual(expected, actual);
+    Assert.assertEquals(expectedErrors.size(), actualErrors.size());
+    for (int i = 0; i < expectedErrors.size(); i++) {
+      Assert.assertEquals(expectedErrors.get(i).getMessage(), actualErrors.get(i).getMessage());
+      Assert.assertEquals(expectedErrors.get(i).getRow().getValue("name"),
+                          actualErrors.get(i).getRow().getValue("name"));
+    }
+  }
+
+  @Test
+  public void testBlockReplayDoesNotRepeatMetrics() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv body , true",
+      "drop body",
+      "set-type age integer",
+      "send-to-error age > 40 old"
+    };
+
+    for (int blockSize : new int[] { 1, 16 }) {
+      TestingPipelineContext context = new TestingPipelineContext();
+      RecipePipeline pipeline = TestingRig.execute(commands, blockSize, 1, context);
+      List<Row> rows = pipeline.execute(createRows(250));
+      Assert.assertEquals(205, rows.size());
+      Assert.assertEquals(45, pipeline.errors().size());
+      // The rows of the blocks replayed after the first error are only counted once.
+      Assert.assertEquals(45, context.getCount("old"));
+    }
+  }
+
+  @Test
+  public void testBlockExecutionWithTransientVariables() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv body , true",
+      "drop body",
+      "set-type age integer",
+      "send-to-error-and-continue exp:{age > 40} 'too old'",
+      "set-column failures dq_failure",
+      "increment-variable seen 1 exp:{true}",
+      "set-column seen seen"
+    };
+
+    List<Row> expected = TestingRig.execute(commands).execute(createRows(100));
+    List<Row> actual = TestingRig.execute(commands, 16).execute(createRows(100));
+    assertRowsEqual(expected, actual);
+  }
+
+  @Test
+  public void testBlockExecutionWithColumnarDirectives() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv body , true",
+      "drop body",
+      "rename name first",
+      "set-type age integer",
+      "set-column next age + 1",
+      "keep first,next"
+    };
+
+    List<Row> expected = TestingRig.execute(commands).execute(createRows(100));
+    List<Row> actual = TestingRig.execute(commands, 16).execute(createRows(100));
+    assertRowsEqual(expected, actual);
+    Assert.assertEquals(2, actual.get(50).length());
+  }
+
+  @Test
+  public void testBlockExecutionWithPrimitiveColumns() throws Exception {
+    String[][] recipes = new String[][] {
+      { "set-type age long", "set-column a age * 3", "set-column b 2.5 - age", "set-column c age + age" },
+      { "set-type age integer", "set-column big age * 100000000", "set-type big double", "quantize big big_q 0:5=low" },
+      { "set-type age float", "set-column a age + 1", "quantize age age_q 0:10=low,10:49=high" },
+      { "set-type age short", "set-column a age - 1", "mask-number age xx##", "mask-number missing ###" },
+      { "set-type age double", "set-type age integer", "set-type age string", "set-type age long" },
+    };
+
+    for (String[] recipe : recipes) {
+      String[] commands = new String[recipe.length + 2];
+      commands[0] = "parse-as-csv body , true";
+      commands[1] = "drop body";
+      System.arraycopy(recipe, 0, commands, 2, recipe.length);
+      List<Row> expected = TestingRig.execute(commands).execute(createRows(100));
+      List<Row> actual = TestingRig.execute(commands, 16).execute(createRows(100));
+      assertRowsEqual(expected, actual);
+    }
+  }
+
+  @Test
+  public void testPartitionedExecutionMatchesRowExecution() throws Exception {
+    String[] commands = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body ,",
+      "drop body",
+      "set-type body_2 integer",
+      "set-column next body_2 + 1",
+      "filter-row-if-true body_2 == 30"
+    };
+
+    List<Row> expected = TestingRig.execute(commands).execute(createFile(5000));
+    RecipePipeline pipeline = TestingRig.execute(commands, 1, 4);
+    try {
+      List<Row> actual = pipeline.execute(createFile(5000));
+      assertRowsEqual(expected, actual);
+      Assert.assertEquals(4900, actual.size());
+    } finally {
+      pipeline.destroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedExecutionFallsBack() throws Exception {
+    String[] errors = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body ,",
+      "set-type body_2 integer",
+      "send-to-error body_2 > 40"
+    };
+    String[] variables = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body ,",
+      "increment-variable seen 1 exp:{true}",
+      "set-column seen seen"
+    };
+
+    for (String[] commands : Arrays.asList(errors, variables)) {
+      RecipePipeline expectedPipeline = TestingRig.execute(commands);
+      List<Row> expected = expectedPipeline.execute(createFile(2000));
+      RecipePipeline pipeline = TestingRig.execute(commands, 1, 4);
+      try {
+        assertRowsEqual(expected, pipeline.execute(createFile(2000)));
+        Assert.assertEquals(expectedPipeline.errors().size(), pipeline.errors().size());
+      } finally {
+        pipeline.destroy();
+      }
+    }
+  }
+
+  @Test
+  public void testPartitionReplayDoesNotRepeatMetrics() throws Exception {
+    String[] commands = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body ,",
+      "set-type body_2 integer",
+      "send-to-error body_2 > 40 old"
+    };
+
+    TestingPipelineContext expectedContext = new TestingPipelineContext();
+    TestingRig.execute(commands, 1, 1, expectedContext).execute(createFile(2000));
+    TestingPipelineContext context = new TestingPipelineContext();
+    RecipePipeline pipeline = TestingRig.execute(commands, 1, 4, context);
+    try {
+      pipeline.execute(createFile(2000));
+      // The metrics of the partitions discarded when the workers hit the error rows are not counted.
+      Assert.assertEquals(expectedContext.getCount("old"), context.getCount("old"));
+    } finally {
+      pipeline.destroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedExecutionWithSharedDirectives() throws Exception {
+    // All of these directives are thread-safe, so the workers share them.
+    String[] commands = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body ,",
+      "drop body",
+      "hash body_1 MD5 true",
+      "set-type body_2 integer",
+      "set-column next body_2 + 1",
+      "filter-row-if-true next > 45"
+    };
+
+    List<Row> expected = TestingRig.execute(commands).execute(createFile(5000));
+    RecipePipeline pipeline = TestingRig.execute(commands, 1, 4);
+    try {
+      assertRowsEqual(expected, pipeline.execute(createFile(5000)));
+    } finally {
+      pipeline.destroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedExecutionWithHeader() throws Exception {
+    // The header is taken from the first line, so the lines must not be partitioned.
+    String[] commands = new String[] {
+      "split-to-rows body \\n",
+      "parse-as-csv body , true",
+      "drop body",
+      "set-type age integer",
+      "filter-row-if-true age > 45"
+    };
+
+    List<Row> expected = TestingRig.execute(commands).execute(createFile(5000, true));
+    RecipePipeline pipeline = TestingRig.execute(commands, 1, 4);
+    try {
+      List<Row> actual = pipeline.execute(createFile(5000, true));
+      assertRowsEqual(expected, actual);
+      Assert.assertEquals(4600, actual.size());
+      Assert.assertEquals("name", actual.get(0).getColumn(0));
+      Assert.assertEquals("name4995", actual.get(actual.size() - 1).getValue("name"));
+    } finally {
+      pipeline.destroy();
+    }
+  }
+
+  private static List<Row> createFile(int lines) {
+    return createFile(lines, false);
+  }
+
+  // A single row holding a file of lines, that is split into a row per line.
+  private static List<Row> createFile(int lines, boolean header) {
+    StringBuilder body = new StringBuilder();
+    if (header) {
+      body.append("name,age").append('\n');
+    }
+    for (int i = 0; i < lines; i++) {
+      body.append(String.format("name%d,%d", i, i % 50)).append('\n');
+    }
+    body.setLength(body.length() - 1);
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("body", body.toString()));
+    return rows;
+  }
+
+  private static List<Row> createRows(int count) {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("body", "name,age"));
+    for (int i = 0; i < count; i++) {
+      rows.add(new Row("body", String.format("name%d,%d", i, i % 50)));
+    }
+    return rows;
+  }
+
+  private static void assertRowsEqual(List<Row> expected, List<Row> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Row expectedRow = expected.get(i);
+      Row actualRow = actual.get(i);
+      Assert.assertEquals(expectedRow.length(), actualRow.length());
+      for (int j = 0; j < expectedRow.length(); j++) {
+        Assert.assertEquals(expectedRow.getColumn(j), actualRow.getColumn(j));
+        Assert.assertEquals(expectedRow.getValue(j), actualRow.getValue(j));
+      }
+    }
+  }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation of expressions compiled by {@link ELCompiler} against JEXL interpreting them.
+ *
+ * <p>Run with {@code java -cp <test classpath> io.cdap.wrangler.expression.ELBenchmark}.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ELBenchmark {
+
+  @Param({
+    "price * quantity + 10",
+    "age > 24 && country == 'US' ? 'adult' : 'teen'",
+    "string:upperCase(first) + ' ' + last",
+    "toDouble(amount) * 1.5",
+    "math:max(price, quantity)"
+  })
+  private String expression;
+
+  private EL compiled;
+  private EL interpreted;
+  private ELContext context;
+
+  @Setup
+  public void setup() throws Exception {
+    compiled = new EL(new EL.DefaultFunctions(), true);
+    compiled.compile(expression);
+    interpreted = new EL(new EL.DefaultFunctions(), false);
+    interpreted.compile(expression);
+    context = new ELContext()
+      .add("price", 12)
+      .add("quantity", 3)
+      .add("age", 31)
+      .add("country", "US")
+      .add("first", "john")
+      .add("last", "doe")
+      .add("amount", "10.25");
+  }
+
+  @Benchmark
+  public Object compiled() throws Exception {
+    return compiled.execute(context).getObject();
+  }
+
+  @Benchmark
+  public Object interpreted() throws Exception {
+    return interpreted.execute(context).getObject();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+      .include(ELBenchmark.class.getSimpleName())
+      .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import com.google.common.cache.CacheStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests {@link ELCache}.
+ */
+public class ELCacheTest {
+
+  @Test
+  public void testExpressionsAreShared() throws Exception {
+    String expression = "cache_test_a + cache_test_b";
+    CacheStats before = ELCache.getInstance().getScriptStats();
+
+    EL first = new EL(new EL.DefaultFunctions());
+    first.compile(expression);
+    EL second = new EL(new EL.DefaultFunctions());
+    second.compile(expression);
+
+    CacheStats stats = ELCache.getInstance().getScriptStats().minus(before);
+    Assert.assertEquals(1, stats.missCount());
+    Assert.assertEquals(1, stats.hitCount());
+    Assert.assertEquals(first.variables(), second.variables());
+    Assert.assertEquals(new Integer(3),
+                        second.execute(new ELContext().add("cache_test_a", 1).add("cache_test_b", 2)).getInteger());
+  }
+
+  @Test
+  public void testInvalidExpressionsAreNotCached() throws Exception {
+    CacheStats before = ELCache.getInstance().getScriptStats();
+    for (int i = 0; i < 2; i++) {
+      try {
+        new EL(new EL.DefaultFunctions()).compile("a +* b");
+        Assert.fail("Expression is invalid");
+      } catch (ELException e) {
+        // expected
+      }
+    }
+    CacheStats stats = ELCache.getInstance().getScriptStats().minus(before);
+    Assert.assertEquals(0, stats.hitCount());
+    Assert.assertEquals(2, stats.missCount());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    ELCache cache = new ELCache(1, 2);
+    for (String expression : new String[] { "a", "b", "c" }) {
+      cache.getScript(Collections.emptyMap(), expression,
+                      () -> new ELCache.Script(null, null, Collections.emptySet(), null));
+    }
+    Assert.assertEquals(3, cache.getScriptStats().missCount());
+    Assert.assertTrue(cache.getScriptStats().evictionCount() >= 1);
+  }
+
+  @Test
+  public void testConcurrentUse() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        int value = i;
+        futures.add(executor.submit(() -> {
+          EL el = new EL(new EL.DefaultFunctions());
+          el.compile("math:max(x, " + (value % 10) + ") + 1");
+          return el.execute(new ELContext("x", value)).getInteger();
+        }));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        Assert.assertEquals(new Integer(Math.max(i, i % 10) + 1), futures.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
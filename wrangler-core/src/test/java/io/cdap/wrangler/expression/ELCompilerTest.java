@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ELCompiler}, comparing the results of the compiled expressions with the results of JEXL.
+ */
+public class ELCompilerTest {
+
+  // Expressions that are expected to be compiled.
+  private static final String[] COMPILED = new String[] {
+    "a + b",
+    "a - b * c",
+    "(a - b) * c",
+    "a / b",
+    "a % b",
+    "c / 2.0",
+    "-a + 10",
+    "-2147483648",
+    "d + 1",
+    "s + ' ' + t",
+    "s + a",
+    "a < b",
+    "a <= b",
+    "a > b",
+    "a >= b",
+    "a == b",
+    "a != b",
+    "s == 'hello'",
+    "a == '1'",
+    "a < b && b < c",
+    "a > b || s == 'hello'",
+    "!(a < b)",
+    "a < b ? s : t",
+    "a > b ? 'x' : a < c ? 'y' : 'z'",
+    "n == null",
+    "n == null ? 'missing' : n",
+    "true && !false",
+    "toDouble(num) * 2",
+    "toInteger(num) + a",
+    "concat(s, t)",
+    "concat(s, '-', t)",
+    "coalesce(n, s)",
+    "string:upperCase(s)",
+    "string:substring(s, 1, 3)",
+    "string:isEmpty(n)",
+    "strings:repeat(s, 2)",
+    "math:max(a, c)",
+    "math:abs(-c)",
+    "math:round(f)",
+    "dq:isnull(n)",
+    "dq:inrange(f, 1, 5)",
+    "s.length()",
+    "s.toUpperCase().substring(1)",
+    "'it\\'s ' + s",
+    "\"double\" + s",
+    "s + x",
+    "n + 1",
+    "n && true",
+    "a / 0",
+    "toInteger(s)",
+  };
+
+  // Expressions that are expected to be left to JEXL.
+  private static final String[] INTERPRETED = new String[] {
+    "a = 1",
+    "s =~ 'h.*'",
+    "a.b",
+    "a eq b",
+    "size(s)",
+    "empty(n)",
+    "[1, 2, 3]",
+    "a ?: b",
+    "a; b",
+  };
+
+  @Test
+  public void testCompiledMatchesInterpreted() throws Exception {
+    for (String expression : COMPILED) {
+      EL compiled = new EL(new EL.DefaultFunctions(), true);
+      compiled.compile(expression);
+      Assert.assertTrue("Expression is not compiled: " + expression, compiled.isCompiled());
+      assertSameResult(expression, compiled);
+    }
+  }
+
+  @Test
+  public void testUnsupportedExpressionsAreInterpreted() throws Exception {
+    for (String expression : INTERPRETED) {
+      EL el = new EL(new EL.DefaultFunctions(), true);
+      el.compile(expression);
+      Assert.assertFalse("Expression is compiled: " + expression, el.isCompiled());
+      assertSameResult(expression, el);
+    }
+  }
+
+  @Test
+  public void testReusedAcrossTypes() throws Exception {
+    EL compiled = new EL(new EL.DefaultFunctions(), true);
+    compiled.compile("math:max(v, 2)");
+    EL interpreted = new EL(new EL.DefaultFunctions(), false);
+    interpreted.compile("math:max(v, 2)");
+    // The method resolved for the first value doesn't apply to the following ones.
+    for (Object value : new Object[] { 1, 5L, 3.5d, 7, new BigDecimal("1.5") }) {
+      assertSameResult(Collections.singletonMap("v", value), compiled, interpreted);
+    }
+  }
+
+  @Test
+  public void testErrorsAreNotInterpreted() throws Exception {
+    EL interpreted = new EL(() -> Collections.singletonMap("failing", Failing.class), false);
+    interpreted.compile("failing:fail(s)");
+    String expected = null;
+    try {
+      interpreted.execute(new ELContext("s", "value"));
+      Assert.fail("Expected the function to fail.");
+    } catch (ELException e) {
+      expected = e.getMessage();
+    }
+
+    EL compiled = new EL(() -> Collections.singletonMap("failing", Failing.class), true);
+    compiled.compile("failing:fail(s)");
+    Assert.assertTrue(compiled.isCompiled());
+
+    Failing.CALLS.set(0);
+    // The second evaluation invokes the method resolved by the first.
+    for (int i = 1; i <= 2; i++) {
+      try {
+        compiled.execute(new ELContext("s", "value"));
+        Assert.fail("Expected the function to fail.");
+      } catch (ELException e) {
+        Assert.assertEquals(expected, e.getMessage());
+      }
+      // The expression isn't evaluated again by JEXL once the function fails.
+      Assert.assertEquals(i, Failing.CALLS.get());
+    }
+  }
+
+  private static void assertSameResult(String expression, EL compiled) throws Exception {
+    EL interpreted = new EL(new EL.DefaultFunctions(), false);
+    interpreted.compile(expression);
+    Assert.assertFalse(interpreted.isCompiled());
+    for (Map<String, Object> values : contexts()) {
+      assertSameResult(values, compiled, interpreted);
+    }
+  }
+
+  private static void assertSameResult(Map<String, Object> values, EL compiled, EL interpreted) {
+    // Each evaluation gets its own context, as the variables missing from it are added.
+    Object expected;
+    try {
+      expected = interpreted.execute(new ELContext(values)).getObject();
+    } catch (ELException e) {
+      expected = e;
+    }
+    Object actual;
+    try {
+      actual = compiled.execute(new ELContext(values)).getObject();
+    } catch (ELException e) {
+      actual = e;
+    }
+
+    if (expected instanceof ELException) {
+      Assert.assertTrue(String.format("Expected error '%s', but got '%s'", expected, actual),
+                        actual instanceof ELException);
+      Assert.assertEquals(((ELException) expected).getMessage(), ((ELException) actual).getMessage());
+      return;
+    }
+    Assert.assertEquals(expected, actual);
+    if (expected != null) {
+      Assert.assertEquals(expected.getClass(), actual.getClass());
+    }
+  }
+
+  private static List<Map<String, Object>> contexts() {
+    List<Map<String, Object>> contexts = new ArrayList<>();
+
+    Map<String, Object> integers = new HashMap<>();
+    integers.put("a", 1);
+    integers.put("b", 2);
+    integers.put("c", 3);
+    integers.put("d", Long.MAX_VALUE);
+    integers.put("f", 2.5f);
+    integers.put("n", null);
+    integers.put("s", "hello");
+    integers.put("t", "world");
+    integers.put("num", "42");
+    contexts.add(integers);
+
+    Map<String, Object> mixed = new HashMap<>();
+    mixed.put("a", 7.5d);
+    mixed.put("b", 7L);
+    mixed.put("c", new BigDecimal("2.25"));
+    mixed.put("d", (short) 4);
+    mixed.put("f", 1.25d);
+    mixed.put("n", "present");
+    mixed.put("s", "h");
+    mixed.put("t", "");
+    mixed.put("num", "1.5");
+    contexts.add(mixed);
+
+    Map<String, Object> strings = new HashMap<>();
+    strings.put("a", "1");
+    strings.put("b", "10");
+    strings.put("c", "x");
+    strings.put("d", "9");
+    strings.put("f", "3");
+    strings.put("n", null);
+    strings.put("s", "hello");
+    strings.put("t", null);
+    strings.put("num", "not a number");
+    contexts.add(strings);
+
+    // Variables missing from the context.
+    Map<String, Object> missing = new HashMap<>();
+    missing.put("a", 1);
+    missing.put("s", "hello");
+    contexts.add(missing);
+    return contexts;
+  }
+
+  /**
+   * Functions that fail, counting how many times they are called.
+   */
+  public static final class Failing {
+    static final AtomicInteger CALLS = new AtomicInteger();
+
+    public static String fail(String value) {
+      CALLS.incrementAndGet();
+      throw new IllegalStateException("Failed with " + value);
+    }
+  }
+}
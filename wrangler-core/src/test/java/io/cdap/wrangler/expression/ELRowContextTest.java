@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link ELRowContext}.
+ */
+public class ELRowContextTest {
+
+  @Test
+  public void testResolvesFromRow() throws Exception {
+    EL el = new EL(new EL.DefaultFunctions());
+    el.compile("a + b");
+    ELRowContext ctx = new ELRowContext(el.variables());
+
+    Assert.assertEquals(new Integer(3), el.execute(ctx.reset(new Row("a", 1).add("b", 2), null)).getInteger());
+    Assert.assertEquals(new Integer(7), el.execute(ctx.reset(new Row("b", 3).add("a", 4), null)).getInteger());
+  }
+
+  @Test
+  public void testMissingColumnIsNull() throws Exception {
+    EL el = new EL(new EL.DefaultFunctions());
+    el.compile("a == null");
+    ELRowContext ctx = new ELRowContext(el.variables());
+
+    Assert.assertTrue(el.execute(ctx.reset(new Row("b", 1), null)).getBoolean());
+    Assert.assertFalse(el.execute(ctx.reset(new Row("a", 1), null)).getBoolean());
+  }
+
+  @Test
+  public void testAssignmentsAreDroppedOnReset() throws Exception {
+    ELRowContext ctx = new ELRowContext(new EL(new EL.DefaultFunctions()).variables(), "this");
+    Row row = new Row("a", 1);
+    ctx.reset(row, null);
+    ctx.set("x", 10);
+    Assert.assertTrue(ctx.has("x"));
+    Assert.assertEquals(10, ctx.get("x"));
+    Assert.assertSame(row, ctx.get("this"));
+
+    ctx.reset(new Row("a", 2), null);
+    Assert.assertFalse(ctx.has("x"));
+    Assert.assertFalse(ctx.has("runtime"));
+  }
+}
@@ -38,6 +38,19 @@ public class ELTest {
     Assert.assertEquals(false, el.variables().contains("c"));
   }
 
+  @Test
+  public void testIsDeterministic() throws Exception {
+    EL el = new EL(new EL.DefaultFunctions());
+    el.compile("string:upper(known) + a");
+    Assert.assertTrue(el.isDeterministic());
+    el.compile("date:DAYS_BETWEEN_NOW(a)");
+    Assert.assertFalse(el.isDeterministic());
+    el.compile("math:random() > a");
+    Assert.assertFalse(el.isDeterministic());
+    el.compile("a + b");
+    Assert.assertTrue(el.isDeterministic());
+  }
+
   @Test(expected = ELException.class)
   public void testUndefinedVariableException() throws Exception {
     EL el = new EL(new EL.DefaultFunctions());
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.PrimitiveColumn;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowBatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link NumericKernel}, comparing the results of the kernel with the results of JEXL.
+ */
+public class NumericKernelTest {
+
+  private static final String[] SUPPORTED = new String[] {
+    "a + b",
+    "a - 1",
+    "2 * a",
+    "a * 2.5",
+    "f + d",
+    "l - a",
+    "s * s",
+    "a + 3000000000",
+  };
+
+  private static final String[] UNSUPPORTED = new String[] {
+    "a / b",
+    "a + b + 1",
+    "-a + 1",
+    "a.b + 1",
+    "size + 1",
+    "true + a",
+    "1 + 2",
+    "a + '1'",
+  };
+
+  @Test
+  public void testKernelMatchesJexl() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      rows.add(new Row("a", i - 50).add("b", i * 7).add("l", (long) i << 20)
+                 .add("f", i / 4.0f).add("d", i / 3.0d).add("s", (short) i));
+    }
+    for (String expression : SUPPORTED) {
+      EL el = new EL(new EL.DefaultFunctions());
+      el.compile(expression);
+      NumericKernel kernel = NumericKernel.of(el, expression);
+      Assert.assertNotNull("Expression has no kernel: " + expression, kernel);
+
+      PrimitiveColumn result = kernel.evaluate(RowBatch.of(rows));
+      Assert.assertNotNull("Kernel falls back: " + expression, result);
+      for (int i = 0; i < rows.size(); i++) {
+        Object expected = el.execute(new ELRowContext(el.variables()).reset(rows.get(i), null)).getObject();
+        Assert.assertEquals(expression, expected, result.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedExpressions() throws Exception {
+    for (String expression : UNSUPPORTED) {
+      EL el = new EL(new EL.DefaultFunctions());
+      el.compile(expression);
+      Assert.assertNull("Expression has a kernel: " + expression, NumericKernel.of(el, expression));
+    }
+  }
+
+  @Test
+  public void testFallback() throws Exception {
+    EL el = new EL(new EL.DefaultFunctions());
+    el.compile("a * 100000");
+    NumericKernel kernel = NumericKernel.of(el, "a * 100000");
+
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("a", 1));
+    rows.add(new Row("a", 100000));
+    // The second row overflows an Integer, which JEXL widens to a Long.
+    Assert.assertNull(kernel.evaluate(RowBatch.of(rows)));
+
+    rows.set(1, new Row("a", (Object) null));
+    Assert.assertNull(kernel.evaluate(RowBatch.of(rows)));
+    rows.set(1, new Row("a", "1"));
+    Assert.assertNull(kernel.evaluate(RowBatch.of(rows)));
+    rows.set(1, new Row("b", 1));
+    Assert.assertNull(kernel.evaluate(RowBatch.of(rows.subList(1, 2))));
+  }
+}
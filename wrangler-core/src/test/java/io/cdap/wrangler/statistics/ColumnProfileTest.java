@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests {@link ColumnProfile}.
+ */
+public class ColumnProfileTest {
+
+  @Test
+  public void testCounts() {
+    ColumnProfile profile = new ColumnProfile();
+    profile.add(null, Collections.emptyList());
+    profile.add("", Collections.emptyList());
+    profile.add("abc", Collections.singletonList("Text"));
+    profile.add("12.5", Arrays.asList("Text", "Decimal"));
+    profile.add(3, Collections.emptyList());
+    profile.add(new byte[] { 1 }, Collections.emptyList());
+
+    Assert.assertEquals(6, profile.getCount());
+    Assert.assertEquals(1, profile.getNulls());
+    Assert.assertEquals(1, profile.getEmpties());
+    Assert.assertEquals(new Long(2), profile.getTypes().get("Text"));
+    Assert.assertEquals(new Long(1), profile.getTypes().get("Decimal"));
+    Assert.assertEquals(4, profile.getDistinct());
+    Assert.assertEquals(2, profile.getNumericCount());
+    Assert.assertEquals(new Double(3), profile.getMin());
+    Assert.assertEquals(new Double(12.5), profile.getMax());
+  }
+
+  @Test
+  public void testNoNumbers() {
+    ColumnProfile profile = new ColumnProfile();
+    profile.add(null, Collections.emptyList());
+    Assert.assertNull(profile.getMin());
+    Assert.assertNull(profile.getMax());
+    Assert.assertNull(profile.getQuantile(0.5));
+    Assert.assertTrue(profile.getTop(10).isEmpty());
+    Assert.assertEquals(0, profile.getDistinct());
+  }
+
+  @Test
+  public void testSketches() {
+    ColumnProfile profile = new ColumnProfile();
+    Set<Integer> distinct = new HashSet<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      // A third of the values is 7, the rest is uniformly distributed between 0 and 50000.
+      int value = i % 3 == 0 ? 7 : random.nextInt(50000);
+      distinct.add(value);
+      profile.add(String.valueOf(value), Collections.emptyList());
+    }
+
+    assertWithin(distinct.size(), profile.getDistinct(), 0.05);
+    Assert.assertEquals(new Double(0), profile.getMin());
+    Assert.assertEquals(new Double(49999), profile.getMax());
+    // A third of the values are 7, so the median is in the remaining values.
+    assertWithin(50000 * 0.25, profile.getQuantile(0.5), 0.05);
+    assertWithin(50000 * 0.625, profile.getQuantile(0.75), 0.05);
+
+    List<Pair<String, Long>> top = profile.getTop(1);
+    Assert.assertEquals("7", top.get(0).getFirst());
+    assertWithin(33334, top.get(0).getSecond(), 0.05);
+  }
+
+  @Test
+  public void testMerge() {
+    ColumnProfile all = new ColumnProfile();
+    ColumnProfile merged = new ColumnProfile();
+    for (int part = 0; part < 10; part++) {
+      ColumnProfile profile = new ColumnProfile();
+      for (int i = 0; i < 5000; i++) {
+        int value = part * 5000 + i;
+        Object object = i % 100 == 0 ? null : String.valueOf(value % 20000);
+        profile.add(object, Collections.emptyList());
+        all.add(object, Collections.emptyList());
+      }
+      merged.merge(profile);
+    }
+
+    Assert.assertEquals(all.getCount(), merged.getCount());
+    Assert.assertEquals(500, merged.getNulls());
+    Assert.assertEquals(all.getMin(), merged.getMin());
+    Assert.assertEquals(all.getMax(), merged.getMax());
+    Assert.assertEquals(all.getDistinct(), merged.getDistinct());
+    assertWithin(20000, merged.getDistinct(), 0.05);
+    // Values below 10000 appear three times, and the others twice.
+    assertWithin(25000 / 3.0, merged.getQuantile(0.5), 0.05);
+  }
+
+  @Test
+  public void testParseNumber() {
+    for (String number : new String[] { "0", "-1", "+2", "3.", ".5", "1.5e10", "2E-3", "007" }) {
+      Assert.assertEquals(Double.parseDouble(number), ColumnProfile.parseNumber(number), 0);
+    }
+    for (String text : new String[] { "", "-", ".", "1e", "1.2.3", "abc", "12a", "NaN", "Infinity", "0x10" }) {
+      Assert.assertTrue(text, Double.isNaN(ColumnProfile.parseNumber(text)));
+    }
+  }
+
+  private static void assertWithin(double expected, double actual, double error) {
+    Assert.assertTrue(String.format("Expected %f, but got %f", expected, actual),
+                      Math.abs(actual - expected) <= expected * error);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Tests {@link StreamingStatistics}.
+ */
+public class StreamingStatisticsTest {
+
+  @Test
+  public void testSameAsBasic() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-csv body ,",
+      "drop body"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("body", "1234.45,650-897-3839,111-11-1111,32826,02/29/2000,\"$1234.56\",http://www.yahoo.com"),
+      new Row("body", "45.56,670-897-3839,111-12-1111,32826,02/01/2011,\"$56,789\",http://mars.io"),
+      new Row("body", "45.56,670-897-3839,222,32826,9/14/2016,\"\",http://mars.io")
+    );
+    rows = TestingRig.execute(directives, rows);
+
+    Row expected = new BasicStatistics().aggregate(rows);
+    Row actual = new StreamingStatistics().aggregate(rows);
+
+    Assert.assertEquals(expected.getValue("total"), actual.getValue("total"));
+    assertSameFields((Row) expected.getValue("stats"), (Row) actual.getValue("stats"));
+    assertSameFields((Row) expected.getValue("types"), (Row) actual.getValue("types"));
+
+    Row profiles = (Row) actual.getValue("profiles");
+    Assert.assertEquals(7, profiles.length());
+    ColumnProfile first = (ColumnProfile) profiles.getValue(0);
+    Assert.assertEquals(2, first.getDistinct());
+    Assert.assertEquals(new Double(45.56), first.getMin());
+    Assert.assertEquals(new Double(1234.45), first.getMax());
+  }
+
+  @Test
+  public void testBlocksInParallel() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      Row row = new Row("id", String.valueOf(i)).add("mod", String.valueOf(i % 7));
+      if (i % 3 == 0) {
+        row.add("sparse", i % 2 == 0 ? null : "");
+      }
+      rows.add(row);
+    }
+
+    AtomicInteger detected = new AtomicInteger();
+    Function<String, Collection<String>> detector = value -> {
+      detected.incrementAndGet();
+      return value.length() == 1 ? Collections.singletonList("Digit") : Collections.emptyList();
+    };
+    Map<String, ColumnProfile> single = new StreamingStatistics(detector, rows.size()).profile(rows);
+    int detectedSingle = detected.getAndSet(0);
+    Map<String, ColumnProfile> blocks = new StreamingStatistics(detector, 100).profile(rows);
+
+    Assert.assertEquals(Arrays.asList("id", "mod", "sparse"), new ArrayList<>(blocks.keySet()));
+    for (String column : single.keySet()) {
+      ColumnProfile expected = single.get(column);
+      ColumnProfile actual = blocks.get(column);
+      Assert.assertEquals(expected.getCount(), actual.getCount());
+      Assert.assertEquals(expected.getNulls(), actual.getNulls());
+      Assert.assertEquals(expected.getEmpties(), actual.getEmpties());
+      Assert.assertEquals(expected.getTypes(), actual.getTypes());
+      Assert.assertEquals(expected.getDistinct(), actual.getDistinct());
+      Assert.assertEquals(expected.getMin(), actual.getMin());
+      Assert.assertEquals(expected.getMax(), actual.getMax());
+    }
+    Assert.assertEquals(new Long(10), blocks.get("id").getTypes().get("Digit"));
+    Assert.assertEquals(new Long(10000), blocks.get("mod").getTypes().get("Digit"));
+    Assert.assertEquals(7, blocks.get("mod").getDistinct());
+    Assert.assertEquals(1667, blocks.get("sparse").getNulls());
+    Assert.assertEquals(1667, blocks.get("sparse").getEmpties());
+    // Neither nulls nor empty strings are detected.
+    Assert.assertEquals(20000, detectedSingle);
+    Assert.assertEquals(20000, detected.get());
+  }
+
+  @Test
+  public void testRepeatedValuesDetectedOnce() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      rows.add(new Row("sorted", String.valueOf(i / 10)));
+    }
+    AtomicInteger detected = new AtomicInteger();
+    Map<String, ColumnProfile> profiles = new StreamingStatistics(value -> {
+      detected.incrementAndGet();
+      return Collections.singletonList("Integer");
+    }, StreamingStatistics.BLOCK_SIZE).profile(rows);
+
+    Assert.assertEquals(10, detected.get());
+    Assert.assertEquals(new Long(100), profiles.get("sorted").getTypes().get("Integer"));
+  }
+
+  private static void assertSameFields(Row expected, Row actual) {
+    Assert.assertEquals(expected.length(), actual.length());
+    for (int i = 0; i < expected.length(); i++) {
+      List<Pair<String, Double>> expectedValues = (List<Pair<String, Double>>) expected.getValue(i);
+      List<Pair<String, Double>> actualValues = (List<Pair<String, Double>>) actual.getValue(expected.getColumn(i));
+      Assert.assertEquals(expectedValues.size(), actualValues.size());
+      for (int j = 0; j < expectedValues.size(); j++) {
+        Assert.assertEquals(expectedValues.get(j).getFirst(), actualValues.get(j).getFirst());
+        Assert.assertEquals(expectedValues.get(j).getSecond(), actualValues.get(j).getSecond());
+      }
+    }
+  }
+}
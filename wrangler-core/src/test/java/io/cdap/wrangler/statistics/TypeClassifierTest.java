@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.statistics;
+
+import io.dataapps.chlorine.finder.FinderEngine;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link TypeClassifier}.
+ */
+public class TypeClassifierTest {
+
+  @Test
+  public void testScannedSameAsFinders() throws Exception {
+    FinderEngine engine = new FinderEngine("wrangler-finder.xml", true, false);
+    List<String> values = new ArrayList<>(Arrays.asList(
+      "0", "7", "42", "2019", "123456", "123456789", "1.5", "0.99", "45.56", "12345.67", "1.12345", "12345.12345",
+      "true", "FALSE", "Yes", "no", "nO"
+    ));
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      StringBuilder value = new StringBuilder();
+      int length = 1 + random.nextInt(10);
+      for (int j = 0; j < length; j++) {
+        value.append(random.nextInt(8) == 0 ? '.' : (char) ('0' + random.nextInt(10)));
+      }
+      values.add(value.toString());
+    }
+
+    int scanned = 0;
+    for (String value : values) {
+      Set<String> types = TypeClassifier.scan(value);
+      if (types != null) {
+        scanned++;
+        Assert.assertEquals(value, engine.findWithType(value).keySet(), types);
+      }
+    }
+    Assert.assertTrue(scanned > values.size() / 2);
+  }
+
+  @Test
+  public void testNotScanned() {
+    for (String value : new String[] { "12345", "1234567890", "-1", "1.", ".5", "1.2.3", "02/29/2000", "yes!",
+      "a@b.com", "falsey" }) {
+      Assert.assertNull(value, TypeClassifier.scan(value));
+    }
+  }
+
+  @Test
+  public void testFoundTypesAreCached() {
+    AtomicInteger found = new AtomicInteger();
+    TypeClassifier classifier = new TypeClassifier(value -> {
+      found.incrementAndGet();
+      return Collections.singleton("Text");
+    }, 2);
+
+    Assert.assertEquals(Collections.singleton("Text"), classifier.classify("abc"));
+    Assert.assertEquals(Collections.singleton("Text"), classifier.classify("abc"));
+    Assert.assertEquals(1, found.get());
+    Assert.assertEquals(1, classifier.getStats().hitCount());
+
+    // Scanned values don't go through the finders.
+    Assert.assertEquals(Collections.singleton("Integer"), classifier.classify("123"));
+    Assert.assertEquals(1, found.get());
+
+    // Long values are not cached.
+    char[] chars = new char[1000];
+    Arrays.fill(chars, 'a');
+    String value = new String(chars);
+    classifier.classify(value);
+    classifier.classify(value);
+    Assert.assertEquals(3, found.get());
+
+    classifier.classify("def");
+    classifier.classify("ghi");
+    Assert.assertTrue(classifier.getStats().evictionCount() >= 1);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.utils;
+
+import com.google.common.base.Charsets;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link RowSerDe}
+ */
+public class RowSerDeTest {
+
+  @Test
+  public void testSerDe() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      Row row = new Row("body", "value" + (i % 5))
+        .add("unique", "value" + i)
+        .add("int", i - 1500)
+        .add("long", i * 1000000007L)
+        .add("short", (short) -i)
+        .add("float", i / 3.0f)
+        .add("double", i % 10 == 0 ? null : i / 7.0d)
+        .add("boolean", i % 3 == 0)
+        .add("bytes", ("bytes" + i).getBytes(Charsets.UTF_8))
+        .add("mixed", i % 2 == 0 ? "even" : i)
+        .add("decimal", new BigDecimal(i).movePointLeft(2))
+        .add("date", LocalDate.of(2018, 11, 1 + i % 28))
+        .add("null", null);
+      if (i % 100 == 0) {
+        row.add("extra", "é");
+      }
+      rows.add(row);
+    }
+
+    RowSerDe serDe = new RowSerDe();
+    byte[] bytes = serDe.toByteArray(rows);
+    Assert.assertTrue(RowSerDe.isRowFormat(bytes));
+    assertRowsEqual(rows, serDe.toRows(bytes));
+    Assert.assertTrue(bytes.length < new ObjectSerDe<List<Row>>().toByteArray(rows).length);
+  }
+
+  @Test
+  public void testLimit() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < RowSerDe.BLOCK_SIZE * 3; i++) {
+      rows.add(new Row("a", i));
+    }
+    RowSerDe serDe = new RowSerDe();
+    byte[] bytes = serDe.toByteArray(rows);
+    assertRowsEqual(rows.subList(0, 1500), serDe.toRows(bytes, 1500));
+    assertRowsEqual(rows.subList(0, 10), serDe.toRows(bytes, 10));
+    assertRowsEqual(rows, serDe.toRows(bytes, Integer.MAX_VALUE));
+    Assert.assertTrue(serDe.toRows(serDe.toByteArray(Collections.emptyList())).isEmpty());
+  }
+
+  @Test
+  public void testWriter() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    RowSerDe serDe = new RowSerDe();
+    try (RowSerDe.Writer writer = serDe.writer()) {
+      for (int i = 0; i < RowSerDe.BLOCK_SIZE + 10; i++) {
+        Row row = new Row("a", i).add("b", "value" + i);
+        rows.add(row);
+        writer.add(row);
+      }
+      Assert.assertEquals(rows.size(), writer.size());
+      byte[] bytes = writer.toByteArray();
+      Assert.assertArrayEquals(serDe.toByteArray(rows), bytes);
+      assertRowsEqual(rows, serDe.toRows(bytes));
+    }
+  }
+
+  @Test
+  public void testObjectSerDeCompatibility() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("id", 1).add("name", "abc").add("timestamp", ZonedDateTime.of(2018, 11, 11, 11, 11, 11, 0,
+                                                                                   ZoneId.of("UTC"))));
+    rows.add(new Row("id", 2).add("name", null).add("timestamp", null));
+    byte[] bytes = new ObjectSerDe<List<Row>>().toByteArray(rows);
+    Assert.assertFalse(RowSerDe.isRowFormat(bytes));
+
+    RowSerDe serDe = new RowSerDe();
+    assertRowsEqual(rows, serDe.toRows(bytes));
+    assertRowsEqual(rows.subList(0, 1), serDe.toRows(bytes, 1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedVersion() throws Exception {
+    byte[] bytes = new RowSerDe().toByteArray(Collections.singletonList(new Row("a", 1)));
+    bytes[3] = 100;
+    new RowSerDe().toRows(bytes);
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws Exception {
+    byte[] bytes = new RowSerDe().toByteArray(Collections.singletonList(new Row("a", "value")));
+    byte[] truncated = new byte[bytes.length - 4];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    new RowSerDe().toRows(truncated);
+  }
+
+  private static void assertRowsEqual(List<Row> expected, List<Row> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Row expectedRow = expected.get(i);
+      Row actualRow = actual.get(i);
+      Assert.assertEquals(expectedRow.length(), actualRow.length());
+      for (int j = 0; j < expectedRow.length(); j++) {
+        Assert.assertEquals(expectedRow.getColumn(j), actualRow.getColumn(j));
+        Object expectedValue = expectedRow.getValue(j);
+        if (expectedValue instanceof byte[]) {
+          Assert.assertArrayEquals((byte[]) expectedValue, (byte[]) actualRow.getValue(j));
+        } else {
+          Assert.assertEquals(expectedValue, actualRow.getValue(j));
+        }
+      }
+    }
+  }
+}
@@ -25,10 +25,27 @@ import javax.annotation.Nullable;
 public class ColumnStatistics {
   private final Map<String, Float> general;
   private final Map<String, Float> types;
+  // Profile of the values of the column, which is not present if it wasn't computed.
+  private final Long distinct;
+  private final Double min;
+  private final Double max;
+  private final Map<String, Double> quantiles;
+  private final Map<String, Long> top;
 
   public ColumnStatistics(@Nullable Map<String, Float> general, @Nullable Map<String, Float> types) {
+    this(general, types, null, null, null, null, null);
+  }
+
+  public ColumnStatistics(@Nullable Map<String, Float> general, @Nullable Map<String, Float> types,
+                          @Nullable Long distinct, @Nullable Double min, @Nullable Double max,
+                          @Nullable Map<String, Double> quantiles, @Nullable Map<String, Long> top) {
     this.general = general;
     this.types = types;
+    this.distinct = distinct;
+    this.min = min;
+    this.max = max;
+    this.quantiles = quantiles;
+    this.top = top;
   }
 
   @Nullable
@@ -40,4 +57,44 @@ public class ColumnStatistics {
   public Map<String, Float> getTypes() {
     return types;
   }
+
+  /**
+   * @return estimate of the number of distinct values.
+   */
+  @Nullable
+  public Long getDistinct() {
+    return distinct;
+  }
+
+  /**
+   * @return the smallest numeric value.
+   */
+  @Nullable
+  public Double getMin() {
+    return min;
+  }
+
+  /**
+   * @return the largest numeric value.
+   */
+  @Nullable
+  public Double getMax() {
+    return max;
+  }
+
+  /**
+   * @return estimates of the numeric values at percentiles, keyed by the percentile.
+   */
+  @Nullable
+  public Map<String, Double> getQuantiles() {
+    return quantiles;
+  }
+
+  /**
+   * @return the most frequent values with their estimated counts, most frequent first.
+   */
+  @Nullable
+  public Map<String, Long> getTop() {
+    return top;
+  }
 }
@@ -29,12 +29,22 @@ public class DirectiveExecutionResponse extends ServiceResponse<Map<String, Obje
   private final Collection<String> header;
   private final Map<String, String> types;
   private final List<String> directives;
+  // Position of the first value within the records of the execution, and the number of records.
+  private final int offset;
+  private final int total;
 
   public DirectiveExecutionResponse(Collection<Map<String, Object>> values, Collection<String> header,
                                     Map<String, String> types, List<String> directives) {
+    this(values, header, types, directives, 0, values.size());
+  }
+
+  public DirectiveExecutionResponse(Collection<Map<String, Object>> values, Collection<String> header,
+                                    Map<String, String> types, List<String> directives, int offset, int total) {
     super(values);
     this.header = header;
     this.types = types;
     this.directives = directives;
+    this.offset = offset;
+    this.total = total;
   }
 }
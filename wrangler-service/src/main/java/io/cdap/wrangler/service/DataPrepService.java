@@ -53,6 +53,8 @@ public class DataPrepService extends AbstractSystemService {
     createTable(SchemaRegistry.ENTRY_TABLE_SPEC);
     createTable(ConnectionStore.TABLE_SPEC);
     createTable(WorkspaceDataset.TABLE_SPEC);
+    createTable(WorkspaceDataset.SCOPE_TABLE_SPEC);
+    createTable(WorkspaceDataset.VERSION_TABLE_SPEC);
 
     addHandler(new DirectivesHandler());
     addHandler(new SchemaRegistryHandler());
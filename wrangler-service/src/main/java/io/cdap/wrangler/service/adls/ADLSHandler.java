@@ -16,7 +16,6 @@
 
 package io.cdap.wrangler.service.adls;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import com.microsoft.azure.datalake.store.ADLException;
 import com.microsoft.azure.datalake.store.ADLStoreClient;
@@ -34,7 +33,6 @@ import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
 import io.cdap.wrangler.SamplingMethod;
 import io.cdap.wrangler.ServiceUtils;
-import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.connections.ConnectionStore;
 import io.cdap.wrangler.dataset.workspace.DataType;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
@@ -51,21 +49,16 @@ import io.cdap.wrangler.proto.adls.FileQueryDetails;
 import io.cdap.wrangler.proto.connection.Connection;
 import io.cdap.wrangler.proto.connection.ConnectionMeta;
 import io.cdap.wrangler.proto.connection.ConnectionType;
-import io.cdap.wrangler.sampling.Bernoulli;
-import io.cdap.wrangler.sampling.Poisson;
-import io.cdap.wrangler.sampling.Reservoir;
 import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
-import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.service.connections.ClientCache;
+import io.cdap.wrangler.service.objectstore.ObjectSampler;
+import io.cdap.wrangler.service.objectstore.StoredObject;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -81,7 +74,6 @@ import javax.ws.rs.QueryParam;
  * Service to explore ADLS Gen1 filesystem.
  */
 public class ADLSHandler extends AbstractWranglerHandler {
-  private static final String COLUMN_NAME = "body";
   private static final int FILE_SIZE = 10 * 1024 * 1024;
   private static final FileTypeDetector detector = new FileTypeDetector();
 
@@ -153,7 +145,8 @@ public class ADLSHandler extends AbstractWranglerHandler {
       try {
         Connection connection = getValidatedConnection(new NamespacedId(ns, connectionId), ConnectionType.ADLS);
         String defaultPath = "/";
-        ADLStoreClient adlStoreClient = initializeAndGetADLSClient(connection);
+        ADLStoreClient adlStoreClient = ClientCache.getInstance().get(connection, ADLStoreClient.class,
+                                                                      () -> initializeAndGetADLSClient(connection));
         List<ADLSDirectoryEntryInfo> adlsDirectoryEntryInfos;
         if (path == null || path.equals("")) {
           adlsDirectoryEntryInfos = initClientReturnResponse(adlStoreClient, defaultPath);
@@ -252,32 +245,28 @@ public class ADLSHandler extends AbstractWranglerHandler {
    */
   private ADLSConnectionSample fetchFileFromClient(Connection connection, FileQueryDetails fileQueryDetails,
                                                    NamespacedId namespaceID) throws IOException {
-    ADLStoreClient client = initializeAndGetADLSClient(connection);
+    ADLStoreClient client = ClientCache.getInstance().get(connection, ADLStoreClient.class,
+                                                          () -> initializeAndGetADLSClient(connection));
     DirectoryEntry file = getFileFromClient(client, fileQueryDetails.getFilePath());
-    try (InputStream inputStream = clientInputStream(client, fileQueryDetails)) {
+    StoredObject object = new ADLSStoredObject(client, file);
+    try {
       if ("text/plain".equalsIgnoreCase(fileQueryDetails.getHeader())) {
-        return loadSamplableFile(namespaceID, fileQueryDetails.getScope(), inputStream, file,
+        return loadSamplableFile(namespaceID, fileQueryDetails.getScope(), object, file,
                 fileQueryDetails.getLines(), fileQueryDetails.getFraction(), fileQueryDetails.getSampler());
       } else {
-        return loadFile(namespaceID, fileQueryDetails.getScope(), inputStream, file);
+        return loadFile(namespaceID, fileQueryDetails.getScope(), object, file);
       }
     } catch (ADLException e) {
       throw new StatusCodeException(e.getMessage(), e, e.httpResponseCode);
     }
   }
 
-  private InputStream clientInputStream(ADLStoreClient client, FileQueryDetails fileQueryDetails)
-          throws IOException {
-    DirectoryEntry file = client.getDirectoryEntry(fileQueryDetails.getFilePath());
-    return client.getReadStream(file.fullName);
-  }
-
   private DirectoryEntry getFileFromClient(ADLStoreClient client, String path) throws IOException {
     return client.getDirectoryEntry(path);
   }
 
   private ADLSConnectionSample loadSamplableFile(NamespacedId connectionId,
-                                                 String scope, InputStream inputStream, DirectoryEntry fileEntry,
+                                                 String scope, StoredObject object, DirectoryEntry fileEntry,
                                                  int lines, double fraction, String sampler) throws IOException {
     SamplingMethod samplingMethod = SamplingMethod.fromString(sampler);
 
@@ -285,56 +274,39 @@ public class ADLSHandler extends AbstractWranglerHandler {
       samplingMethod = SamplingMethod.FIRST;
     }
     final SamplingMethod samplingMethod1 = samplingMethod;
-    try (BoundedLineInputStream blis = BoundedLineInputStream.iterator(inputStream, Charsets.UTF_8, lines)) {
-      String name = fileEntry.name;
-      String file = String.format("%s:%s", scope, fileEntry.name);
-      String fileName = fileEntry.fullName;
-      String identifier = ServiceUtils.generateMD5(file);
-      // Set all properties and write to workspace.
-      Map<String, String> properties = new HashMap<>();
-      properties.put(PropertyIds.FILE_PATH, fileEntry.fullName);
-      properties.put(PropertyIds.NAME, name);
-      properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.ADLS.getType());
-      properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
-      properties.put(PropertyIds.CONNECTION_ID, connectionId.getId());
-
-      NamespacedId namespacedWorkspaceId = new NamespacedId(connectionId.getNamespace(), identifier);
-      WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(fileName)
-              .setScope(scope)
-              .setProperties(properties)
-              .build();
-      TransactionRunners.run(getContext(), context -> {
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        ws.writeWorkspaceMeta(namespacedWorkspaceId, workspaceMeta);
+    String name = fileEntry.name;
+    String file = String.format("%s:%s", scope, fileEntry.name);
+    String fileName = fileEntry.fullName;
+    String identifier = ServiceUtils.generateMD5(file);
+    // Set all properties and write to workspace.
+    Map<String, String> properties = new HashMap<>();
+    properties.put(PropertyIds.FILE_PATH, fileEntry.fullName);
+    properties.put(PropertyIds.NAME, name);
+    properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.ADLS.getType());
+    properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
+    properties.put(PropertyIds.CONNECTION_ID, connectionId.getId());
 
-        // Iterate through lines to extract only 'limit' random lines.
-        // Depending on the type, the sampling of the input is performed.
-        List<Row> rows = new ArrayList<>();
-        Iterator<String> it = blis;
-        if (samplingMethod1 == SamplingMethod.POISSON) {
-          it = new Poisson<String>(fraction).sample(blis);
-        } else if (samplingMethod1 == SamplingMethod.BERNOULLI) {
-          it = new Bernoulli<String>(fraction).sample(blis);
-        } else if (samplingMethod1 == SamplingMethod.RESERVOIR) {
-          it = new Reservoir<String>(lines).sample(blis);
-        }
-        while (it.hasNext()) {
-          rows.add(new Row(COLUMN_NAME, it.next()));
-        }
+    NamespacedId namespacedWorkspaceId = new NamespacedId(connectionId.getNamespace(), identifier);
+    WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(fileName)
+            .setScope(scope)
+            .setProperties(properties)
+            .build();
 
-        // Write rows to workspace.
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(rows);
-        ws.updateWorkspaceData(namespacedWorkspaceId, DataType.RECORDS, data);
-      });
+    // Depending on the type, the sampling of the input is performed. The object is sampled before the transaction,
+    // so that the transaction isn't kept open while it's fetched.
+    byte[] data = new ObjectSampler(samplingMethod1, lines, fraction, ObjectSampler.MAX_READ_SIZE).sample(object);
+    TransactionRunners.run(getContext(), context -> {
+      WorkspaceDataset ws = WorkspaceDataset.get(context);
+      ws.writeWorkspaceMeta(namespacedWorkspaceId, workspaceMeta);
+      ws.updateWorkspaceData(namespacedWorkspaceId, DataType.RECORDS, data);
+    });
 
-      // Preparing return response to include mandatory fields : id and name.
-      return new ADLSConnectionSample(namespacedWorkspaceId.getId(), name, ConnectionType.ADLS.getType(),
-              samplingMethod.getMethod(), connectionId.getId());
-    }
+    // Preparing return response to include mandatory fields : id and name.
+    return new ADLSConnectionSample(namespacedWorkspaceId.getId(), name, ConnectionType.ADLS.getType(),
+            samplingMethod.getMethod(), connectionId.getId());
   }
 
-  private ADLSConnectionSample loadFile(NamespacedId connectionId, String scope, InputStream inputStream,
+  private ADLSConnectionSample loadFile(NamespacedId connectionId, String scope, StoredObject object,
                                         DirectoryEntry fileEntry) throws IOException {
     if (fileEntry.length > FILE_SIZE) {
       throw new BadRequestException("Files greater than 10MB are not supported.");
@@ -347,10 +319,7 @@ public class ADLSHandler extends AbstractWranglerHandler {
     String identifier = ServiceUtils.generateMD5(file);
     String fileName = fileEntry.fullName;
 
-    byte[] bytes = new byte[(int) fileEntry.length + 1];
-    try (BufferedInputStream stream = new BufferedInputStream(inputStream)) {
-      stream.read(bytes);
-    }
+    byte[] bytes = ObjectSampler.read(object, FILE_SIZE);
 
     // Set all properties and write to workspace.
     Map<String, String> properties = new HashMap<>();
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.adls;
+
+import com.google.common.io.ByteStreams;
+import com.microsoft.azure.datalake.store.ADLFileInputStream;
+import com.microsoft.azure.datalake.store.ADLStoreClient;
+import com.microsoft.azure.datalake.store.DirectoryEntry;
+import io.cdap.wrangler.service.objectstore.StoredObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An ADLS file, read by ranges by seeking its read stream.
+ */
+final class ADLSStoredObject implements StoredObject {
+  private final ADLStoreClient client;
+  private final DirectoryEntry file;
+
+  ADLSStoredObject(ADLStoreClient client, DirectoryEntry file) {
+    this.client = client;
+    this.file = file;
+  }
+
+  @Override
+  public long getLength() {
+    return file.length;
+  }
+
+  @Override
+  public InputStream open(long position, long length) throws IOException {
+    if (length == 0) {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+    ADLFileInputStream input = client.getReadStream(file.fullName);
+    input.seek(position);
+    return ByteStreams.limit(input, length);
+  }
+}
@@ -60,8 +60,9 @@ import io.cdap.wrangler.proto.connection.Connection;
 import io.cdap.wrangler.proto.connection.ConnectionMeta;
 import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
+import io.cdap.wrangler.service.connections.ClientCache;
 import io.cdap.wrangler.service.gcp.GCPUtils;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.RowSerDe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,7 +128,8 @@ public class BigQueryHandler extends AbstractWranglerHandler {
     respond(request, responder, namespace, ns -> {
       Connection connection = getValidatedConnection(new NamespacedId(ns, connectionId), ConnectionType.BIGQUERY);
 
-      BigQuery bigQuery = GCPUtils.getBigQueryService(connection);
+      BigQuery bigQuery = ClientCache.getInstance().get(connection, BigQuery.class,
+                                                        () -> GCPUtils.getBigQueryService(connection));
       String connectionProject = GCPUtils.getProjectId(connection);
       Set<DatasetId> datasetWhitelist = getDatasetWhitelist(connection);
       List<DatasetInfo> values = new ArrayList<>();
@@ -163,7 +165,8 @@ public class BigQueryHandler extends AbstractWranglerHandler {
     respond(request, responder, namespace, ns -> {
       Connection connection = getValidatedConnection(new NamespacedId(ns, connectionId),
                                                      ConnectionType.BIGQUERY);
-      BigQuery bigQuery = GCPUtils.getBigQueryService(connection);
+      BigQuery bigQuery = ClientCache.getInstance().get(connection, BigQuery.class,
+                                                        () -> GCPUtils.getBigQueryService(connection));
 
       DatasetId datasetId = getDatasetId(datasetStr, GCPUtils.getProjectId(connection));
 
@@ -239,7 +242,7 @@ public class BigQueryHandler extends AbstractWranglerHandler {
         WorkspaceDataset ws = WorkspaceDataset.get(context);
         NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
 
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
+        RowSerDe serDe = new RowSerDe();
         byte[] data = serDe.toByteArray(tableData.getFirst());
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
         return workspaceId.getId();
@@ -289,7 +292,8 @@ public class BigQueryHandler extends AbstractWranglerHandler {
   private Pair<List<Row>, Schema> getData(Connection connection, TableId tableId)
     throws IOException, InterruptedException {
     List<Row> rows = new ArrayList<>();
-    BigQuery bigQuery = GCPUtils.getBigQueryService(connection);
+    BigQuery bigQuery = ClientCache.getInstance().get(connection, BigQuery.class,
+                                                      () -> GCPUtils.getBigQueryService(connection));
     String tableIdString =
       tableId.getProject() == null ? String.format("%s.%s", tableId.getDataset(), tableId.getTable()) :
         String.format("%s.%s.%s", tableId.getProject(), tableId.getDataset(), tableId.getTable());
@@ -18,9 +18,13 @@ package io.cdap.wrangler.service.common;
 
 import com.google.gson.JsonSyntaxException;
 import io.cdap.cdap.api.NamespaceSummary;
+import io.cdap.cdap.api.Transactional;
 import io.cdap.cdap.api.service.http.AbstractSystemHttpServiceHandler;
+import io.cdap.cdap.api.service.http.HttpContentConsumer;
+import io.cdap.cdap.api.service.http.HttpContentProducer;
 import io.cdap.cdap.api.service.http.HttpServiceRequest;
 import io.cdap.cdap.api.service.http.HttpServiceResponder;
+import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
 import io.cdap.cdap.spi.data.transaction.TransactionRunners;
 import io.cdap.wrangler.dataset.connections.ConnectionNotFoundException;
 import io.cdap.wrangler.dataset.connections.ConnectionStore;
@@ -38,11 +42,13 @@ import io.cdap.wrangler.proto.ServiceResponse;
 import io.cdap.wrangler.proto.StatusCodeException;
 import io.cdap.wrangler.proto.connection.Connection;
 import io.cdap.wrangler.proto.connection.ConnectionType;
+import io.cdap.wrangler.service.connections.ClientCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -54,6 +60,22 @@ import javax.annotation.Nullable;
 public class AbstractWranglerHandler extends AbstractSystemHttpServiceHandler {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractWranglerHandler.class);
 
+  @Override
+  public void initialize(SystemHttpServiceContext context) throws Exception {
+    super.initialize(context);
+    ClientCache.getInstance().retain();
+  }
+
+  /**
+   * Releases the {@link ClientCache}, which closes the clients cached for the connections once all the instances
+   * of the handlers are destroyed.
+   */
+  @Override
+  public void destroy() {
+    super.destroy();
+    ClientCache.getInstance().release();
+  }
+
   protected Workspace getWorkspace(NamespacedId workspaceId) {
     return TransactionRunners.run(getContext(), context -> {
       WorkspaceDataset ws = WorkspaceDataset.get(context);
@@ -147,16 +169,8 @@ public class AbstractWranglerHandler extends AbstractSystemHttpServiceHandler {
     try {
       T results = callable.call();
       responder.sendJson(results);
-    } catch (StatusCodeException e) {
-      responder.sendJson(e.getCode(), new ServiceResponse<>(e.getMessage()));
-    } catch (ErrorRecordsException e) {
-      responder.sendJson(HttpURLConnection.HTTP_BAD_REQUEST,
-        new ServiceResponse<>(e.getErrorRecords(), false, e.getMessage()));
-    } catch (JsonSyntaxException e) {
-      responder.sendJson(HttpURLConnection.HTTP_BAD_REQUEST, new ServiceResponse<Void>(e.getMessage()));
     } catch (Throwable t) {
-      LOG.warn("Error processing {} {}, resulting in a 500 response.", request.getMethod(), request.getRequestURI(), t);
-      responder.sendJson(HttpURLConnection.HTTP_INTERNAL_ERROR, new ServiceResponse<Void>(t.getMessage()));
+      respondError(request, responder, t);
     }
   }
 
@@ -178,6 +192,108 @@ public class AbstractWranglerHandler extends AbstractSystemHttpServiceHandler {
    */
   protected <T> void respond(HttpServiceRequest request, HttpServiceResponder responder, String namespace,
                              NamespacedResponder<T> callable) {
+    Namespace ns = getNamespace(responder, namespace);
+    if (ns == null) {
+      return;
+    }
+
+    try {
+      T results = callable.respond(ns);
+      responder.sendJson(results);
+    } catch (Throwable t) {
+      respondError(request, responder, t);
+    }
+  }
+
+  /**
+   * Utility method for streaming the response of an endpoint in chunks, instead of building all of it up front,
+   * with the same error handling and namespace checks as
+   * {@link #respond(HttpServiceRequest, HttpServiceResponder, String, NamespacedResponder)}.
+   * A response will always be sent after this method is called so the http responder should not be used after this.
+   *
+   * Errors are only reported with a status code if they happen before the producer is returned. Once the
+   * response has started, a failure to produce the rest of it closes the connection.
+   *
+   * @param request the http request
+   * @param responder the http responder
+   * @param namespace the namespace to check for
+   * @param callable the endpoint logic to run, returning the producer of the json response
+   */
+  protected void stream(HttpServiceRequest request, HttpServiceResponder responder, String namespace,
+                        NamespacedResponder<HttpContentProducer> callable) {
+    Namespace ns = getNamespace(responder, namespace);
+    if (ns == null) {
+      return;
+    }
+
+    try {
+      HttpContentProducer producer = callable.respond(ns);
+      responder.send(HttpURLConnection.HTTP_OK, producer, "application/json", Collections.emptyMap());
+    } catch (Throwable t) {
+      respondError(request, responder, t);
+    }
+  }
+
+  /**
+   * Utility method for consuming the body of a request in chunks as it is received, instead of all at once, with
+   * the same error handling and namespace checks as
+   * {@link #respond(HttpServiceRequest, HttpServiceResponder, String, NamespacedResponder)}.
+   * The endpoint should return the result of this method, and should not use the http responder in any way.
+   *
+   * If the consumer can't be created, a response is sent right away, and null is returned. Otherwise, a response
+   * is sent once the whole body has been consumed, or consuming it failed, in which case the consumer is notified
+   * so it can release what it holds.
+   *
+   * @param request the http request
+   * @param responder the http responder
+   * @param namespace the namespace to check for
+   * @param callable creating the consumer of the body
+   * @return consumer of the body, or null if a response has already been sent
+   */
+  @Nullable
+  protected <T> HttpContentConsumer consume(HttpServiceRequest request, HttpServiceResponder responder,
+                                            String namespace, NamespacedConsumer<T> callable) {
+    Namespace ns = getNamespace(responder, namespace);
+    if (ns == null) {
+      return null;
+    }
+
+    ContentConsumer<T> consumer;
+    try {
+      consumer = callable.consume(ns);
+    } catch (Throwable t) {
+      respondError(request, responder, t);
+      return null;
+    }
+    return new HttpContentConsumer() {
+      @Override
+      public void onReceived(ByteBuffer chunk, Transactional transactional) throws Exception {
+        consumer.onReceived(chunk);
+      }
+
+      @Override
+      public void onFinish(HttpServiceResponder responder) {
+        respond(request, responder, consumer::onFinish);
+      }
+
+      @Override
+      public void onError(HttpServiceResponder responder, Throwable failureCause) {
+        try {
+          consumer.onError(failureCause);
+        } catch (Throwable t) {
+          LOG.warn("Error releasing the body of {} {}.", request.getMethod(), request.getRequestURI(), t);
+        }
+        respondError(request, responder, failureCause);
+      }
+    };
+  }
+
+  /**
+   * Returns the namespace, or null if it doesn't exist or can't be read, in which case an error response has
+   * been sent.
+   */
+  @Nullable
+  private Namespace getNamespace(HttpServiceResponder responder, String namespace) {
     // system namespace does not officially exist, so don't check existence for system namespace.
     NamespaceSummary namespaceSummary;
     if (Contexts.SYSTEM.equals(namespace)) {
@@ -188,25 +304,28 @@ public class AbstractWranglerHandler extends AbstractSystemHttpServiceHandler {
         if (namespaceSummary == null) {
           responder.sendJson(HttpURLConnection.HTTP_NOT_FOUND,
                              new ServiceResponse<Void>(String.format("Namespace '%s' does not exist", namespace)));
-          return;
+          return null;
         }
       } catch (IOException e) {
         responder.sendJson(HttpURLConnection.HTTP_INTERNAL_ERROR, new ServiceResponse<Void>(e.getMessage()));
-        return;
+        return null;
       }
     }
+    return new Namespace(namespaceSummary.getName(), namespaceSummary.getGeneration());
+  }
 
-    try {
-      T results = callable.respond(new Namespace(namespaceSummary.getName(), namespaceSummary.getGeneration()));
-      responder.sendJson(results);
-    } catch (StatusCodeException e) {
-      responder.sendJson(e.getCode(), new ServiceResponse<>(e.getMessage()));
-    } catch (ErrorRecordsException e) {
+  /**
+   * Sends the response for an error thrown by the endpoint logic.
+   */
+  private void respondError(HttpServiceRequest request, HttpServiceResponder responder, Throwable t) {
+    if (t instanceof StatusCodeException) {
+      responder.sendJson(((StatusCodeException) t).getCode(), new ServiceResponse<>(t.getMessage()));
+    } else if (t instanceof ErrorRecordsException) {
       responder.sendJson(HttpURLConnection.HTTP_BAD_REQUEST,
-          new ServiceResponse<>(e.getErrorRecords(), false, e.getMessage()));
-    } catch (JsonSyntaxException e) {
-      responder.sendJson(HttpURLConnection.HTTP_BAD_REQUEST, new ServiceResponse<Void>(e.getMessage()));
-    } catch (Throwable t) {
+                         new ServiceResponse<>(((ErrorRecordsException) t).getErrorRecords(), false, t.getMessage()));
+    } else if (t instanceof JsonSyntaxException) {
+      responder.sendJson(HttpURLConnection.HTTP_BAD_REQUEST, new ServiceResponse<Void>(t.getMessage()));
+    } else {
       LOG.warn("Error processing {} {}, resulting in a 500 response.", request.getMethod(), request.getRequestURI(), t);
       responder.sendJson(HttpURLConnection.HTTP_INTERNAL_ERROR, new ServiceResponse<Void>(t.getMessage()));
     }
@@ -220,4 +339,41 @@ public class AbstractWranglerHandler extends AbstractSystemHttpServiceHandler {
   protected interface NamespacedResponder<T> {
     T respond(Namespace namespace) throws Exception;
   }
+
+  /**
+   * Creates the consumer of the body of a request within a namespace.
+   *
+   * @param <T> type of response object
+   */
+  protected interface NamespacedConsumer<T> {
+    ContentConsumer<T> consume(Namespace namespace) throws Exception;
+  }
+
+  /**
+   * Consumes the body of a request in chunks.
+   *
+   * @param <T> type of response object
+   */
+  protected interface ContentConsumer<T> {
+
+    /**
+     * Consumes a chunk of the body, that follows the chunks consumed before.
+     */
+    void onReceived(ByteBuffer chunk) throws Exception;
+
+    /**
+     * Returns the response once the whole body has been consumed.
+     */
+    T onFinish() throws Exception;
+
+    /**
+     * Releases what has been consumed when the body can't be consumed, in which case {@link #onFinish()} is
+     * not called.
+     *
+     * @param failureCause the reason the body can't be consumed.
+     */
+    default void onError(Throwable failureCause) {
+      // no-op
+    }
+  }
 }
@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.connections;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.cdap.wrangler.proto.NamespacedId;
+import io.cdap.wrangler.proto.connection.Connection;
+import io.cdap.wrangler.proto.connection.ConnectionMeta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class <code>ClientCache</code> is a service wide cache of the clients built for connections, so that
+ * the credentials aren't loaded and the client isn't built again on every call of a handler.
+ *
+ * <p>Clients are cached for connections that are saved, keyed by the id of the connection, the type of the
+ * client and the properties of the connection, so that a client is never used with properties that have
+ * changed. Clients that aren't used for a while are evicted, as well as the clients of a connection that is
+ * updated or deleted, through {@link #invalidate(NamespacedId)}. Clients that hold resources are closed
+ * when they're evicted, once the {@link Lease}s taken on them are released. Clients for connections that
+ * aren't saved, such as the ones being tested, are not cached.</p>
+ *
+ * <p>Idle clients are evicted when the cache is accessed, and by a daemon thread that {@link #cleanUp() cleans up}
+ * the cache periodically while it holds clients, so that idle clients are closed even if the cache isn't used
+ * anymore. The thread is stopped by {@link #invalidateAll()}. The instances of the handlers {@link #retain()
+ * retain} the cache when they're initialized and {@link #release() release} it when they're destroyed, and all
+ * the clients are closed once the last of them is destroyed.</p>
+ */
+public final class ClientCache {
+  private static final Logger LOG = LoggerFactory.getLogger(ClientCache.class);
+  private static final int MAX_CLIENTS = 256;
+  private static final long IDLE_MINUTES = 10;
+  private static final ClientCache INSTANCE = new ClientCache(MAX_CLIENTS, IDLE_MINUTES, TimeUnit.MINUTES,
+                                                              Ticker.systemTicker());
+
+  private final Cache<Key, Entry<?>> clients;
+  private final long idle;
+  private final TimeUnit unit;
+  private final AtomicInteger users = new AtomicInteger();
+  private volatile ScheduledExecutorService cleaner;
+
+  @VisibleForTesting
+  ClientCache(int maxClients, long idle, TimeUnit unit, Ticker ticker) {
+    this.idle = idle;
+    this.unit = unit;
+    this.clients = CacheBuilder.newBuilder()
+      .maximumSize(maxClients)
+      .expireAfterAccess(idle, unit)
+      .ticker(ticker)
+      .removalListener((RemovalNotification<Key, Entry<?>> notification) -> notification.getValue().evict())
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * @return the cache shared by all the handlers.
+   */
+  public static ClientCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the clients.
+   */
+  public CacheStats getStats() {
+    return clients.stats();
+  }
+
+  /**
+   * Returns the client for the connection, creating it if it's not cached. This is meant for clients that
+   * are thread-safe and hold nothing that needs to be closed, so they remain usable after they're evicted.
+   *
+   * @param connection the connection the client is for
+   * @param type the type of the client
+   * @param loader creates the client
+   * @return the client
+   * @throws IOException if the client could not be created
+   */
+  public <T> T get(ConnectionMeta connection, Class<T> type, Callable<T> loader) throws IOException {
+    if (!(connection instanceof Connection)) {
+      return load(loader);
+    }
+    return type.cast(getEntry(connection, type, loader, client -> { }).client);
+  }
+
+  /**
+   * Leases the client for the connection, creating it if it's not cached. The client is thread-safe and shared
+   * by all the leases, and is closed once it's evicted and all its leases are closed.
+   *
+   * @param connection the connection the client is for
+   * @param type the type of the client
+   * @param loader creates the client
+   * @param closer closes the client
+   * @return the lease of the client, which must be closed once the client is not used anymore
+   * @throws IOException if the client could not be created
+   */
+  public <T> Lease<T> lease(ConnectionMeta connection, Class<T> type, Callable<T> loader,
+                            Closer<? super T> closer) throws IOException {
+    if (!(connection instanceof Connection)) {
+      // The client is closed as soon as the lease is.
+      Entry<T> entry = new Entry<>(load(loader), closer);
+      entry.acquire();
+      entry.evict();
+      return new Lease<>(type, entry);
+    }
+    while (true) {
+      Entry<T> entry = getEntry(connection, type, loader, closer);
+      if (entry.acquire()) {
+        return new Lease<>(type, entry);
+      }
+      // The entry was evicted between the lookup and the lease, look it up again.
+    }
+  }
+
+  /**
+   * Leases the client for the connection, creating it if it's not cached, and closing it when it's evicted.
+   *
+   * @see #lease(ConnectionMeta, Class, Callable, Closer)
+   */
+  public <T extends AutoCloseable> Lease<T> lease(ConnectionMeta connection, Class<T> type,
+                                                  Callable<T> loader) throws IOException {
+    return lease(connection, type, loader, AutoCloseable::close);
+  }
+
+  /**
+   * Evicts the clients of the connection. This must be called when the connection is updated or deleted.
+   *
+   * @param id the id of the connection
+   */
+  public void invalidate(NamespacedId id) {
+    clients.asMap().keySet().removeIf(key -> key.namespace.equals(id.getNamespace().getName())
+      && key.id.equals(id.getId()));
+  }
+
+  /**
+   * Evicts all the clients, and stops cleaning up the cache until clients are cached again.
+   */
+  public void invalidateAll() {
+    clients.invalidateAll();
+    synchronized (this) {
+      if (cleaner != null) {
+        cleaner.shutdownNow();
+        cleaner = null;
+      }
+    }
+  }
+
+  /**
+   * Registers a user of the cache, such as an instance of a handler, which must {@link #release()} it once it's
+   * done with the cache.
+   */
+  public void retain() {
+    users.incrementAndGet();
+  }
+
+  /**
+   * Unregisters a user of the cache, closing all the clients if it was the last one.
+   */
+  public void release() {
+    if (users.decrementAndGet() == 0) {
+      invalidateAll();
+    }
+  }
+
+  /**
+   * Evicts the clients that have been idle for too long.
+   */
+  public void cleanUp() {
+    clients.cleanUp();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Entry<T> getEntry(ConnectionMeta connection, Class<T> type, Callable<T> loader,
+                                Closer<? super T> closer) throws IOException {
+    Connection conn = (Connection) connection;
+    Key key = new Key(conn.getNamespace(), conn.getId(), type, conn.getProperties());
+    Entry<T> entry;
+    try {
+      entry = (Entry<T>) clients.get(key, () -> new Entry<>(loader.call(), closer));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw propagate(e.getCause());
+    }
+    if (cleaner == null) {
+      scheduleCleanUp();
+    }
+    return entry;
+  }
+
+  private synchronized void scheduleCleanUp() {
+    if (cleaner == null) {
+      cleaner = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("client-cache-cleanup").setDaemon(true).build());
+      cleaner.scheduleWithFixedDelay(this::cleanUp, idle, idle, unit);
+    }
+  }
+
+  private static <T> T load(Callable<T> loader) throws IOException {
+    try {
+      return loader.call();
+    } catch (Exception e) {
+      throw propagate(e);
+    }
+  }
+
+  private static IOException propagate(Throwable t) {
+    if (t instanceof IOException) {
+      return (IOException) t;
+    }
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new IOException(t.getMessage(), t);
+  }
+
+  /**
+   * Closes a client.
+   *
+   * @param <T> type of the client
+   */
+  @FunctionalInterface
+  public interface Closer<T> {
+    void close(T client) throws Exception;
+  }
+
+  /**
+   * A lease of a cached client, which keeps the client open until it's closed.
+   *
+   * @param <T> type of the client
+   */
+  public static final class Lease<T> implements AutoCloseable {
+    private final T client;
+    private final Entry<?> entry;
+    private boolean closed;
+
+    private Lease(Class<T> type, Entry<?> entry) {
+      this.client = type.cast(entry.client);
+      this.entry = entry;
+    }
+
+    /**
+     * @return the client.
+     */
+    public T get() {
+      return client;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!closed) {
+        closed = true;
+        entry.release();
+      }
+    }
+  }
+
+  /**
+   * A cached client, along with the number of leases taken on it.
+   */
+  private static final class Entry<T> {
+    private final T client;
+    private final Closer<? super T> closer;
+    private int leases;
+    private boolean evicted;
+
+    Entry(T client, Closer<? super T> closer) {
+      this.client = client;
+      this.closer = closer;
+    }
+
+    synchronized boolean acquire() {
+      if (evicted) {
+        return false;
+      }
+      leases++;
+      return true;
+    }
+
+    synchronized void release() {
+      leases--;
+      if (leases == 0 && evicted) {
+        close();
+      }
+    }
+
+    synchronized void evict() {
+      if (!evicted) {
+        evicted = true;
+        if (leases == 0) {
+          close();
+        }
+      }
+    }
+
+    private void close() {
+      try {
+        closer.close(client);
+      } catch (Exception e) {
+        LOG.warn("Failed to close client {}.", client.getClass().getName(), e);
+      }
+    }
+  }
+
+  private static final class Key {
+    private final String namespace;
+    private final String id;
+    private final Class<?> type;
+    private final Map<String, String> properties;
+    private final int hashCode;
+
+    Key(String namespace, String id, Class<?> type, Map<String, String> properties) {
+      this.namespace = namespace;
+      this.id = id;
+      this.type = type;
+      this.properties = properties == null
+        ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(properties));
+      this.hashCode = Objects.hash(namespace, id, type, this.properties);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return hashCode == key.hashCode && namespace.equals(key.namespace) && id.equals(key.id)
+        && type.equals(key.type) && properties.equals(key.properties);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -220,6 +220,8 @@ public class ConnectionHandler extends AbstractWranglerHandler {
         ConnectionStore store = ConnectionStore.get(context);
         store.update(new NamespacedId(ns, id), connection);
       });
+      // Clients built with the previous properties of the connection are not used anymore.
+      ClientCache.getInstance().invalidate(new NamespacedId(ns, id));
       return new ServiceResponse<>(Collections.emptyList());
     });
   }
@@ -287,6 +289,7 @@ public class ConnectionHandler extends AbstractWranglerHandler {
         ConnectionStore store = ConnectionStore.get(context);
         store.delete(new NamespacedId(ns, id));
       });
+      ClientCache.getInstance().invalidate(new NamespacedId(ns, id));
       return new ServiceResponse<Connection>(new ArrayList<>());
     });
   }
@@ -337,7 +340,7 @@ public class ConnectionHandler extends AbstractWranglerHandler {
     respond(request, responder, namespace, ns -> {
 
       NamespacedId namespacedId = new NamespacedId(ns, id);
-      return TransactionRunners.run(getContext(), context -> {
+      ServiceResponse<Map<String, String>> response = TransactionRunners.run(getContext(), context -> {
         ConnectionStore store = ConnectionStore.get(context);
         Connection connection = store.get(namespacedId);
 
@@ -347,6 +350,8 @@ public class ConnectionHandler extends AbstractWranglerHandler {
         store.update(namespacedId, updatedMeta);
         return new ServiceResponse<>(updatedMeta.getProperties());
       });
+      ClientCache.getInstance().invalidate(namespacedId);
+      return response;
     });
   }
 
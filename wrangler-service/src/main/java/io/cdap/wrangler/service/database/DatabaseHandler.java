@@ -35,6 +35,7 @@ import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.workspace.DataType;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
 import io.cdap.wrangler.dataset.workspace.WorkspaceMeta;
+import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ConnectionSample;
 import io.cdap.wrangler.proto.Namespace;
 import io.cdap.wrangler.proto.NamespacedId;
@@ -49,7 +50,7 @@ import io.cdap.wrangler.proto.db.DBSpec;
 import io.cdap.wrangler.proto.db.JDBCDriverInfo;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.macro.ServiceMacroEvaluator;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.RowSerDe;
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
 import org.slf4j.Logger;
@@ -80,6 +81,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -95,6 +97,8 @@ public class DatabaseHandler extends AbstractWranglerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(DatabaseHandler.class);
   private static final List<String> MACRO_FIELDS = ImmutableList.of("username", "password");
   private static final String JDBC = "jdbc";
+  // Maximum number of rows fetched from the database at a time.
+  private static final int MAX_FETCH_SIZE = 1000;
   private final Map<String, ServiceMacroEvaluator> macroEvaluators = new HashMap<>();
 
   static final class DriverInfo {
@@ -396,11 +400,17 @@ public class DatabaseHandler extends AbstractWranglerHandler {
   /**
    * Reads a table into workspace.
    *
+   * The number of rows is limited in the query, so that the database only returns the rows that are read. The rows
+   * are either the first rows of the table, or rows sampled at random by the database, with the bernoulli sampler.
+   * When the table doesn't have many more rows than the number of rows to read, the first rows are read instead
+   * of sampling them, and the sampler of the response is none.
+   *
    * @param request HTTP requests handler.
    * @param responder HTTP response handler.
    * @param id Connection id for which the tables need to be listed from database.
    * @param table Name of the database table.
    * @param lines No of lines to be read from RDBMS table.
+   * @param sampler sampling method to be used, either first or bernoulli.
    * @param scope Group the workspace should be created in.
    */
   @GET
@@ -409,74 +419,170 @@ public class DatabaseHandler extends AbstractWranglerHandler {
   public void read(HttpServiceRequest request, HttpServiceResponder responder,
                    @PathParam("context") String namespace, @PathParam("id") String id, @PathParam("table") String table,
                    @QueryParam("lines") int lines,
+                   @QueryParam("sampler") @DefaultValue("first") String sampler,
                    @QueryParam("scope") @DefaultValue(WorkspaceDataset.DEFAULT_SCOPE) String scope) {
     respond(request, responder, namespace, ns -> {
+      SamplingMethod samplingMethod = SamplingMethod.fromString(sampler);
+      if (samplingMethod != SamplingMethod.FIRST && samplingMethod != SamplingMethod.BERNOULLI) {
+        throw new BadRequestException(String.format("Sampler '%s' is not supported for databases, it must be '%s' or "
+                                                       + "'%s'.", sampler, SamplingMethod.FIRST.getMethod(),
+                                                     SamplingMethod.BERNOULLI.getMethod()));
+      }
       AtomicReference<ConnectionSample> sampleRef = new AtomicReference<>();
       Connection conn = getConnection(new NamespacedId(ns, id));
 
       loadAndExecute(ns, conn, connection -> {
-        try (Statement statement = connection.createStatement();
-          ResultSet result = statement.executeQuery(String.format("select * from %s", table))) {
-          List<Row> rows = getRows(lines, result);
-
-          Map<String, String> properties = new HashMap<>();
-          properties.put(PropertyIds.NAME, table);
-          properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.DATABASE.getType());
-          properties.put(PropertyIds.SAMPLER_TYPE, SamplingMethod.NONE.getMethod());
-          properties.put(PropertyIds.CONNECTION_ID, id);
-          WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(table)
-            .setScope(scope)
-            .setProperties(properties)
-            .build();
-          String sampleId = TransactionRunners.run(getContext(), context -> {
-            WorkspaceDataset ws = WorkspaceDataset.get(context);
-            NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
-
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] data = serDe.toByteArray(rows);
-            ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
-            return workspaceId.getId();
-          });
-
-          ConnectionSample sample = new ConnectionSample(sampleId, table,
-                                                         ConnectionType.DATABASE.getType(),
-                                                         SamplingMethod.NONE.getMethod(), id);
-          sampleRef.set(sample);
-        }
+        TableRows rows = readTable(connection, table, lines, samplingMethod);
+        byte[] data = rows.getData();
+        String samplerType = rows.getSamplingMethod() == SamplingMethod.FIRST ? SamplingMethod.NONE.getMethod()
+          : rows.getSamplingMethod().getMethod();
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put(PropertyIds.NAME, table);
+        properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.DATABASE.getType());
+        properties.put(PropertyIds.SAMPLER_TYPE, samplerType);
+        properties.put(PropertyIds.CONNECTION_ID, id);
+        WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(table)
+          .setScope(scope)
+          .setProperties(properties)
+          .build();
+        String sampleId = TransactionRunners.run(getContext(), context -> {
+          WorkspaceDataset ws = WorkspaceDataset.get(context);
+          NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
+          ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
+          return workspaceId.getId();
+        });
+
+        ConnectionSample sample = new ConnectionSample(sampleId, table,
+                                                       ConnectionType.DATABASE.getType(),
+                                                       samplerType, id);
+        sampleRef.set(sample);
       }, getContext());
       return new ServiceResponse<>(sampleRef.get());
     });
   }
 
+  /**
+   * Reads rows of a table, serialized as the records of a workspace. The rows are serialized as they are read, and
+   * the number of rows is limited in the query, the statement and the fetch size, as not all drivers honor all of
+   * them.
+   *
+   * Rows are sampled at random with a percentage computed from the number of rows estimated by the database, see
+   * {@link Dialect}. As the estimate might be out of date, the rows are sampled again, expecting twice as many rows
+   * each time, until enough rows are sampled. When all the rows would have to be sampled, the first rows are read
+   * instead.
+   *
+   * @param connection connection to the database
+   * @param table name of the table
+   * @param lines maximum number of rows to read
+   * @param samplingMethod {@link SamplingMethod#FIRST} to read the first rows of the table, or
+   *   {@link SamplingMethod#BERNOULLI} to read rows sampled at random
+   * @return the rows, along with how they were read
+   */
+  @VisibleForTesting
+  static TableRows readTable(java.sql.Connection connection, String table, int lines,
+                             SamplingMethod samplingMethod) throws SQLException, IOException {
+    Dialect dialect = Dialect.of(connection.getMetaData());
+    if (lines > 0 && samplingMethod == SamplingMethod.BERNOULLI) {
+      if (!dialect.canSample()) {
+        throw new BadRequestException(String.format("Sampling rows at random is not supported for %s databases.",
+                                                    connection.getMetaData().getDatabaseProductName()));
+      }
+      long count = estimate(connection, dialect, table);
+      long expected = lines;
+      String percentage = Dialect.getPercentage(count, expected);
+      while (percentage != null) {
+        TableRows rows = read(connection, dialect, table, lines, percentage);
+        if (rows.size == lines) {
+          return rows;
+        }
+        expected *= 2;
+        percentage = Dialect.getPercentage(count, expected);
+      }
+    }
+    return read(connection, dialect, table, lines, null);
+  }
+
+  private static TableRows read(java.sql.Connection connection, Dialect dialect, String table, int lines,
+                                @Nullable String percentage) throws SQLException, IOException {
+    SamplingMethod samplingMethod = percentage == null ? SamplingMethod.FIRST : SamplingMethod.BERNOULLI;
+    try (RowSerDe.Writer writer = new RowSerDe().writer()) {
+      int count = 0;
+      if (lines > 0) {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                                                              ResultSet.CONCUR_READ_ONLY)) {
+          statement.setMaxRows(lines);
+          statement.setFetchSize(Math.min(lines, MAX_FETCH_SIZE));
+          try (ResultSet result = statement.executeQuery(dialect.select(table, lines, percentage))) {
+            ResultSetMetaData meta = result.getMetaData();
+            while (count < lines && result.next()) {
+              writer.add(getRow(result, meta));
+              count++;
+            }
+          }
+        }
+      }
+      return new TableRows(writer.toByteArray(), count, samplingMethod);
+    }
+  }
+
+  /**
+   * Returns the number of rows of a table estimated from the statistics of the database, or counts them if the
+   * table has no statistics.
+   */
+  private static long estimate(java.sql.Connection connection, Dialect dialect, String table) throws SQLException {
+    try (Statement statement = connection.createStatement();
+         ResultSet result = statement.executeQuery(dialect.estimate(table))) {
+      double estimate = result.next() ? result.getDouble(1) : 0d;
+      if (estimate > 0) {
+        return (long) estimate;
+      }
+    } catch (SQLException e) {
+      LOG.debug("Unable to estimate the number of rows of table {} from the statistics of the database.", table, e);
+    }
+    return count(connection, table);
+  }
+
+  private static long count(java.sql.Connection connection, String table) throws SQLException {
+    try (Statement statement = connection.createStatement();
+         ResultSet result = statement.executeQuery(String.format("SELECT COUNT(*) FROM %s", table))) {
+      return result.next() ? result.getLong(1) : 0L;
+    }
+  }
+
   @VisibleForTesting
   static List<Row> getRows(int lines, ResultSet result) throws SQLException {
     List<Row> rows = new ArrayList<>();
     ResultSetMetaData meta = result.getMetaData();
     int count = lines;
-    while (result.next() && count > 0) {
-      Row row = new Row();
-      for (int i = 1; i < meta.getColumnCount() + 1; ++i) {
-        Object object = result.getObject(i);
-        if (object != null) {
-          if (object instanceof Date) {
-            object = ((Date) object).toLocalDate();
-          } else if (object instanceof Time) {
-            object = ((Time) object).toLocalTime();
-          } else if (object instanceof Timestamp) {
-            object = ((Timestamp) object).toInstant().atZone(ZoneId.ofOffset("UTC", ZoneOffset.UTC));
-          } else if (object.getClass().getName().equals("oracle.sql.ROWID")) {
-            // If the object is Oracle ROWID, then convert it into a string.
-            object = object.toString();
-          }
-        }
-        row.add(meta.getColumnName(i), object);
-      }
-      rows.add(row);
+    while (count > 0 && result.next()) {
+      rows.add(getRow(result, meta));
       count--;
     }
     return rows;
   }
 
+  private static Row getRow(ResultSet result, ResultSetMetaData meta) throws SQLException {
+    Row row = new Row();
+    for (int i = 1; i < meta.getColumnCount() + 1; ++i) {
+      Object object = result.getObject(i);
+      if (object != null) {
+        if (object instanceof Date) {
+          object = ((Date) object).toLocalDate();
+        } else if (object instanceof Time) {
+          object = ((Time) object).toLocalTime();
+        } else if (object instanceof Timestamp) {
+          object = ((Timestamp) object).toInstant().atZone(ZoneId.ofOffset("UTC", ZoneOffset.UTC));
+        } else if (object.getClass().getName().equals("oracle.sql.ROWID")) {
+          // If the object is Oracle ROWID, then convert it into a string.
+          object = object.toString();
+        }
+      }
+      row.add(meta.getColumnName(i), object);
+    }
+    return row;
+  }
+
   /**
    * Specification for the source.
    *
@@ -635,4 +741,32 @@ public class DatabaseHandler extends AbstractWranglerHandler {
       this.count = 0;
     }
   }
+
+  /**
+   * Rows read from a table, serialized with {@link RowSerDe}.
+   */
+  @VisibleForTesting
+  static final class TableRows {
+    private final byte[] data;
+    private final int size;
+    private final SamplingMethod samplingMethod;
+
+    private TableRows(byte[] data, int size, SamplingMethod samplingMethod) {
+      this.data = data;
+      this.size = size;
+      this.samplingMethod = samplingMethod;
+    }
+
+    byte[] getData() {
+      return data;
+    }
+
+    /**
+     * @return {@link SamplingMethod#BERNOULLI} if the rows were sampled at random, {@link SamplingMethod#FIRST} if
+     *   they are the first rows of the table.
+     */
+    SamplingMethod getSamplingMethod() {
+      return samplingMethod;
+    }
+  }
 }
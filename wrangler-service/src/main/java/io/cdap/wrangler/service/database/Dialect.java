@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.database;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * SQL dialects of the databases, for reading a limited number of rows of a table, first or at random, without
+ * making the database send the whole table to the driver.
+ *
+ * <p>Sampling rows at random takes the percentage of the rows of the table to sample, which is computed from the
+ * number of rows estimated by the statistics the database keeps in its catalog, as counting the rows reads the
+ * whole table. The rows only have to be counted when the table has no statistics. As the statistics might be out
+ * of date, the number of rows sampled might be less than needed.</p>
+ */
+enum Dialect {
+  // PostgreSQL 9.5 and later
+  POSTGRESQL("SELECT * FROM %1$s%3$s LIMIT %2$d", " TABLESAMPLE BERNOULLI (%s)",
+             "SELECT reltuples FROM pg_class WHERE oid = to_regclass('%s')"),
+  SQL_SERVER("SELECT TOP %2$d * FROM %1$s%3$s", " TABLESAMPLE (%s PERCENT)",
+             "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID('%s') AND index_id IN (0, 1)"),
+  ORACLE("SELECT * FROM %1$s%3$s WHERE ROWNUM <= %2$d", " SAMPLE (%s)",
+         "SELECT num_rows FROM user_tables WHERE table_name = '%s'"),
+  DB2("SELECT * FROM %1$s%3$s FETCH FIRST %2$d ROWS ONLY", " TABLESAMPLE BERNOULLI (%s)",
+      "SELECT card FROM syscat.tables WHERE tabschema = CURRENT SCHEMA AND tabname = '%s'"),
+  LIMIT("SELECT * FROM %1$s LIMIT %2$d", null, null),
+  FETCH_FIRST("SELECT * FROM %1$s FETCH FIRST %2$d ROWS ONLY", null, null),
+  TOP("SELECT TOP %2$d * FROM %1$s", null, null),
+  // Databases that are not known, where the number of rows is only limited by the statement.
+  OTHER("SELECT * FROM %1$s", null, null);
+
+  // Fraction of rows sampled more than needed, so that enough rows are sampled most of the time.
+  private static final double OVERSAMPLING = 1.1d;
+
+  private final String select;
+  private final String sample;
+  private final String estimate;
+
+  Dialect(String select, @Nullable String sample, @Nullable String estimate) {
+    this.select = select;
+    this.sample = sample;
+    this.estimate = estimate;
+  }
+
+  /**
+   * @return the dialect of the database.
+   */
+  static Dialect of(DatabaseMetaData meta) throws SQLException {
+    String product = meta.getDatabaseProductName().toLowerCase(Locale.ROOT);
+    if (product.contains("postgresql")) {
+      int major = meta.getDatabaseMajorVersion();
+      boolean sampling = major > 9 || major == 9 && meta.getDatabaseMinorVersion() >= 5;
+      return sampling ? POSTGRESQL : LIMIT;
+    }
+    return of(product);
+  }
+
+  /**
+   * @param product lower case name of the database product
+   * @return the dialect of the database.
+   */
+  static Dialect of(String product) {
+    if (product.contains("postgresql")) {
+      return POSTGRESQL;
+    }
+    if (product.contains("microsoft sql server")) {
+      return SQL_SERVER;
+    }
+    if (product.contains("oracle")) {
+      return ORACLE;
+    }
+    if (product.startsWith("db2")) {
+      return DB2;
+    }
+    if (product.contains("derby")) {
+      return FETCH_FIRST;
+    }
+    if (product.contains("teradata") || product.contains("adaptive server") || product.contains("sybase")) {
+      return TOP;
+    }
+    for (String limit : new String[] { "mysql", "mariadb", "hsql", "h2", "sqlite", "vertica", "netezza", "redshift",
+      "memsql", "singlestore" }) {
+      if (product.contains(limit)) {
+        return LIMIT;
+      }
+    }
+    return OTHER;
+  }
+
+  /**
+   * @return whether the database can sample rows of a table at random.
+   */
+  boolean canSample() {
+    return sample != null;
+  }
+
+  /**
+   * Returns the query estimating the number of rows of a table from the statistics of the database, which returns
+   * no rows, or a number that isn't positive, when the table has no statistics.
+   *
+   * @param table name of the table
+   * @return the query, or null if the database can't sample rows.
+   */
+  @Nullable
+  String estimate(String table) {
+    return estimate == null ? null : String.format(estimate, table.replace("'", "''"));
+  }
+
+  /**
+   * Returns the percentage of the rows of a table to sample at random, to read about a number of rows.
+   *
+   * @param count number of rows in the table
+   * @param rows number of rows to read
+   * @return the percentage, or null if all the rows have to be read.
+   */
+  @Nullable
+  static String getPercentage(long count, long rows) {
+    if (count <= 0) {
+      return null;
+    }
+    double percentage = 100.0d * rows * OVERSAMPLING / count;
+    if (percentage >= 100) {
+      return null;
+    }
+    // Some databases don't take a percentage of zero.
+    return String.format(Locale.ROOT, "%.6f", Math.max(percentage, 0.000001d));
+  }
+
+  /**
+   * Returns the query selecting rows of a table.
+   *
+   * @param table name of the table
+   * @param rows maximum number of rows to select
+   * @param percentage percentage of the rows to sample at random, or null to select the first rows
+   * @return the query
+   */
+  String select(String table, int rows, @Nullable String percentage) {
+    String sampling = "";
+    if (percentage != null) {
+      if (sample == null) {
+        throw new IllegalStateException("Sampling is not supported by " + this);
+      }
+      sampling = String.format(sample, percentage);
+    }
+    return String.format(select, table, rows, sampling);
+  }
+}
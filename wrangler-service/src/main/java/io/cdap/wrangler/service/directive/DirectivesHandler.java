@@ -27,7 +27,9 @@ import io.cdap.cdap.api.annotation.TransactionPolicy;
 import io.cdap.cdap.api.artifact.ArtifactInfo;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
 import io.cdap.cdap.api.plugin.PluginClass;
+import io.cdap.cdap.api.service.http.HttpContentConsumer;
 import io.cdap.cdap.api.service.http.HttpServiceRequest;
 import io.cdap.cdap.api.service.http.HttpServiceResponder;
 import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
@@ -44,6 +46,7 @@ import io.cdap.wrangler.api.Compiler;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveConfig;
 import io.cdap.wrangler.api.DirectiveLoadException;
+import io.cdap.wrangler.api.DirectiveNotFoundException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRecord;
 import io.cdap.wrangler.api.ErrorRecordBase;
@@ -60,6 +63,7 @@ import io.cdap.wrangler.api.parser.Token;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.dataset.workspace.ConfigStore;
 import io.cdap.wrangler.dataset.workspace.DataType;
+import io.cdap.wrangler.dataset.workspace.SampleCache;
 import io.cdap.wrangler.dataset.workspace.Workspace;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
 import io.cdap.wrangler.dataset.workspace.WorkspaceMeta;
@@ -79,7 +83,6 @@ import io.cdap.wrangler.proto.workspace.ColumnStatistics;
 import io.cdap.wrangler.proto.workspace.ColumnValidationResult;
 import io.cdap.wrangler.proto.workspace.DirectiveArtifact;
 import io.cdap.wrangler.proto.workspace.DirectiveDescriptor;
-import io.cdap.wrangler.proto.workspace.DirectiveExecutionResponse;
 import io.cdap.wrangler.proto.workspace.DirectiveUsage;
 import io.cdap.wrangler.proto.workspace.WorkspaceInfo;
 import io.cdap.wrangler.proto.workspace.WorkspaceSummaryResponse;
@@ -90,10 +93,11 @@ import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
-import io.cdap.wrangler.statistics.BasicStatistics;
+import io.cdap.wrangler.statistics.ColumnProfile;
 import io.cdap.wrangler.statistics.Statistics;
+import io.cdap.wrangler.statistics.StreamingStatistics;
 import io.cdap.wrangler.utils.Json2Schema;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.RowSerDe;
 import io.cdap.wrangler.validator.ColumnNameValidator;
 import io.cdap.wrangler.validator.Validator;
 import io.cdap.wrangler.validator.ValidatorException;
@@ -103,10 +107,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
@@ -115,11 +117,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -145,7 +148,13 @@ public class DirectivesHandler extends AbstractWranglerHandler {
   private static final String RECORD_DELIMITER_HEADER = "recorddelimiter";
   private static final String DELIMITER_HEADER = "delimiter";
 
+  // Number of rows each directive is applied to at a time when executing a recipe on a workspace.
+  private static final int EXECUTION_BLOCK_SIZE = 1000;
+  // Whether the workspaces created before they were indexed by scope have been indexed by this service.
+  private static final AtomicBoolean SCOPES_INDEXED = new AtomicBoolean();
+
   private DirectiveRegistry composite;
+  private Metrics metrics;
 
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
@@ -154,6 +163,17 @@ public class DirectivesHandler extends AbstractWranglerHandler {
       new SystemDirectiveRegistry(),
       new UserDirectiveRegistry(context)
     );
+    if (SCOPES_INDEXED.compareAndSet(false, true)) {
+      try {
+        boolean indexed = TransactionRunners.run(context, ctx -> WorkspaceDataset.get(ctx).indexScopes());
+        if (indexed) {
+          LOG.info("Indexed the existing workspaces by scope.");
+        }
+      } catch (RuntimeException e) {
+        SCOPES_INDEXED.set(false);
+        LOG.warn("Unable to index the existing workspaces by scope, they won't be listed until it succeeds.", e);
+      }
+    }
   }
 
   /**
@@ -234,18 +254,28 @@ public class DirectivesHandler extends AbstractWranglerHandler {
    *   ]
    * }
    *
+   * Workspaces are ordered by id. A page of at most 'limit' workspaces is listed after the workspace
+   * with the id in 'after', which is the id of the last workspace of the previous page.
+   *
    * @param request Handler for incoming request.
    * @param responder Responder for data going out.
+   * @param after id of the workspace the listed workspaces are after.
+   * @param limit maximum number of workspaces listed.
    */
   @GET
   @Path("contexts/{context}/workspaces")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
   public void list(HttpServiceRequest request, HttpServiceResponder responder,
-                   @PathParam("context") String namespace, @QueryParam("scope") @DefaultValue("default") String scope) {
+                   @PathParam("context") String namespace, @QueryParam("scope") @DefaultValue("default") String scope,
+                   @QueryParam("after") String after,
+                   @QueryParam("limit") @DefaultValue(Integer.MAX_VALUE + "") int limit) {
     respond(request, responder, namespace, ns -> {
+      if (limit <= 0) {
+        throw new BadRequestException("Limit must be a positive number.");
+      }
       List<WorkspaceIdentifier> workspaces = TransactionRunners.run(getContext(), context -> {
         WorkspaceDataset ws = WorkspaceDataset.get(context);
-        return ws.listWorkspaces(ns, scope);
+        return ws.listWorkspaces(ns, scope, after, limit);
       });
       return new ServiceResponse<>(workspaces);
     });
@@ -391,87 +421,55 @@ public class DirectivesHandler extends AbstractWranglerHandler {
   @POST
   @Path("contexts/{context}/workspaces")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
-  public void upload(HttpServiceRequest request, HttpServiceResponder responder,
-                     @PathParam("context") String namespace) {
-    respond(request, responder, namespace, ns -> {
+  public HttpContentConsumer upload(HttpServiceRequest request, HttpServiceResponder responder,
+                                    @PathParam("context") String namespace) {
+    return consume(request, responder, namespace, ns -> {
       String name = request.getHeader(PropertyIds.FILE_NAME);
       if (name == null) {
         throw new BadRequestException("Name must be provided in the 'file' header");
       }
       NamespacedId id = new NamespacedId(ns, ServiceUtils.generateMD5(name));
+      Upload upload = new Upload(new RequestExtractor(request), COLUMN_NAME);
 
-      return TransactionRunners.run(getContext(), context -> {
-        // if workspace doesn't exist, then we create the workspace before
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        // adding data to the workspace.
-        if (!ws.hasWorkspace(id)) {
-          ws.writeWorkspaceMeta(id, WorkspaceMeta.builder(name).build());
+      return new ContentConsumer<ServiceResponse<WorkspaceInfo>>() {
+        @Override
+        public void onReceived(ByteBuffer chunk) throws IOException {
+          upload.content.write(chunk);
         }
 
-        RequestExtractor handler = new RequestExtractor(request);
-
-        // For back-ward compatibility, we check if there is delimiter specified
-        // using 'recorddelimiter' or 'delimiter'
-        String delimiter = handler.getHeader(RECORD_DELIMITER_HEADER, "\\u001A");
-        delimiter = handler.getHeader(DELIMITER_HEADER, delimiter);
-
-        // Extract charset, if not specified, default it to UTF-8.
-        String charset = handler.getHeader(RequestExtractor.CHARSET_HEADER, "UTF-8");
-
-        // Get content type - application/data-prep, application/octet-stream or text/plain.
-        String contentType = handler.getHeader(RequestExtractor.CONTENT_TYPE_HEADER, "application/data-prep");
-
-        // Extract content.
-        byte[] content = handler.getContent();
-        if (content == null) {
-          throw new BadRequestException("Body not present, please post the file containing the "
-                                          + "records to be wrangled.");
+        @Override
+        public void onError(Throwable failureCause) {
+          upload.content.close();
         }
 
-        // Depending on content type, load data.
-        DataType type = DataType.fromString(contentType);
-        if (type == null) {
-          throw new BadRequestException("Invalid content type. Must be 'text/plain', 'application/octet-stream' " +
-                                          "or 'application/data-prep'");
-        }
-        switch (type) {
-          case TEXT:
-            // Convert the type into unicode.
-            String body = Charset.forName(charset).decode(ByteBuffer.wrap(content)).toString();
-            ws.updateWorkspaceData(id, DataType.TEXT, Bytes.toBytes(body));
-            break;
-
-          case RECORDS:
-            delimiter = StringEscapeUtils.unescapeJava(delimiter);
-            body = Charset.forName(charset).decode(ByteBuffer.wrap(content)).toString();
-            List<Row> rows = new ArrayList<>();
-            for (String line : body.split(delimiter)) {
-              rows.add(new Row(COLUMN_NAME, line));
+        @Override
+        public ServiceResponse<WorkspaceInfo> onFinish() throws IOException {
+          byte[] data = upload.finish();
+          return TransactionRunners.run(getContext(), context -> {
+            // if workspace doesn't exist, then we create the workspace before
+            WorkspaceDataset ws = WorkspaceDataset.get(context);
+            // adding data to the workspace.
+            if (!ws.hasWorkspace(id)) {
+              ws.writeWorkspaceMeta(id, WorkspaceMeta.builder(name).build());
             }
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] bytes = serDe.toByteArray(rows);
-            ws.updateWorkspaceData(id, DataType.RECORDS, bytes);
-            break;
-
-          case BINARY:
-            ws.updateWorkspaceData(id, DataType.BINARY, content);
-            break;
+            ws.updateWorkspaceData(id, upload.type, data);
+
+            // Write properties for workspace.
+            Map<String, String> properties = new HashMap<>();
+            properties.put(PropertyIds.NAME, name);
+            properties.put(PropertyIds.DELIMITER, upload.delimiter);
+            properties.put(PropertyIds.CHARSET, upload.charset);
+            properties.put(PropertyIds.CONTENT_TYPE, upload.contentType);
+            properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.UPLOAD.getType());
+            ws.updateWorkspaceProperties(id, properties);
+
+            WorkspaceInfo workspaceInfo = new WorkspaceInfo(id.getId(), name, upload.delimiter, upload.charset,
+                                                            upload.contentType, ConnectionType.UPLOAD.getType(),
+                                                            SamplingMethod.NONE.getMethod());
+            return new ServiceResponse<>(workspaceInfo);
+          });
         }
-
-        // Write properties for workspace.
-        Map<String, String> properties = new HashMap<>();
-        properties.put(PropertyIds.NAME, name);
-        properties.put(PropertyIds.DELIMITER, delimiter);
-        properties.put(PropertyIds.CHARSET, charset);
-        properties.put(PropertyIds.CONTENT_TYPE, contentType);
-        properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.UPLOAD.getType());
-        ws.updateWorkspaceProperties(id, properties);
-
-        WorkspaceInfo workspaceInfo = new WorkspaceInfo(id.getId(), name, delimiter, charset, contentType,
-                                                        ConnectionType.UPLOAD.getType(),
-                                                        SamplingMethod.NONE.getMethod());
-        return new ServiceResponse<>(workspaceInfo);
-      });
+      };
     });
   }
 
@@ -485,100 +483,131 @@ public class DirectivesHandler extends AbstractWranglerHandler {
   @POST
   @Path("contexts/{context}/workspaces/{id}/upload")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
-  public void uploadData(HttpServiceRequest request, HttpServiceResponder responder,
-                         @PathParam("context") String namespace, @PathParam("id") String id) {
-    respond(request, responder, namespace, ns -> {
-      RequestExtractor handler = new RequestExtractor(request);
+  public HttpContentConsumer uploadData(HttpServiceRequest request, HttpServiceResponder responder,
+                                        @PathParam("context") String namespace, @PathParam("id") String id) {
+    return consume(request, responder, namespace, ns -> {
+      NamespacedId namespaceId = new NamespacedId(ns, id);
+      // Records uploaded to an existing workspace are stored in a column named after the workspace.
+      Upload upload = new Upload(new RequestExtractor(request), id);
+
+      return new ContentConsumer<ServiceResponse<Void>>() {
+        @Override
+        public void onReceived(ByteBuffer chunk) throws IOException {
+          upload.content.write(chunk);
+        }
+
+        @Override
+        public void onError(Throwable failureCause) {
+          upload.content.close();
+        }
+
+        @Override
+        public ServiceResponse<Void> onFinish() throws IOException {
+          byte[] data = upload.finish();
+          TransactionRunners.run(getContext(), context -> {
+            WorkspaceDataset ws = WorkspaceDataset.get(context);
+            ws.updateWorkspaceData(namespaceId, upload.type, data);
+
+            // Write properties for workspace.
+            Map<String, String> properties = new HashMap<>();
+            properties.put(PropertyIds.DELIMITER, upload.delimiter);
+            properties.put(PropertyIds.CHARSET, upload.charset);
+            properties.put(PropertyIds.CONTENT_TYPE, upload.contentType);
+            properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.UPLOAD.getType());
+            ws.updateWorkspaceProperties(namespaceId, properties);
+          });
+          return new ServiceResponse<>(String.format("Successfully uploaded data to workspace '%s'", id));
+        }
+      };
+    });
+  }
+
+  /**
+   * Content uploaded to a workspace, along with how it's described by the headers of the upload request.
+   */
+  private static final class Upload {
+    private final String delimiter;
+    private final String charset;
+    private final String contentType;
+    private final DataType type;
+    private final WorkspaceUpload content;
+
+    Upload(RequestExtractor handler, String column) {
+      // For back-ward compatibility, we check if there is delimiter specified
+      // using 'recorddelimiter' or 'delimiter'
+      String delimiter = handler.getHeader(RECORD_DELIMITER_HEADER, "\\u001A");
+      delimiter = handler.getHeader(DELIMITER_HEADER, delimiter);
 
       // Extract charset, if not specified, default it to UTF-8.
-      String charset = handler.getHeader(RequestExtractor.CHARSET_HEADER, "UTF-8");
+      this.charset = handler.getHeader(RequestExtractor.CHARSET_HEADER, "UTF-8");
 
       // Get content type - application/data-prep, application/octet-stream or text/plain.
-      String contentType = handler.getHeader(RequestExtractor.CONTENT_TYPE_HEADER, "application/data-prep");
-
-      // Extract content.
-      byte[] content = handler.getContent();
-      if (content == null) {
-        throw new BadRequestException("Body not present, please post the file containing the records to be wrangled.");
-      }
+      this.contentType = handler.getHeader(RequestExtractor.CONTENT_TYPE_HEADER, "application/data-prep");
 
       // Depending on content type, load data.
-      DataType type = DataType.fromString(contentType);
+      this.type = DataType.fromString(contentType);
       if (type == null) {
         throw new BadRequestException("Invalid content type. Must be 'text/plain', 'application/octet-stream' " +
                                         "or 'application/data-prep'");
       }
-      NamespacedId namespaceId = new NamespacedId(ns, id);
-
-      return TransactionRunners.run(getContext(), context -> {
-        // For back-ward compatibility, we check if there is delimiter specified
-        // using 'recorddelimiter' or 'delimiter'
-        String delimiter = handler.getHeader(RECORD_DELIMITER_HEADER, "\\u001A");
-        delimiter = handler.getHeader(DELIMITER_HEADER, delimiter);
-
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        switch (type) {
-          case TEXT:
-            // Convert the type into unicode.
-            String body = Charset.forName(charset).decode(ByteBuffer.wrap(content)).toString();
-            ws.updateWorkspaceData(namespaceId, DataType.TEXT, Bytes.toBytes(body));
-            break;
-
-          case RECORDS:
-            delimiter = StringEscapeUtils.unescapeJava(delimiter);
-            body = Charset.forName(charset).decode(ByteBuffer.wrap(content)).toString();
-            List<Row> rows = new ArrayList<>();
-            for (String line : body.split(delimiter)) {
-              rows.add(new Row(id, line));
-            }
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] bytes = serDe.toByteArray(rows);
-            ws.updateWorkspaceData(namespaceId, DataType.RECORDS, bytes);
-            break;
+      // The delimiter is only unescaped for records, which are split around it.
+      this.delimiter = type == DataType.RECORDS ? StringEscapeUtils.unescapeJava(delimiter) : delimiter;
+      this.content = new WorkspaceUpload(type, Charset.forName(charset), this.delimiter, column);
+    }
 
-          case BINARY:
-            ws.updateWorkspaceData(namespaceId, DataType.BINARY, content);
-            break;
+    /**
+     * @return data of the workspace converted from the content.
+     */
+    byte[] finish() throws IOException {
+      try {
+        if (content.isEmpty()) {
+          throw new BadRequestException("Body not present, please post the file containing the "
+                                          + "records to be wrangled.");
         }
-
-        // Write properties for workspace.
-        Map<String, String> properties = new HashMap<>();
-        properties.put(PropertyIds.DELIMITER, delimiter);
-        properties.put(PropertyIds.CHARSET, charset);
-        properties.put(PropertyIds.CONTENT_TYPE, contentType);
-        properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.UPLOAD.getType());
-        ws.updateWorkspaceProperties(namespaceId, properties);
-
-        return new ServiceResponse<Void>(String.format("Successfully uploaded data to workspace '%s'", id));
-      });
-    });
+        return content.finish();
+      } finally {
+        content.close();
+      }
+    }
   }
 
   /**
    * Executes the directives on the record stored in the workspace.
    *
-   * Following is the response from this request
+   * At most as many records as the results of the workspace in the request are returned, starting from the
+   * offset. The records of the execution are kept by {@link ExecutionResults}, and asking for a page other than the
+   * first one returns the records of the last execution of the same recipe on the same sample, if they are still
+   * kept, rather than executing the recipe again. The header and the types cover all the records of the execution.
+   * The response is streamed, and is as follows
    * {
-   *   "status" : 200,
    *   "message" : "Success",
    *   "count" : 2,
-   *   "header" : [ "a", "b", "c", "d" ],
-   *   "value" : [
+   *   "offset" : 0,
+   *   "total" : 1000,
+   *   "values" : [
    *     { record 1},
    *     { record 2}
-   *   ]
+   *   ],
+   *   "header" : [ "a", "b", "c", "d" ],
+   *   "types" : { "a" : "String", ... },
+   *   "directives" : [ ... ]
    * }
    *
    * @param request to gather information of the request.
    * @param responder to respond to the service request.
    * @param id workspace in which the directives are executed.
+   * @param offset position of the first record to return within the records of the execution.
    */
   @POST
   @Path("contexts/{context}/workspaces/{id}/execute")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
   public void execute(HttpServiceRequest request, HttpServiceResponder responder,
-                      @PathParam("context") String namespace, @PathParam("id") String id) {
-    respond(request, responder, namespace, ns -> {
+                      @PathParam("context") String namespace, @PathParam("id") String id,
+                      @QueryParam("offset") @DefaultValue("0") int offset) {
+    stream(request, responder, namespace, ns -> {
+      if (offset < 0) {
+        throw new BadRequestException("Offset must not be negative.");
+      }
       composite.reload(namespace);
       try {
         RequestExtractor handler = new RequestExtractor(request);
@@ -590,46 +619,33 @@ public class DirectivesHandler extends AbstractWranglerHandler {
 
         int limit = directiveRequest.getSampling().getLimit();
         NamespacedId namespacedId = new NamespacedId(ns, id);
-        List<Row> rows = executeDirectives(namespacedId, directiveRequest, records -> {
-          if (records == null) {
-            return Collections.emptyList();
-          }
-          int min = Math.min(records.size(), limit);
-          return records.subList(0, min);
+        long dataVersion = TransactionRunners.run(getContext(), context -> {
+          WorkspaceDataset ws = WorkspaceDataset.get(context);
+          return ws.getDataVersion(namespacedId);
         });
-
-        List<Map<String, Object>> values = new ArrayList<>(rows.size());
-        Map<String, String> types = new HashMap<>();
-        Set<String> headers = new LinkedHashSet<>();
-
-        // Iterate through all the new rows.
-        for (Row row : rows) {
-          // If output array has more than return result values, we terminate.
-          if (values.size() >= directiveRequest.getWorkspace().getResults()) {
-            break;
-          }
-
-          Map<String, Object> value = new HashMap<>(row.length());
-
-          // Iterate through all the fields of the row.
-          for (Pair<String, Object> field : row.getFields()) {
-            String fieldName = field.getFirst();
-            headers.add(fieldName);
-            Object object = field.getSecond();
-
-            if (object != null) {
-              types.put(fieldName, object.getClass().getSimpleName());
-              if ((object.getClass().getMethod("toString").getDeclaringClass() != Object.class)) {
-                value.put(fieldName, object.toString());
-              } else {
-                value.put(fieldName, "Non-displayable object");
-              }
-            } else {
-              value.put(fieldName, null);
+        ExecutionResults executions = ExecutionResults.getInstance();
+        ExecutionResults.Key key = new ExecutionResults.Key(namespacedId, dataVersion, limit,
+                                                            directiveRequest.getRecipe().getDirectives());
+        // The first page always executes the recipe, the following ones are served from its records.
+        ExecutionResults.Result execution = offset == 0 ? null : executions.get(key);
+        if (execution == null) {
+          List<Row> executed = executeDirectives(namespacedId, directiveRequest, records -> {
+            if (records == null) {
+              return Collections.emptyList();
             }
-          }
-          values.add(value);
+            int min = Math.min(records.size(), limit);
+            return records.subList(0, min);
+          });
+          execution = executions.put(key, executed);
         }
+        metrics.gauge("execution.results.hit.percent", Math.round(executions.getStats().hitRate() * 100));
+
+        // Only the page asked for is sent.
+        List<Row> rows = execution.getRows();
+        int results = directiveRequest.getWorkspace().getResults();
+        int from = Math.min(offset, rows.size());
+        int to = (int) Math.max(from, Math.min(rows.size(), (long) from + results));
+        List<Row> page = rows.subList(from, to);
 
         // Save the recipes being executed.
         TransactionRunners.run(getContext(), context -> {
@@ -637,7 +653,8 @@ public class DirectivesHandler extends AbstractWranglerHandler {
           ws.updateWorkspaceRequest(namespacedId, directiveRequest);
         });
 
-        return new DirectiveExecutionResponse(values, headers, types, directiveRequest.getRecipe().getDirectives());
+        return new ExecutionResponseProducer(page, execution.getHeaders(), execution.getTypes(),
+                                             directiveRequest.getRecipe().getDirectives(), from, rows.size());
       } catch (JsonParseException e) {
         throw new BadRequestException(e.getMessage(), e);
       }
@@ -741,11 +758,12 @@ public class DirectivesHandler extends AbstractWranglerHandler {
         }
 
         // Generate General and Type related Statistics for each column.
-        Statistics statsGenerator = new BasicStatistics();
+        Statistics statsGenerator = new StreamingStatistics();
         Row summary = statsGenerator.aggregate(rows);
 
         Row stats = (Row) summary.getValue("stats");
         Row types = (Row) summary.getValue("types");
+        Row profiles = (Row) summary.getValue("profiles");
 
         List<Pair<String, Object>> fields = stats.getFields();
         Map<String, ColumnStatistics> statistics = new HashMap<>();
@@ -771,6 +789,26 @@ public class DirectivesHandler extends AbstractWranglerHandler {
           statistics.put(field.getFirst(), new ColumnStatistics(generalStats, typeStats));
         }
 
+        for (Pair<String, Object> field : profiles.getFields()) {
+          ColumnProfile profile = (ColumnProfile) field.getSecond();
+          Map<String, Double> quantiles = null;
+          if (profile.getNumericCount() > 0) {
+            quantiles = new LinkedHashMap<>();
+            for (int percentile : new int[] { 25, 50, 75 }) {
+              quantiles.put(String.valueOf(percentile), profile.getQuantile(percentile / 100.0d));
+            }
+          }
+          Map<String, Long> top = new LinkedHashMap<>();
+          for (Pair<String, Long> value : profile.getTop(10)) {
+            top.put(value.getFirst(), value.getSecond());
+          }
+          ColumnStatistics existingStats = statistics.get(field.getFirst());
+          statistics.put(field.getFirst(), new ColumnStatistics(
+            existingStats == null ? null : existingStats.getGeneral(),
+            existingStats == null ? null : existingStats.getTypes(),
+            profile.getDistinct(), profile.getMin(), profile.getMax(), quantiles, top));
+        }
+
         WorkspaceValidationResult validationResult = new WorkspaceValidationResult(columnValidationResults, statistics);
         return new WorkspaceSummaryResponse(validationResult);
       } catch (JsonParseException | DirectiveParseException e) {
@@ -1054,9 +1092,10 @@ public class DirectivesHandler extends AbstractWranglerHandler {
    * Converts the data in workspace into records.
    *
    * @param workspace the workspace to get records from
+   * @param limit maximum number of records to read.
    * @return list of records.
    */
-  private List<Row> fromWorkspace(Workspace workspace) throws IOException, ClassNotFoundException {
+  private List<Row> fromWorkspace(Workspace workspace, int limit) throws IOException, ClassNotFoundException {
     DataType type = workspace.getType();
     List<Row> rows = new ArrayList<>();
 
@@ -1079,9 +1118,8 @@ public class DirectivesHandler extends AbstractWranglerHandler {
 
       case RECORDS: {
         if (workspace.getData() != null) {
-          try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(workspace.getData()))) {
-            rows = (List<Row>) ois.readObject();
-          }
+          // Only the records that are sampled are decoded.
+          rows = new RowSerDe().toRows(workspace.getData(), limit);
         }
         break;
       }
@@ -1103,41 +1141,87 @@ public class DirectivesHandler extends AbstractWranglerHandler {
       throw new BadRequestException("Request is empty. Please check if the request is sent as HTTP POST body.");
     }
 
-    TransientStore store = new DefaultTransientStore();
     return TransactionRunners.run(getContext(), ctx -> {
       WorkspaceDataset ws = WorkspaceDataset.get(ctx);
 
-      Workspace workspace = ws.getWorkspace(id);
-      // Extract rows from the workspace.
-      List<Row> rows = fromWorkspace(workspace);
-      // Execute the pipeline.
-      ExecutorContext context = new ServicePipelineContext(id.getNamespace().getName(),
-                                                           ExecutorContext.Environment.SERVICE, getContext(), store);
-      RecipePipelineExecutor executor = new RecipePipelineExecutor();
-      if (user.getRecipe().getDirectives().size() > 0) {
-        ConfigStore configStore = ConfigStore.get(ctx);
-        GrammarMigrator migrator = new MigrateToV2(user.getRecipe().getDirectives());
-        String migrate = migrator.migrate();
-        RecipeParser recipe = new GrammarBasedParser(id.getNamespace().getName(), migrate, composite);
-        recipe.initialize(new ConfigDirectiveContext(configStore.getConfig()));
-        try {
-          executor.initialize(recipe, context);
-          rows = executor.execute(sample.apply(rows));
-        } catch (RecipeException e) {
-          throw new BadRequestException(e.getMessage(), e);
-        }
+      // Extract rows from the workspace, which are only read and decoded if they are not cached.
+      // Fails if the workspace doesn't exist, as the version of the data is kept when it's deleted.
+      ws.getWorkspaceWithoutData(id);
+      long dataVersion = ws.getDataVersion(id);
+      int limit = user.getSampling().getLimit();
+      SampleCache cache = SampleCache.getInstance();
+      SampleCache.Sample cached = cache.get(id, dataVersion, limit, () -> fromWorkspace(ws.getWorkspace(id), limit));
+      List<Row> rows = cached.getRows();
+      metrics.gauge("sample.cache.size", cache.size());
+      metrics.gauge("sample.cache.weight", cache.getWeight());
+      metrics.gauge("sample.cache.hit.percent", Math.round(cache.getHitRate() * 100));
+      if (user.getRecipe().getDirectives().isEmpty()) {
+        return rows;
+      }
+
+      ConfigStore configStore = ConfigStore.get(ctx);
+      GrammarMigrator migrator = new MigrateToV2(user.getRecipe().getDirectives());
+      String migrate = migrator.migrate();
+      String namespace = id.getNamespace().getName();
 
-        List<ErrorRecordBase> errors = executor.errors()
-          .stream()
-          .filter(ErrorRecordBase::isShownInWrangler)
-          .collect(Collectors.toList());
-        if (errors.size() > 0) {
-          throw new ErrorRecordsException(errors);
+      // Resume from the records after the longest prefix of the recipe that has been executed before.
+      RecipeCheckpoints checkpoints = RecipeCheckpoints.getInstance();
+      RecipeParser recipe = new GrammarBasedParser(namespace, migrate, composite);
+      recipe.initialize(new ConfigDirectiveContext(configStore.getConfig()));
+      List<Directive> directives;
+      try {
+        directives = recipe.parse();
+      } catch (DirectiveParseException | DirectiveNotFoundException | DirectiveLoadException e) {
+        throw new BadRequestException(e.getMessage(), e);
+      }
+      ExecutorContext context = new ServicePipelineContext(namespace, ExecutorContext.Environment.SERVICE,
+                                                           getContext(), new DefaultTransientStore());
+      RecipeCheckpoints.Checkpoint checkpoint;
+      try {
+        checkpoint = checkpoints.execute(new RecipeCheckpoints.Sample(id, cached.getVersion(), limit), migrate,
+                                         directives, sample.apply(rows), EXECUTION_BLOCK_SIZE, context);
+      } catch (RecipeException e) {
+        throw new BadRequestException(e.getMessage(), e);
+      } finally {
+        for (Directive directive : directives) {
+          directive.destroy();
         }
+      }
+      metrics.gauge("recipe.checkpoints.hits", checkpoints.getStats().hitCount());
+      metrics.gauge("recipe.checkpoints.misses", checkpoints.getStats().missCount());
+      if (checkpoint != null) {
+        throwShownErrors(checkpoint.getErrors());
+        return checkpoint.copyRows();
+      }
 
-        executor.destroy();
+      // The recipe might use the transient store, so it's executed as a whole.
+      TransientStore store = new DefaultTransientStore();
+      context = new ServicePipelineContext(namespace, ExecutorContext.Environment.SERVICE, getContext(), store);
+      RecipePipelineExecutor executor = new RecipePipelineExecutor(EXECUTION_BLOCK_SIZE);
+      recipe = new GrammarBasedParser(namespace, migrate, composite);
+      recipe.initialize(new ConfigDirectiveContext(configStore.getConfig()));
+      try {
+        executor.initialize(recipe, context);
+        rows = executor.execute(sample.apply(rows));
+      } catch (RecipeException e) {
+        throw new BadRequestException(e.getMessage(), e);
       }
+      throwShownErrors(executor.errors());
+      executor.destroy();
       return rows;
     });
   }
+
+  /**
+   * Throws the errors that are shown in wrangler, if there are any.
+   */
+  private static void throwShownErrors(List<ErrorRecord> records) {
+    List<ErrorRecordBase> errors = records
+      .stream()
+      .filter(ErrorRecordBase::isShownInWrangler)
+      .collect(Collectors.toList());
+    if (errors.size() > 0) {
+      throw new ErrorRecordsException(errors);
+    }
+  }
 }
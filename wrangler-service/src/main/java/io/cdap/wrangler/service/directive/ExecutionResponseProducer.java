@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.stream.JsonWriter;
+import io.cdap.cdap.api.Transactional;
+import io.cdap.cdap.api.service.http.HttpContentProducer;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.workspace.DirectiveExecutionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Produces the {@link DirectiveExecutionResponse} of a page of executed records as json, a block of records at a
+ * time, so that the response is never held in memory as a whole. The header and the types are the ones of all the
+ * executed records, rather than of the page only.
+ *
+ * <p>Values are the string representation of the objects in the records, or "Non-displayable object" for objects
+ * that don't override {@link Object#toString()}. Whether a class does is looked up once per class.</p>
+ */
+final class ExecutionResponseProducer extends HttpContentProducer {
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutionResponseProducer.class);
+  private static final int BLOCK_SIZE = 100;
+  private static final String NON_DISPLAYABLE = "Non-displayable object";
+  private static final ClassValue<Boolean> DISPLAYABLE = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        return type.getMethod("toString").getDeclaringClass() != Object.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
+  private final List<Row> rows;
+  private final List<String> directives;
+  private final int offset;
+  private final int total;
+  private final Set<String> headers;
+  private final Map<String, String> types;
+  private final Set<String> written;
+  private final ByteArrayOutputStream buffer;
+  private final JsonWriter writer;
+  // Index of the next record to write, or -1 if the response hasn't started.
+  private int next;
+  private boolean done;
+
+  /**
+   * @param rows records of the page
+   * @param headers columns of the executed records
+   * @param types of the columns of the executed records
+   * @param directives directives that were executed
+   * @param offset position of the first record of the page within the executed records
+   * @param total number of executed records
+   */
+  ExecutionResponseProducer(List<Row> rows, Set<String> headers, Map<String, String> types, List<String> directives,
+                            int offset, int total) {
+    this.rows = rows;
+    this.headers = headers;
+    this.types = types;
+    this.directives = directives;
+    this.offset = offset;
+    this.total = total;
+    this.written = new HashSet<>();
+    this.buffer = new ByteArrayOutputStream();
+    this.writer = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+    this.writer.setHtmlSafe(true);
+    this.next = -1;
+  }
+
+  /**
+   * @return the string displayed for the value, or null if the value is null.
+   */
+  static String display(Object value) {
+    if (value == null) {
+      return null;
+    }
+    return DISPLAYABLE.get(value.getClass()) ? value.toString() : NON_DISPLAYABLE;
+  }
+
+  @Override
+  public long getContentLength() {
+    // Unknown, the response is sent in chunks.
+    return -1L;
+  }
+
+  @Override
+  public ByteBuffer nextChunk(Transactional transactional) throws Exception {
+    if (done) {
+      return ByteBuffer.allocate(0);
+    }
+
+    if (next < 0) {
+      writer.beginObject();
+      writer.name("message").value("Success");
+      writer.name("count").value(rows.size());
+      writer.name("offset").value(offset);
+      writer.name("total").value(total);
+      writer.name("values").beginArray();
+      next = 0;
+    }
+
+    int end = Math.min(rows.size(), next + BLOCK_SIZE);
+    for (; next < end; next++) {
+      writeRow(rows.get(next));
+    }
+
+    if (next == rows.size()) {
+      writer.endArray();
+      writer.name("header").beginArray();
+      for (String header : headers) {
+        writer.value(header);
+      }
+      writer.endArray();
+      writer.name("types").beginObject();
+      for (Map.Entry<String, String> type : types.entrySet()) {
+        writer.name(type.getKey()).value(type.getValue());
+      }
+      writer.endObject();
+      writer.name("directives").beginArray();
+      for (String directive : directives) {
+        writer.value(directive);
+      }
+      writer.endArray();
+      writer.name("truncated").value("false");
+      writer.endObject();
+      done = true;
+    }
+
+    writer.flush();
+    ByteBuffer chunk = ByteBuffer.wrap(buffer.toByteArray());
+    buffer.reset();
+    return chunk;
+  }
+
+  @Override
+  public void onFinish() {
+    // no-op
+  }
+
+  @Override
+  public void onError(Throwable failureCause) {
+    LOG.warn("Failed to send the response of the execution of directives.", failureCause);
+  }
+
+  private void writeRow(Row row) throws IOException {
+    // Null values are left out, and a column that appears more than once has the value of its last occurrence.
+    writer.beginObject();
+    written.clear();
+    for (int i = row.length() - 1; i >= 0; i--) {
+      String name = row.getColumn(i);
+      if (!written.add(name)) {
+        continue;
+      }
+      String value = display(row.getValue(i));
+      if (value != null) {
+        writer.name(name).value(value);
+      }
+    }
+    writer.endObject();
+  }
+}
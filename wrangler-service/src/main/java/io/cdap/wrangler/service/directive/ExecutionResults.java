@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.dataset.workspace.SampleCache;
+import io.cdap.wrangler.proto.NamespacedId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>ExecutionResults</code> keeps the records of the recent executions of recipes on the samples of
+ * workspaces, so that the pages of an execution after the first one are served from the same records, instead of
+ * executing the recipe again for every page.
+ *
+ * <p>Results are keyed by the workspace, the {@link io.cdap.wrangler.dataset.workspace.WorkspaceDataset#getDataVersion
+ * version} of its data, the size of the sample and the directives. They are bounded by the estimated memory used by
+ * the records, and the least recently used are evicted first.</p>
+ */
+final class ExecutionResults {
+  private static final ExecutionResults INSTANCE = new ExecutionResults(Runtime.getRuntime().maxMemory() / 20);
+
+  private final Cache<Key, Result> results;
+
+  @VisibleForTesting
+  ExecutionResults(long maxWeight) {
+    this.results = CacheBuilder.newBuilder()
+      .maximumWeight(maxWeight)
+      .weigher((Key key, Result result) -> result.weight)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * @return the results shared by all the handlers.
+   */
+  static ExecutionResults getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the results.
+   */
+  CacheStats getStats() {
+    return results.stats();
+  }
+
+  /**
+   * @return the result of the execution, or null if it's not kept.
+   */
+  @Nullable
+  Result get(Key key) {
+    return results.getIfPresent(key);
+  }
+
+  /**
+   * Keeps the records of an execution, replacing the ones kept for the same key.
+   *
+   * @param key of the execution.
+   * @param rows records of the execution, which must not be modified afterwards.
+   * @return the result of the execution.
+   */
+  Result put(Key key, List<Row> rows) {
+    Result result = new Result(rows);
+    results.put(key, result);
+    return result;
+  }
+
+  /**
+   * The records of an execution, along with the columns and their types across all the records.
+   */
+  static final class Result {
+    private final List<Row> rows;
+    private final Set<String> headers;
+    private final Map<String, String> types;
+    private final int weight;
+
+    Result(List<Row> rows) {
+      this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+      Set<String> headers = new LinkedHashSet<>();
+      Map<String, String> types = new HashMap<>();
+      for (Row row : rows) {
+        for (int i = 0; i < row.length(); i++) {
+          String name = row.getColumn(i);
+          headers.add(name);
+          Object value = row.getValue(i);
+          if (value != null) {
+            types.put(name, value.getClass().getSimpleName());
+          }
+        }
+      }
+      this.headers = Collections.unmodifiableSet(headers);
+      this.types = Collections.unmodifiableMap(types);
+      this.weight = (int) Math.min(Integer.MAX_VALUE, SampleCache.estimate(rows));
+    }
+
+    List<Row> getRows() {
+      return rows;
+    }
+
+    /**
+     * @return names of the columns of all the records, in the order they first appear in.
+     */
+    Set<String> getHeaders() {
+      return headers;
+    }
+
+    /**
+     * @return simple class name of the last non null value of each column.
+     */
+    Map<String, String> getTypes() {
+      return types;
+    }
+  }
+
+  /**
+   * Identifies the execution of the directives on the sample of a workspace.
+   */
+  static final class Key {
+    private final NamespacedId id;
+    private final long dataVersion;
+    private final int limit;
+    private final List<String> directives;
+
+    Key(NamespacedId id, long dataVersion, int limit, List<String> directives) {
+      this.id = id;
+      this.dataVersion = dataVersion;
+      this.limit = limit;
+      this.directives = new ArrayList<>(directives);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return dataVersion == key.dataVersion && limit == key.limit && id.equals(key.id)
+        && directives.equals(key.directives);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(id, dataVersion, limit, directives);
+    }
+  }
+}
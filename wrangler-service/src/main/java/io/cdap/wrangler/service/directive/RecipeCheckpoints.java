@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.cdap.wrangler.api.CompileException;
+import io.cdap.wrangler.api.CompileStatus;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveContext;
+import io.cdap.wrangler.api.ErrorRecord;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.api.annotations.RowIndependent;
+import io.cdap.wrangler.api.parser.Token;
+import io.cdap.wrangler.dataset.workspace.SampleCache;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.parser.RecipeCompiler;
+import io.cdap.wrangler.proto.NamespacedId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * This class <code>RecipeCheckpoints</code> executes recipes on the samples of workspaces one directive at a
+ * time, and keeps the records after each directive, so that executing a recipe that starts with the same
+ * directives as a recipe executed before resumes from the records after the last of those directives.
+ *
+ * <p>Checkpoints are keyed by the sample they are computed from and a hash of the directives executed so far,
+ * which covers their arguments and the class implementing them. The sample is identified by the version of the
+ * records cached by {@link SampleCache}, so that saving the recipe with the workspace doesn't discard them.
+ * They are bounded by the estimated memory used by the records, and the least recently used are evicted
+ * first.</p>
+ *
+ * <p>Executing a directive on all the records before the next directive gives the same records as executing
+ * the recipe on one block of records after the other, unless the directives communicate through the
+ * {@link io.cdap.wrangler.api.TransientStore}. As directives that read or write it are not
+ * {@link RowIndependent}, a recipe with a directive that isn't annotated, such as a user directive, is not
+ * executed here at all, and is left to be executed as a whole instead.</p>
+ *
+ * <p>Checkpoints are only kept for the directives before the first one that isn't deterministic, as reported by
+ * {@link RecipePipelineExecutor#isDeterministic(Directive)}, such as one reading the current time or calling an
+ * external service. That directive and the ones after it are executed again every time.</p>
+ */
+final class RecipeCheckpoints {
+  private static final RecipeCheckpoints INSTANCE = new RecipeCheckpoints(Runtime.getRuntime().maxMemory() / 10);
+
+  private final Cache<Key, Checkpoint> checkpoints;
+
+  @VisibleForTesting
+  RecipeCheckpoints(long maxWeight) {
+    this.checkpoints = CacheBuilder.newBuilder()
+      .maximumWeight(maxWeight)
+      .weigher((Key key, Checkpoint checkpoint) -> checkpoint.weight)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * @return the checkpoints shared by all the handlers.
+   */
+  static RecipeCheckpoints getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return hit, miss and eviction counts of the checkpoints.
+   */
+  CacheStats getStats() {
+    return checkpoints.stats();
+  }
+
+  /**
+   * Executes the directives of a recipe on a sample, starting from the checkpoint of the longest deterministic
+   * prefix of the directives that has been executed on the same sample before.
+   *
+   * @param sample identifies the records the recipe is executed on.
+   * @param recipe the directives are parsed from.
+   * @param directives parsed from the recipe, which are not destroyed.
+   * @param rows sample the recipe is executed on, when there is no checkpoint to resume from.
+   * @param blockSize number of rows each directive is invoked with at a time.
+   * @param context the directives are executed in.
+   * @return the records and errors after the last directive, or null if the recipe has to be executed as a whole,
+   *         in which case none of the directives has been executed.
+   */
+  @Nullable
+  Checkpoint execute(Sample sample, String recipe, List<Directive> directives, List<Row> rows, int blockSize,
+                     ExecutorContext context) throws RecipeException {
+    for (Directive directive : directives) {
+      if (!directive.getClass().isAnnotationPresent(RowIndependent.class)) {
+        return null;
+      }
+    }
+    List<Key> keys = keys(sample, recipe, directives);
+    if (keys == null) {
+      return null;
+    }
+
+    int deterministic = 0;
+    while (deterministic < directives.size()
+      && RecipePipelineExecutor.isDeterministic(directives.get(deterministic))) {
+      deterministic++;
+    }
+    int step = deterministic;
+    Checkpoint checkpoint = null;
+    while (step > 0 && checkpoint == null) {
+      checkpoint = checkpoints.getIfPresent(keys.get(step - 1));
+      if (checkpoint == null) {
+        step--;
+      }
+    }
+    List<ErrorRecord> errors = new ArrayList<>();
+    if (checkpoint != null) {
+      rows = checkpoint.copyRows();
+      errors.addAll(checkpoint.errors);
+    }
+
+    for (; step < directives.size(); step++) {
+      RecipePipelineExecutor executor = new RecipePipelineExecutor(blockSize);
+      executor.initialize(new StepParser(directives.get(step)), context);
+      rows = executor.execute(rows);
+      errors.addAll(executor.errors());
+      checkpoint = new Checkpoint(rows, errors);
+      if (step < deterministic) {
+        checkpoints.put(keys.get(step), checkpoint);
+      }
+    }
+    return checkpoint == null ? new Checkpoint(rows, errors) : checkpoint;
+  }
+
+  /**
+   * Returns the key of the checkpoint after each directive, or null if the directives can't be matched with
+   * the recipe.
+   */
+  @Nullable
+  private static List<Key> keys(Sample sample, String recipe, List<Directive> directives) {
+    CompileStatus status;
+    try {
+      status = new RecipeCompiler().compile(recipe);
+    } catch (CompileException e) {
+      return null;
+    }
+    if (!status.isSuccess()) {
+      return null;
+    }
+
+    List<Key> keys = new ArrayList<>(directives.size());
+    HashCode prefix = HashCode.fromInt(0);
+    Iterator<TokenGroup> groups = status.getSymbols().iterator();
+    while (groups.hasNext()) {
+      TokenGroup group = groups.next();
+      if (group == null) {
+        continue;
+      }
+      if (keys.size() == directives.size()) {
+        return null;
+      }
+      // The identity of the class tells apart versions of user directives loaded from different artifacts.
+      Class<?> type = directives.get(keys.size()).getClass();
+      Hasher hasher = Hashing.sha256().newHasher()
+        .putBytes(prefix.asBytes())
+        .putString(type.getName(), StandardCharsets.UTF_8)
+        .putInt(System.identityHashCode(type));
+      Iterator<Token> tokens = group.iterator();
+      while (tokens.hasNext()) {
+        hasher.putString(tokens.next().toJson().toString(), StandardCharsets.UTF_8);
+      }
+      prefix = hasher.hash();
+      keys.add(new Key(sample, prefix));
+    }
+    return keys.size() == directives.size() ? keys : null;
+  }
+
+  /**
+   * Identifies the records a recipe is executed on.
+   */
+  static final class Sample {
+    private final NamespacedId workspace;
+    private final long version;
+    private final int limit;
+
+    /**
+     * @param workspace the records are from.
+     * @param version of the records, as cached by {@link SampleCache}.
+     * @param limit number of records sampled from the workspace.
+     */
+    Sample(NamespacedId workspace, long version, int limit) {
+      this.workspace = workspace;
+      this.version = version;
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Sample sample = (Sample) o;
+      return version == sample.version && limit == sample.limit && workspace.equals(sample.workspace);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(workspace, version, limit);
+    }
+  }
+
+  /**
+   * Records and errors after executing a prefix of a recipe.
+   */
+  static final class Checkpoint {
+    private final List<Row> rows;
+    private final List<ErrorRecord> errors;
+    private final int weight;
+
+    private Checkpoint(List<Row> rows, List<ErrorRecord> errors) {
+      List<Row> copies = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+        copies.add(row.copyOnWrite());
+      }
+      this.rows = Collections.unmodifiableList(copies);
+      this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+      this.weight = (int) Math.min(Integer.MAX_VALUE, SampleCache.estimate(rows));
+    }
+
+    /**
+     * @return copies of the records, that can be modified.
+     */
+    List<Row> copyRows() {
+      List<Row> copies = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+        copies.add(row.copyOnWrite());
+      }
+      return copies;
+    }
+
+    /**
+     * @return the errors.
+     */
+    List<ErrorRecord> getErrors() {
+      return errors;
+    }
+  }
+
+  /**
+   * Parser of a single directive that has already been parsed.
+   */
+  private static final class StepParser implements RecipeParser {
+    private final Directive directive;
+
+    StepParser(Directive directive) {
+      this.directive = directive;
+    }
+
+    @Override
+    public List<Directive> parse() {
+      return Collections.singletonList(directive);
+    }
+
+    @Override
+    public void initialize(DirectiveContext context) {
+      // no-op
+    }
+  }
+
+  private static final class Key {
+    private final Sample sample;
+    private final HashCode prefix;
+
+    Key(Sample sample, HashCode prefix) {
+      this.sample = sample;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return prefix.equals(key.prefix) && sample.equals(key.sample);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sample, prefix);
+    }
+  }
+}
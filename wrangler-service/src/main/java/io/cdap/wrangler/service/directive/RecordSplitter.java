@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.directive;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class <code>RecordSplitter</code> splits text into records around the matches of a delimiter, as
+ * {@link String#split(String)} does, but with the text being received in parts, so that the whole text is never
+ * held in memory. Only the text of the record that is not complete yet is held.
+ *
+ * <p>Delimiters without regular expression meta characters are searched for as they are, and the rest are matched
+ * as regular expressions. A match that reaches the end of the text received so far is only used once more text
+ * is received, or the text ends, as it could match differently with more text.</p>
+ */
+final class RecordSplitter {
+  private static final String META_CHARACTERS = ".$|()[{^?*+\\";
+
+  private final String literal;
+  private final Pattern pattern;
+  private final StringBuilder pending = new StringBuilder();
+  // Position in the pending text the next delimiter is searched from.
+  private int from;
+  // Number of characters of the text that are not pending anymore.
+  private long consumed;
+  // Number of empty records that are only emitted if a non-empty record follows them.
+  private int empties;
+  private boolean matched;
+
+  /**
+   * @param delimiter regular expression the records are split around.
+   */
+  RecordSplitter(String delimiter) {
+    this.literal = toLiteral(delimiter);
+    this.pattern = literal == null ? Pattern.compile(delimiter) : null;
+  }
+
+  /**
+   * Splits text that follows the text split before.
+   *
+   * @param text to be split.
+   * @param records the complete records are added to.
+   */
+  void split(CharSequence text, List<String> records) {
+    pending.append(text);
+    if (literal != null) {
+      splitLiteral(records);
+    } else {
+      splitPattern(records, false);
+    }
+  }
+
+  /**
+   * Ends the text, adding the last record.
+   *
+   * @param records the last records are added to.
+   */
+  void finish(List<String> records) {
+    if (pattern != null) {
+      splitPattern(records, true);
+    }
+    if (!matched) {
+      // Text without delimiters is a single record, even if it's empty.
+      records.add(pending.toString());
+    } else {
+      // Empty records at the end are dropped.
+      add(pending.toString(), records);
+    }
+    consumed += pending.length();
+    pending.setLength(0);
+    from = 0;
+  }
+
+  private void splitLiteral(List<String> records) {
+    int start = 0;
+    int index = pending.indexOf(literal, from);
+    while (index >= 0) {
+      add(pending.substring(start, index), records);
+      matched = true;
+      start = index + literal.length();
+      index = pending.indexOf(literal, start);
+    }
+    pending.delete(0, start);
+    consumed += start;
+    // The end of the pending text could be the start of a delimiter.
+    from = Math.max(0, pending.length() - literal.length() + 1);
+  }
+
+  private void splitPattern(List<String> records, boolean end) {
+    Matcher matcher = pattern.matcher(pending);
+    int start = 0;
+    int search = from;
+    while (search <= pending.length() && matcher.find(search)) {
+      if (!end && matcher.hitEnd()) {
+        break;
+      }
+      if (matcher.start() == matcher.end()) {
+        // An empty match at the beginning of the text doesn't start with an empty record.
+        search = matcher.end() + 1;
+        if (consumed + matcher.start() == 0) {
+          continue;
+        }
+      } else {
+        search = matcher.end();
+      }
+      add(pending.substring(start, matcher.start()), records);
+      matched = true;
+      start = matcher.end();
+    }
+    pending.delete(0, start);
+    consumed += start;
+    from = Math.max(0, search - start);
+  }
+
+  private void add(String record, List<String> records) {
+    if (record.isEmpty()) {
+      empties++;
+      return;
+    }
+    for (; empties > 0; empties--) {
+      records.add("");
+    }
+    records.add(record);
+  }
+
+  /**
+   * Returns the text matched by the delimiter if it's not a regular expression, or null otherwise.
+   */
+  private static String toLiteral(String delimiter) {
+    if (delimiter.length() == 2 && delimiter.charAt(0) == '\\' && !Character.isLetterOrDigit(delimiter.charAt(1))) {
+      return delimiter.substring(1);
+    }
+    if (delimiter.isEmpty()) {
+      return null;
+    }
+    for (int i = 0; i < delimiter.length(); i++) {
+      if (META_CHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+        return null;
+      }
+    }
+    return delimiter;
+  }
+}
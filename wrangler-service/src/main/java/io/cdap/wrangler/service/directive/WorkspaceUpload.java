@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.dataset.workspace.DataType;
+import io.cdap.wrangler.utils.RowSerDe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class <code>WorkspaceUpload</code> converts the content uploaded to a workspace into the data of the
+ * workspace as the content is received, so that the content is never held in memory as a whole.
+ *
+ * <p>Text is decoded from its charset as it's received, and is either encoded as UTF-8 or, for records,
+ * split around the delimiter into records that are serialized by {@link RowSerDe} a block at a time. Only the
+ * data of the workspace, the text of the record being received, and the records of one block are held in
+ * memory.</p>
+ */
+final class WorkspaceUpload implements Closeable {
+  private static final int CHARS = 8192;
+
+  private final DataType type;
+  private final String column;
+  private final CharsetDecoder decoder;
+  private final CharBuffer chars = CharBuffer.allocate(CHARS);
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final Writer text;
+  private final RecordSplitter splitter;
+  private final RowSerDe.Writer rows;
+  private final List<String> records = new ArrayList<>();
+  // Bytes of a character that is split across chunks.
+  private ByteBuffer remaining = ByteBuffer.allocate(0);
+  private long received;
+
+  /**
+   * @param type of the data of the workspace.
+   * @param charset of the text uploaded.
+   * @param delimiter the records are split around, as a regular expression.
+   * @param column records are stored in.
+   */
+  WorkspaceUpload(DataType type, Charset charset, String delimiter, String column) {
+    this.type = type;
+    this.column = column;
+    this.decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.text = type == DataType.TEXT ? new OutputStreamWriter(bytes, StandardCharsets.UTF_8) : null;
+    this.splitter = type == DataType.RECORDS ? new RecordSplitter(delimiter) : null;
+    this.rows = type == DataType.RECORDS ? new RowSerDe().writer() : null;
+  }
+
+  /**
+   * Converts a chunk of the content.
+   *
+   * @param chunk of the content, that follows the chunks converted before.
+   */
+  void write(ByteBuffer chunk) throws IOException {
+    received += chunk.remaining();
+    if (type == DataType.BINARY) {
+      byte[] array = new byte[chunk.remaining()];
+      chunk.get(array);
+      bytes.write(array, 0, array.length);
+      return;
+    }
+
+    ByteBuffer input = chunk;
+    if (remaining.hasRemaining()) {
+      input = ByteBuffer.allocate(remaining.remaining() + chunk.remaining());
+      input.put(remaining).put(chunk);
+      input.flip();
+    }
+    decode(input, false);
+    remaining = ByteBuffer.allocate(input.remaining());
+    remaining.put(input);
+    remaining.flip();
+  }
+
+  /**
+   * @return whether no content has been received.
+   */
+  boolean isEmpty() {
+    return received == 0;
+  }
+
+  /**
+   * Ends the content.
+   *
+   * @return data of the workspace.
+   */
+  byte[] finish() throws IOException {
+    switch (type) {
+      case TEXT:
+        decode(remaining, true);
+        text.flush();
+        return bytes.toByteArray();
+      case RECORDS:
+        decode(remaining, true);
+        splitter.finish(records);
+        addRecords();
+        return rows.toByteArray();
+      default:
+        return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Releases the content converted so far. Can be called more than once, and before the content is finished.
+   */
+  @Override
+  public void close() {
+    if (rows != null) {
+      rows.close();
+    }
+    records.clear();
+    remaining = ByteBuffer.allocate(0);
+  }
+
+  private void decode(ByteBuffer input, boolean end) throws IOException {
+    CoderResult result;
+    do {
+      result = decoder.decode(input, chars, end);
+      drain();
+    } while (result.isOverflow());
+    if (end) {
+      do {
+        result = decoder.flush(chars);
+        drain();
+      } while (result.isOverflow());
+    }
+  }
+
+  private void drain() throws IOException {
+    chars.flip();
+    if (type == DataType.TEXT) {
+      text.append(chars);
+    } else {
+      splitter.split(chars, records);
+      addRecords();
+    }
+    chars.clear();
+  }
+
+  private void addRecords() throws IOException {
+    for (String record : records) {
+      rows.add(new Row(column, record));
+    }
+    records.clear();
+  }
+}
@@ -44,7 +44,7 @@ import io.cdap.wrangler.sampling.Poisson;
 import io.cdap.wrangler.sampling.Reservoir;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.RowSerDe;
 import org.apache.twill.filesystem.Location;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
@@ -56,6 +56,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -92,7 +93,8 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
    *
    * @param request HTTP request handler.
    * @param responder HTTP response handler.
-   * @param path to the location in the filesystem.
+   * @param path to the location in the filesystem. Text files can also be sampled from all the files of a directory,
+   *             or of the files matching a glob such as {@code /data/part-*}.
    * @param lines number of lines to extracted from file if it's a text/plain.
    * @param sampler sampling method to be used.
    */
@@ -212,7 +214,7 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       if (type == DataType.RECORDS) {
         List<Row> rows = new ArrayList<>();
         rows.add(new Row(COLUMN_NAME, new String(bytes, Charsets.UTF_8)));
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
+        RowSerDe serDe = new RowSerDe();
         byte[] data = serDe.toByteArray(rows);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
       } else if (type == DataType.BINARY || type == DataType.TEXT) {
@@ -230,23 +232,43 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
   private FileConnectionSample loadSampleableFile(Namespace namespace, String scope, String path, int lines,
                                                   double fraction, String sampler)
     throws IOException, ExplorerException {
-    SamplingMethod samplingMethod;
+    SamplingMethod requested;
     if (sampler == null || sampler.isEmpty() || SamplingMethod.fromString(sampler) == null) {
-      samplingMethod = SamplingMethod.FIRST;
+      requested = SamplingMethod.FIRST;
     } else {
-      samplingMethod = SamplingMethod.fromString(sampler);
+      requested = SamplingMethod.fromString(sampler);
     }
 
-    Location location = explorer.getLocation(path);
+    // A glob in the last part of the path selects the files of the directory it's in, unless there's a file
+    // with that exact name.
+    int slash = path.lastIndexOf('/');
+    String last = path.substring(slash + 1);
+    String glob = MultiFileSampler.isGlob(last) && !explorer.getLocation(path).exists() ? last : null;
+    Location location = explorer.getLocation(glob == null ? path : path.substring(0, Math.max(slash, 1)));
     if (!location.exists()) {
       throw new BadRequestException(String.format("%s (No such file)", path));
     }
-    String name = location.getName();
+
+    // Directories and globs are sampled from all the files they contain, before the workspace is created.
+    List<String> sampled = null;
+    if (glob != null || location.isDirectory()) {
+      List<Location> files = MultiFileSampler.listFiles(location, glob);
+      if (files.isEmpty()) {
+        throw new BadRequestException(String.format("%s (No files to sample)", path));
+      }
+      sampled = new MultiFileSampler(lines).sample(files);
+    }
+    List<String> sample = sampled;
+    SamplingMethod samplingMethod = sample == null ? requested : SamplingMethod.RESERVOIR;
+
+    String name = glob == null ? location.getName() : glob;
+    String uri = glob == null ? location.toURI().toString() : join(location.toURI().toString(), glob);
+    String filePath = glob == null ? location.toURI().getPath() : join(location.toURI().getPath(), glob);
     // Set all properties and write to workspace.
     Map<String, String> properties = new HashMap<>();
-    properties.put(PropertyIds.FILE_NAME, location.getName());
-    properties.put(PropertyIds.URI, location.toURI().toString());
-    properties.put(PropertyIds.FILE_PATH, location.toURI().getPath());
+    properties.put(PropertyIds.FILE_NAME, name);
+    properties.put(PropertyIds.URI, uri);
+    properties.put(PropertyIds.FILE_PATH, filePath);
     properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.FILE.getType());
     properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
     WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(name)
@@ -254,15 +276,24 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       .setProperties(properties)
       .build();
 
-    String sampleId = TransactionRunners.run(getContext(), context -> {
-      WorkspaceDataset ws = WorkspaceDataset.get(context);
-      NamespacedId workspaceId = ws.createWorkspace(namespace, workspaceMeta);
-
-      // Iterate through lines to extract only 'limit' random lines.
-      // Depending on the type, the sampling of the input is performed.
-      List<Row> rows = new ArrayList<>();
-      BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(), Charsets.UTF_8, lines);
-      Iterator<String> it = blis;
+    // The file is read before the transaction, which is only used to write the workspace.
+    // Iterate through lines to extract only 'limit' random lines.
+    // Depending on the type, the sampling of the input is performed.
+    List<Row> rows = new ArrayList<>();
+    Iterator<String> it = sample == null ? null : sample.iterator();
+    int bound = lines;
+    if (it == null && samplingMethod == SamplingMethod.RESERVOIR) {
+      // Large files are sampled at random offsets, small ones are read whole.
+      if (location.length() >= SeekableLineSampler.MIN_LENGTH) {
+        it = sampleSeekable(location, lines);
+      } else {
+        bound = Integer.MAX_VALUE;
+      }
+    }
+    if (it == null) {
+      BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(), Charsets.UTF_8,
+                                                                    bound);
+      it = blis;
       if (samplingMethod == SamplingMethod.POISSON) {
         it = new Poisson<String>(fraction).sample(blis);
       } else if (samplingMethod == SamplingMethod.BERNOULLI) {
@@ -270,21 +301,39 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       } else if (samplingMethod == SamplingMethod.RESERVOIR) {
         it = new Reservoir<String>(lines).sample(blis);
       }
-      while (it.hasNext()) {
-        rows.add(new Row(COLUMN_NAME, it.next()));
-      }
+    }
+    while (it.hasNext()) {
+      rows.add(new Row(COLUMN_NAME, it.next()));
+    }
+    RowSerDe serDe = new RowSerDe();
+    byte[] data = serDe.toByteArray(rows);
 
-      // Write rows to workspace.
-      ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-      byte[] data = serDe.toByteArray(rows);
+    // Write rows to workspace.
+    String sampleId = TransactionRunners.run(getContext(), context -> {
+      WorkspaceDataset ws = WorkspaceDataset.get(context);
+      NamespacedId workspaceId = ws.createWorkspace(namespace, workspaceMeta);
       ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
       return workspaceId.getId();
     });
 
     return new FileConnectionSample(sampleId, name, ConnectionType.FILE.getType(),
-                                    samplingMethod.getMethod(), null,
-                                    location.toURI().toString(), location.toURI().getPath(),
-                                    location.getName());
+                                    samplingMethod.getMethod(), null, uri, filePath, name);
+  }
+
+  private static String join(String directory, String name) {
+    return directory.endsWith("/") ? directory + name : directory + "/" + name;
+  }
+
+  /**
+   * Samples lines from anywhere in the file, if the location supports random access.
+   *
+   * @return the sampled lines, or null if the location doesn't support random access.
+   */
+  @Nullable
+  private Iterator<String> sampleSeekable(Location location, int lines) throws IOException {
+    try (SeekableLineSampler.Source source = SeekableLineSampler.open(location)) {
+      return source == null ? null : new SeekableLineSampler(lines).sample(source).iterator();
+    }
   }
 
   @Override
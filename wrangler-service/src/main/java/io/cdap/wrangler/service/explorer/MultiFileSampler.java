@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.explorer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.wrangler.sampling.XORShiftRNG;
+import org.apache.twill.filesystem.Location;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+
+/**
+ * Samples lines from many files at once, such as the part files of a directory.
+ *
+ * <p>The files are read in parallel by a bounded pool of threads. At most {@code maxLinesPerFile} lines are
+ * read from each file. Each line read is given a random key, and the lines with the smallest keys across all
+ * the files are the sample, so each file contributes a number of lines proportional to the number of lines read
+ * from it. The lines of a file are offered to the shared sample once the file is read, which bounds the lines
+ * held in memory to {@code numSamples} per thread and for the shared sample, however many files there are.</p>
+ */
+final class MultiFileSampler {
+  static final int MAX_THREADS = 8;
+  static final int MAX_LINES_PER_FILE = 10000;
+  // Maximum number of files listed under a directory.
+  static final int MAX_FILES = 10000;
+
+  private final int numSamples;
+  private final int maxLinesPerFile;
+  private final int threads;
+  private final Random random;
+
+  MultiFileSampler(int numSamples) {
+    this(numSamples, MAX_LINES_PER_FILE, MAX_THREADS, new XORShiftRNG());
+  }
+
+  MultiFileSampler(int numSamples, int maxLinesPerFile, int threads, Random random) {
+    if (numSamples < 0) {
+      throw new IllegalArgumentException("numSamples should be non-negative.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be at least 1, but is " + threads);
+    }
+    this.numSamples = numSamples;
+    this.maxLinesPerFile = maxLinesPerFile;
+    this.threads = threads;
+    this.random = random;
+  }
+
+  /**
+   * Samples lines from the files.
+   *
+   * @param files the files to sample.
+   * @return at most {@code numSamples} lines, grouped by file in the order of the files.
+   */
+  List<String> sample(List<Location> files) throws IOException {
+    if (files.isEmpty() || numSamples == 0) {
+      return Collections.emptyList();
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(
+      Math.min(threads, files.size()),
+      new ThreadFactoryBuilder().setNameFormat("explorer-sampler-%d").setDaemon(true).build());
+    try {
+      TopLines sample = new TopLines(numSamples);
+      List<Future<?>> futures = new ArrayList<>(files.size());
+      for (int i = 0; i < files.size(); i++) {
+        Location file = files.get(i);
+        int index = i;
+        // Each file gets its own generator, seeded here as the shared one isn't thread safe.
+        long seed = random.nextLong();
+        futures.add(pool.submit(() -> {
+          sample.offer(sample(file, index, seed, sample));
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      return sample.lines();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while sampling files");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Samples the lines of a file, skipping the lines that can't make it into the shared sample.
+   */
+  private TopLines sample(Location file, int index, long seed, TopLines shared) throws IOException {
+    Random random = new XORShiftRNG(seed);
+    TopLines sample = new TopLines(numSamples);
+    try (BoundedLineInputStream lines = BoundedLineInputStream.iterator(file.getInputStream(),
+                                                                        StandardCharsets.UTF_8, maxLinesPerFile)) {
+      for (int number = 0; lines.hasNext(); number++) {
+        String line = lines.next();
+        double key = random.nextDouble();
+        if (key < shared.threshold()) {
+          sample.offer(new SampledLine(line, index, number, key));
+        }
+      }
+    }
+    return sample;
+  }
+
+  /**
+   * @return true if the name is a glob pattern rather than the name of a file.
+   */
+  static boolean isGlob(String name) {
+    return name.indexOf('*') >= 0 || name.indexOf('?') >= 0 || name.indexOf('[') >= 0 || name.indexOf('{') >= 0;
+  }
+
+  /**
+   * Lists the files under the directory and its sub-directories, skipping hidden files and files starting
+   * with '_', such as _SUCCESS markers.
+   *
+   * @param directory the directory to list.
+   * @param glob if not null, the pattern the names of the files and sub-directories directly under the directory
+   *             must match.
+   * @return at most {@link #MAX_FILES} files.
+   */
+  static List<Location> listFiles(Location directory, @Nullable String glob) throws IOException {
+    PathMatcher matcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    List<Location> files = new ArrayList<>();
+    Deque<Location> directories = new ArrayDeque<>();
+    for (Location location : directory.list()) {
+      if (matcher == null || matcher.matches(Paths.get(location.getName()))) {
+        add(location, files, directories);
+      }
+    }
+    while (!directories.isEmpty() && files.size() < MAX_FILES) {
+      for (Location location : directories.poll().list()) {
+        add(location, files, directories);
+      }
+    }
+    return files.size() > MAX_FILES ? files.subList(0, MAX_FILES) : files;
+  }
+
+  private static void add(Location location, List<Location> files, Deque<Location> directories) throws IOException {
+    String name = location.getName();
+    if (name.startsWith(".") || name.startsWith("_")) {
+      return;
+    }
+    if (location.isDirectory()) {
+      directories.add(location);
+    } else {
+      files.add(location);
+    }
+  }
+
+  /**
+   * The lines with the smallest keys among the lines offered, up to a maximum number of lines.
+   */
+  static final class TopLines {
+    private static final Comparator<SampledLine> LARGEST_KEY_FIRST =
+      Comparator.comparingDouble((SampledLine line) -> line.key).reversed();
+
+    private final int size;
+    // Largest key at the head, so it's the one replaced by a line with a smaller key.
+    private final PriorityQueue<SampledLine> lines;
+    private volatile double threshold = Double.MAX_VALUE;
+
+    TopLines(int size) {
+      this.size = size;
+      this.lines = new PriorityQueue<>(Math.min(size, 1024), LARGEST_KEY_FIRST);
+    }
+
+    /**
+     * @return key a line must be below to be added, once there are enough lines.
+     */
+    double threshold() {
+      return threshold;
+    }
+
+    synchronized void offer(SampledLine line) {
+      if (lines.size() < size) {
+        lines.add(line);
+      } else if (line.key < lines.peek().key) {
+        lines.poll();
+        lines.add(line);
+      } else {
+        return;
+      }
+      if (lines.size() == size) {
+        threshold = lines.peek().key;
+      }
+    }
+
+    synchronized void offer(TopLines other) {
+      for (SampledLine line : other.lines) {
+        offer(line);
+      }
+    }
+
+    /**
+     * @return the lines, grouped by file in the order of the files, and in the order of the lines of each file.
+     */
+    synchronized List<String> lines() {
+      List<SampledLine> sorted = new ArrayList<>(lines);
+      sorted.sort(Comparator.comparingInt((SampledLine line) -> line.file).thenComparingInt(line -> line.number));
+      List<String> result = new ArrayList<>(sorted.size());
+      for (SampledLine line : sorted) {
+        result.add(line.text);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * A line of a file along with the random key it's sampled by.
+   */
+  static final class SampledLine {
+    private final String text;
+    private final int file;
+    private final int number;
+    private final double key;
+
+    /**
+     * @param text of the line.
+     * @param file index of the file the line is read from.
+     * @param number of the line within its file.
+     * @param key the line is sampled by.
+     */
+    SampledLine(String text, int file, int number, double key) {
+      this.text = text;
+      this.file = file;
+      this.number = number;
+      this.key = key;
+    }
+  }
+}
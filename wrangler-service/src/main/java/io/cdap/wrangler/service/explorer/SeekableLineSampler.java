@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.explorer;
+
+import io.cdap.wrangler.sampling.XORShiftRNG;
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.twill.filesystem.Location;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * Samples lines from anywhere in a file that supports random access, without reading all of it.
+ *
+ * <p>The sampler picks random byte offsets in the file, moves each one forward to the start of the
+ * next line and reads that line. So sampling k lines costs k short reads, whatever the size of the file.
+ * A line is picked with a probability proportional to the length of the line before it, so the sample is
+ * only approximately uniform when the lengths of the lines vary a lot. Lines are separated by '\n',
+ * which never appears inside a multi-byte UTF-8 character, so the offsets can fall anywhere.</p>
+ *
+ * <p>The first line has no line before it, so it would almost never be picked. It's always part of the sample
+ * instead, as it's the header of the files that have one.</p>
+ */
+final class SeekableLineSampler {
+  // Files smaller than this are cheaper to read whole.
+  static final long MIN_LENGTH = 16 * 1024 * 1024;
+  // Lines longer than this are skipped.
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+  // Maximum number of offsets tried per line sampled, when offsets land on lines already sampled.
+  private static final int MAX_ATTEMPTS = 4;
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int numSamples;
+  private final Random random;
+
+  SeekableLineSampler(int numSamples) {
+    this(numSamples, new XORShiftRNG());
+  }
+
+  SeekableLineSampler(int numSamples, Random random) {
+    if (numSamples < 0) {
+      throw new IllegalArgumentException("numSamples should be non-negative.");
+    }
+    this.numSamples = numSamples;
+    this.random = random;
+  }
+
+  /**
+   * Samples lines from the source.
+   *
+   * @param source the file to sample.
+   * @return at most {@code numSamples} distinct lines, starting with the first line, in the order they are in
+   *         the file.
+   */
+  List<String> sample(Source source) throws IOException {
+    long length = source.length();
+    Map<Long, String> lines = new TreeMap<>();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    if (length > 0 && numSamples > 0) {
+      String first = readLine(source, 0, length, buffer);
+      if (first != null) {
+        lines.put(0L, first);
+      }
+    }
+    long attempts = 0;
+    long maxAttempts = (long) numSamples * MAX_ATTEMPTS;
+    while (length > 0 && lines.size() < numSamples && attempts < maxAttempts) {
+      long[] offsets = new long[(int) Math.min(numSamples - lines.size(), maxAttempts - attempts)];
+      for (int i = 0; i < offsets.length; i++) {
+        offsets[i] = (long) (random.nextDouble() * length);
+      }
+      attempts += offsets.length;
+      // Reading the offsets in order keeps the reads moving forward through the file.
+      Arrays.sort(offsets);
+      for (long offset : offsets) {
+        long start = offset == 0 ? 0 : findLineStart(source, offset - 1, length, buffer);
+        if (start < 0 || start >= length || lines.containsKey(start)) {
+          continue;
+        }
+        String line = readLine(source, start, length, buffer);
+        if (line != null) {
+          lines.put(start, line);
+        }
+      }
+    }
+    return new ArrayList<>(lines.values());
+  }
+
+  /**
+   * @return the position after the first '\n' at or after the position, or -1 if there is none close enough.
+   */
+  private static long findLineStart(Source source, long position, long length, byte[] buffer) throws IOException {
+    long end = Math.min(length, position + MAX_LINE_LENGTH);
+    while (position < end) {
+      int read = source.read(position, buffer, 0, (int) Math.min(buffer.length, end - position));
+      if (read <= 0) {
+        return -1;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer[i] == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return -1;
+  }
+
+  /**
+   * @return the line starting at the position, without the line terminator, or null if it's too long.
+   */
+  @Nullable
+  private static String readLine(Source source, long position, long length, byte[] buffer) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    long end = Math.min(length, position + MAX_LINE_LENGTH + 1);
+    while (position < end) {
+      int read = source.read(position, buffer, 0, (int) Math.min(buffer.length, end - position));
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer[i] == '\n') {
+          line.write(buffer, 0, i);
+          return decode(line);
+        }
+      }
+      line.write(buffer, 0, read);
+      position += read;
+    }
+    // The last line of the file doesn't need a terminator.
+    return position >= length && line.size() <= MAX_LINE_LENGTH ? decode(line) : null;
+  }
+
+  private static String decode(ByteArrayOutputStream line) {
+    byte[] bytes = line.toByteArray();
+    int size = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+    return new String(bytes, 0, size, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Opens the location for random access.
+   *
+   * @return the source, or null if the location doesn't support random access.
+   */
+  @Nullable
+  static Source open(Location location) throws IOException {
+    if ("file".equals(location.toURI().getScheme())) {
+      return open(new File(location.toURI()));
+    }
+    InputStream input = location.getInputStream();
+    if (input instanceof PositionedReadable) {
+      return new PositionedSource((PositionedReadable) input, input, location.length());
+    }
+    input.close();
+    return null;
+  }
+
+  /**
+   * Opens the local file for random access. Files that fit in a single mapping are memory mapped.
+   */
+  static Source open(File file) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      FileChannel channel = raf.getChannel();
+      long size = channel.size();
+      if (size <= Integer.MAX_VALUE) {
+        // The mapping stays valid after the channel is closed.
+        return new MappedSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+      }
+    }
+    return new ChannelSource(new RandomAccessFile(file, "r").getChannel());
+  }
+
+  /**
+   * A file that can be read at any position.
+   */
+  interface Source extends Closeable {
+
+    /**
+     * @return the length of the file in bytes.
+     */
+    long length() throws IOException;
+
+    /**
+     * Reads up to {@code length} bytes at the position into the buffer.
+     *
+     * @return the number of bytes read, or -1 if the position is at the end of the file.
+     */
+    int read(long position, byte[] buffer, int offset, int length) throws IOException;
+  }
+
+  /**
+   * A memory mapped local file.
+   */
+  private static final class MappedSource implements Source {
+    private final MappedByteBuffer buffer;
+
+    MappedSource(MappedByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public long length() {
+      return buffer.capacity();
+    }
+
+    @Override
+    public int read(long position, byte[] bytes, int offset, int length) {
+      if (position >= buffer.capacity()) {
+        return -1;
+      }
+      ByteBuffer view = buffer.duplicate();
+      view.position((int) position);
+      int read = Math.min(length, view.remaining());
+      view.get(bytes, offset, read);
+      return read;
+    }
+
+    @Override
+    public void close() {
+      // The mapping is released when it's garbage collected.
+    }
+  }
+
+  /**
+   * A local file too large to be mapped at once.
+   */
+  private static final class ChannelSource implements Source {
+    private final FileChannel channel;
+
+    ChannelSource(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long length() throws IOException {
+      return channel.size();
+    }
+
+    @Override
+    public int read(long position, byte[] bytes, int offset, int length) throws IOException {
+      return channel.read(ByteBuffer.wrap(bytes, offset, length), position);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * A file in a Hadoop filesystem, such as HDFS, read with positioned reads.
+   */
+  private static final class PositionedSource implements Source {
+    private final PositionedReadable input;
+    private final Closeable closeable;
+    private final long length;
+
+    PositionedSource(PositionedReadable input, Closeable closeable, long length) {
+      this.input = input;
+      this.closeable = closeable;
+      this.length = length;
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public int read(long position, byte[] bytes, int offset, int length) throws IOException {
+      return input.read(position, bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      closeable.close();
+    }
+  }
+}
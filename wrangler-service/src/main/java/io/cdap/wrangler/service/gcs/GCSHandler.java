@@ -17,7 +17,6 @@
 package io.cdap.wrangler.service.gcs;
 
 import com.google.api.gax.paging.Page;
-import com.google.cloud.ReadChannel;
 import com.google.cloud.storage.Acl;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
@@ -34,7 +33,6 @@ import io.cdap.wrangler.BytesDecoder;
 import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
 import io.cdap.wrangler.SamplingMethod;
-import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.connections.ConnectionStore;
 import io.cdap.wrangler.dataset.workspace.DataType;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
@@ -53,21 +51,17 @@ import io.cdap.wrangler.proto.gcs.GCSSpec;
 import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
+import io.cdap.wrangler.service.connections.ClientCache;
 import io.cdap.wrangler.service.gcp.GCPUtils;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.service.objectstore.ObjectSampler;
+import io.cdap.wrangler.service.objectstore.StoredObject;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 import java.security.Security;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -89,6 +83,7 @@ import javax.ws.rs.QueryParam;
 public class GCSHandler extends AbstractWranglerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(GCSHandler.class);
   static final long FILE_SIZE = 10 * 1024 * 1024;
+  private static final int ENCODING_SAMPLE_SIZE = 64 * 1024;
   private FileTypeDetector detector;
 
   @Override
@@ -147,7 +142,8 @@ public class GCSHandler extends AbstractWranglerHandler {
         }
       }
 
-      Storage storage = GCPUtils.getStorageService(connection);
+      Storage storage = ClientCache.getInstance().get(connection, Storage.class,
+                                                      () -> GCPUtils.getStorageService(connection));
       Set<String> bucketWhitelist = getBucketWhitelist(connection);
 
       if (bucketName.isEmpty() && prefix == null) {
@@ -217,24 +213,6 @@ public class GCSHandler extends AbstractWranglerHandler {
     });
   }
 
-  private byte[] readGCSFile(Blob blob, int len) throws IOException {
-    try (ReadChannel reader = blob.reader();
-      ByteArrayOutputStream os = new ByteArrayOutputStream(len)) {
-      reader.setChunkSize(len);
-      WritableByteChannel writable = Channels.newChannel(os);
-      ByteBuffer buf = ByteBuffer.wrap(new byte[8192]);
-      long total = len;
-      while (reader.read(buf) != -1 && total > 0) {
-        buf.flip();
-        while (buf.hasRemaining()) {
-          total -= writable.write(buf);
-        }
-        buf.clear();
-      }
-      return os.toByteArray();
-    }
-  }
-
   /**
    * Reads GCS object into workspace.
    *
@@ -260,7 +238,8 @@ public class GCSHandler extends AbstractWranglerHandler {
       Connection connection = getValidatedConnection(new NamespacedId(ns, connectionId), ConnectionType.GCS);
 
       Map<String, String> properties = new HashMap<>();
-      Storage storage = GCPUtils.getStorageService(connection);
+      Storage storage = ClientCache.getInstance().get(connection, Storage.class,
+                                                      () -> GCPUtils.getStorageService(connection));
       Blob blob = storage.get(BlobId.of(bucket, blobPath));
       if (blob == null) {
         throw new BadRequestException(String.format("Bucket '%s', Path '%s' is not valid.", bucket, blobPath));
@@ -285,46 +264,37 @@ public class GCSHandler extends AbstractWranglerHandler {
         throw new BadRequestException(String.format("Path '%s' is not a file.", blob.getName()));
       }
 
-      String sampleId = TransactionRunners.run(getContext(), context -> {
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
-        boolean shouldTruncate = blob.getSize() > FILE_SIZE;
-        byte[] bytes = readGCSFile(blob, (int) (shouldTruncate ? FILE_SIZE : blob.getSize()));
-
-        String encoding = BytesDecoder.guessEncoding(bytes);
-        if (contentType.equalsIgnoreCase("text/plain")
-          && (encoding.equalsIgnoreCase("utf-8") || encoding.equalsIgnoreCase("ascii"))) {
-          String data = new String(bytes, encoding);
-          String[] lines = data.split("\r\n|\r|\n");
-          if (blob.getSize() > GCSHandler.FILE_SIZE) {
-            lines = Arrays.copyOf(lines, lines.length - 1);
-            if (lines.length == 0) {
-              throw new BadRequestException("A single of text file is larger than "
-                                              + FILE_SIZE + ", unable to process");
-            }
-          }
-
-          List<Row> rows = new ArrayList<>();
-          // if the content was truncated, ignore the last line because it's probably not complete.
-          int numLines = shouldTruncate && lines.length > 1 ? lines.length - 1 : lines.length;
-          for (int i = 0; i < numLines; i++) {
-            rows.add(new Row("body", lines[i]));
-          }
-
-          ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-          byte[] records = serDe.toByteArray(rows);
-          ws.updateWorkspaceData(workspaceId, DataType.RECORDS, records);
-          properties.put(PropertyIds.FORMAT, Format.TEXT.name());
-        } else if (contentType.equalsIgnoreCase("application/json")) {
-          ws.updateWorkspaceData(workspaceId, DataType.TEXT, bytes);
+      // The object is read before the transaction, so that the transaction isn't kept open while it's fetched.
+      StoredObject object = new GCSStoredObject(blob);
+      DataType dataType;
+      byte[] data;
+      // The encoding is guessed from the start of the object.
+      String encoding = contentType.equalsIgnoreCase("text/plain")
+        ? BytesDecoder.guessEncoding(ObjectSampler.read(object, ENCODING_SAMPLE_SIZE)) : null;
+      if (encoding != null && (encoding.equalsIgnoreCase("utf-8") || encoding.equalsIgnoreCase("ascii"))) {
+        // The lines are read from the first FILE_SIZE bytes. If the content is truncated, the last line is ignored
+        // because it's probably not complete.
+        data = new ObjectSampler(SamplingMethod.FIRST, Integer.MAX_VALUE, 0, FILE_SIZE).sample(object);
+        dataType = DataType.RECORDS;
+        properties.put(PropertyIds.FORMAT, Format.TEXT.name());
+      } else {
+        data = ObjectSampler.read(object, (int) FILE_SIZE);
+        if (contentType.equalsIgnoreCase("application/json")) {
+          dataType = DataType.TEXT;
           properties.put(PropertyIds.FORMAT, Format.TEXT.name());
         } else if (contentType.equalsIgnoreCase("application/xml")) {
-          ws.updateWorkspaceData(workspaceId, DataType.TEXT, bytes);
+          dataType = DataType.TEXT;
           properties.put(PropertyIds.FORMAT, Format.BLOB.name());
         } else {
-          ws.updateWorkspaceData(workspaceId, DataType.BINARY, bytes);
+          dataType = DataType.BINARY;
           properties.put(PropertyIds.FORMAT, Format.BLOB.name());
         }
+      }
+
+      String sampleId = TransactionRunners.run(getContext(), context -> {
+        WorkspaceDataset ws = WorkspaceDataset.get(context);
+        NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
+        ws.updateWorkspaceData(workspaceId, dataType, data);
         return workspaceId.getId();
       });
 
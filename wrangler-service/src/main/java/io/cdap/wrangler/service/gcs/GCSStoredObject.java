@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.gcs;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import com.google.common.io.ByteStreams;
+import io.cdap.wrangler.service.objectstore.StoredObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+/**
+ * A GCS blob, read by ranges with a {@link ReadChannel}.
+ */
+final class GCSStoredObject implements StoredObject {
+  // Maximum number of bytes fetched by each request of the channel.
+  private static final int MAX_CHUNK_SIZE = 2 * 1024 * 1024;
+
+  private final Blob blob;
+
+  GCSStoredObject(Blob blob) {
+    this.blob = blob;
+  }
+
+  @Override
+  public long getLength() {
+    return blob.getSize();
+  }
+
+  @Override
+  public InputStream open(long position, long length) throws IOException {
+    if (length == 0) {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+    ReadChannel reader = blob.reader();
+    reader.setChunkSize((int) Math.min(length, MAX_CHUNK_SIZE));
+    reader.seek(position);
+    return ByteStreams.limit(Channels.newInputStream(reader), length);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * A pool of the {@link KafkaConsumer}s of a connection. Consumers are not thread-safe, so each one is borrowed
+ * by a single request at a time, and returned to the pool once the request is done with it.
+ */
+final class KafkaConsumerPool implements Closeable {
+  private static final int MAX_IDLE = 4;
+
+  private final Properties properties;
+  private final Deque<KafkaConsumer<String, String>> idle = new ArrayDeque<>();
+  private boolean closed;
+
+  KafkaConsumerPool(Properties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * @return an idle consumer, or a new one if there is none.
+   */
+  KafkaConsumer<String, String> borrow() {
+    synchronized (this) {
+      if (!idle.isEmpty()) {
+        return idle.pop();
+      }
+    }
+    // Each consumer is in its own group and doesn't commit its offsets, so that it reads the topics from the
+    // beginning every time it's subscribed to them.
+    Properties props = new Properties();
+    props.putAll(properties);
+    props.put(ConsumerConfig.CLIENT_ID_CONFIG, UUID.randomUUID().toString());
+    props.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    return new KafkaConsumer<>(props);
+  }
+
+  /**
+   * Returns the consumer to the pool, unsubscribing it from its topics, or closes it if the pool is full.
+   */
+  void release(KafkaConsumer<String, String> consumer) {
+    try {
+      consumer.unsubscribe();
+    } catch (RuntimeException e) {
+      // The consumer is not reused if it can't be reset.
+      consumer.close();
+      return;
+    }
+    synchronized (this) {
+      if (!closed && idle.size() < MAX_IDLE) {
+        idle.push(consumer);
+        return;
+      }
+    }
+    consumer.close();
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    KafkaConsumer<String, String> consumer;
+    while ((consumer = poll()) != null) {
+      consumer.close();
+    }
+  }
+
+  private synchronized KafkaConsumer<String, String> poll() {
+    return idle.poll();
+  }
+}
@@ -16,7 +16,6 @@
 
 package io.cdap.wrangler.service.kafka;
 
-import com.google.common.collect.Lists;
 import io.cdap.cdap.api.annotation.TransactionControl;
 import io.cdap.cdap.api.annotation.TransactionPolicy;
 import io.cdap.cdap.api.service.http.HttpServiceRequest;
@@ -26,10 +25,10 @@ import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
 import io.cdap.wrangler.SamplingMethod;
 import io.cdap.wrangler.api.Row;
-import io.cdap.wrangler.dataset.connections.ConnectionStore;
 import io.cdap.wrangler.dataset.workspace.DataType;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
 import io.cdap.wrangler.dataset.workspace.WorkspaceMeta;
+import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ConnectionSample;
 import io.cdap.wrangler.proto.NamespacedId;
 import io.cdap.wrangler.proto.PluginSpec;
@@ -39,13 +38,11 @@ import io.cdap.wrangler.proto.connection.ConnectionMeta;
 import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.kafka.KafkaSpec;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
-import io.cdap.wrangler.utils.ObjectSerDe;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
+import io.cdap.wrangler.service.connections.ClientCache;
+import io.cdap.wrangler.utils.RowSerDe;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.PartitionInfo;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -110,27 +107,55 @@ public final class KafkaHandler extends AbstractWranglerHandler {
   }
 
   /**
-   * Reads a kafka topic into workspace.
+   * Reads a kafka topic into workspace. The records are read evenly from all the partitions of the topic.
    *
    * @param request HTTP requests handler.
    * @param responder HTTP response handler.
    * @param id Connection id for which the tables need to be listed from database.
+   * @param lines Number of records to read.
+   * @param from Where the records are read from, either 'earliest', 'latest' or a timestamp in milliseconds.
+   * @param timeout Time in milliseconds after which the records that were read are returned, even if there
+   *                are fewer than requested.
    */
   @GET
   @Path("contexts/{context}/connections/{id}/kafka/{topic}/read")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
   public void read(HttpServiceRequest request, HttpServiceResponder responder, @PathParam("context") String namespace,
                    @PathParam("id") String id, @PathParam("topic") String topic,
-                   @QueryParam("lines") int lines,
+                   @QueryParam("lines") @DefaultValue("1000") int lines,
+                   @QueryParam("from") @DefaultValue("earliest") String from,
+                   @QueryParam("timeout") @DefaultValue("10000") long timeout,
                    @QueryParam("scope") @DefaultValue(WorkspaceDataset.DEFAULT_SCOPE) String scope) {
-    respond(request, responder, namespace, ns -> TransactionRunners.run(getContext(), context -> {
-      ConnectionStore store = ConnectionStore.get(context);
-      WorkspaceDataset ws = WorkspaceDataset.get(context);
-      Connection connection = getValidatedConnection(store, new NamespacedId(ns, id), ConnectionType.KAFKA);
+    respond(request, responder, namespace, ns -> {
+      if (lines <= 0) {
+        throw new BadRequestException("Query param 'lines' must be a positive number.");
+      }
+      if (timeout <= 0) {
+        throw new BadRequestException("Query param 'timeout' must be a positive number.");
+      }
+      KafkaSampler sampler;
+      try {
+        sampler = KafkaSampler.of(lines, from, timeout);
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException(e.getMessage());
+      }
 
+      Connection connection = getValidatedConnection(new NamespacedId(ns, id), ConnectionType.KAFKA);
       KafkaConfiguration config = new KafkaConfiguration(connection);
-      KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config.get());
-      consumer.subscribe(Lists.newArrayList(topic));
+
+      // The topic is read before the transaction, as it can take up to the timeout.
+      List<Row> recs;
+      // Consumers of the connection are reused by the following reads.
+      try (ClientCache.Lease<KafkaConsumerPool> pool =
+             ClientCache.getInstance().lease(connection, KafkaConsumerPool.class,
+                                             () -> new KafkaConsumerPool(config.get()))) {
+        KafkaConsumer<String, String> consumer = pool.get().borrow();
+        try {
+          recs = sampler.sample(consumer, topic);
+        } finally {
+          pool.get().release(consumer);
+        }
+      }
 
       Map<String, String> properties = new HashMap<>();
       properties.put(PropertyIds.NAME, topic);
@@ -145,37 +170,20 @@ public final class KafkaHandler extends AbstractWranglerHandler {
         .setScope(scope)
         .setProperties(properties)
         .build();
-      NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
 
-      try {
-        boolean running = true;
-        List<Row> recs = new ArrayList<>();
-        int count = lines;
-        while (running) {
-          ConsumerRecords<String, String> records = consumer.poll(10000);
-          for (ConsumerRecord<String, String> record : records) {
-            Row rec = new Row();
-            rec.add("body", record.value());
-            recs.add(rec);
-            if (count < 0) {
-              break;
-            }
-            count--;
-          }
-          running = false;
-        }
+      return TransactionRunners.run(getContext(), context -> {
+        WorkspaceDataset ws = WorkspaceDataset.get(context);
+        NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
 
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
+        RowSerDe serDe = new RowSerDe();
         byte[] data = serDe.toByteArray(recs);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
 
         ConnectionSample sample = new ConnectionSample(workspaceId.getId(), topic, ConnectionType.KAFKA.getType(),
                                                        SamplingMethod.FIRST.getMethod(), id);
         return new ServiceResponse<>(sample);
-      } finally {
-        consumer.close();
-      }
-    }));
+      });
+    });
   }
 
   /**
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.kafka;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.NotFoundException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples the records of a topic evenly from all its partitions.
+ *
+ * <p>All the partitions of the topic are assigned to the consumer, and each one gets an even share of the lines,
+ * bounded by the number of records it has from the start offset. The shares of partitions that have fewer records
+ * are given to the other partitions. The consumer fetches from all the partitions at once, and partitions that
+ * have read their share are paused, so that they don't hold back the others. Records are read until all the
+ * partitions have their share or are read to the end, or until the timeout.</p>
+ */
+final class KafkaSampler {
+  static final String COLUMN_NAME = "body";
+  private static final long POLL_MILLIS = 500;
+
+  /**
+   * Where the records are read from in each partition.
+   */
+  enum Start {
+    // The first records of the partitions.
+    EARLIEST,
+    // The last records of the partitions.
+    LATEST,
+    // The first records at or after a timestamp.
+    TIMESTAMP
+  }
+
+  private final int lines;
+  private final Start start;
+  private final long timestamp;
+  private final long timeoutMillis;
+
+  KafkaSampler(int lines, Start start, long timestamp, long timeoutMillis) {
+    this.lines = lines;
+    this.start = start;
+    this.timestamp = timestamp;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Parses where the records are read from, which is either 'earliest', 'latest', or a timestamp in milliseconds.
+   *
+   * @return the sampler for the start
+   * @throws IllegalArgumentException if the start is not valid
+   */
+  static KafkaSampler of(int lines, String from, long timeoutMillis) {
+    if ("earliest".equalsIgnoreCase(from)) {
+      return new KafkaSampler(lines, Start.EARLIEST, 0L, timeoutMillis);
+    }
+    if ("latest".equalsIgnoreCase(from)) {
+      return new KafkaSampler(lines, Start.LATEST, 0L, timeoutMillis);
+    }
+    try {
+      return new KafkaSampler(lines, Start.TIMESTAMP, Long.parseLong(from), timeoutMillis);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+        String.format("Invalid start '%s', expected 'earliest', 'latest' or a timestamp in milliseconds.", from));
+    }
+  }
+
+  /**
+   * Reads the sample of the topic with the consumer, which must not be assigned or subscribed to partitions.
+   *
+   * @return the records of the sample, ordered by partition and offset
+   */
+  List<Row> sample(Consumer<?, ?> consumer, String topic) {
+    List<PartitionInfo> infos = consumer.partitionsFor(topic);
+    if (infos == null || infos.isEmpty()) {
+      throw new NotFoundException(String.format("Topic '%s' does not exist.", topic));
+    }
+    List<TopicPartition> partitions = new ArrayList<>();
+    for (PartitionInfo info : infos) {
+      partitions.add(new TopicPartition(info.topic(), info.partition()));
+    }
+    partitions.sort(Comparator.comparingInt(TopicPartition::partition));
+
+    List<PartitionSample> samples = plan(consumer, partitions);
+    List<TopicPartition> assigned = new ArrayList<>();
+    for (PartitionSample sample : samples) {
+      if (sample.assigned) {
+        assigned.add(sample.partition);
+      }
+    }
+    consumer.assign(assigned);
+    for (PartitionSample sample : samples) {
+      if (sample.assigned) {
+        consumer.seek(sample.partition, sample.start);
+      }
+    }
+
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    long remaining = timeoutMillis;
+    List<TopicPartition> paused = new ArrayList<>();
+    while (isReading(samples) && remaining > 0) {
+      ConsumerRecords<?, ?> records = consumer.poll(Math.min(POLL_MILLIS, remaining));
+      for (PartitionSample sample : samples) {
+        if (!sample.assigned) {
+          continue;
+        }
+        for (ConsumerRecord<?, ?> record : records.records(sample.partition)) {
+          sample.add(record);
+        }
+        // The position is past the records that were added only if none were left out.
+        if (sample.isReading() && consumer.position(sample.partition) >= sample.end) {
+          sample.exhausted = true;
+        }
+      }
+      redistribute(samples);
+
+      // Partitions that are done are paused, the ones that got more lines to read are resumed.
+      List<TopicPartition> pause = new ArrayList<>();
+      List<TopicPartition> resume = new ArrayList<>();
+      for (PartitionSample sample : samples) {
+        if (!sample.assigned) {
+          continue;
+        }
+        boolean done = !sample.isReading();
+        if (done && !paused.contains(sample.partition)) {
+          pause.add(sample.partition);
+        } else if (!done && paused.contains(sample.partition)) {
+          resume.add(sample.partition);
+        }
+      }
+      consumer.pause(pause);
+      consumer.resume(resume);
+      paused.addAll(pause);
+      paused.removeAll(resume);
+      for (PartitionSample sample : samples) {
+        if (sample.skipped && sample.isReading()) {
+          // Records past the previous share of the partition were left out, so they're fetched again.
+          consumer.seek(sample.partition, sample.next);
+          sample.skipped = false;
+        }
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+
+    List<Row> rows = new ArrayList<>();
+    for (PartitionSample sample : samples) {
+      rows.addAll(sample.rows);
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the offsets each partition is read from, and how many of its records are read.
+   */
+  private List<PartitionSample> plan(Consumer<?, ?> consumer, List<TopicPartition> partitions) {
+    Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+    Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+
+    Map<TopicPartition, Long> starts = new HashMap<>();
+    if (start == Start.TIMESTAMP) {
+      Map<TopicPartition, Long> timestamps = new HashMap<>();
+      for (TopicPartition partition : partitions) {
+        timestamps.put(partition, timestamp);
+      }
+      Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(timestamps);
+      for (TopicPartition partition : partitions) {
+        // Partitions with no record at or after the timestamp have nothing to read.
+        OffsetAndTimestamp offset = offsets.get(partition);
+        starts.put(partition, offset == null ? end.get(partition) : offset.offset());
+      }
+    } else {
+      starts.putAll(beginning);
+    }
+
+    long[] available = new long[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      TopicPartition partition = partitions.get(i);
+      available[i] = Math.max(0L, end.get(partition) - starts.get(partition));
+    }
+    int[] quotas = allocate(available, lines);
+
+    List<PartitionSample> samples = new ArrayList<>();
+    for (int i = 0; i < partitions.size(); i++) {
+      TopicPartition partition = partitions.get(i);
+      long partitionEnd = end.get(partition);
+      // The last records are read up to the end, so there are no more records to give to the other partitions.
+      long partitionStart = start == Start.LATEST ? partitionEnd - quotas[i] : starts.get(partition);
+      samples.add(new PartitionSample(partition, partitionStart, partitionEnd, quotas[i]));
+    }
+    return samples;
+  }
+
+  /**
+   * Shares the lines evenly between the partitions, giving the share that a partition doesn't have the records
+   * for to the other partitions.
+   *
+   * @param available number of records available in each partition
+   * @param lines number of lines to share
+   * @return the number of lines read from each partition
+   */
+  static int[] allocate(long[] available, int lines) {
+    int[] quotas = new int[available.length];
+    int remaining = lines;
+    while (remaining > 0) {
+      int open = 0;
+      for (int i = 0; i < available.length; i++) {
+        if (available[i] > quotas[i]) {
+          open++;
+        }
+      }
+      if (open == 0) {
+        break;
+      }
+      int share = Math.max(1, remaining / open);
+      for (int i = 0; i < available.length && remaining > 0; i++) {
+        int give = (int) Math.min(share, Math.min(available[i] - quotas[i], remaining));
+        quotas[i] += give;
+        remaining -= give;
+      }
+    }
+    return quotas;
+  }
+
+  /**
+   * Gives the lines that partitions read to the end couldn't read, as some offsets don't have records, to the
+   * partitions that have records left.
+   */
+  private static void redistribute(List<PartitionSample> samples) {
+    int missing = 0;
+    for (PartitionSample sample : samples) {
+      if (sample.exhausted && sample.rows.size() < sample.quota) {
+        missing += sample.quota - sample.rows.size();
+        sample.quota = sample.rows.size();
+      }
+    }
+    while (missing > 0) {
+      boolean given = false;
+      for (PartitionSample sample : samples) {
+        if (missing > 0 && !sample.exhausted && sample.assigned && sample.end - sample.start > sample.quota) {
+          sample.quota++;
+          missing--;
+          given = true;
+        }
+      }
+      if (!given) {
+        break;
+      }
+    }
+  }
+
+  private static boolean isReading(List<PartitionSample> samples) {
+    for (PartitionSample sample : samples) {
+      if (sample.isReading()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The records read from a partition.
+   */
+  private static final class PartitionSample {
+    private final TopicPartition partition;
+    private final long start;
+    private final long end;
+    // Partitions that have no share of the lines are not read.
+    private final boolean assigned;
+    private final List<Row> rows = new ArrayList<>();
+    private int quota;
+    private long next;
+    private boolean exhausted;
+    private boolean skipped;
+
+    PartitionSample(TopicPartition partition, long start, long end, int quota) {
+      this.partition = partition;
+      this.start = start;
+      this.end = end;
+      this.assigned = quota > 0;
+      this.quota = quota;
+      this.next = start;
+      this.exhausted = start >= end;
+    }
+
+    boolean isReading() {
+      return !exhausted && rows.size() < quota;
+    }
+
+    void add(ConsumerRecord<?, ?> record) {
+      if (record.offset() >= end) {
+        exhausted = true;
+      }
+      if (record.offset() < next) {
+        return;
+      }
+      if (!isReading()) {
+        if (!exhausted) {
+          skipped = true;
+        }
+        return;
+      }
+      rows.add(new Row(COLUMN_NAME, record.value()));
+      next = record.offset() + 1;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.objectstore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
+
+/**
+ * Decodes the UTF-8 lines of a stream as it's read, without reading it all. Lines end with '\n', '\r' or "\r\n",
+ * the same as {@link java.io.BufferedReader#readLine()}.
+ *
+ * <p>A stream that starts or ends in the middle of a line, such as a range of an object, can have its first and
+ * last lines dropped.</p>
+ */
+final class LineReader implements Closeable {
+  private final InputStream input;
+  private final boolean dropLast;
+  private final byte[] buffer = new byte[8192];
+  private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+  private int position;
+  private int limit;
+  private boolean dropping;
+  private boolean afterCarriageReturn;
+
+  /**
+   * @param input the stream to read.
+   * @param dropFirst whether to drop the bytes up to the end of the first line.
+   * @param dropLast whether to drop the bytes after the end of the last line.
+   */
+  LineReader(InputStream input, boolean dropFirst, boolean dropLast) {
+    this.input = input;
+    this.dropping = dropFirst;
+    this.dropLast = dropLast;
+  }
+
+  /**
+   * @return the next line, without its terminator, or null at the end of the stream.
+   */
+  @Nullable
+  String readLine() throws IOException {
+    while (true) {
+      if (position == limit && !fill()) {
+        // The last line of the stream doesn't need a terminator.
+        String last = dropping || dropLast || line.size() == 0 ? null : decode();
+        line.reset();
+        return last;
+      }
+      if (afterCarriageReturn) {
+        afterCarriageReturn = false;
+        if (buffer[position] == '\n') {
+          position++;
+          continue;
+        }
+      }
+      int start = position;
+      while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+        position++;
+      }
+      if (!dropping) {
+        line.write(buffer, start, position - start);
+      }
+      if (position == limit) {
+        continue;
+      }
+      afterCarriageReturn = buffer[position++] == '\r';
+      if (dropping) {
+        dropping = false;
+        line.reset();
+        continue;
+      }
+      String result = decode();
+      line.reset();
+      return result;
+    }
+  }
+
+  private boolean fill() throws IOException {
+    int read = input.read(buffer);
+    position = 0;
+    limit = Math.max(read, 0);
+    return read > 0;
+  }
+
+  private String decode() {
+    return new String(line.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.objectstore;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.wrangler.SamplingMethod;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.sampling.Bernoulli;
+import io.cdap.wrangler.sampling.Poisson;
+import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.sampling.Reservoir.IntermediateSample;
+import io.cdap.wrangler.sampling.XORShiftRNG;
+import io.cdap.wrangler.utils.RowSerDe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Samples the lines of a {@link StoredObject} into the rows of a workspace, reading at most a fixed number of
+ * bytes of the object, whatever its size.
+ *
+ * <p>The lines are decoded as the object is read. The first, Poisson and Bernoulli samplers read the object from
+ * its start. The reservoir sampler reads all of the object if it's within the bytes allowed, and otherwise fetches
+ * ranges spread over the whole object in parallel, and samples the lines in them as they are read.</p>
+ */
+public final class ObjectSampler {
+  public static final String COLUMN_NAME = "body";
+  // Maximum number of bytes read from an object.
+  public static final long MAX_READ_SIZE = 64 * 1024 * 1024;
+  // Number of ranges fetched to sample large objects.
+  static final int RANGES = 16;
+  private static final int MAX_THREADS = 4;
+
+  private final SamplingMethod method;
+  private final int lines;
+  private final double fraction;
+  private final long maxBytes;
+  private final Random random;
+
+  /**
+   * @param method the sampling method.
+   * @param lines the number of lines sampled.
+   * @param fraction the fraction of lines sampled by the Poisson and Bernoulli samplers.
+   * @param maxBytes the maximum number of bytes read from an object.
+   */
+  public ObjectSampler(SamplingMethod method, int lines, double fraction, long maxBytes) {
+    this(method, lines, fraction, maxBytes, new XORShiftRNG());
+  }
+
+  ObjectSampler(SamplingMethod method, int lines, double fraction, long maxBytes, Random random) {
+    if (maxBytes < RANGES) {
+      throw new IllegalArgumentException("Maximum number of bytes read must be at least " + RANGES);
+    }
+    this.method = method;
+    this.lines = lines;
+    this.fraction = fraction;
+    this.maxBytes = maxBytes;
+    this.random = random;
+  }
+
+  /**
+   * Samples the lines of the object.
+   *
+   * @param object the object to sample.
+   * @return the sampled lines as rows with a single {@link #COLUMN_NAME} column, serialized with {@link RowSerDe}.
+   */
+  public byte[] sample(StoredObject object) throws IOException {
+    try (RowSerDe.Writer writer = new RowSerDe().writer()) {
+      if (method == SamplingMethod.RESERVOIR && object.getLength() > maxBytes) {
+        for (String line : sampleRanges(object)) {
+          writer.add(new Row(COLUMN_NAME, line));
+        }
+        return writer.toByteArray();
+      }
+
+      long length = Math.min(object.getLength(), maxBytes);
+      // The last line is incomplete when the object is read partially.
+      try (LineReader reader = new LineReader(object.open(0, length), false, length < object.getLength())) {
+        // The reservoir sampler reads all the lines, the others read as many lines as they sample from.
+        LineIterator lineIterator = new LineIterator(reader, method == SamplingMethod.RESERVOIR
+          ? Integer.MAX_VALUE : lines);
+        Iterator<String> it = lineIterator;
+        if (method == SamplingMethod.POISSON) {
+          it = new Poisson<String>(fraction).sample(lineIterator);
+        } else if (method == SamplingMethod.BERNOULLI) {
+          it = new Bernoulli<String>(fraction).sample(lineIterator);
+        } else if (method == SamplingMethod.RESERVOIR) {
+          it = new Reservoir<String>(lines, random).sample(lineIterator);
+        }
+        while (it.hasNext()) {
+          writer.add(new Row(COLUMN_NAME, it.next()));
+        }
+        return writer.toByteArray();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  /**
+   * Samples the lines of ranges spread over the object. The object is split into {@link #RANGES} parts of the same
+   * size, and a range at a random position is fetched in each part, so that the bytes fetched add up to the
+   * maximum allowed. The lines of each range are streamed into a reservoir of its own, and the reservoirs are merged
+   * by keeping the lines with the top weights, so that at most {@code lines} lines of each range are held.
+   */
+  private List<String> sampleRanges(StoredObject object) throws IOException {
+    long length = object.getLength();
+    long part = length / RANGES;
+    long size = maxBytes / RANGES;
+    ExecutorService pool = Executors.newFixedThreadPool(
+      MAX_THREADS, new ThreadFactoryBuilder().setNameFormat("object-sampler-%d").setDaemon(true).build());
+    try {
+      List<Future<List<IntermediateSample<String>>>> futures = new ArrayList<>(RANGES);
+      for (int i = 0; i < RANGES; i++) {
+        long start = i * part + (long) (random.nextDouble() * (part - size + 1));
+        // Each range is sampled with a generator of its own, as they are sampled concurrently.
+        Reservoir<String> reservoir = new Reservoir<>(lines, random.nextLong());
+        futures.add(pool.submit(() -> sampleRange(object, start, size, reservoir)));
+      }
+      List<IntermediateSample<String>> samples = new ArrayList<>();
+      for (Future<List<IntermediateSample<String>>> future : futures) {
+        samples.addAll(future.get());
+      }
+      samples.sort(Comparator.comparingDouble(IntermediateSample<String>::getWeight).reversed());
+      List<String> sampled = new ArrayList<>(Math.min(lines, samples.size()));
+      for (IntermediateSample<String> sample : samples.subList(0, Math.min(lines, samples.size()))) {
+        sampled.add(sample.getElement());
+      }
+      return sampled;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading the object");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * @return the complete lines of the range sampled by the reservoir, along with their weights.
+   */
+  private static List<IntermediateSample<String>> sampleRange(StoredObject object, long start, long size,
+                                                              Reservoir<String> reservoir) throws IOException {
+    // The byte before the range is read too, so that a line starting at the range isn't dropped as incomplete.
+    long position = Math.max(start - 1, 0);
+    long end = Math.min(start + size, object.getLength());
+    List<IntermediateSample<String>> samples = new ArrayList<>();
+    try (LineReader reader = new LineReader(object.open(position, end - position), start > 0,
+                                            end < object.getLength())) {
+      Iterator<IntermediateSample<String>> it =
+        reservoir.sampleWithWeights(new LineIterator(reader, Integer.MAX_VALUE));
+      while (it.hasNext()) {
+        samples.add(it.next());
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return samples;
+  }
+
+  /**
+   * Reads the start of the object.
+   *
+   * @param object the object to read.
+   * @param maxBytes the maximum number of bytes read.
+   * @return the first {@code maxBytes} bytes of the object, or all of it if it's smaller.
+   */
+  public static byte[] read(StoredObject object, int maxBytes) throws IOException {
+    byte[] bytes = new byte[(int) Math.min(object.getLength(), maxBytes)];
+    try (InputStream input = object.open(0, bytes.length)) {
+      ByteStreams.readFully(input, bytes);
+    }
+    return bytes;
+  }
+
+  /**
+   * Iterates over at most a number of lines of a {@link LineReader}, for the samplers.
+   */
+  private static final class LineIterator implements Iterator<String> {
+    private final LineReader reader;
+    private int remaining;
+    private String next;
+
+    LineIterator(LineReader reader, int lines) {
+      this.reader = reader;
+      this.remaining = lines;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && remaining > 0) {
+        try {
+          next = reader.readLine();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public String next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more lines");
+      }
+      String line = next;
+      next = null;
+      remaining--;
+      return line;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.objectstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An object in an object store, such as GCS, S3 or ADLS, that can be read by ranges of bytes.
+ */
+public interface StoredObject {
+
+  /**
+   * @return the size of the object in bytes.
+   */
+  long getLength();
+
+  /**
+   * Opens a range of the object, fetching only the bytes in the range from the store.
+   *
+   * @param position the position of the first byte of the range.
+   * @param length the number of bytes in the range, which must not go past the end of the object.
+   * @return the bytes of the range, as a stream that must be closed.
+   */
+  InputStream open(long position, long length) throws IOException;
+}
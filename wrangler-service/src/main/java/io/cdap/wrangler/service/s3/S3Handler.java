@@ -22,12 +22,10 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
-import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
-import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import io.cdap.cdap.api.annotation.TransactionControl;
@@ -39,7 +37,6 @@ import io.cdap.cdap.spi.data.transaction.TransactionRunners;
 import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
 import io.cdap.wrangler.SamplingMethod;
-import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.connections.ConnectionStore;
 import io.cdap.wrangler.dataset.workspace.DataType;
 import io.cdap.wrangler.dataset.workspace.WorkspaceDataset;
@@ -55,22 +52,17 @@ import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.s3.S3ConnectionSample;
 import io.cdap.wrangler.proto.s3.S3ObjectInfo;
 import io.cdap.wrangler.proto.s3.S3Spec;
-import io.cdap.wrangler.sampling.Bernoulli;
-import io.cdap.wrangler.sampling.Poisson;
-import io.cdap.wrangler.sampling.Reservoir;
 import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
-import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
+import io.cdap.wrangler.service.connections.ClientCache;
 import io.cdap.wrangler.service.macro.ServiceMacroEvaluator;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.service.objectstore.ObjectSampler;
+import io.cdap.wrangler.service.objectstore.StoredObject;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.DefaultValue;
@@ -84,7 +76,6 @@ import javax.ws.rs.QueryParam;
  * Service to explore S3 filesystem.
  */
 public class S3Handler extends AbstractWranglerHandler {
-  private static final String COLUMN_NAME = "body";
   private static final int FILE_SIZE = 10 * 1024 * 1024;
   private static final List<String> MACRO_FIELDS = ImmutableList.of("accessKeyId", "accessSecretKey");
   private static final FileTypeDetector detector = new FileTypeDetector();
@@ -100,7 +91,9 @@ public class S3Handler extends AbstractWranglerHandler {
       RequestExtractor extractor = new RequestExtractor(request);
       ConnectionMeta connection = extractor.getConnectionMeta(ConnectionType.S3);
       // creating a client doesn't test the connection, we will do list buckets so the connection is tested.
-      initializeAndGetS3Client(connection, namespace, getContext()).listBuckets();
+      try (ClientCache.Lease<AmazonS3> lease = leaseS3Client(connection, namespace)) {
+        lease.get().listBuckets();
+      }
       return new ServiceResponse<Void>("Success");
     });
   }
@@ -117,6 +110,13 @@ public class S3Handler extends AbstractWranglerHandler {
     return s3;
   }
 
+  // leases the s3 client of the connection, which is shared by the requests if the connection is saved
+  private ClientCache.Lease<AmazonS3> leaseS3Client(ConnectionMeta connection, String namespace) throws IOException {
+    return ClientCache.getInstance().lease(connection, AmazonS3.class,
+                                           () -> initializeAndGetS3Client(connection, namespace, getContext()),
+                                           AmazonS3::shutdown);
+  }
+
   /**
    * Lists S3 bucket's contents for the given prefix path.
    * @param request HTTP Request handler.
@@ -147,45 +147,47 @@ public class S3Handler extends AbstractWranglerHandler {
           }
         }
 
-        AmazonS3 s3 = initializeAndGetS3Client(connection, namespace, getContext());
-        if (bucketName.isEmpty() && prefix == null) {
-          List<Bucket> buckets = s3.listBuckets();
-          List<S3ObjectInfo> bucketInfo = new ArrayList<>(buckets.size());
-          for (Bucket bucket : buckets) {
-            bucketInfo.add(fromBucket(bucket));
+        try (ClientCache.Lease<AmazonS3> lease = leaseS3Client(connection, namespace)) {
+          AmazonS3 s3 = lease.get();
+          if (bucketName.isEmpty() && prefix == null) {
+            List<Bucket> buckets = s3.listBuckets();
+            List<S3ObjectInfo> bucketInfo = new ArrayList<>(buckets.size());
+            for (Bucket bucket : buckets) {
+              bucketInfo.add(fromBucket(bucket));
+            }
+            return new ServiceResponse<>(bucketInfo);
           }
-          return new ServiceResponse<>(bucketInfo);
-        }
 
-        ListObjectsRequest listObjectsRequest = new ListObjectsRequest();
-        listObjectsRequest.setBucketName(bucketName);
-        if (prefix != null) {
-          listObjectsRequest.setPrefix(prefix);
-        }
-        listObjectsRequest.setDelimiter("/");
-        ObjectListing result;
-        List<S3ObjectInfo> objects = new ArrayList<>();
-        // TODO: Remove this once CDAP-14446 is fixed.
-        boolean limitExceeded = false;
-        do {
-          if (objects.size() >= bucketLimit) {
-            limitExceeded = true;
-            break;
+          ListObjectsRequest listObjectsRequest = new ListObjectsRequest();
+          listObjectsRequest.setBucketName(bucketName);
+          if (prefix != null) {
+            listObjectsRequest.setPrefix(prefix);
           }
-          result = s3.listObjects(listObjectsRequest);
-          for (String dir : result.getCommonPrefixes()) {
-            if (dir.equalsIgnoreCase("/")) {
-              continue;
+          listObjectsRequest.setDelimiter("/");
+          ObjectListing result;
+          List<S3ObjectInfo> objects = new ArrayList<>();
+          // TODO: Remove this once CDAP-14446 is fixed.
+          boolean limitExceeded = false;
+          do {
+            if (objects.size() >= bucketLimit) {
+              limitExceeded = true;
+              break;
             }
-            objects.add(fromDir(dir));
-          }
-          for (S3ObjectSummary summary : result.getObjectSummaries()) {
-            objects.add(fromObject(summary, detector));
-          }
-          listObjectsRequest.setMarker(result.getMarker());
-        } while (result.isTruncated());
+            result = s3.listObjects(listObjectsRequest);
+            for (String dir : result.getCommonPrefixes()) {
+              if (dir.equalsIgnoreCase("/")) {
+                continue;
+              }
+              objects.add(fromDir(dir));
+            }
+            for (S3ObjectSummary summary : result.getObjectSummaries()) {
+              objects.add(fromObject(summary, detector));
+            }
+            listObjectsRequest.setMarker(result.getMarker());
+          } while (result.isTruncated());
 
-        return new ServiceResponse<>(objects, limitExceeded);
+          return new ServiceResponse<>(objects, limitExceeded);
+        }
       } catch (AmazonS3Exception e) {
         throw new StatusCodeException(e.getMessage(), e, e.getStatusCode());
       }
@@ -215,19 +217,16 @@ public class S3Handler extends AbstractWranglerHandler {
         String header = request.getHeader(PropertyIds.CONTENT_TYPE);
         NamespacedId namespacedConnId = new NamespacedId(ns, connectionId);
         Connection connection = getValidatedConnection(namespacedConnId, ConnectionType.S3);
-        AmazonS3 s3 = initializeAndGetS3Client(connection, namespace, getContext());
-        S3Object object = s3.getObject(new GetObjectRequest(bucketName, key));
-        if (object == null) {
-          throw new BadRequestException(
-            String.format("S3 Object with key %s and bucket-name %s is not found", key, bucketName));
-        }
+        try (ClientCache.Lease<AmazonS3> lease = leaseS3Client(connection, namespace)) {
+          AmazonS3 s3 = lease.get();
+          ObjectMetadata metadata = s3.getObjectMetadata(bucketName, key);
+          StoredObject object = new S3StoredObject(s3, bucketName, key, metadata.getContentLength());
 
-        try (InputStream inputStream = object.getObjectContent()) {
           S3ConnectionSample sample;
           if (header != null && header.equalsIgnoreCase("text/plain")) {
-            sample = loadSamplableFile(namespacedConnId, scope, inputStream, object, lines, fraction, sampler);
+            sample = loadSamplableFile(namespacedConnId, scope, bucketName, key, object, lines, fraction, sampler);
           } else {
-            sample = loadFile(namespacedConnId, scope, inputStream, object);
+            sample = loadFile(namespacedConnId, scope, bucketName, key, object);
           }
           return new ServiceResponse<>(sample);
         }
@@ -278,8 +277,8 @@ public class S3Handler extends AbstractWranglerHandler {
     }));
   }
 
-  private S3ConnectionSample loadSamplableFile(NamespacedId connectionId, String scope, InputStream inputStream,
-                                               S3Object s3Object, int lines, double fraction,
+  private S3ConnectionSample loadSamplableFile(NamespacedId connectionId, String scope, String bucketName,
+                                               String key, StoredObject object, int lines, double fraction,
                                                String sampler) throws IOException {
     SamplingMethod samplingMethod;
     if (sampler == null || sampler.isEmpty() || SamplingMethod.fromString(sampler) == null) {
@@ -288,68 +287,45 @@ public class S3Handler extends AbstractWranglerHandler {
       samplingMethod = SamplingMethod.fromString(sampler);
     }
 
-    try (BoundedLineInputStream blis = BoundedLineInputStream.iterator(inputStream, Charsets.UTF_8, lines)) {
-      String name = s3Object.getKey();
+    String fileName = key.substring(key.lastIndexOf("/") + 1);
+    Map<String, String> properties = new HashMap<>();
+    properties.put(PropertyIds.NAME, fileName);
+    properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.S3.getType());
+    properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
+    properties.put(PropertyIds.CONNECTION_ID, connectionId.getId());
+    properties.put("bucket-name", bucketName);
+    properties.put("key", key);
+    WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(fileName)
+      .setScope(scope)
+      .setProperties(properties)
+      .build();
 
-      String fileName = name.substring(name.lastIndexOf("/") + 1);
-      Map<String, String> properties = new HashMap<>();
-      properties.put(PropertyIds.NAME, fileName);
-      properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.S3.getType());
-      properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
-      properties.put(PropertyIds.CONNECTION_ID, connectionId.getId());
-      properties.put("bucket-name", s3Object.getBucketName());
-      properties.put("key", s3Object.getKey());
-      WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(fileName)
-        .setScope(scope)
-        .setProperties(properties)
-        .build();
-      String sampleId = TransactionRunners.run(getContext(), context -> {
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        NamespacedId workspaceId = ws.createWorkspace(connectionId.getNamespace(), workspaceMeta);
-
-        // Iterate through lines to extract only 'limit' random lines.
-        // Depending on the type, the sampling of the input is performed.
-        List<Row> rows = new ArrayList<>();
-        Iterator<String> it = blis;
-        if (samplingMethod == SamplingMethod.POISSON) {
-          it = new Poisson<String>(fraction).sample(blis);
-        } else if (samplingMethod == SamplingMethod.BERNOULLI) {
-          it = new Bernoulli<String>(fraction).sample(blis);
-        } else if (samplingMethod == SamplingMethod.RESERVOIR) {
-          it = new Reservoir<String>(lines).sample(blis);
-        }
-        while (it.hasNext()) {
-          rows.add(new Row(COLUMN_NAME, it.next()));
-        }
+    // Depending on the type, the sampling of the input is performed. The object is sampled before the transaction,
+    // so that the transaction isn't kept open while it's fetched.
+    byte[] data = new ObjectSampler(samplingMethod, lines, fraction, ObjectSampler.MAX_READ_SIZE).sample(object);
+    String sampleId = TransactionRunners.run(getContext(), context -> {
+      WorkspaceDataset ws = WorkspaceDataset.get(context);
+      NamespacedId workspaceId = ws.createWorkspace(connectionId.getNamespace(), workspaceMeta);
+      ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
+      return workspaceId.getId();
+    });
 
-        // Write rows to workspace.
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(rows);
-        ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
-        return workspaceId.getId();
-      });
-
-      // Preparing return response to include mandatory fields : id and name.
-      return new S3ConnectionSample(sampleId, name, ConnectionType.S3.getType(),
-                                    samplingMethod.getMethod(), connectionId.getId(),
-                                    s3Object.getBucketName(), s3Object.getKey());
-    }
+    // Preparing return response to include mandatory fields : id and name.
+    return new S3ConnectionSample(sampleId, key, ConnectionType.S3.getType(),
+                                  samplingMethod.getMethod(), connectionId.getId(), bucketName, key);
   }
 
-  private S3ConnectionSample loadFile(NamespacedId connectionId, String scope,
-                                      InputStream inputStream, S3Object s3Object) throws IOException {
-    if (s3Object.getObjectMetadata().getContentLength() > FILE_SIZE) {
+  private S3ConnectionSample loadFile(NamespacedId connectionId, String scope, String bucketName, String key,
+                                      StoredObject object) throws IOException {
+    if (object.getLength() > FILE_SIZE) {
       throw new BadRequestException("Files greater than 10MB are not supported.");
     }
 
     // Creates workspace.
-    String name = s3Object.getKey();
+    String name = key;
     String fileName = name.substring(name.lastIndexOf("/") + 1);
 
-    byte[] bytes = new byte[(int) s3Object.getObjectMetadata().getContentLength() + 1];
-    try (BufferedInputStream stream = new BufferedInputStream(inputStream)) {
-      stream.read(bytes);
-    }
+    byte[] bytes = ObjectSampler.read(object, FILE_SIZE);
 
     Map<String, String> properties = new HashMap<>();
     properties.put(PropertyIds.NAME, fileName);
@@ -361,8 +337,8 @@ public class S3Handler extends AbstractWranglerHandler {
     properties.put(PropertyIds.FORMAT, format.name());
 
     // S3 specific properties.
-    properties.put("bucket-name", s3Object.getBucketName());
-    properties.put("key", s3Object.getKey());
+    properties.put("bucket-name", bucketName);
+    properties.put("key", key);
     WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(fileName)
       .setScope(scope)
       .setProperties(properties)
@@ -376,8 +352,7 @@ public class S3Handler extends AbstractWranglerHandler {
 
     // Preparing return response to include mandatory fields : id and name.
     return new S3ConnectionSample(sampleId, name, ConnectionType.S3.getType(),
-                                  SamplingMethod.NONE.getMethod(), connectionId.getId(),
-                                  s3Object.getBucketName(), s3Object.getKey());
+                                  SamplingMethod.NONE.getMethod(), connectionId.getId(), bucketName, key);
   }
 
   /**
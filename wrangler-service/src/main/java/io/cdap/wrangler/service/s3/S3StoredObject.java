@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import io.cdap.wrangler.service.objectstore.StoredObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * An S3 object, read by ranges with ranged GET requests.
+ */
+final class S3StoredObject implements StoredObject {
+  private final AmazonS3 s3;
+  private final String bucketName;
+  private final String key;
+  private final long length;
+
+  S3StoredObject(AmazonS3 s3, String bucketName, String key, long length) {
+    this.s3 = s3;
+    this.bucketName = bucketName;
+    this.key = key;
+    this.length = length;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public InputStream open(long position, long length) {
+    if (length == 0) {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+    // The end of the range is inclusive.
+    GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(position, position + length - 1);
+    return s3.getObject(request).getObjectContent();
+  }
+}
@@ -52,9 +52,11 @@ import io.cdap.wrangler.proto.spanner.SpannerDatabase;
 import io.cdap.wrangler.proto.spanner.SpannerSpec;
 import io.cdap.wrangler.proto.spanner.SpannerTable;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
+import io.cdap.wrangler.service.connections.ClientCache;
 import io.cdap.wrangler.service.gcp.GCPUtils;
-import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.RowSerDe;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -203,7 +205,7 @@ public class SpannerHandler extends AbstractWranglerHandler {
         NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
 
         // write data to workspace
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
+        RowSerDe serDe = new RowSerDe();
         byte[] dataBytes = serDe.toByteArray(data);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, dataBytes);
         return workspaceId.getId();
@@ -245,8 +247,8 @@ public class SpannerHandler extends AbstractWranglerHandler {
 
   private Schema getTableSchema(Connection connection,
                                 String instanceId, String databaseId, String tableId) throws Exception {
-    Spanner spanner = GCPUtils.getSpannerService(connection);
-    try {
+    try (ClientCache.Lease<Spanner> lease = leaseSpanner(connection)) {
+      Spanner spanner = lease.get();
       String projectId = spanner.getOptions().getProjectId();
       Statement getTableSchemaStatement = SCHEMA_STATEMENT_BUILDER.bind(TABLE_NAME).to(tableId).build();
       try (ResultSet resultSet = spanner.getDatabaseClient(DatabaseId.of(projectId, instanceId, databaseId)).
@@ -263,8 +265,6 @@ public class SpannerHandler extends AbstractWranglerHandler {
         }
         return Schema.recordOf("tableSchema", schemaFields);
       }
-    } finally {
-      spanner.close();
     }
   }
 
@@ -298,8 +298,8 @@ public class SpannerHandler extends AbstractWranglerHandler {
    */
   private List<Row> getTableData(Connection connection, String instanceId,
                                  String databaseId, String tableId, Schema schema, long limit) throws Exception {
-    Spanner spanner = GCPUtils.getSpannerService(connection);
-    try {
+    try (ClientCache.Lease<Spanner> lease = leaseSpanner(connection)) {
+      Spanner spanner = lease.get();
       String projectId = spanner.getOptions().getProjectId();
       List<String> columnNames = schema.getFields().stream().map(Schema.Field::getName).collect(Collectors.toList());
       List<Row> resultRows = new ArrayList<>();
@@ -310,8 +310,6 @@ public class SpannerHandler extends AbstractWranglerHandler {
         }
       }
       return resultRows;
-    } finally {
-      spanner.close();
     }
   }
 
@@ -362,32 +360,28 @@ public class SpannerHandler extends AbstractWranglerHandler {
   }
 
   private List<SpannerInstance> getInstances(ConnectionMeta connection) throws Exception {
-    Spanner spanner = GCPUtils.getSpannerService(connection);
-    try {
+    try (ClientCache.Lease<Spanner> lease = leaseSpanner(connection)) {
+      Spanner spanner = lease.get();
       List<SpannerInstance> instanceNames = new ArrayList<>();
       spanner.getInstanceAdminClient().listInstances().iterateAll().iterator()
         .forEachRemaining(e -> instanceNames.add(new SpannerInstance(e.getId().getInstance())));
       return instanceNames;
-    } finally {
-      spanner.close();
     }
   }
 
   private List<SpannerDatabase> getDatabases(ConnectionMeta connection, String instanceId) throws Exception {
-    Spanner spanner = GCPUtils.getSpannerService(connection);
-    try {
+    try (ClientCache.Lease<Spanner> lease = leaseSpanner(connection)) {
+      Spanner spanner = lease.get();
       List<SpannerDatabase> databases = new ArrayList<>();
       spanner.getDatabaseAdminClient().listDatabases(instanceId).iterateAll().iterator()
         .forEachRemaining(e -> databases.add(new SpannerDatabase(e.getId().getDatabase())));
       return databases;
-    } finally {
-      spanner.close();
     }
   }
 
   private List<SpannerTable> getTables(Connection connection, String instanceId, String databaseId) throws Exception {
-    Spanner spanner = GCPUtils.getSpannerService(connection);
-    try {
+    try (ClientCache.Lease<Spanner> lease = leaseSpanner(connection)) {
+      Spanner spanner = lease.get();
       List<SpannerTable> tables = new ArrayList<>();
       String projectId = spanner.getOptions().getProjectId();
       try (ResultSet resultSet = spanner.getDatabaseClient(DatabaseId.of(projectId, instanceId, databaseId)).
@@ -397,8 +391,14 @@ public class SpannerHandler extends AbstractWranglerHandler {
         }
         return tables;
       }
-    } finally {
-      spanner.close();
     }
   }
+
+  /**
+   * Leases the {@link Spanner} client for the connection, which is shared by the requests if the connection is saved.
+   */
+  private static ClientCache.Lease<Spanner> leaseSpanner(ConnectionMeta connection) throws IOException {
+    return ClientCache.getInstance().lease(connection, Spanner.class, () -> GCPUtils.getSpannerService(connection),
+                                           Spanner::close);
+  }
 }
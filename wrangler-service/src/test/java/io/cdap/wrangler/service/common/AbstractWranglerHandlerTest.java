@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.common;
+
+import io.cdap.cdap.api.service.http.HttpContentConsumer;
+import io.cdap.cdap.api.service.http.HttpServiceRequest;
+import io.cdap.cdap.api.service.http.HttpServiceResponder;
+import io.cdap.wrangler.proto.Contexts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests {@link AbstractWranglerHandler}.
+ */
+public class AbstractWranglerHandlerTest {
+
+  @Test
+  public void testConsumerReleasedOnError() throws Exception {
+    AtomicReference<Throwable> released = new AtomicReference<>();
+    AtomicBoolean finished = new AtomicBoolean();
+    HttpServiceRequest request = proxy(HttpServiceRequest.class, new ArrayList<>());
+    List<Object[]> responses = new ArrayList<>();
+    HttpServiceResponder responder = proxy(HttpServiceResponder.class, responses);
+
+    HttpContentConsumer consumer = new AbstractWranglerHandler().consume(
+      request, responder, Contexts.SYSTEM, ns -> new AbstractWranglerHandler.ContentConsumer<String>() {
+        @Override
+        public void onReceived(ByteBuffer chunk) throws IOException {
+          throw new IOException("Chunk can't be consumed.");
+        }
+
+        @Override
+        public String onFinish() {
+          finished.set(true);
+          return "finished";
+        }
+
+        @Override
+        public void onError(Throwable failureCause) {
+          released.set(failureCause);
+        }
+      });
+    Assert.assertNotNull(consumer);
+
+    // The framework calls onError with the failure of onReceived, instead of onFinish.
+    IOException failure = null;
+    try {
+      consumer.onReceived(ByteBuffer.wrap("data".getBytes(StandardCharsets.UTF_8)), null);
+      Assert.fail("Expected the chunk to fail.");
+    } catch (IOException e) {
+      failure = e;
+    }
+    consumer.onError(responder, failure);
+
+    Assert.assertSame(failure, released.get());
+    Assert.assertFalse(finished.get());
+    Assert.assertEquals(1, responses.size());
+    Assert.assertEquals(HttpURLConnection.HTTP_INTERNAL_ERROR, responses.get(0)[0]);
+  }
+
+  /**
+   * Creates an instance of the interface that records the arguments of the calls that return nothing.
+   */
+  private static <T> T proxy(Class<T> type, List<Object[]> calls) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+      if (method.getReturnType() == void.class) {
+        calls.add(args);
+      }
+      return null;
+    }));
+  }
+}
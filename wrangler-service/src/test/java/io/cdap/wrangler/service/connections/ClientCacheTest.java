@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.connections;
+
+import com.google.common.base.Ticker;
+import io.cdap.wrangler.proto.Namespace;
+import io.cdap.wrangler.proto.NamespacedId;
+import io.cdap.wrangler.proto.connection.Connection;
+import io.cdap.wrangler.proto.connection.ConnectionMeta;
+import io.cdap.wrangler.proto.connection.ConnectionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests {@link ClientCache}.
+ */
+public class ClientCacheTest {
+  private static final NamespacedId ID = new NamespacedId(new Namespace("default", 0L), "conn");
+
+  @Test
+  public void testClientsAreShared() throws Exception {
+    ClientCache cache = new ClientCache(10, 10, TimeUnit.MINUTES, Ticker.systemTicker());
+    AtomicInteger created = new AtomicInteger();
+    Connection connection = connection(ID, Collections.singletonMap("projectId", "a"));
+
+    TestClient first = cache.get(connection, TestClient.class, () -> new TestClient(created));
+    TestClient second = cache.get(connection(ID, Collections.singletonMap("projectId", "a")), TestClient.class,
+                                  () -> new TestClient(created));
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, created.get());
+    Assert.assertEquals(1, cache.getStats().hitCount());
+
+    // A connection with other properties gets its own client.
+    TestClient changed = cache.get(connection(ID, Collections.singletonMap("projectId", "b")), TestClient.class,
+                                   () -> new TestClient(created));
+    Assert.assertNotSame(first, changed);
+    Assert.assertEquals(2, created.get());
+  }
+
+  @Test
+  public void testUnsavedConnectionsAreNotCached() throws Exception {
+    ClientCache cache = new ClientCache(10, 10, TimeUnit.MINUTES, Ticker.systemTicker());
+    AtomicInteger created = new AtomicInteger();
+    ConnectionMeta meta = ConnectionMeta.builder()
+      .setName("test")
+      .setType(ConnectionType.GCS)
+      .setProperties(Collections.emptyMap())
+      .build();
+
+    TestClient client;
+    try (ClientCache.Lease<TestClient> lease = cache.lease(meta, TestClient.class, () -> new TestClient(created))) {
+      client = lease.get();
+      Assert.assertFalse(client.closed);
+    }
+    Assert.assertTrue(client.closed);
+    cache.get(meta, TestClient.class, () -> new TestClient(created));
+    Assert.assertEquals(2, created.get());
+    Assert.assertEquals(0, cache.getStats().requestCount());
+  }
+
+  @Test
+  public void testInvalidateClosesAfterRelease() throws Exception {
+    ClientCache cache = new ClientCache(10, 10, TimeUnit.MINUTES, Ticker.systemTicker());
+    AtomicInteger created = new AtomicInteger();
+    Connection connection = connection(ID, Collections.emptyMap());
+    Connection other = connection(new NamespacedId(new Namespace("default", 0L), "other"), Collections.emptyMap());
+
+    ClientCache.Lease<TestClient> lease = cache.lease(connection, TestClient.class, () -> new TestClient(created));
+    TestClient otherClient;
+    try (ClientCache.Lease<TestClient> otherLease = cache.lease(other, TestClient.class,
+                                                                () -> new TestClient(created))) {
+      otherClient = otherLease.get();
+    }
+
+    cache.invalidate(ID);
+    // The client is still in use, so it's closed once the lease is.
+    Assert.assertFalse(lease.get().closed);
+    lease.close();
+    Assert.assertTrue(lease.get().closed);
+    // Closing the lease again has no effect.
+    lease.close();
+
+    // The clients of other connections are kept.
+    Assert.assertFalse(otherClient.closed);
+    try (ClientCache.Lease<TestClient> otherLease = cache.lease(other, TestClient.class,
+                                                                () -> new TestClient(created))) {
+      Assert.assertSame(otherClient, otherLease.get());
+    }
+
+    // A new client is created for the invalidated connection.
+    try (ClientCache.Lease<TestClient> newLease = cache.lease(connection, TestClient.class,
+                                                              () -> new TestClient(created))) {
+      Assert.assertNotSame(lease.get(), newLease.get());
+      Assert.assertFalse(newLease.get().closed);
+    }
+    Assert.assertEquals(3, created.get());
+  }
+
+  @Test
+  public void testIdleClientsAreEvicted() throws Exception {
+    AtomicLong nanos = new AtomicLong();
+    Ticker ticker = new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    };
+    ClientCache cache = new ClientCache(10, 1, TimeUnit.MINUTES, ticker);
+    AtomicInteger created = new AtomicInteger();
+    Connection connection = connection(ID, Collections.emptyMap());
+
+    TestClient client;
+    try (ClientCache.Lease<TestClient> lease = cache.lease(connection, TestClient.class,
+                                                           () -> new TestClient(created))) {
+      client = lease.get();
+    }
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    try (ClientCache.Lease<TestClient> lease = cache.lease(connection, TestClient.class,
+                                                           () -> new TestClient(created))) {
+      Assert.assertSame(client, lease.get());
+    }
+
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    try (ClientCache.Lease<TestClient> lease = cache.lease(connection, TestClient.class,
+                                                           () -> new TestClient(created))) {
+      Assert.assertNotSame(client, lease.get());
+    }
+    Assert.assertTrue(client.closed);
+    Assert.assertEquals(2, created.get());
+  }
+
+  @Test
+  public void testCleanUpClosesIdleClients() throws Exception {
+    AtomicLong nanos = new AtomicLong();
+    Ticker ticker = new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    };
+    ClientCache cache = new ClientCache(10, 1, TimeUnit.MINUTES, ticker);
+    TestClient client;
+    try (ClientCache.Lease<TestClient> lease = cache.lease(connection(ID, Collections.emptyMap()), TestClient.class,
+                                                           () -> new TestClient(new AtomicInteger()))) {
+      client = lease.get();
+    }
+
+    // The idle client is closed without accessing the cache.
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    Assert.assertFalse(client.closed);
+    cache.cleanUp();
+    Assert.assertTrue(client.closed);
+    cache.invalidateAll();
+  }
+
+  @Test
+  public void testLastReleaseClosesClients() throws Exception {
+    ClientCache cache = new ClientCache(10, 10, TimeUnit.MINUTES, Ticker.systemTicker());
+    cache.retain();
+    cache.retain();
+    TestClient client;
+    try (ClientCache.Lease<TestClient> lease = cache.lease(connection(ID, Collections.emptyMap()), TestClient.class,
+                                                           () -> new TestClient(new AtomicInteger()))) {
+      client = lease.get();
+    }
+
+    // The client stays cached while any of the users is left.
+    cache.release();
+    Assert.assertFalse(client.closed);
+    cache.release();
+    Assert.assertTrue(client.closed);
+  }
+
+  @Test
+  public void testLoaderFailures() throws Exception {
+    ClientCache cache = new ClientCache(10, 10, TimeUnit.MINUTES, Ticker.systemTicker());
+    Connection connection = connection(ID, Collections.emptyMap());
+    try {
+      cache.get(connection, TestClient.class, () -> {
+        throw new IllegalArgumentException("invalid");
+      });
+      Assert.fail("Client should not be created");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("invalid", e.getMessage());
+    }
+    // Failures are not cached.
+    TestClient client = cache.get(connection, TestClient.class, () -> new TestClient(new AtomicInteger()));
+    Assert.assertNotNull(client);
+  }
+
+  private static Connection connection(NamespacedId id, Map<String, String> properties) {
+    return new Connection(id, ConnectionType.GCS, id.getId(), "", 0L, 0L, properties);
+  }
+
+  private static final class TestClient implements AutoCloseable {
+    private boolean closed;
+
+    TestClient(AtomicInteger created) {
+      created.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -19,7 +19,10 @@ package io.cdap.wrangler.service.database;
 import com.google.common.base.Throwables;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import io.cdap.wrangler.SamplingMethod;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.BadRequestException;
+import io.cdap.wrangler.utils.RowSerDe;
 import org.hsqldb.Server;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -140,6 +143,33 @@ public class DatabaseHandlerTest {
     }
   }
 
+  @Test
+  public void testReadTable() throws Exception {
+    RowSerDe serDe = new RowSerDe();
+    try (Connection conn = getConnection()) {
+      DatabaseHandler.TableRows read = DatabaseHandler.readTable(conn, "\"my_table\"", 1, SamplingMethod.FIRST);
+      Assert.assertEquals(SamplingMethod.FIRST, read.getSamplingMethod());
+      List<Row> rows = serDe.toRows(read.getData());
+      Assert.assertEquals(1, rows.size());
+      Assert.assertEquals(1, rows.get(0).getValue("ID"));
+      Assert.assertEquals("alice", rows.get(0).getValue("NAME"));
+
+      rows = serDe.toRows(DatabaseHandler.readTable(conn, "\"my_table\"", 10, SamplingMethod.FIRST).getData());
+      Assert.assertEquals(2, rows.size());
+      Assert.assertEquals("bob", rows.get(1).getValue("NAME"));
+
+      rows = serDe.toRows(DatabaseHandler.readTable(conn, "\"my_table\"", 0, SamplingMethod.FIRST).getData());
+      Assert.assertTrue(rows.isEmpty());
+
+      try {
+        DatabaseHandler.readTable(conn, "\"my_table\"", 1, SamplingMethod.BERNOULLI);
+        Assert.fail("HSQLDB can't sample rows at random");
+      } catch (BadRequestException e) {
+        // expected
+      }
+    }
+  }
+
   private static void createTestUser(Connection conn) throws SQLException {
     try (Statement stmt = conn.createStatement()) {
       stmt.execute("CREATE USER \"emptyPwdUser\" PASSWORD '' ADMIN");
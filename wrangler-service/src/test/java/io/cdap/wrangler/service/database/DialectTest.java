@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link Dialect}.
+ */
+public class DialectTest {
+
+  @Test
+  public void testDialectOfProduct() {
+    Assert.assertEquals(Dialect.POSTGRESQL, Dialect.of("postgresql"));
+    Assert.assertEquals(Dialect.SQL_SERVER, Dialect.of("microsoft sql server"));
+    Assert.assertEquals(Dialect.ORACLE, Dialect.of("oracle"));
+    Assert.assertEquals(Dialect.DB2, Dialect.of("db2/linuxx8664"));
+    Assert.assertEquals(Dialect.FETCH_FIRST, Dialect.of("apache derby"));
+    Assert.assertEquals(Dialect.TOP, Dialect.of("teradata"));
+    Assert.assertEquals(Dialect.LIMIT, Dialect.of("mysql"));
+    Assert.assertEquals(Dialect.LIMIT, Dialect.of("hsql database engine"));
+    Assert.assertEquals(Dialect.OTHER, Dialect.of("unknown"));
+  }
+
+  @Test
+  public void testSelect() {
+    Assert.assertEquals("SELECT * FROM t LIMIT 10", Dialect.LIMIT.select("t", 10, null));
+    Assert.assertEquals("SELECT TOP 10 * FROM t", Dialect.TOP.select("t", 10, null));
+    Assert.assertEquals("SELECT * FROM t FETCH FIRST 10 ROWS ONLY", Dialect.FETCH_FIRST.select("t", 10, null));
+    Assert.assertEquals("SELECT * FROM t", Dialect.OTHER.select("t", 10, null));
+    Assert.assertEquals("SELECT * FROM t LIMIT 10", Dialect.POSTGRESQL.select("t", 10, null));
+    Assert.assertEquals("SELECT * FROM t TABLESAMPLE BERNOULLI (1.5) LIMIT 10",
+                        Dialect.POSTGRESQL.select("t", 10, "1.5"));
+    Assert.assertEquals("SELECT TOP 10 * FROM t TABLESAMPLE (1.5 PERCENT)", Dialect.SQL_SERVER.select("t", 10, "1.5"));
+    Assert.assertEquals("SELECT * FROM t SAMPLE (1.5) WHERE ROWNUM <= 10", Dialect.ORACLE.select("t", 10, "1.5"));
+    Assert.assertEquals("SELECT * FROM t TABLESAMPLE BERNOULLI (1.5) FETCH FIRST 10 ROWS ONLY",
+                        Dialect.DB2.select("t", 10, "1.5"));
+    Assert.assertFalse(Dialect.LIMIT.canSample());
+  }
+
+  @Test
+  public void testEstimate() {
+    Assert.assertEquals("SELECT reltuples FROM pg_class WHERE oid = to_regclass('s.t')",
+                        Dialect.POSTGRESQL.estimate("s.t"));
+    Assert.assertEquals("SELECT num_rows FROM user_tables WHERE table_name = 'T''S'", Dialect.ORACLE.estimate("T'S"));
+    Assert.assertNull(Dialect.LIMIT.estimate("t"));
+  }
+
+  @Test
+  public void testPercentage() {
+    Assert.assertEquals("1.100000", Dialect.getPercentage(100000, 1000));
+    Assert.assertEquals("0.000001", Dialect.getPercentage(Long.MAX_VALUE, 1));
+    // All the rows are needed.
+    Assert.assertNull(Dialect.getPercentage(1000, 1000));
+    Assert.assertNull(Dialect.getPercentage(0, 1000));
+  }
+}
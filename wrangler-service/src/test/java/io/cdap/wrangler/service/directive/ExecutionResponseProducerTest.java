@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.workspace.DirectiveExecutionResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests {@link ExecutionResponseProducer}.
+ */
+public class ExecutionResponseProducerTest {
+
+  @Test
+  public void testSameAsResponse() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      Row row = new Row("id", i).add("name", "<name " + i + ">").add("object", new Object());
+      row.add("nullable", i % 2 == 0 ? null : i * 1.5d);
+      if (i % 10 == 0) {
+        row.add("extra", "x").add("id", "last");
+      }
+      rows.add(row);
+    }
+    List<String> directives = Arrays.asList("uppercase :name", "drop :extra");
+
+    List<Map<String, Object>> values = new ArrayList<>();
+    Set<String> headers = new LinkedHashSet<>();
+    Map<String, String> types = new HashMap<>();
+    for (Row row : rows) {
+      Map<String, Object> value = new HashMap<>();
+      for (int i = 0; i < row.length(); i++) {
+        Object object = row.getValue(i);
+        headers.add(row.getColumn(i));
+        if (object != null) {
+          types.put(row.getColumn(i), object.getClass().getSimpleName());
+        }
+        value.put(row.getColumn(i), ExecutionResponseProducer.display(object));
+      }
+      values.add(value);
+    }
+    DirectiveExecutionResponse expected = new DirectiveExecutionResponse(values, headers, types, directives, 50, 300);
+
+    ExecutionResults.Result result = new ExecutionResults.Result(rows);
+    String actual = produce(new ExecutionResponseProducer(rows, result.getHeaders(), result.getTypes(), directives,
+                                                          50, 300));
+    Assert.assertEquals(new JsonParser().parse(new Gson().toJson(expected)), new JsonParser().parse(actual));
+    Assert.assertTrue(actual.indexOf("\"header\"") > actual.indexOf("\"values\""));
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    String actual = produce(new ExecutionResponseProducer(Collections.emptyList(), Collections.emptySet(),
+                                                          Collections.emptyMap(), Collections.emptyList(), 0, 0));
+    DirectiveExecutionResponse expected = new DirectiveExecutionResponse(Collections.emptyList(),
+                                                                         Collections.emptySet(),
+                                                                         Collections.emptyMap(),
+                                                                         Collections.emptyList());
+    Assert.assertEquals(new JsonParser().parse(new Gson().toJson(expected)), new JsonParser().parse(actual));
+  }
+
+  @Test
+  public void testDisplay() {
+    Assert.assertNull(ExecutionResponseProducer.display(null));
+    Assert.assertEquals("1", ExecutionResponseProducer.display(1));
+    Assert.assertEquals("Non-displayable object", ExecutionResponseProducer.display(new Object()));
+    Assert.assertEquals("Non-displayable object", ExecutionResponseProducer.display(new byte[0]));
+  }
+
+  private static String produce(ExecutionResponseProducer producer) throws Exception {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    int chunks = 0;
+    ByteBuffer chunk = producer.nextChunk(null);
+    while (chunk.hasRemaining()) {
+      chunks++;
+      os.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+      chunk = producer.nextChunk(null);
+    }
+    producer.onFinish();
+    Assert.assertTrue(chunks >= 1);
+    return new String(os.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
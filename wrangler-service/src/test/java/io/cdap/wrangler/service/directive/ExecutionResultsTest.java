@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.collect.ImmutableMap;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.Namespace;
+import io.cdap.wrangler.proto.NamespacedId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link ExecutionResults}.
+ */
+public class ExecutionResultsTest {
+  private static final NamespacedId ID = new NamespacedId(new Namespace("default", 0L), "workspace");
+
+  @Test
+  public void testResultsAreKeyedByExecution() {
+    ExecutionResults results = new ExecutionResults(Long.MAX_VALUE);
+    List<String> directives = Arrays.asList("uppercase :name");
+    ExecutionResults.Key key = new ExecutionResults.Key(ID, 1L, 100, directives);
+    ExecutionResults.Result result = results.put(key, Collections.singletonList(new Row("name", "a")));
+
+    Assert.assertSame(result, results.get(new ExecutionResults.Key(ID, 1L, 100, Arrays.asList("uppercase :name"))));
+    // Another version of the data, sample size or recipe is another execution.
+    Assert.assertNull(results.get(new ExecutionResults.Key(ID, 2L, 100, directives)));
+    Assert.assertNull(results.get(new ExecutionResults.Key(ID, 1L, 10, directives)));
+    Assert.assertNull(results.get(new ExecutionResults.Key(ID, 1L, 100, Arrays.asList("lowercase :name"))));
+
+    // Executing again replaces the result.
+    ExecutionResults.Result replaced = results.put(key, Collections.emptyList());
+    Assert.assertSame(replaced, results.get(key));
+  }
+
+  @Test
+  public void testHeadersAndTypesCoverAllRows() {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("a", 1).add("b", null));
+    rows.add(new Row("b", "x"));
+    rows.add(new Row("c", 1.5d).add("a", null));
+
+    ExecutionResults.Result result = new ExecutionResults.Result(rows);
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(result.getHeaders()));
+    Assert.assertEquals(ImmutableMap.of("a", "Integer", "b", "String", "c", "Double"), result.getTypes());
+    Assert.assertEquals(3, result.getRows().size());
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.cache.CacheStats;
+import io.cdap.cdap.etl.api.Lookup;
+import io.cdap.cdap.etl.api.StageMetrics;
+import io.cdap.directives.aggregates.DefaultTransientStore;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TransientStore;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.parser.GrammarBasedParser;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.proto.Contexts;
+import io.cdap.wrangler.proto.Namespace;
+import io.cdap.wrangler.proto.NamespacedId;
+import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link RecipeCheckpoints}.
+ */
+public class RecipeCheckpointsTest {
+  private static final RecipeCheckpoints.Sample SAMPLE =
+    new RecipeCheckpoints.Sample(new NamespacedId(new Namespace("default", 0L), "workspace"), 1L, 100);
+
+  @Test
+  public void testResumeFromPrefix() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    String[] prefix = new String[] {
+      "parse-as-csv body , false",
+      "drop body",
+      "rename body_1 name",
+    };
+    String[] recipe = new String[] {
+      "parse-as-csv body , false",
+      "drop body",
+      "rename body_1 name",
+      "set-column total name + '-' + body_2",
+      "uppercase name",
+    };
+
+    List<Row> first = execute(checkpoints, prefix).copyRows();
+    assertRowsEqual(executeAll(prefix), first);
+
+    CacheStats before = checkpoints.getStats();
+    List<Row> second = execute(checkpoints, recipe).copyRows();
+    CacheStats stats = checkpoints.getStats().minus(before);
+    assertRowsEqual(executeAll(recipe), second);
+    // Looked up the whole recipe, then the prefix with one directive less, then the prefix executed before.
+    Assert.assertEquals(1, stats.hitCount());
+    Assert.assertEquals(2, stats.missCount());
+
+    // Records returned before are not modified by the directives executed after them.
+    assertRowsEqual(executeAll(prefix), first);
+    assertRowsEqual(executeAll(recipe), execute(checkpoints, recipe).copyRows());
+  }
+
+  @Test
+  public void testChangedArgumentsAreNotResumed() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    execute(checkpoints, new String[] { "parse-as-csv body , false", "rename body_1 name" });
+
+    String[] recipe = new String[] { "parse-as-csv body , false", "rename body_1 first" };
+    CacheStats before = checkpoints.getStats();
+    assertRowsEqual(executeAll(recipe), execute(checkpoints, recipe).copyRows());
+    Assert.assertEquals(1, checkpoints.getStats().minus(before).hitCount());
+  }
+
+  @Test
+  public void testTransientStoreWritesAreNotExecuted() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    String[] recipe = new String[] {
+      "parse-as-csv body , false",
+      "increment-variable seen 1 exp:{true}",
+    };
+    Assert.assertNull(execute(checkpoints, recipe));
+    Assert.assertEquals(0, checkpoints.getStats().requestCount());
+
+    // None of the directives was executed, so none of them was checkpointed.
+    CacheStats before = checkpoints.getStats();
+    Assert.assertNotNull(execute(checkpoints, new String[] { "parse-as-csv body , false" }));
+    Assert.assertEquals(0, checkpoints.getStats().minus(before).hitCount());
+  }
+
+  @Test
+  public void testNonDeterministicDirectivesAreNotCheckpointed() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    String[] recipe = new String[] {
+      "parse-as-csv body , false",
+      "generate-uuid id",
+      "uppercase body_1",
+    };
+    List<Row> first = execute(checkpoints, recipe).copyRows();
+
+    // Only the directives before the one generating identifiers are resumed from.
+    CacheStats before = checkpoints.getStats();
+    List<Row> second = execute(checkpoints, recipe).copyRows();
+    CacheStats stats = checkpoints.getStats().minus(before);
+    Assert.assertEquals(1, stats.hitCount());
+    Assert.assertEquals(0, stats.missCount());
+    Assert.assertNotEquals(first.get(0).getValue("id"), second.get(0).getValue("id"));
+    Assert.assertEquals("NAME0", second.get(0).getValue("body_1"));
+
+    // Expressions are only deterministic if they don't read the clock or generate random values.
+    String[] random = new String[] { "parse-as-csv body , false", "set-column random math:random()" };
+    Assert.assertNotSame(execute(checkpoints, random), execute(checkpoints, random));
+    String[] total = new String[] { "parse-as-csv body , false", "set-column total body_2 + 1" };
+    Assert.assertSame(execute(checkpoints, total), execute(checkpoints, total));
+  }
+
+  private static RecipeCheckpoints.Checkpoint execute(RecipeCheckpoints checkpoints,
+                                                      String[] recipe) throws Exception {
+    String migrate = new MigrateToV2(recipe).migrate();
+    List<Directive> directives = parser(migrate).parse();
+    return checkpoints.execute(SAMPLE, migrate, directives, rows(), 2, new Context(new DefaultTransientStore()));
+  }
+
+  private static List<Row> executeAll(String[] recipe) throws Exception {
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(2);
+    executor.initialize(parser(new MigrateToV2(recipe).migrate()),
+                        new Context(new DefaultTransientStore()));
+    return executor.execute(rows());
+  }
+
+  private static RecipeParser parser(String recipe) {
+    RecipeParser parser = new GrammarBasedParser(Contexts.SYSTEM, recipe,
+                                                 new CompositeDirectiveRegistry(new SystemDirectiveRegistry()));
+    parser.initialize(null);
+    return parser;
+  }
+
+  private static List<Row> rows() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      rows.add(new Row("body", "name" + i + "," + i));
+    }
+    return rows;
+  }
+
+  private static void assertRowsEqual(List<Row> expected, List<Row> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Row expectedRow = expected.get(i);
+      Row actualRow = actual.get(i);
+      Assert.assertEquals(expectedRow.length(), actualRow.length());
+      for (int j = 0; j < expectedRow.length(); j++) {
+        Assert.assertEquals(expectedRow.getColumn(j), actualRow.getColumn(j));
+        Assert.assertEquals(expectedRow.getValue(j), actualRow.getValue(j));
+      }
+    }
+  }
+
+  private static final class Context implements ExecutorContext {
+    private final TransientStore store;
+
+    Context(TransientStore store) {
+      this.store = store;
+    }
+
+    @Override
+    public Environment getEnvironment() {
+      return Environment.TESTING;
+    }
+
+    @Override
+    public String getNamespace() {
+      return Contexts.SYSTEM;
+    }
+
+    @Override
+    public StageMetrics getMetrics() {
+      return null;
+    }
+
+    @Override
+    public String getContextName() {
+      return "testing";
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public URL getService(String applicationId, String serviceId) {
+      return null;
+    }
+
+    @Override
+    public TransientStore getTransientStore() {
+      return store;
+    }
+
+    @Override
+    public <T> Lookup<T> provide(String s, Map<String, String> map) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.directive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link RecordSplitter}.
+ */
+public class RecordSplitterTest {
+  private static final String[] DELIMITERS = new String[] {
+    "\n", ",", "\u001A", "\\|", "ab", "\r?\n", ",+", "a|ab", "\\s", "x*", "",
+  };
+  private static final String[] TEXTS = new String[] {
+    "",
+    "a",
+    "\n",
+    "a\nb",
+    "a\n\nb\n\n",
+    "\n\na,b,,c,",
+    "ab|cd||ef|",
+    "aabab abx\r\n\r\nxx",
+    "a\r",
+    ",,,",
+    "x,ax\n\u001Ab|",
+  };
+
+  @Test
+  public void testSplitLikeString() {
+    for (String delimiter : DELIMITERS) {
+      for (String text : TEXTS) {
+        List<String> expected = Arrays.asList(text.split(delimiter));
+        // Every way of receiving the text in parts of the same size gives the same records.
+        for (int size = 1; size <= Math.max(1, text.length()); size++) {
+          Assert.assertEquals(String.format("Splitting '%s' around '%s' in parts of %d", text, delimiter, size),
+                              expected, split(delimiter, text, size));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRecordsAreAddedOnceComplete() {
+    RecordSplitter splitter = new RecordSplitter("\r\n");
+    List<String> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      splitter.split("rec", records);
+      Assert.assertEquals(i, records.size());
+      splitter.split("ord" + i + "\r", records);
+      Assert.assertEquals(i, records.size());
+      splitter.split("\n", records);
+      Assert.assertEquals(i + 1, records.size());
+      Assert.assertEquals("record" + i, records.get(i));
+    }
+    splitter.finish(records);
+    Assert.assertEquals(1000, records.size());
+  }
+
+  private static List<String> split(String delimiter, String text, int size) {
+    RecordSplitter splitter = new RecordSplitter(delimiter);
+    List<String> records = new ArrayList<>();
+    for (int start = 0; start < text.length(); start += size) {
+      splitter.split(text.substring(start, Math.min(text.length(), start + size)), records);
+    }
+    splitter.finish(records);
+    return records;
+  }
+}
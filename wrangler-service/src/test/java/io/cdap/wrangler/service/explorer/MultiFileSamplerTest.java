@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.explorer;
+
+import org.apache.twill.filesystem.LocalLocationFactory;
+import org.apache.twill.filesystem.Location;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests {@link MultiFileSampler}.
+ */
+public class MultiFileSamplerTest {
+
+  @ClassRule
+  public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testSampleDirectory() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    for (int i = 0; i < 10; i++) {
+      write(new File(directory, "part-" + i), "part-" + i, 1000);
+    }
+    // Files of the sub-directories are sampled, hidden files and markers are not.
+    File partition = new File(directory, "dt=2019-01-01");
+    Assert.assertTrue(partition.mkdir());
+    write(new File(partition, "part-10"), "part-10", 1000);
+    write(new File(directory, "_SUCCESS"), "success", 1);
+    write(new File(directory, ".part-0.crc"), "crc", 1);
+
+    List<Location> files = MultiFileSampler.listFiles(new LocalLocationFactory().create(directory.toURI()), null);
+    Assert.assertEquals(11, files.size());
+
+    List<String> lines = new MultiFileSampler(110, 500, 4, new Random(0)).sample(files);
+    Assert.assertEquals(110, lines.size());
+    Assert.assertEquals(110, new HashSet<>(lines).size());
+    Map<String, Integer> counts = new HashMap<>();
+    for (String line : lines) {
+      counts.put(file(line), counts.getOrDefault(file(line), 0) + 1);
+      // At most 500 lines are read from each file.
+      Assert.assertTrue(line, number(line) < 500);
+    }
+    Assert.assertEquals(11, counts.size());
+    // The lines are grouped by file, in the order of the lines of each file.
+    List<String> groups = new ArrayList<>();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (i > 0 && file(lines.get(i - 1)).equals(file(line))) {
+        Assert.assertTrue(line, number(lines.get(i - 1)) < number(line));
+      } else {
+        groups.add(file(line));
+      }
+    }
+    Assert.assertEquals(counts.size(), groups.size());
+
+    // The same seed gives the same sample, whatever order the files are read in.
+    Assert.assertEquals(lines, new MultiFileSampler(110, 500, 1, new Random(0)).sample(files));
+  }
+
+  @Test
+  public void testSampleIsProportional() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    write(new File(directory, "large"), "large", 9000);
+    write(new File(directory, "small"), "small", 1000);
+    List<Location> files = MultiFileSampler.listFiles(new LocalLocationFactory().create(directory.toURI()), null);
+
+    List<String> lines = new MultiFileSampler(1000, 10000, 2, new Random(0)).sample(files);
+    Assert.assertEquals(1000, lines.size());
+    long small = lines.stream().filter(line -> line.startsWith("small:")).count();
+    Assert.assertTrue(String.valueOf(small), small > 50 && small < 150);
+  }
+
+  @Test
+  public void testListFilesMatchingGlob() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    for (String name : new String[] { "part-0", "part-1", "part-2", "other-0" }) {
+      write(new File(directory, name), name, 1);
+    }
+    List<String> names = new ArrayList<>();
+    for (Location file : MultiFileSampler.listFiles(new LocalLocationFactory().create(directory.toURI()),
+                                                    "part-[01]")) {
+      names.add(file.getName());
+    }
+    Collections.sort(names);
+    Assert.assertEquals(Arrays.asList("part-0", "part-1"), names);
+    Assert.assertTrue(MultiFileSampler.isGlob("part-*"));
+    Assert.assertFalse(MultiFileSampler.isGlob("part-0"));
+  }
+
+  @Test
+  public void testTopLines() {
+    MultiFileSampler.TopLines top = new MultiFileSampler.TopLines(3);
+    Assert.assertEquals(Double.MAX_VALUE, top.threshold(), 0d);
+    top.offer(new MultiFileSampler.SampledLine("b:0", 1, 0, 0.5d));
+    top.offer(new MultiFileSampler.SampledLine("a:1", 0, 1, 0.1d));
+    top.offer(new MultiFileSampler.SampledLine("a:0", 0, 0, 0.9d));
+    Assert.assertEquals(0.9d, top.threshold(), 0d);
+
+    // Only lines with smaller keys replace the ones sampled.
+    MultiFileSampler.TopLines other = new MultiFileSampler.TopLines(3);
+    other.offer(new MultiFileSampler.SampledLine("c:0", 2, 0, 0.95d));
+    other.offer(new MultiFileSampler.SampledLine("b:1", 1, 1, 0.2d));
+    top.offer(other);
+    Assert.assertEquals(0.5d, top.threshold(), 0d);
+    Assert.assertEquals(Arrays.asList("a:1", "b:0", "b:1"), top.lines());
+  }
+
+  private static String file(String line) {
+    return line.substring(0, line.indexOf(':'));
+  }
+
+  private static int number(String line) {
+    return Integer.parseInt(line.substring(line.indexOf(':') + 1));
+  }
+
+  private static List<String> lines(String prefix, int count) {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      lines.add(prefix + ":" + i);
+    }
+    return lines;
+  }
+
+  private static void write(File file, String prefix, int count) throws Exception {
+    try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+      for (String line : lines(prefix, count)) {
+        writer.println(line);
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.explorer;
+
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link SeekableLineSampler}.
+ */
+public class SeekableLineSamplerTest {
+
+  @ClassRule
+  public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testSampleWholeFile() throws Exception {
+    File file = temporaryFolder.newFile();
+    try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+      for (int i = 0; i < 100000; i++) {
+        writer.println("line-" + i);
+      }
+    }
+
+    List<String> lines;
+    try (SeekableLineSampler.Source source = SeekableLineSampler.open(file)) {
+      Assert.assertEquals(file.length(), source.length());
+      lines = new SeekableLineSampler(100, new Random(0)).sample(source);
+    }
+    Assert.assertEquals(100, lines.size());
+    Assert.assertEquals(100, new HashSet<>(lines).size());
+    // The first line is always sampled, as it might be the header.
+    Assert.assertEquals("line-0", lines.get(0));
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (String line : lines) {
+      Assert.assertTrue(line, line.startsWith("line-"));
+      int index = Integer.parseInt(line.substring("line-".length()));
+      min = Math.min(min, index);
+      max = Math.max(max, index);
+    }
+    // The sample isn't limited to the beginning of the file.
+    Assert.assertTrue(min < 10000);
+    Assert.assertTrue(max > 90000);
+  }
+
+  @Test
+  public void testFewerLinesThanSamples() throws Exception {
+    File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), "first\r\n\u00e9t\u00e9\nlast".getBytes(StandardCharsets.UTF_8));
+
+    try (SeekableLineSampler.Source source = SeekableLineSampler.open(file)) {
+      List<String> lines = new SeekableLineSampler(10, new Random(0)).sample(source);
+      Assert.assertEquals(Arrays.asList("first", "\u00e9t\u00e9", "last"), lines);
+    }
+  }
+
+  @Test
+  public void testEmptyFile() throws Exception {
+    File file = temporaryFolder.newFile();
+    try (SeekableLineSampler.Source source = SeekableLineSampler.open(file)) {
+      Assert.assertTrue(new SeekableLineSampler(10).sample(source).isEmpty());
+    }
+  }
+}
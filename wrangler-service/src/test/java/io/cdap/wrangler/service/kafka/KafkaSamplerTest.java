@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.kafka;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.NotFoundException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests {@link KafkaSampler}.
+ */
+public class KafkaSamplerTest {
+  private static final String TOPIC = "events";
+
+  @Test
+  public void testEvenSharesOfPartitions() {
+    TopicConsumer consumer = new TopicConsumer();
+    consumer.addPartition(0, 0, 100);
+    consumer.addPartition(1, 0, 100);
+    consumer.addPartition(2, 0, 5);
+
+    List<Row> rows = new KafkaSampler(30, KafkaSampler.Start.EARLIEST, 0L, 10000L).sample(consumer, TOPIC);
+    Assert.assertEquals(30, rows.size());
+    // The partition with 5 records gives the rest of its share to the other partitions.
+    Assert.assertEquals(expected(0, 0, 13), values(rows.subList(0, 13)));
+    Assert.assertEquals(expected(1, 0, 12), values(rows.subList(13, 25)));
+    Assert.assertEquals(expected(2, 0, 5), values(rows.subList(25, 30)));
+  }
+
+  @Test
+  public void testLatest() {
+    TopicConsumer consumer = new TopicConsumer();
+    consumer.addPartition(0, 0, 10);
+    consumer.addPartition(1, 5, 20);
+
+    List<Row> rows = new KafkaSampler(6, KafkaSampler.Start.LATEST, 0L, 10000L).sample(consumer, TOPIC);
+    List<String> expected = expected(0, 7, 10);
+    expected.addAll(expected(1, 17, 20));
+    Assert.assertEquals(expected, values(rows));
+  }
+
+  @Test
+  public void testTimestamp() {
+    TopicConsumer consumer = new TopicConsumer();
+    consumer.addPartition(0, 0, 10);
+    consumer.addPartition(1, 0, 10);
+    // Records of partition 0 from offset 4 are at or after the timestamp, partition 1 has none.
+    consumer.timestampOffsets.put(new TopicPartition(TOPIC, 0), 4L);
+
+    List<Row> rows = new KafkaSampler(10, KafkaSampler.Start.TIMESTAMP, 1000L, 10000L).sample(consumer, TOPIC);
+    Assert.assertEquals(expected(0, 4, 10), values(rows));
+  }
+
+  @Test
+  public void testMissingOffsets() {
+    TopicConsumer consumer = new TopicConsumer();
+    // Partition 0 is compacted, so only some of its offsets have records.
+    consumer.addPartition(0, 0, 20, 0, 3, 7, 12, 15);
+    consumer.addPartition(1, 0, 30);
+
+    // The share of partition 0 it doesn't have the records for is read from partition 1, once partition 1 already
+    // read its own share.
+    List<Row> rows = new KafkaSampler(12, KafkaSampler.Start.EARLIEST, 0L, 10000L).sample(consumer, TOPIC);
+    List<String> expected = new ArrayList<>(Arrays.asList("0-0", "0-3", "0-7", "0-12", "0-15"));
+    expected.addAll(expected(1, 0, 7));
+    Assert.assertEquals(expected, values(rows));
+  }
+
+  @Test
+  public void testTimeout() {
+    TopicConsumer consumer = new TopicConsumer();
+    // The end offset is past the records, as if the last ones were not fetched.
+    consumer.addPartition(0, 0, 10, 0, 1, 2);
+    consumer.reachesEnd = false;
+
+    long start = System.currentTimeMillis();
+    List<Row> rows = new KafkaSampler(10, KafkaSampler.Start.EARLIEST, 0L, 200L).sample(consumer, TOPIC);
+    Assert.assertTrue(System.currentTimeMillis() - start >= 200L);
+    Assert.assertEquals(expected(0, 0, 3), values(rows));
+  }
+
+  @Test
+  public void testLinesLessThanPartitions() {
+    TopicConsumer consumer = new TopicConsumer();
+    for (int i = 0; i < 4; i++) {
+      consumer.addPartition(i, 0, 10);
+    }
+    List<Row> rows = new KafkaSampler(2, KafkaSampler.Start.EARLIEST, 0L, 10000L).sample(consumer, TOPIC);
+    Assert.assertEquals(Arrays.asList("0-0", "1-0"), values(rows));
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testMissingTopic() {
+    new KafkaSampler(10, KafkaSampler.Start.EARLIEST, 0L, 10000L).sample(new TopicConsumer(), TOPIC);
+  }
+
+  @Test
+  public void testAllocate() {
+    Assert.assertArrayEquals(new int[] { 4, 3, 3 }, KafkaSampler.allocate(new long[] { 10, 10, 10 }, 10));
+    Assert.assertArrayEquals(new int[] { 9, 0, 1 }, KafkaSampler.allocate(new long[] { 20, 0, 1 }, 10));
+    Assert.assertArrayEquals(new int[] { 2, 3 }, KafkaSampler.allocate(new long[] { 2, 3 }, 10));
+  }
+
+  @Test
+  public void testParseStart() {
+    Assert.assertNotNull(KafkaSampler.of(10, "Earliest", 1000L));
+    Assert.assertNotNull(KafkaSampler.of(10, "latest", 1000L));
+    Assert.assertNotNull(KafkaSampler.of(10, "1546300800000", 1000L));
+    try {
+      KafkaSampler.of(10, "yesterday", 1000L);
+      Assert.fail("Start is not valid");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static List<String> expected(int partition, int from, int to) {
+    List<String> values = new ArrayList<>();
+    for (int offset = from; offset < to; offset++) {
+      values.add(partition + "-" + offset);
+    }
+    return values;
+  }
+
+  private static List<String> values(List<Row> rows) {
+    List<String> values = new ArrayList<>();
+    for (Row row : rows) {
+      values.add((String) row.getValue(KafkaSampler.COLUMN_NAME));
+    }
+    return values;
+  }
+
+  /**
+   * A consumer of a topic, which returns at most a few records of each partition per poll, the way the consumer
+   * is bounded by the size of its fetches.
+   */
+  private static final class TopicConsumer extends MockConsumer<String, String> {
+    private static final int RECORDS_PER_POLL = 4;
+
+    private final List<PartitionInfo> partitions = new ArrayList<>();
+    private final Map<TopicPartition, List<ConsumerRecord<String, String>>> log = new HashMap<>();
+    private final Map<TopicPartition, Long> timestampOffsets = new HashMap<>();
+    private boolean reachesEnd = true;
+
+    TopicConsumer() {
+      super(OffsetResetStrategy.EARLIEST);
+    }
+
+    void addPartition(int partition, long beginning, long end, long... offsets) {
+      TopicPartition topicPartition = new TopicPartition(TOPIC, partition);
+      List<ConsumerRecord<String, String>> records = new ArrayList<>();
+      if (offsets.length == 0) {
+        for (long offset = beginning; offset < end; offset++) {
+          records.add(new ConsumerRecord<>(TOPIC, partition, offset, null, partition + "-" + offset));
+        }
+      } else {
+        for (long offset : offsets) {
+          records.add(new ConsumerRecord<>(TOPIC, partition, offset, null, partition + "-" + offset));
+        }
+      }
+      partitions.add(new PartitionInfo(TOPIC, partition, null, null, null));
+      log.put(topicPartition, records);
+      updatePartitions(TOPIC, partitions);
+      updateBeginningOffsets(singletonMap(topicPartition, beginning));
+      updateEndOffsets(singletonMap(topicPartition, end));
+    }
+
+    @Override
+    public synchronized ConsumerRecords<String, String> poll(long timeout) {
+      Set<TopicPartition> paused = new HashSet<>(paused());
+      for (TopicPartition partition : assignment()) {
+        if (paused.contains(partition)) {
+          continue;
+        }
+        long position = position(partition);
+        int added = 0;
+        for (ConsumerRecord<String, String> record : log.get(partition)) {
+          if (record.offset() >= position && added < RECORDS_PER_POLL) {
+            addRecord(record);
+            added++;
+          }
+        }
+      }
+      ConsumerRecords<String, String> records = super.poll(timeout);
+      if (reachesEnd) {
+        // The position moves past the offsets without records, up to the end of the partition.
+        for (TopicPartition partition : assignment()) {
+          List<ConsumerRecord<String, String>> partitionLog = log.get(partition);
+          long last = partitionLog.isEmpty() ? -1L : partitionLog.get(partitionLog.size() - 1).offset();
+          if (position(partition) > last) {
+            seek(partition, endOffsets(Arrays.asList(partition)).get(partition));
+          }
+        }
+      }
+      return records;
+    }
+
+    @Override
+    public synchronized Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(
+      Map<TopicPartition, Long> timestampsToSearch) {
+      Map<TopicPartition, OffsetAndTimestamp> offsets = new HashMap<>();
+      for (TopicPartition partition : timestampsToSearch.keySet()) {
+        Long offset = timestampOffsets.get(partition);
+        Long timestamp = timestampsToSearch.get(partition);
+        offsets.put(partition, offset == null ? null : new OffsetAndTimestamp(offset, timestamp));
+      }
+      return offsets;
+    }
+
+    private static Map<TopicPartition, Long> singletonMap(TopicPartition partition, long offset) {
+      Map<TopicPartition, Long> map = new HashMap<>();
+      map.put(partition, offset);
+      return map;
+    }
+  }
+}
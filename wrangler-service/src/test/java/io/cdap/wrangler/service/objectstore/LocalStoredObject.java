@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.objectstore;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link StoredObject} backed by a local file, standing in for an object store in tests. It counts the ranges
+ * opened and the bytes requested, so that tests can check how much of the object is fetched.
+ */
+public final class LocalStoredObject implements StoredObject {
+  private final File file;
+  private final AtomicInteger ranges = new AtomicInteger();
+  private final AtomicLong bytes = new AtomicLong();
+
+  public LocalStoredObject(File file) {
+    this.file = file;
+  }
+
+  @Override
+  public long getLength() {
+    return file.length();
+  }
+
+  @Override
+  public InputStream open(long position, long length) throws IOException {
+    if (position < 0 || length < 0 || position + length > file.length()) {
+      throw new IOException(String.format("Range %d-%d is not within the object of %d bytes",
+                                          position, position + length, file.length()));
+    }
+    ranges.incrementAndGet();
+    bytes.addAndGet(length);
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    raf.seek(position);
+    return ByteStreams.limit(Channels.newInputStream(raf.getChannel()), length);
+  }
+
+  /**
+   * @return the number of ranges opened.
+   */
+  public int getRanges() {
+    return ranges.get();
+  }
+
+  /**
+   * @return the number of bytes in the ranges opened.
+   */
+  public long getBytes() {
+    return bytes.get();
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.service.objectstore;
+
+import io.cdap.wrangler.SamplingMethod;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.utils.RowSerDe;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link ObjectSampler} and {@link LineReader}, with objects stored in local files.
+ */
+public class ObjectSamplerTest {
+
+  @ClassRule
+  public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testFirstLines() throws Exception {
+    LocalStoredObject object = write("a\r\nb\rc\n\n\u00e9t\u00e9");
+    Assert.assertEquals(Arrays.asList("a", "b", "c", "", "\u00e9t\u00e9"),
+                        sample(object, SamplingMethod.FIRST, 10, 1024));
+    Assert.assertEquals(Arrays.asList("a", "b"), sample(object, SamplingMethod.FIRST, 2, 1024));
+  }
+
+  @Test
+  public void testTruncatedLastLineIsDropped() throws Exception {
+    LocalStoredObject object = write("line1\nline2\nline3");
+    Assert.assertEquals(Arrays.asList("line1", "line2"), sample(object, SamplingMethod.FIRST, 10, 16));
+    Assert.assertEquals(16, object.getBytes());
+  }
+
+  @Test
+  public void testReservoirOfSmallObject() throws Exception {
+    LocalStoredObject object = write(lines(1000));
+    List<String> lines = sample(object, SamplingMethod.RESERVOIR, 10, 1024 * 1024);
+    Assert.assertEquals(10, new HashSet<>(lines).size());
+    Assert.assertEquals(1, object.getRanges());
+  }
+
+  @Test
+  public void testReservoirOfLargeObjectReadsRanges() throws Exception {
+    LocalStoredObject object = write(lines(100000));
+    int maxBytes = 64 * 1024;
+    List<String> lines = sample(object, SamplingMethod.RESERVOIR, 100, maxBytes);
+    Assert.assertEquals(100, new HashSet<>(lines).size());
+
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (String line : lines) {
+      // Only complete lines are sampled.
+      Assert.assertTrue(line, line.matches("line-\\d{5}"));
+      int index = Integer.parseInt(line.substring("line-".length()));
+      min = Math.min(min, index);
+      max = Math.max(max, index);
+    }
+    // The lines come from all over the object, and only the bytes allowed are fetched.
+    Assert.assertTrue(min < 10000);
+    Assert.assertTrue(max > 90000);
+    Assert.assertEquals(ObjectSampler.RANGES, object.getRanges());
+    Assert.assertTrue(object.getBytes() <= maxBytes + ObjectSampler.RANGES);
+  }
+
+  @Test
+  public void testReservoirOfRangesIsUniform() throws Exception {
+    // 100000 lines of 11 bytes, so each of the ranges of 4096 bytes has about 372 lines.
+    LocalStoredObject object = write(lines(100000));
+    List<String> lines = sample(object, SamplingMethod.RESERVOIR, 1000, 64 * 1024);
+    Assert.assertEquals(1000, new HashSet<>(lines).size());
+
+    // The lines are sampled evenly from all the ranges.
+    int[] counts = new int[ObjectSampler.RANGES];
+    for (String line : lines) {
+      counts[Integer.parseInt(line.substring("line-".length())) / (100000 / ObjectSampler.RANGES)]++;
+    }
+    for (int count : counts) {
+      Assert.assertTrue(String.valueOf(count), count > 30 && count < 100);
+    }
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    LocalStoredObject object = write("0123456789");
+    Assert.assertArrayEquals("01234".getBytes(StandardCharsets.UTF_8), ObjectSampler.read(object, 5));
+    Assert.assertArrayEquals("0123456789".getBytes(StandardCharsets.UTF_8), ObjectSampler.read(object, 100));
+  }
+
+  @Test
+  public void testLineReaderDropsPartialLines() throws Exception {
+    // A reader that returns one byte at a time, so that "\r\n" is split between reads.
+    InputStream input = new FilterInputStream(new ByteArrayInputStream(
+      "tail\r\nfirst\r\nsecond\nhead".getBytes(StandardCharsets.UTF_8))) {
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return super.read(b, off, Math.min(len, 1));
+      }
+    };
+    List<String> lines = new ArrayList<>();
+    try (LineReader reader = new LineReader(input, true, true)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        lines.add(line);
+      }
+    }
+    Assert.assertEquals(Arrays.asList("first", "second"), lines);
+  }
+
+  private static List<String> sample(StoredObject object, SamplingMethod method, int lines,
+                                     long maxBytes) throws Exception {
+    byte[] bytes = new ObjectSampler(method, lines, 0.5, maxBytes, new Random(0)).sample(object);
+    List<String> values = new ArrayList<>();
+    for (Row row : new RowSerDe().toRows(bytes)) {
+      values.add((String) row.getValue(ObjectSampler.COLUMN_NAME));
+    }
+    return values;
+  }
+
+  private static String lines(int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(String.format("line-%05d\n", i));
+    }
+    return builder.toString();
+  }
+
+  private static LocalStoredObject write(String content) throws IOException {
+    File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return new LocalStoredObject(file);
+  }
+}
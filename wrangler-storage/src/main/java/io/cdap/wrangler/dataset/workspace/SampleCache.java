@@ -0,0 +1,257 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.dataset.workspace;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.NamespacedId;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * This class <code>SampleCache</code> is a process wide cache of the records decoded from the data of
+ * workspaces, so that executing a recipe on a workspace doesn't read and decode its data every time.
+ *
+ * <p>Records are cached for a workspace along with the {@link WorkspaceDataset#getDataVersion version} of its data,
+ * and are not returned for any other version. The version is incremented in the same transaction as the data is
+ * written, so a version read in a transaction always matches the data read in it, however soon after each other
+ * the data is written and whether or not the transaction that wrote it has committed yet. The cache is bounded by
+ * the estimated memory used by the records, and evicts the least recently used workspaces first.</p>
+ *
+ * <p>The cached records are never handed out, only {@link Row#copyOnWrite() copies} of them are, so that
+ * directives modifying the records don't modify the cache.</p>
+ */
+public final class SampleCache {
+  private static final SampleCache INSTANCE = new SampleCache(Runtime.getRuntime().maxMemory() / 10);
+
+  private final long maxWeight;
+  private final LinkedHashMap<NamespacedId, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long weight;
+  private long versions;
+  private long hits;
+  private long misses;
+
+  SampleCache(long maxWeight) {
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @return the cache shared by all the handlers.
+   */
+  public static SampleCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the first records of a workspace, loading them if they are not cached.
+   *
+   * @param id of the workspace.
+   * @param dataVersion version of the data of the workspace, read in the same transaction as the loader.
+   * @param limit maximum number of records to return.
+   * @param loader loading up to limit records of the workspace.
+   * @return copies of the records, along with their version.
+   */
+  public Sample get(NamespacedId id, long dataVersion, int limit, Callable<List<Row>> loader) throws Exception {
+    Entry entry;
+    long version;
+    synchronized (this) {
+      entry = entries.get(id);
+      if (entry != null && (entry.dataVersion != dataVersion || !entry.covers(limit))) {
+        remove(id);
+        entry = null;
+      }
+      if (entry == null) {
+        misses++;
+        version = ++versions;
+      } else {
+        hits++;
+        version = entry.version;
+      }
+    }
+
+    if (entry == null) {
+      List<Row> rows = loader.call();
+      entry = new Entry(dataVersion, version, limit, rows);
+      synchronized (this) {
+        if (entry.weight <= maxWeight) {
+          remove(id);
+          entries.put(id, entry);
+          weight += entry.weight;
+          evict();
+        }
+      }
+    }
+
+    int size = Math.min(limit, entry.rows.size());
+    List<Row> copies = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      copies.add(entry.rows.get(i).copyOnWrite());
+    }
+    return new Sample(copies, version);
+  }
+
+  /**
+   * Removes the records of a workspace from the cache.
+   *
+   * @param id of the workspace.
+   */
+  public synchronized void invalidate(NamespacedId id) {
+    remove(id);
+  }
+
+  /**
+   * Removes all the records from the cache.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    weight = 0;
+  }
+
+  /**
+   * @return number of workspaces cached.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return estimated number of bytes used by the cached records.
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * @return number of lookups that found the records cached.
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * @return number of lookups that had to load the records.
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * @return ratio of the lookups that found the records cached, 1 if there were no lookups.
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 1.0d : (double) hits / lookups;
+  }
+
+  private void remove(NamespacedId id) {
+    Entry entry = entries.remove(id);
+    if (entry != null) {
+      weight -= entry.weight;
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<NamespacedId, Entry>> iterator = entries.entrySet().iterator();
+    while (weight > maxWeight && iterator.hasNext()) {
+      weight -= iterator.next().getValue().weight;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Copies of the first records of a workspace.
+   */
+  public static final class Sample {
+    private final List<Row> rows;
+    private final long version;
+
+    private Sample(List<Row> rows, long version) {
+      this.rows = rows;
+      this.version = version;
+    }
+
+    /**
+     * @return copies of the records, that can be modified.
+     */
+    public List<Row> getRows() {
+      return rows;
+    }
+
+    /**
+     * @return the version of the records, which is different every time the records are loaded, and is the same
+     *         for records copied from the same records.
+     */
+    public long getVersion() {
+      return version;
+    }
+  }
+
+  /**
+   * Records of a workspace.
+   */
+  private static final class Entry {
+    private final long dataVersion;
+    private final long version;
+    private final int limit;
+    private final List<Row> rows;
+    private final long weight;
+
+    Entry(long dataVersion, long version, int limit, List<Row> rows) {
+      this.dataVersion = dataVersion;
+      this.version = version;
+      this.limit = limit;
+      this.rows = rows;
+      this.weight = estimate(rows);
+    }
+
+    /**
+     * @return true if the entry holds the first limit records of the workspace.
+     */
+    boolean covers(int limit) {
+      return limit <= this.limit || rows.size() < this.limit;
+    }
+  }
+
+  /**
+   * Estimates the number of bytes used by the records.
+   *
+   * @param rows to estimate the size of.
+   * @return estimated number of bytes.
+   */
+  public static long estimate(List<Row> rows) {
+    long weight = 0;
+    for (Row row : rows) {
+      weight += 64 + 16L * row.length();
+      for (int i = 0; i < row.length(); i++) {
+        Object value = row.getValue(i);
+        if (value instanceof String) {
+          weight += 40 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+          weight += 16 + ((byte[]) value).length;
+        } else if (value != null) {
+          weight += 24;
+        }
+      }
+    }
+    return weight;
+  }
+}
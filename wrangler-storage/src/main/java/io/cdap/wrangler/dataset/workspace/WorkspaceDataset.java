@@ -40,6 +40,7 @@ import io.cdap.wrangler.proto.WorkspaceIdentifier;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -57,9 +58,26 @@ import javax.annotation.Nullable;
  * It also stores a map of properties, which are connection specific properties that are used to generate the
  * pipeline source configuration when a pipeline is created from a workspace.
  *
- * The dataset is stored in a single table with columns:
+ * The dataset is stored in a table with columns:
  *
  * namespace, id, name, type, scope, created, updated, properties, data, and request
+ *
+ * Workspaces are indexed by scope in another table with columns:
+ *
+ * namespace, generation, scope, id, and name
+ *
+ * The namespace, generation, scope, and id columns form the primary key, so that listing the workspaces of a scope
+ * scans only the index, and never reads the data of the workspaces. Workspaces created before the index was added
+ * are indexed once, by {@link #indexScopes()}, when the service starts. A row with an empty namespace, scope and id
+ * marks that they have been indexed.
+ *
+ * The version of the data of each workspace is stored in another table with columns:
+ *
+ * namespace, generation, id, and version
+ *
+ * The version is incremented in the same transaction as the data is written, so that records decoded from the data
+ * can be cached along with it, see {@link SampleCache}. It's kept when the workspace is deleted, so that a workspace
+ * created again with the same id has a different version.
  */
 public class WorkspaceDataset {
   private static final Type MAP_TYPE = new TypeToken<Map<String, String>>() { }.getType();
@@ -78,7 +96,16 @@ public class WorkspaceDataset {
   private static final String PROPERTIES_COL = "properties";
   private static final String DATA_COL = "data";
   private static final String REQUEST_COL = "request";
+  private static final String VERSION_COL = "version";
+  // Columns of the workspace other than its data.
+  private static final List<String> META_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+    NAMESPACE_COL, GENERATION_COL, ID_COL, NAME_COL, TYPE_COL, SCOPE_COL, CREATED_COL, UPDATED_COL, PROPERTIES_COL,
+    REQUEST_COL));
+  // Namespace, scope and id of the row marking that the workspaces have been indexed.
+  private static final String INDEXED_MARKER = "";
   private static final StructuredTableId TABLE_ID = new StructuredTableId("workspaces");
+  private static final StructuredTableId SCOPE_TABLE_ID = new StructuredTableId("workspace_scopes");
+  private static final StructuredTableId VERSION_TABLE_ID = new StructuredTableId("workspace_data_versions");
   public static final StructuredTableSpecification TABLE_SPEC = new StructuredTableSpecification.Builder()
     .withId(TABLE_ID)
     .withFields(new FieldType(NAMESPACE_COL, FieldType.Type.STRING),
@@ -94,20 +121,46 @@ public class WorkspaceDataset {
                 new FieldType(REQUEST_COL, FieldType.Type.STRING))
     .withPrimaryKeys(NAMESPACE_COL, GENERATION_COL, ID_COL)
     .build();
+  public static final StructuredTableSpecification SCOPE_TABLE_SPEC = new StructuredTableSpecification.Builder()
+    .withId(SCOPE_TABLE_ID)
+    .withFields(new FieldType(NAMESPACE_COL, FieldType.Type.STRING),
+                new FieldType(GENERATION_COL, FieldType.Type.LONG),
+                new FieldType(SCOPE_COL, FieldType.Type.STRING),
+                new FieldType(ID_COL, FieldType.Type.STRING),
+                new FieldType(NAME_COL, FieldType.Type.STRING))
+    .withPrimaryKeys(NAMESPACE_COL, GENERATION_COL, SCOPE_COL, ID_COL)
+    .build();
+  public static final StructuredTableSpecification VERSION_TABLE_SPEC = new StructuredTableSpecification.Builder()
+    .withId(VERSION_TABLE_ID)
+    .withFields(new FieldType(NAMESPACE_COL, FieldType.Type.STRING),
+                new FieldType(GENERATION_COL, FieldType.Type.LONG),
+                new FieldType(ID_COL, FieldType.Type.STRING),
+                new FieldType(VERSION_COL, FieldType.Type.LONG))
+    .withPrimaryKeys(NAMESPACE_COL, GENERATION_COL, ID_COL)
+    .build();
   public static final String DEFAULT_SCOPE = "default";
   private final StructuredTable table;
+  private final StructuredTable scopeTable;
+  private final StructuredTable versionTable;
 
-  public WorkspaceDataset(StructuredTable table) {
+  public WorkspaceDataset(StructuredTable table, StructuredTable scopeTable, StructuredTable versionTable) {
     this.table = table;
+    this.scopeTable = scopeTable;
+    this.versionTable = versionTable;
   }
 
   public static WorkspaceDataset get(StructuredTableContext context) {
+    StructuredTableId tableId = TABLE_ID;
     try {
-      StructuredTable table = context.getTable(TABLE_ID);
-      return new WorkspaceDataset(table);
+      StructuredTable table = context.getTable(tableId);
+      tableId = SCOPE_TABLE_ID;
+      StructuredTable scopeTable = context.getTable(tableId);
+      tableId = VERSION_TABLE_ID;
+      StructuredTable versionTable = context.getTable(tableId);
+      return new WorkspaceDataset(table, scopeTable, versionTable);
     } catch (TableNotFoundException e) {
       throw new IllegalStateException(String.format(
-        "System table '%s' does not exist. Please check your system environment.", TABLE_ID.getName()), e);
+        "System table '%s' does not exist. Please check your system environment.", tableId.getName()), e);
     }
   }
 
@@ -130,6 +183,7 @@ public class WorkspaceDataset {
       .setType(meta.getType())
       .build();
     table.upsert(toFields(workspace));
+    scopeTable.upsert(toScopeFields(workspace));
     return id;
   }
 
@@ -143,6 +197,9 @@ public class WorkspaceDataset {
     Workspace existing = readWorkspace(id);
     long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
     Workspace.Builder updated = Workspace.builder(id, meta.getName());
+    if (existing != null && !existing.getScope().equals(meta.getScope())) {
+      scopeTable.delete(getScopeKey(id, existing.getScope()));
+    }
     if (existing != null) {
       updated.setCreated(existing.getCreated())
         .setData(existing.getData())
@@ -150,11 +207,18 @@ public class WorkspaceDataset {
     } else {
       updated.setCreated(now);
     }
+    // A workspace with the same id might have been deleted along with its data, and a different type changes the
+    // records the data is read as.
+    if (existing == null || existing.getType() != meta.getType()) {
+      incrementDataVersion(id);
+    }
     updated.setUpdated(now)
       .setScope(meta.getScope())
       .setProperties(meta.getProperties())
       .setType(meta.getType());
-    table.upsert(toFields(updated.build()));
+    Workspace workspace = updated.build();
+    table.upsert(toFields(workspace));
+    scopeTable.upsert(toScopeFields(workspace));
   }
 
   /**
@@ -172,6 +236,32 @@ public class WorkspaceDataset {
     return workspace;
   }
 
+  /**
+   * Get information about the workspace, without reading its data, which is null in the workspace returned.
+   *
+   * @param id the workspace id
+   * @return information about the workspace
+   * @throws WorkspaceNotFoundException if the workspace does not exist
+   */
+  public Workspace getWorkspaceWithoutData(NamespacedId id) throws WorkspaceNotFoundException, IOException {
+    Optional<StructuredRow> row = table.read(getKey(id), META_COLUMNS);
+    if (!row.isPresent()) {
+      throw new WorkspaceNotFoundException(String.format("Workspace '%s' does not exist.", id.getId()));
+    }
+    return readWorkspace(row.get());
+  }
+
+  /**
+   * Get the version of the data of the workspace, which is different every time the data is written.
+   *
+   * @param id the workspace id
+   * @return version of the data, 0 if the data has never been written
+   */
+  public long getDataVersion(NamespacedId id) throws IOException {
+    Optional<StructuredRow> row = versionTable.read(getKey(id));
+    return row.map(r -> r.getLong(VERSION_COL)).orElse(0L);
+  }
+
   /**
    * Checks if a workspace exists.
    *
@@ -189,23 +279,70 @@ public class WorkspaceDataset {
    * @return List of workspaces.
    */
   public List<WorkspaceIdentifier> listWorkspaces(Namespace namespace, String scope) throws IOException {
+    return listWorkspaces(namespace, scope, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Lists a page of the workspaces registered for a scope, ordered by their id. Only the scope index is read,
+   * so the time it takes doesn't depend on the size of the data of the workspaces. Workspaces created before the
+   * index was added are only listed once {@link #indexScopes()} has been called.
+   *
+   * @param namespace the namespace of the workspaces
+   * @param scope the scope of the workspaces
+   * @param after id of the last workspace of the previous page, or null for the first page
+   * @param limit maximum number of workspaces to list
+   * @return List of workspaces.
+   */
+  public List<WorkspaceIdentifier> listWorkspaces(Namespace namespace, String scope, @Nullable String after,
+                                                  int limit) throws IOException {
     List<WorkspaceIdentifier> values = new ArrayList<>();
-    List<Field<?>> namespaceKey = new ArrayList<>(2);
-    namespaceKey.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
-    namespaceKey.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
-    Range range = Range.singleton(namespaceKey);
-    try (CloseableIterator<StructuredRow> rowIter = table.scan(range, Integer.MAX_VALUE)) {
+    List<Field<?>> scopeKey = getScopeKey(namespace, scope);
+    Range range;
+    if (after == null) {
+      range = Range.singleton(scopeKey);
+    } else {
+      List<Field<?>> begin = new ArrayList<>(scopeKey);
+      begin.add(Fields.stringField(ID_COL, after));
+      range = Range.create(begin, Range.Bound.EXCLUSIVE, scopeKey, Range.Bound.INCLUSIVE);
+    }
+    try (CloseableIterator<StructuredRow> rowIter = scopeTable.scan(range, limit)) {
       while (rowIter.hasNext()) {
         StructuredRow row = rowIter.next();
-        Workspace workspace = readWorkspace(row);
-        if (scope.equals(workspace.getScope())) {
-          values.add(new WorkspaceIdentifier(workspace.getNamespacedId().getId(), workspace.getName()));
-        }
+        values.add(new WorkspaceIdentifier(row.getString(ID_COL), row.getString(NAME_COL)));
       }
     }
     return values;
   }
 
+  /**
+   * Indexes by scope the workspaces created before the index was added, unless they have already been indexed.
+   * Workspaces created afterwards are indexed when they are written, so this only scans the table once, and is
+   * meant to be called when the service starts rather than when workspaces are listed.
+   *
+   * @return true if the workspaces were indexed, false if they had already been indexed.
+   */
+  public boolean indexScopes() throws IOException {
+    List<Field<?>> marker = getScopeKey(new NamespacedId(new Namespace(INDEXED_MARKER, 0L), INDEXED_MARKER),
+                                        INDEXED_MARKER);
+    if (scopeTable.read(marker).isPresent()) {
+      return false;
+    }
+    try (CloseableIterator<StructuredRow> rowIter = table.scan(Range.all(), Integer.MAX_VALUE)) {
+      while (rowIter.hasNext()) {
+        StructuredRow row = rowIter.next();
+        Namespace namespace = new Namespace(row.getString(NAMESPACE_COL), row.getLong(GENERATION_COL));
+        List<Field<?>> fields = getScopeKey(new NamespacedId(namespace, row.getString(ID_COL)),
+                                            row.getString(SCOPE_COL));
+        fields.add(Fields.stringField(NAME_COL, row.getString(NAME_COL)));
+        scopeTable.upsert(fields);
+      }
+    }
+    List<Field<?>> fields = new ArrayList<>(marker);
+    fields.add(Fields.stringField(NAME_COL, INDEXED_MARKER));
+    scopeTable.upsert(fields);
+    return true;
+  }
+
   /**
    * Update the properties of the specified workspace.
    *
@@ -215,12 +352,7 @@ public class WorkspaceDataset {
    */
   public void updateWorkspaceProperties(NamespacedId id,
                                         Map<String, String> properties) throws WorkspaceNotFoundException, IOException {
-    Workspace existing = getWorkspace(id);
-    Workspace updated = Workspace.builder(existing)
-      .setProperties(properties)
-      .setUpdated(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()))
-      .build();
-    table.upsert(toFields(updated));
+    updateWorkspaceColumn(id, Fields.stringField(PROPERTIES_COL, GSON.toJson(properties)));
   }
 
   /**
@@ -231,12 +363,7 @@ public class WorkspaceDataset {
    * @throws WorkspaceNotFoundException if the workspace does not exist
    */
   public void updateWorkspaceRequest(NamespacedId id, Request request) throws WorkspaceNotFoundException, IOException {
-    Workspace existing = getWorkspace(id);
-    Workspace updated = Workspace.builder(existing)
-      .setRequest(request)
-      .setUpdated(System.currentTimeMillis() / 1000)
-      .build();
-    table.upsert(toFields(updated));
+    updateWorkspaceColumn(id, Fields.stringField(REQUEST_COL, request == null ? null : GSON.toJson(request)));
   }
 
   /**
@@ -255,6 +382,7 @@ public class WorkspaceDataset {
       .setUpdated(System.currentTimeMillis() / 1000)
       .build();
     table.upsert(toFields(updated));
+    incrementDataVersion(id);
   }
 
   /**
@@ -263,34 +391,53 @@ public class WorkspaceDataset {
    * @param id to be deleted.
    */
   public void deleteWorkspace(NamespacedId id) throws IOException {
+    Optional<StructuredRow> row = table.read(getKey(id), Collections.singletonList(SCOPE_COL));
+    if (row.isPresent()) {
+      scopeTable.delete(getScopeKey(id, row.get().getString(SCOPE_COL)));
+    }
     table.delete(getKey(id));
+    // Only releases the cached records, which can't be read once the data version is incremented.
+    SampleCache.getInstance().invalidate(id);
   }
 
   /**
    * Deletes a workspaces that have the specified scope.
    *
-   * TODO: (CDAP-14692) make sure scope is indexed so this doesn't require a full table scan
-   *
    * @param scope to be deleted
    * @return number of workspaces deleted
    */
   public int deleteScope(Namespace namespace, String scope) throws IOException {
-    List<Field<?>> key = new ArrayList<>(2);
-    key.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
-    key.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
-    Range range = Range.singleton(key);
-    try (CloseableIterator<StructuredRow> rowIter = table.scan(range, Integer.MAX_VALUE)) {
-      int count = 0;
-      while (rowIter.hasNext()) {
-        StructuredRow row = rowIter.next();
-        Workspace workspace = readWorkspace(row);
-        if (scope.equals(workspace.getScope())) {
-          deleteWorkspace(workspace.getNamespacedId());
-          count++;
-        }
-      }
-      return count;
+    List<WorkspaceIdentifier> workspaces = listWorkspaces(namespace, scope);
+    for (WorkspaceIdentifier workspace : workspaces) {
+      NamespacedId id = new NamespacedId(namespace, workspace.getId());
+      scopeTable.delete(getScopeKey(id, scope));
+      table.delete(getKey(id));
+      // Only releases the cached records, which can't be read once the data version is incremented.
+      SampleCache.getInstance().invalidate(id);
     }
+    return workspaces.size();
+  }
+
+  /**
+   * Updates a column of the workspace, along with the time it was updated, without reading or writing the other
+   * columns. The version of the data is kept, so the records of the workspace that are cached are still used.
+   */
+  private void updateWorkspaceColumn(NamespacedId id, Field<?> column) throws WorkspaceNotFoundException, IOException {
+    Optional<StructuredRow> row = table.read(getKey(id), Collections.singletonList(UPDATED_COL));
+    if (!row.isPresent()) {
+      throw new WorkspaceNotFoundException(String.format("Workspace '%s' does not exist.", id.getId()));
+    }
+    long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    List<Field<?>> fields = getKey(id);
+    fields.add(column);
+    fields.add(Fields.longField(UPDATED_COL, now));
+    table.upsert(fields);
+  }
+
+  private void incrementDataVersion(NamespacedId id) throws IOException {
+    List<Field<?>> fields = getKey(id);
+    fields.add(Fields.longField(VERSION_COL, getDataVersion(id) + 1));
+    versionTable.upsert(fields);
   }
 
   private List<Field<?>> toFields(Workspace workspace) {
@@ -315,6 +462,12 @@ public class WorkspaceDataset {
     return fields;
   }
 
+  private List<Field<?>> toScopeFields(Workspace workspace) {
+    List<Field<?>> fields = getScopeKey(workspace.getNamespacedId(), workspace.getScope());
+    fields.add(Fields.stringField(NAME_COL, workspace.getName()));
+    return fields;
+  }
+
   @Nullable
   private Workspace readWorkspace(NamespacedId id) throws IOException {
     Optional<StructuredRow> row = table.read(getKey(id));
@@ -351,4 +504,18 @@ public class WorkspaceDataset {
     return keyFields;
   }
 
+  private List<Field<?>> getScopeKey(Namespace namespace, String scope) {
+    List<Field<?>> keyFields = new ArrayList<>(4);
+    keyFields.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
+    keyFields.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
+    keyFields.add(Fields.stringField(SCOPE_COL, scope));
+    return keyFields;
+  }
+
+  private List<Field<?>> getScopeKey(NamespacedId id, String scope) {
+    List<Field<?>> keyFields = getScopeKey(id.getNamespace(), scope);
+    keyFields.add(Fields.stringField(ID_COL, id.getId()));
+    return keyFields;
+  }
+
 }
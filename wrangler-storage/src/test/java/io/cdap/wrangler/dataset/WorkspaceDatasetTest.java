@@ -39,6 +39,7 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -53,11 +54,15 @@ public class WorkspaceDatasetTest extends SystemAppTestBase {
   @Before
   public void setupTest() throws Exception {
     getStructuredTableAdmin().create(WorkspaceDataset.TABLE_SPEC);
+    getStructuredTableAdmin().create(WorkspaceDataset.SCOPE_TABLE_SPEC);
+    getStructuredTableAdmin().create(WorkspaceDataset.VERSION_TABLE_SPEC);
   }
 
   @After
   public void cleanupTest() throws Exception {
     getStructuredTableAdmin().drop(WorkspaceDataset.TABLE_SPEC.getTableId());
+    getStructuredTableAdmin().drop(WorkspaceDataset.SCOPE_TABLE_SPEC.getTableId());
+    getStructuredTableAdmin().drop(WorkspaceDataset.VERSION_TABLE_SPEC.getTableId());
   }
   
   @Test
@@ -120,6 +125,53 @@ public class WorkspaceDatasetTest extends SystemAppTestBase {
     Assert.assertTrue(call(ws -> ws.listWorkspaces(namespace, scope2).isEmpty()));
   }
 
+  @Test
+  public void testPagination() {
+    Namespace namespace = new Namespace("c0", 10L);
+    for (String id : new String[] { "c", "a", "d", "b" }) {
+      run(ws -> ws.writeWorkspaceMeta(new NamespacedId(namespace, id), WorkspaceMeta.builder("name" + id).build()));
+    }
+    // moving a workspace to another scope removes it from the listing of its former scope
+    run(ws -> ws.writeWorkspaceMeta(new NamespacedId(namespace, "d"), WorkspaceMeta.builder("named")
+      .setScope("other")
+      .build()));
+
+    Assert.assertEquals(Arrays.asList(new WorkspaceIdentifier("a", "namea"), new WorkspaceIdentifier("b", "nameb")),
+                        call(ws -> ws.listWorkspaces(namespace, WorkspaceDataset.DEFAULT_SCOPE, null, 2)));
+    Assert.assertEquals(Collections.singletonList(new WorkspaceIdentifier("c", "namec")),
+                        call(ws -> ws.listWorkspaces(namespace, WorkspaceDataset.DEFAULT_SCOPE, "b", 2)));
+    Assert.assertTrue(call(ws -> ws.listWorkspaces(namespace, WorkspaceDataset.DEFAULT_SCOPE, "c", 2)).isEmpty());
+    Assert.assertEquals(Collections.singletonList(new WorkspaceIdentifier("d", "named")),
+                        call(ws -> ws.listWorkspaces(namespace, "other")));
+
+    Assert.assertEquals(3, (int) call(ws -> ws.deleteScope(namespace, WorkspaceDataset.DEFAULT_SCOPE)));
+    Assert.assertTrue(call(ws -> ws.hasWorkspace(new NamespacedId(namespace, "d"))));
+    Assert.assertFalse(call(ws -> ws.hasWorkspace(new NamespacedId(namespace, "a"))));
+  }
+
+  @Test
+  public void testIndexScopes() throws Exception {
+    Namespace ns1 = new Namespace("c0", 10L);
+    Namespace ns2 = new Namespace("c1", 0L);
+    run(ws -> ws.writeWorkspaceMeta(new NamespacedId(ns1, "a"), WorkspaceMeta.builder("namea").build()));
+    run(ws -> ws.writeWorkspaceMeta(new NamespacedId(ns2, "b"), WorkspaceMeta.builder("nameb")
+      .setScope("other")
+      .build()));
+
+    // workspaces written before the index was added are not listed until they are indexed
+    getStructuredTableAdmin().drop(WorkspaceDataset.SCOPE_TABLE_SPEC.getTableId());
+    getStructuredTableAdmin().create(WorkspaceDataset.SCOPE_TABLE_SPEC);
+    Assert.assertTrue(call(ws -> ws.listWorkspaces(ns1, WorkspaceDataset.DEFAULT_SCOPE)).isEmpty());
+    Assert.assertTrue(call(ws -> ws.listWorkspaces(ns2, "other")).isEmpty());
+
+    Assert.assertTrue(call(WorkspaceDataset::indexScopes));
+    Assert.assertFalse(call(WorkspaceDataset::indexScopes));
+    Assert.assertEquals(Collections.singletonList(new WorkspaceIdentifier("a", "namea")),
+                        call(ws -> ws.listWorkspaces(ns1, WorkspaceDataset.DEFAULT_SCOPE)));
+    Assert.assertEquals(Collections.singletonList(new WorkspaceIdentifier("b", "nameb")),
+                        call(ws -> ws.listWorkspaces(ns2, "other")));
+  }
+
   @Test
   public void testNamespaceIsolation() {
     Namespace ns1 = new Namespace("n1", 10L);
@@ -270,6 +322,18 @@ public class WorkspaceDatasetTest extends SystemAppTestBase {
     Assert.assertEquals(expected, actual);
     Assert.assertEquals(Collections.singletonList(workspaceId), call(ws -> ws.listWorkspaces(ns, "default")));
 
+    // test updating properties and request keeps the data
+    run(ws -> ws.updateWorkspaceProperties(id, properties));
+    run(ws -> ws.updateWorkspaceRequest(id, null));
+    actual = call(ws -> ws.getWorkspace(id));
+    expected = Workspace.builder(expected)
+      .setUpdated(actual.getUpdated())
+      .setProperties(properties)
+      .setRequest(null)
+      .build();
+    Assert.assertEquals(expected, actual);
+    Assert.assertArrayEquals(data, actual.getData());
+
     // delete workspace
     run(ws -> ws.deleteWorkspace(id));
     Assert.assertTrue(call(ws -> ws.listWorkspaces(ns, "default").isEmpty()));
@@ -281,6 +345,38 @@ public class WorkspaceDatasetTest extends SystemAppTestBase {
     }
   }
   
+  @Test
+  public void testDataVersion() {
+    Namespace ns = new Namespace("c0", 10L);
+    NamespacedId id = new NamespacedId(ns, "id");
+    WorkspaceMeta meta = WorkspaceMeta.builder("name").setType(DataType.TEXT).build();
+
+    run(ws -> ws.writeWorkspaceMeta(id, meta));
+    long created = call(ws -> ws.getDataVersion(id));
+
+    // Writing the data, even twice within the same second, gives it a new version.
+    run(ws -> ws.updateWorkspaceData(id, DataType.TEXT, new byte[]{0}));
+    run(ws -> ws.updateWorkspaceData(id, DataType.TEXT, new byte[]{1}));
+    long written = call(ws -> ws.getDataVersion(id));
+    Assert.assertEquals(created + 2, written);
+
+    // Updating the other columns keeps the version.
+    run(ws -> ws.updateWorkspaceProperties(id, Collections.singletonMap("k", "v")));
+    run(ws -> ws.updateWorkspaceRequest(id, null));
+    run(ws -> ws.writeWorkspaceMeta(id, meta));
+    Assert.assertEquals(written, (long) call(ws -> ws.getDataVersion(id)));
+
+    // Changing the type changes how the data is read.
+    run(ws -> ws.writeWorkspaceMeta(id, WorkspaceMeta.builder("name").setType(DataType.BINARY).build()));
+    long retyped = call(ws -> ws.getDataVersion(id));
+    Assert.assertEquals(written + 1, retyped);
+
+    // A workspace created again with the same id doesn't have any version of the deleted one.
+    run(ws -> ws.deleteWorkspace(id));
+    run(ws -> ws.writeWorkspaceMeta(id, meta));
+    Assert.assertTrue(call(ws -> ws.getDataVersion(id)) > retyped);
+  }
+
   private <T> T call(WorkspaceCallable<T> callable) {
     return TransactionRunners.run(getTransactionRunner(), context -> {
       WorkspaceDataset ws = WorkspaceDataset.get(context);
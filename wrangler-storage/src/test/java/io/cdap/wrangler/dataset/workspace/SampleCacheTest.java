@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.dataset.workspace;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.Namespace;
+import io.cdap.wrangler.proto.NamespacedId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link SampleCache}.
+ */
+public class SampleCacheTest {
+  private static final Namespace NAMESPACE = new Namespace("default", 0L);
+
+  @Test
+  public void testCachedRecordsAreCopied() throws Exception {
+    SampleCache cache = new SampleCache(Long.MAX_VALUE);
+    NamespacedId id = new NamespacedId(NAMESPACE, "ws");
+    AtomicInteger loads = new AtomicInteger();
+
+    List<Row> rows = cache.get(id, 1L, 10, () -> load(loads, 20)).getRows();
+    rows.get(0).setValue(0, "modified");
+    rows.get(1).add("extra", 1);
+
+    rows = cache.get(id, 1L, 5, () -> load(loads, 20)).getRows();
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(5, rows.size());
+    Assert.assertEquals("value0", rows.get(0).getValue(0));
+    Assert.assertEquals(1, rows.get(1).length());
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+    Assert.assertEquals(0.5d, cache.getHitRate(), 0.0001d);
+  }
+
+  @Test
+  public void testReload() throws Exception {
+    SampleCache cache = new SampleCache(Long.MAX_VALUE);
+    NamespacedId id = new NamespacedId(NAMESPACE, "ws");
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(id, 1L, 10, () -> load(loads, 10));
+    // More records than loaded.
+    Assert.assertEquals(20, cache.get(id, 1L, 20, () -> load(loads, 20)).getRows().size());
+    Assert.assertEquals(2, loads.get());
+    // Data of the workspace written since.
+    cache.get(id, 2L, 20, () -> load(loads, 20));
+    Assert.assertEquals(3, loads.get());
+    // Invalidated workspace.
+    cache.invalidate(id);
+    cache.get(id, 2L, 20, () -> load(loads, 20));
+    Assert.assertEquals(4, loads.get());
+
+    // All the records of the workspace are cached, even if more are requested.
+    NamespacedId small = new NamespacedId(NAMESPACE, "small");
+    cache.get(small, 1L, 10, () -> load(loads, 5));
+    Assert.assertEquals(5, cache.get(small, 1L, 100, () -> load(loads, 5)).getRows().size());
+    Assert.assertEquals(5, loads.get());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    long weight = SampleCache.estimate(load(new AtomicInteger(), 10));
+    SampleCache cache = new SampleCache(weight * 2);
+    AtomicInteger loads = new AtomicInteger();
+
+    for (String name : new String[] { "a", "b", "a", "c", "a", "b" }) {
+      cache.get(new NamespacedId(NAMESPACE, name), 1L, 10, () -> load(loads, 10));
+    }
+    // 'b' is evicted by 'c', as 'a' was used more recently.
+    Assert.assertEquals(4, loads.get());
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(weight * 2, cache.getWeight());
+
+    // Records larger than the cache are not cached.
+    cache.get(new NamespacedId(NAMESPACE, "large"), 1L, 100, () -> load(loads, 100));
+    Assert.assertEquals(2, cache.size());
+  }
+
+  private static List<Row> load(AtomicInteger loads, int count) {
+    loads.incrementAndGet();
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add(new Row("body", "value" + i));
+    }
+    return rows;
+  }
+}
@@ -66,7 +66,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -139,6 +141,12 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> {
         validateInputSchema(iSchema, collector);
       }
 
+      if (!config.containsMacro(Config.NAME_WORKERS) && config.getWorkers() < 1) {
+        collector.addFailure(String.format("Number of workers must be at least 1, but is %d.", config.getWorkers()),
+                             "Set the number of workers to 1 or more.")
+          .withConfigProperty(Config.NAME_WORKERS);
+      }
+
       String directives = config.directives;
       if (config.udds != null && !config.udds.trim().isEmpty()) {
         if (config.containsMacro("directives")) {
@@ -311,8 +319,13 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> {
 
     try {
       // Create the pipeline executor with context being set.
-      pipeline = new RecipePipelineExecutor();
-      pipeline.initialize(recipe, ctx);
+      RecipePipelineExecutor executor = new RecipePipelineExecutor(1, config.getWorkers());
+      executor.initialize(recipe, ctx);
+      List<String> columns = getInputColumns(context.getInputSchema());
+      if (columns != null) {
+        executor.bind(columns);
+      }
+      pipeline = executor;
     } catch (Exception e) {
       throw new Exception(
         String.format("Stage:%s - %s", getContext().getStageName(), e.getMessage()), e
@@ -323,6 +336,29 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> {
     errorCounter = 0;
   }
 
+  /**
+   * Determines the columns of the rows created from the input records, following {@link #transform}.
+   *
+   * @param inputSchema of the input records, null if not known.
+   * @return columns of the rows or null if they can't be determined.
+   */
+  @Nullable
+  private List<String> getInputColumns(@Nullable Schema inputSchema) {
+    if ("*".equalsIgnoreCase(config.field)) {
+      if (inputSchema == null || inputSchema.getFields() == null) {
+        return null;
+      }
+      List<String> columns = new ArrayList<>();
+      for (Schema.Field field : inputSchema.getFields()) {
+        columns.add(field.getName());
+      }
+      return columns;
+    } else if ("#".equalsIgnoreCase(config.field)) {
+      return inputSchema == null ? null : Collections.singletonList(inputSchema.getRecordName());
+    }
+    return Collections.singletonList(config.field);
+  }
+
   @Override
   public void destroy() {
     super.destroy();
@@ -519,6 +555,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> {
     static final String NAME_DIRECTIVES = "directives";
     static final String NAME_UDD = "udd";
     static final String NAME_SCHEMA = "schema";
+    static final String NAME_WORKERS = "workers";
 
     @Name(NAME_PRECONDITION)
     @Description("Precondition expression specifying filtering before applying directives (true to filter)")
@@ -553,14 +590,31 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> {
     @Macro
     private final String schema;
 
+    @Name(NAME_WORKERS)
+    @Description("Number of threads that apply the directives to the rows a record is split into, such as the " +
+      "lines of a file. Directives that depend on previous rows, like parsing with a header, always use 1.")
+    @Macro
+    @Nullable
+    private final Integer workers;
+
     public Config(String precondition, String directives, String udds,
                   String field, int threshold, String schema) {
+      this(precondition, directives, udds, field, threshold, schema, null);
+    }
+
+    public Config(String precondition, String directives, String udds,
+                  String field, int threshold, String schema, @Nullable Integer workers) {
       this.precondition = precondition;
       this.directives = directives;
       this.udds = udds;
       this.field = field;
       this.threshold = threshold;
       this.schema = schema;
+      this.workers = workers;
+    }
+
+    int getWorkers() {
+      return workers == null ? 1 : workers;
     }
   }
 }